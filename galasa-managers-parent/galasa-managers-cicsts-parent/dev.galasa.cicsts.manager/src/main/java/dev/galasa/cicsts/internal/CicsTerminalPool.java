@@ -0,0 +1,407 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.ICredentials;
+import dev.galasa.ICredentialsUsernamePassword;
+import dev.galasa.cicsts.CicstsManagerException;
+import dev.galasa.cicsts.ICicsRegion;
+import dev.galasa.cicsts.spi.CicsTerminalImpl;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.zos.ZosManagerException;
+import dev.galasa.zos3270.TerminalInterruptedException;
+import dev.galasa.zos3270.spi.Screen;
+import dev.galasa.zos3270.spi.Terminal;
+
+/**
+ * Keeps the CICS terminal sessions that are still logged on when a run has
+ * finished with them, so the test classes that follow in the same JVM can lease
+ * them instead of logging on again.
+ * <p>
+ * The sessions are kept for each region and user. A session is reset with
+ * CLEAR when it is returned and again when it is leased, and is discarded if
+ * the reset does not give a blank screen or the session has been idle for too
+ * long. Each kept session holds a numbered slot for the region in the DSS, so
+ * the pools of concurrent runs together do not hold more sessions for a region
+ * than cicsts.terminal.pool.max.sessions. A slot belongs to the run that last
+ * used the pool, and is freed by resource management if the run ends without
+ * freeing it, for example because the JVM was killed.
+ * </p>
+ */
+public class CicsTerminalPool {
+
+    private static final Log              logger   = LogFactory.getLog(CicsTerminalPool.class);
+
+    private static final CicsTerminalPool instance = new CicsTerminalPool();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(instance::discardAll, "cicsts-terminal-pool"));
+    }
+
+    private final HashMap<String, ArrayDeque<PooledSession>> sessions = new HashMap<>();
+    private final IdentityHashMap<Screen, Slot>               slots    = new IdentityHashMap<>();
+
+    private volatile IDynamicStatusStoreService lastDss;
+
+    private static class PooledSession {
+        private final String           key;
+        private final String           applid;
+        private final CicsTerminalImpl terminal;
+        private final long             idleSince = System.currentTimeMillis();
+
+        private PooledSession(String key, String applid, CicsTerminalImpl terminal) {
+            this.key = key;
+            this.applid = applid;
+            this.terminal = terminal;
+        }
+
+        private boolean idleFor(long maxIdle) {
+            return System.currentTimeMillis() - idleSince > maxIdle;
+        }
+    }
+
+    private static class Slot {
+        private final String applid;
+        private final String number;
+        private String       runName;
+
+        private Slot(String applid, String number, String runName) {
+            this.applid = applid;
+            this.number = number;
+            this.runName = runName;
+        }
+    }
+
+    CicsTerminalPool() {
+    }
+
+    public static CicsTerminalPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return the key of the sessions for the region, the logon providers sign
+     *         on with the default credentials of the zOS image so sessions are
+     *         only shared between terminals with the same user
+     */
+    public static String key(ICicsRegion region) throws CicstsManagerException {
+        String user = "";
+        try {
+            ICredentials credentials = region.getZosImage().getDefaultCredentials();
+            if (credentials instanceof ICredentialsUsernamePassword) {
+                user = ((ICredentialsUsernamePassword) credentials).getUsername();
+            }
+        } catch (ZosManagerException e) {
+            throw new CicstsManagerException("Unable to find the credentials used to log on to " + region, e);
+        }
+        return region.getApplid() + "/" + user;
+    }
+
+    /**
+     * Lease a logged on session, the returned terminal is passed to a new
+     * {@link CicsTerminalImpl} that takes over the session
+     *
+     * @param key         - the key of the region and user, see
+     *                    {@link #key(ICicsRegion)}
+     * @param dss         - the DSS of the run leasing the session
+     * @param runName     - the run leasing the session
+     * @param maxSessions - the most sessions that can be kept for the region
+     *                    across all the runs
+     * @param maxIdle     - the milliseconds a session can be idle before it is
+     *                    discarded
+     * @return the terminal holding the session, or null if there is not a
+     *         session for the key
+     */
+    public Terminal lease(String key, IDynamicStatusStoreService dss, String runName, int maxSessions,
+            long maxIdle) {
+        this.lastDss = dss;
+        tidy(dss, runName, maxSessions, maxIdle);
+
+        while (true) {
+            PooledSession session;
+            synchronized (this) {
+                ArrayDeque<PooledSession> idle = this.sessions.get(key);
+                if (idle == null || idle.isEmpty()) {
+                    return null;
+                }
+                session = idle.pollLast();
+            }
+
+            if (reset(session.terminal)) {
+                return session.terminal;
+            }
+            discard(session, dss, "the session failed the reset");
+        }
+    }
+
+    /**
+     * Return a session to the pool. The terminal must have closed its terminal
+     * cache, and is disconnected by the caller if it is not taken
+     *
+     * @param key         - the key of the region and user, see
+     *                    {@link #key(ICicsRegion)}
+     * @param terminal    - the terminal holding the session
+     * @param dss         - the DSS of the run returning the session
+     * @param runName     - the run returning the session
+     * @param maxSessions - the most sessions that can be kept for the region
+     *                    across all the runs
+     * @param maxIdle     - the milliseconds a session can be idle before it is
+     *                    discarded
+     * @return true if the session was kept
+     */
+    public boolean release(String key, CicsTerminalImpl terminal, IDynamicStatusStoreService dss, String runName,
+            int maxSessions, long maxIdle) {
+        this.lastDss = dss;
+        tidy(dss, runName, maxSessions, maxIdle);
+
+        String applid = terminal.getCicsRegion().getApplid();
+        if (maxSessions > 0 && reset(terminal) && holdSlot(terminal.getScreen(), applid, dss, runName, maxSessions)) {
+            synchronized (this) {
+                this.sessions.computeIfAbsent(key, k -> new ArrayDeque<>())
+                        .addLast(new PooledSession(key, applid, terminal));
+            }
+            logger.debug("CICS Terminal " + terminal.getId() + " returned to the pool for " + key);
+            return true;
+        }
+
+        freeSlot(terminal.getScreen(), dss);
+        return false;
+    }
+
+    /**
+     * Reset the session to a blank screen
+     *
+     * @return true if the session is usable
+     */
+    private boolean reset(CicsTerminalImpl terminal) {
+        try {
+            if (!terminal.isConnected()) {
+                return false;
+            }
+
+            terminal.clear();
+            terminal.waitForKeyboard();
+
+            // *** CICS blanks the screen for CLEAR, anything else is not a screen we know
+            return terminal.retrieveScreen().trim().isEmpty();
+        } catch (TerminalInterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            logger.debug("Unable to reset CICS Terminal " + terminal.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Discard the sessions that have been idle for too long, and move the slots
+     * of the others to the run, so they are not freed when the run that returned
+     * them ends
+     */
+    private void tidy(IDynamicStatusStoreService dss, String runName, int maxSessions, long maxIdle) {
+        ArrayList<PooledSession> expired = new ArrayList<>();
+        ArrayList<PooledSession> kept = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<PooledSession> idle : this.sessions.values()) {
+                Iterator<PooledSession> iterator = idle.iterator();
+                while (iterator.hasNext()) {
+                    PooledSession session = iterator.next();
+                    if (session.idleFor(maxIdle)) {
+                        iterator.remove();
+                        expired.add(session);
+                    } else {
+                        kept.add(session);
+                    }
+                }
+            }
+        }
+
+        for (PooledSession session : expired) {
+            discard(session, dss, "the session was idle for too long");
+        }
+
+        for (PooledSession session : kept) {
+            if (holdSlot(session.terminal.getScreen(), session.applid, dss, runName, maxSessions)) {
+                continue;
+            }
+
+            boolean removed;
+            synchronized (this) {
+                ArrayDeque<PooledSession> idle = this.sessions.get(session.key);
+                removed = idle != null && idle.remove(session);
+            }
+            if (removed) {
+                discard(session, dss, "there is no free session slot for the region");
+            }
+        }
+    }
+
+    private void discardAll() {
+        ArrayList<PooledSession> all = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<PooledSession> idle : this.sessions.values()) {
+                all.addAll(idle);
+            }
+            this.sessions.clear();
+        }
+
+        for (PooledSession session : all) {
+            discard(session, this.lastDss, "the JVM is ending");
+        }
+    }
+
+    private void discard(PooledSession session, IDynamicStatusStoreService dss, String reason) {
+        logger.info("Discarding the pooled CICS Terminal " + session.terminal.getId() + " to " + session.applid + ", "
+                + reason);
+        try {
+            session.terminal.disconnect();
+        } catch (TerminalInterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        freeSlot(session.terminal.getScreen(), dss);
+    }
+
+    /**
+     * Make sure the session holds a slot for the region that belongs to the run,
+     * taking over the slot from the run that returned the session if it is still
+     * held, otherwise reserving a free one
+     *
+     * @return true if the session holds a slot
+     */
+    private boolean holdSlot(Screen screen, String applid, IDynamicStatusStoreService dss, String runName,
+            int maxSessions) {
+        Slot slot;
+        synchronized (this) {
+            slot = this.slots.get(screen);
+        }
+
+        try {
+            if (slot != null) {
+                if (slot.runName.equals(runName) || adoptSlot(slot, dss, runName)) {
+                    return true;
+                }
+
+                // *** Resource management freed the slot when the run that held it ended
+                synchronized (this) {
+                    this.slots.remove(screen);
+                }
+            }
+
+            slot = reserveSlot(applid, dss, runName, maxSessions);
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to reserve a pooled session slot for " + applid + ", the terminal will not be pooled",
+                    e);
+            return false;
+        }
+
+        if (slot == null) {
+            return false;
+        }
+
+        synchronized (this) {
+            this.slots.put(screen, slot);
+        }
+        return true;
+    }
+
+    private boolean adoptSlot(Slot slot, IDynamicStatusStoreService dss, String runName)
+            throws DynamicStatusStoreException {
+        HashMap<String, String> otherProps = new HashMap<>();
+        otherProps.put(runKey(runName, slot.applid, slot.number), "active");
+        if (!dss.putSwap(slotKey(slot.applid, slot.number), slot.runName, runName, otherProps)) {
+            return false;
+        }
+
+        dss.delete(runKey(slot.runName, slot.applid, slot.number));
+        slot.runName = runName;
+        return true;
+    }
+
+    private Slot reserveSlot(String applid, IDynamicStatusStoreService dss, String runName, int maxSessions)
+            throws DynamicStatusStoreException {
+        Map<String, String> usedSlots = dss.getPrefix(slotKey(applid, ""));
+        for (int number = 0; number < maxSessions; number++) {
+            String key = slotKey(applid, Integer.toString(number));
+            if (usedSlots.containsKey(key)) {
+                continue;
+            }
+
+            // *** Another run may have taken the slot since it was listed, so try the next one
+            HashMap<String, String> otherProps = new HashMap<>();
+            otherProps.put(runKey(runName, applid, Integer.toString(number)), "active");
+            if (dss.putSwap(key, null, runName, otherProps)) {
+                return new Slot(applid, Integer.toString(number), runName);
+            }
+        }
+        return null;
+    }
+
+    private void freeSlot(Screen screen, IDynamicStatusStoreService dss) {
+        Slot slot;
+        synchronized (this) {
+            slot = this.slots.remove(screen);
+        }
+        if (slot == null) {
+            return;
+        }
+
+        if (dss == null) {
+            logger.warn("Unable to free the pooled session slot for " + slot.applid + ", no DSS");
+            return;
+        }
+
+        try {
+            deleteDss(slot.runName, slot.applid, slot.number, dss);
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Failed to free the pooled session slot for " + slot.applid
+                    + ", leaving for resource management to clean up", e);
+        }
+    }
+
+    /**
+     * Free a pooled session slot, used by resource management for the slots of
+     * runs that have ended
+     *
+     * @param runName - the run that holds the slot
+     * @param applid  - the region of the slot
+     * @param number  - the slot number
+     * @param dss     - the CICS TS Manager DSS
+     * @throws DynamicStatusStoreException if the DSS fails
+     */
+    public static void deleteDss(String runName, String applid, String number, IDynamicStatusStoreService dss)
+            throws DynamicStatusStoreException {
+        HashSet<String> delProps = new HashSet<>();
+        delProps.add(runKey(runName, applid, number));
+
+        // *** Another run may have taken over the slot
+        String slotKey = slotKey(applid, number);
+        if (runName.equals(dss.get(slotKey))) {
+            delProps.add(slotKey);
+        }
+        dss.delete(delProps);
+    }
+
+    private static String slotKey(String applid, String number) {
+        return "terminal.pool.slot." + applid + "." + number;
+    }
+
+    private static String runKey(String runName, String applid, String number) {
+        return "terminal.pool.run." + runName + "." + applid + "." + number;
+    }
+
+}
@@ -10,6 +10,9 @@ import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import javax.validation.constraints.NotNull;
 
@@ -27,7 +30,10 @@ import dev.galasa.cicsts.ICicsTerminal;
 import dev.galasa.cicsts.internal.dse.DseProvisioningImpl;
 import dev.galasa.cicsts.internal.properties.CicstsPropertiesSingleton;
 import dev.galasa.cicsts.internal.properties.ExtraBundles;
+import dev.galasa.cicsts.internal.properties.LogonParallelism;
 import dev.galasa.cicsts.internal.properties.ProvisionType;
+import dev.galasa.cicsts.internal.properties.TerminalPoolMaxIdle;
+import dev.galasa.cicsts.internal.properties.TerminalPoolMaxSessions;
 import dev.galasa.cicsts.spi.CicsTerminalImpl;
 import dev.galasa.cicsts.spi.ICicsRegionLogonProvider;
 import dev.galasa.cicsts.spi.ICicsRegionProvisioned;
@@ -36,12 +42,16 @@ import dev.galasa.cicsts.spi.ICicstsManagerSpi;
 import dev.galasa.framework.spi.AbstractManager;
 import dev.galasa.framework.spi.AnnotatedField;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.GenerateAnnotatedField;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.ResourceUnavailableException;
 import dev.galasa.zos.spi.IZosManagerSpi;
 import dev.galasa.zos3270.TerminalInterruptedException;
+import dev.galasa.zos3270.spi.Terminal;
+import dev.galasa.zos3270.spi.TerminalConnector;
 
 @Component(service = { IManager.class })
 public class CicstsManagerImpl extends AbstractManager implements ICicstsManagerSpi {
@@ -60,6 +70,10 @@ public class CicstsManagerImpl extends AbstractManager implements ICicstsManager
 
     private String provisionType;
 
+    private IDynamicStatusStoreService dss;
+    private int poolMaxSessions;
+    private long poolMaxIdle;
+
     @Override
     public void initialise(@NotNull IFramework framework, @NotNull List<IManager> allManagers,
             @NotNull List<IManager> activeManagers, @NotNull Class<?> testClass) throws ManagerException {
@@ -74,6 +88,13 @@ public class CicstsManagerImpl extends AbstractManager implements ICicstsManager
         youAreRequired(allManagers, activeManagers);
 
         this.provisionType = ProvisionType.get();
+        this.poolMaxSessions = TerminalPoolMaxSessions.get();
+        this.poolMaxIdle = TimeUnit.SECONDS.toMillis(TerminalPoolMaxIdle.get());
+        try {
+            this.dss = framework.getDynamicStatusStoreService(NAMESPACE);
+        } catch (DynamicStatusStoreException e) {
+            throw new CicstsManagerException("Unable to request framework services", e);
+        }
         this.provisioners.add(new DseProvisioningImpl(this));
     }
 
@@ -173,7 +194,18 @@ public class CicstsManagerImpl extends AbstractManager implements ICicstsManager
         }
 
         try {
-            CicsTerminalImpl newTerminal = new CicsTerminalImpl(this, getFramework(), region);
+            CicsTerminalImpl newTerminal = null;
+            if (this.poolMaxSessions > 0) {
+                Terminal connection = CicsTerminalPool.getInstance().lease(CicsTerminalPool.key(region), this.dss,
+                        getFramework().getTestRunName(), this.poolMaxSessions, this.poolMaxIdle);
+                if (connection != null) {
+                    newTerminal = new CicsTerminalImpl(this, getFramework(), region, connection);
+                    logger.info("CICS Terminal " + newTerminal.getId() + " is using a logged on session from the pool");
+                }
+            }
+            if (newTerminal == null) {
+                newTerminal = new CicsTerminalImpl(this, getFramework(), region);
+            }
             this.terminals.add(newTerminal);
             return newTerminal;
         } catch (TerminalInterruptedException e) {
@@ -192,18 +224,49 @@ public class CicstsManagerImpl extends AbstractManager implements ICicstsManager
 
         // Start the autoconnect terminals
         logger.info("Connecting CICS Terminals");
-        for (ICicsTerminal terminal : this.terminals) {
-            try {
-                terminal.connectToCicsRegion();
-            } catch (CicstsManagerException e) {
-                throw new CicstsManagerException("Failed to connect to the " + terminal.getCicsRegion(), e);
+        // *** Terminals leased from the pool are already logged on
+        ArrayList<CicsTerminalImpl> connectTerminals = new ArrayList<>();
+        for (CicsTerminalImpl terminal : this.terminals) {
+            if (!terminal.isConnected()) {
+                connectTerminals.add(terminal);
+            }
+        }
+
+        Map<CicsTerminalImpl, Exception> failures;
+        try {
+            failures = TerminalConnector.connectAll(connectTerminals, LogonParallelism.get(),
+                    CicsTerminalImpl::connectToCicsRegion);
+        } catch (TerminalInterruptedException e) {
+            throw new CicstsManagerException("Interrupted whilst connecting the CICS Terminals", e);
+        }
+
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        // *** Report every terminal that failed, not just the first
+        CicstsManagerException failed = null;
+        for (Entry<CicsTerminalImpl, Exception> failure : failures.entrySet()) {
+            logger.error("Failed to connect CICS Terminal " + failure.getKey().getId() + " to the "
+                    + failure.getKey().getCicsRegion(), failure.getValue());
+            if (failed == null) {
+                failed = new CicstsManagerException("Failed to connect " + failures.size() + " of "
+                        + connectTerminals.size() + " CICS Terminals, first failure was to the "
+                        + failure.getKey().getCicsRegion(), failure.getValue());
+            } else {
+                failed.addSuppressed(failure.getValue());
             }
         }
+        throw failed;
     }
 
     @Override
     public void provisionStop() {
         for (CicsTerminalImpl terminal : this.terminals) {
+            terminal.closeTerminalCache();
+            if (returnToPool(terminal)) {
+                continue;
+            }
             try {
                 terminal.disconnect();
             } catch (TerminalInterruptedException e) { // NOSONAR - wish to hide disconnect errors
@@ -211,6 +274,27 @@ public class CicstsManagerImpl extends AbstractManager implements ICicstsManager
         }
     }
 
+    /**
+     * Keep the session of the terminal logged on for the test classes that
+     * follow, if the terminal pool is enabled
+     * 
+     * @return true if the pool has taken the session
+     */
+    private boolean returnToPool(CicsTerminalImpl terminal) {
+        if (this.poolMaxSessions <= 0) {
+            return false;
+        }
+
+        // *** Given to the pool even if disconnected, so it can free the slot of a leased session
+        try {
+            return CicsTerminalPool.getInstance().release(CicsTerminalPool.key(terminal.getCicsRegion()), terminal,
+                    this.dss, getFramework().getTestRunName(), this.poolMaxSessions, this.poolMaxIdle);
+        } catch (CicstsManagerException e) {
+            logger.warn("Unable to return CICS Terminal " + terminal.getId() + " to the pool", e);
+            return false;
+        }
+    }
+
     @Override
     public void registerProvisioner(ICicsRegionProvisioner provisioner) {
         if (this.provisioners.contains(provisioner)) {
@@ -0,0 +1,59 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.service.component.annotations.Component;
+
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IResourceManagement;
+import dev.galasa.framework.spi.IResourceManagementProvider;
+import dev.galasa.framework.spi.ResourceManagerException;
+
+@Component(service= {IResourceManagementProvider.class})
+public class CicstsResourceManagement implements IResourceManagementProvider {
+
+    private IFramework                   framework;
+    private IResourceManagement          resourceManagement;
+    private IDynamicStatusStoreService   dss;
+
+    private TerminalPoolResourceMonitor  terminalPoolResourceMonitor;
+
+    @Override
+    public boolean initialise(IFramework framework, IResourceManagement resourceManagement) throws ResourceManagerException {
+        this.framework = framework;
+        this.resourceManagement = resourceManagement;
+        try {
+            this.dss = this.framework.getDynamicStatusStoreService(CicstsManagerImpl.NAMESPACE);
+        } catch (Exception e) {
+            throw new ResourceManagerException("Unable to initialise CICS TS resource monitor", e);
+        }
+
+        terminalPoolResourceMonitor = new TerminalPoolResourceMonitor(framework, resourceManagement, dss);
+
+        return true;
+    }
+
+    @Override
+    public void start() {
+        this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(terminalPoolResourceMonitor, 
+                this.framework.getRandom().nextInt(20),
+                20, 
+                TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public void runFinishedOrDeleted(String runName) {
+        this.terminalPoolResourceMonitor.runFinishedOrDeleted(runName);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IResourceManagement;
+
+/**
+ * Frees the pooled CICS terminal session slots of runs that have ended without
+ * freeing them, see {@link CicsTerminalPool}
+ */
+public class TerminalPoolResourceMonitor implements Runnable {
+
+    private final IFramework                 framework;
+    private final IResourceManagement        resourceManagement;
+    private final IDynamicStatusStoreService dss;
+    private final Log                        logger = LogFactory.getLog(this.getClass());
+    private final Pattern                    slotRunPattern = Pattern.compile("^terminal\\.pool\\.run\\.(\\w+)\\.(\\w+)\\.(\\d+)$");
+
+    public TerminalPoolResourceMonitor(IFramework framework, 
+            IResourceManagement resourceManagement,
+            IDynamicStatusStoreService dss) {
+        this.framework          = framework;
+        this.resourceManagement = resourceManagement;
+        this.dss = dss;
+        this.logger.info("CICS TS terminal pool resource monitor initialised");
+    }
+
+    @Override
+    public void run() {
+        logger.info("Starting terminal pool slot search");
+        try {
+            //*** Find all the runs with slots
+            Map<String, String> slotRuns = dss.getPrefix("terminal.pool.run.");
+
+            Set<String> activeRunNames = this.framework.getFrameworkRuns().getActiveRunNames();
+
+            for(String key : slotRuns.keySet()) {
+                Matcher matcher = slotRunPattern.matcher(key);
+                if (matcher.find() && !activeRunNames.contains(matcher.group(1))) {
+                    discardSlot(matcher.group(1), matcher.group(2), matcher.group(3));
+                }
+            }
+        } catch(Exception e) {
+            logger.error("Failure during terminal pool slot scan",e);
+        }
+
+        this.resourceManagement.resourceManagementRunSuccessful();
+        logger.info("Finished terminal pool slot search");
+    }
+
+    public void runFinishedOrDeleted(String runName) {
+        try {
+            Map<String, String> slotRuns = dss.getPrefix("terminal.pool.run." + runName + ".");
+            for(String key : slotRuns.keySet()) {
+                Matcher matcher = slotRunPattern.matcher(key);
+                if (matcher.find()) {
+                    discardSlot(runName, matcher.group(2), matcher.group(3));
+                }
+            }
+        } catch(Exception e) {
+            logger.error("Failed to delete terminal pool slots for run " + runName);
+        }
+    }
+
+    private void discardSlot(String runName, String applid, String slot) {
+        logger.info("Discarding terminal pool slot " + slot + " for " + applid + " as run " + runName + " has gone");
+
+        try {
+            CicsTerminalPool.deleteDss(runName, applid, slot, dss);
+        } catch(Exception e) {
+            logger.error("Failed to discard terminal pool slot " + slot + " for " + applid + " as run " + runName);
+        }
+    }
+
+}
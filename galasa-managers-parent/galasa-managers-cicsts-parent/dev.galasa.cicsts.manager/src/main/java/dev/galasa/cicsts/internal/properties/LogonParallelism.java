@@ -0,0 +1,36 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal.properties;
+
+import dev.galasa.cicsts.CicstsManagerException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+
+/**
+ * CICS TS Terminal - Logon parallelism
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name cicsts.terminal.logon.parallelism
+ * 
+ * @galasa.description The number of CICS terminals that are connected and logged on at the same time during
+ * provisioning.  The logon providers must be able to log on several terminals at once if this is more than 1.
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 5
+ * 
+ * @galasa.valid_values 1 or more, 1 logs the terminals on one after another
+ * 
+ * @galasa.examples 
+ * <code>cicsts.terminal.logon.parallelism=10</code><br>
+ *
+ */
+public class LogonParallelism extends CpsProperties {
+
+    public static int get() throws CicstsManagerException {
+        return Math.max(1, getIntWithDefault(CicstsPropertiesSingleton.cps(), 5, "terminal.logon", "parallelism"));
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal.properties;
+
+import dev.galasa.cicsts.CicstsManagerException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+
+/**
+ * CICS TS Terminal - Pool maximum idle time
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name cicsts.terminal.pool.max.idle
+ * 
+ * @galasa.description The number of seconds a logged on CICS terminal session can wait in the pool before it is
+ * disconnected rather than reused.  Set it below the terminal timeout of the CICS region.
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 300
+ * 
+ * @galasa.valid_values 1 or more
+ * 
+ * @galasa.examples 
+ * <code>cicsts.terminal.pool.max.idle=60</code><br>
+ *
+ */
+public class TerminalPoolMaxIdle extends CpsProperties {
+
+    public static int get() throws CicstsManagerException {
+        return Math.max(1, getIntWithDefault(CicstsPropertiesSingleton.cps(), 300, "terminal.pool", "max.idle"));
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal.properties;
+
+import dev.galasa.cicsts.CicstsManagerException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+
+/**
+ * CICS TS Terminal - Pool maximum sessions
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name cicsts.terminal.pool.max.sessions
+ * 
+ * @galasa.description The most logged on CICS terminal sessions that are kept for each CICS region, so that the
+ * test classes that follow in the same JVM can use them without logging on again.  Each kept session holds a
+ * numbered slot in the DSS that covers all the runs, so the pools of concurrent runs together do not hold more
+ * sessions than the region allows.
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 0, terminals are not pooled
+ * 
+ * @galasa.valid_values 0 or more
+ * 
+ * @galasa.examples 
+ * <code>cicsts.terminal.pool.max.sessions=10</code><br>
+ *
+ */
+public class TerminalPoolMaxSessions extends CpsProperties {
+
+    public static int get() throws CicstsManagerException {
+        return Math.max(0, getIntWithDefault(CicstsPropertiesSingleton.cps(), 0, "terminal.pool", "max.sessions"));
+    }
+}
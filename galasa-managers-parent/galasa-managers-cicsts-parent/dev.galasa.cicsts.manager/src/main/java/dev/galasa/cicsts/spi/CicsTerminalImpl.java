@@ -13,6 +13,7 @@ import dev.galasa.ipnetwork.IIpHost;
 import dev.galasa.ipnetwork.IpNetworkManagerException;
 import dev.galasa.zos3270.TerminalInterruptedException;
 import dev.galasa.zos3270.Zos3270ManagerException;
+import dev.galasa.zos3270.spi.Terminal;
 import dev.galasa.zos3270.spi.Zos3270TerminalImpl;
 
 public class CicsTerminalImpl extends Zos3270TerminalImpl implements ICicsTerminal {
@@ -22,7 +23,7 @@ public class CicsTerminalImpl extends Zos3270TerminalImpl implements ICicsTermin
 
     public CicsTerminalImpl(ICicstsManagerSpi cicstsManager, IFramework framework, ICicsRegionProvisioned cicsRegion, String host, int port, boolean ssl)
             throws TerminalInterruptedException, Zos3270ManagerException {
-        super(cicsRegion.getNextTerminalId(), host, port, ssl, framework, false);
+        super(cicsRegion.getNextTerminalId(), host, port, ssl, framework, false, cicsRegion.getZosImage());
 
         this.cicsRegion = cicsRegion;
         this.cicstsManager = cicstsManager;
@@ -38,6 +39,18 @@ public class CicsTerminalImpl extends Zos3270TerminalImpl implements ICicsTermin
         this(cicstsManager, framework, cicsRegion, cicsRegion.getZosImage().getIpHost());
     }
 
+    /**
+     * Create a terminal that takes over a session that is already logged on to
+     * the CICS region, leased from the terminal pool
+     */
+    public CicsTerminalImpl(ICicstsManagerSpi cicstsManager, IFramework framework, ICicsRegionProvisioned cicsRegion, Terminal connection)
+            throws Zos3270ManagerException {
+        super(cicsRegion.getNextTerminalId(), connection, framework, false);
+
+        this.cicsRegion = cicsRegion;
+        this.cicstsManager = cicstsManager;
+    }
+
     @Override
     public ICicsRegion getCicsRegion() {
         return this.cicsRegion;
@@ -0,0 +1,170 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import dev.galasa.cicsts.ICicsRegion;
+import dev.galasa.cicsts.spi.CicsTerminalImpl;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.zos3270.spi.Screen;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestCicsTerminalPool {
+
+    private static final String KEY = "APPLID/USER";
+
+    private static final long MAX_IDLE = 60000;
+
+    private CicsTerminalPool pool;
+
+    private final TreeMap<String, String> dssContent = new TreeMap<>();
+
+    @Mock
+    private IDynamicStatusStoreService dssMock;
+
+    @Mock
+    private ICicsRegion regionMock;
+
+    @Before
+    public void setup() throws Exception {
+        pool = new CicsTerminalPool();
+
+        Mockito.when(regionMock.getApplid()).thenReturn("APPLID");
+
+        // *** An in memory DSS
+        Mockito.when(dssMock.get(ArgumentMatchers.anyString())).thenAnswer(i -> dssContent.get(i.getArgument(0)));
+        Mockito.when(dssMock.getPrefix(ArgumentMatchers.anyString())).thenAnswer(i -> {
+            String prefix = i.getArgument(0);
+            HashMap<String, String> found = new HashMap<>();
+            for (Map.Entry<String, String> entry : dssContent.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    found.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return found;
+        });
+        Mockito.when(dssMock.putSwap(ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.anyMap())).thenAnswer(i -> {
+            String key = i.getArgument(0);
+            if (!Objects.equals(dssContent.get(key), i.getArgument(1))) {
+                return false;
+            }
+            dssContent.put(key, i.getArgument(2));
+            dssContent.putAll(i.getArgument(3));
+            return true;
+        });
+        Mockito.doAnswer(i -> dssContent.remove(i.getArgument(0))).when(dssMock).delete(ArgumentMatchers.anyString());
+        Mockito.doAnswer(i -> dssContent.keySet().removeAll((Collection<?>) i.getArgument(0))).when(dssMock).delete(ArgumentMatchers.anySet());
+    }
+
+    private CicsTerminalImpl newTerminal(String id, String screenText) throws Exception {
+        CicsTerminalImpl terminal = Mockito.mock(CicsTerminalImpl.class);
+        Screen screen = Mockito.mock(Screen.class);
+        Mockito.when(terminal.getId()).thenReturn(id);
+        Mockito.when(terminal.getScreen()).thenReturn(screen);
+        Mockito.when(terminal.getCicsRegion()).thenReturn(regionMock);
+        Mockito.when(terminal.isConnected()).thenReturn(true);
+        Mockito.when(terminal.retrieveScreen()).thenReturn(screenText);
+        return terminal;
+    }
+
+    @Test
+    public void testLeaseAndRelease() throws Exception {
+        Assert.assertNull("An empty pool should not lease a session", pool.lease(KEY, dssMock, "RUN1", 2, MAX_IDLE));
+
+        CicsTerminalImpl terminal = newTerminal("TERM1", "   ");
+        Assert.assertTrue("The session should be kept", pool.release(KEY, terminal, dssMock, "RUN1", 2, MAX_IDLE));
+        Assert.assertEquals("The session should hold a slot", "RUN1", dssContent.get("terminal.pool.slot.APPLID.0"));
+        Assert.assertEquals("The run should hold the slot", "active", dssContent.get("terminal.pool.run.RUN1.APPLID.0"));
+
+        Assert.assertNull("Another user should not lease the session", pool.lease("APPLID/OTHER", dssMock, "RUN2", 2, MAX_IDLE));
+        Assert.assertSame("The session should be leased", terminal, pool.lease(KEY, dssMock, "RUN2", 2, MAX_IDLE));
+        Assert.assertNull("A session should only be leased once", pool.lease(KEY, dssMock, "RUN2", 2, MAX_IDLE));
+        Assert.assertEquals("The leasing run should take over the slot", "RUN2", dssContent.get("terminal.pool.slot.APPLID.0"));
+        Assert.assertNull("The slot should leave the old run", dssContent.get("terminal.pool.run.RUN1.APPLID.0"));
+        Mockito.verify(terminal, Mockito.times(2)).clear();
+
+        Assert.assertTrue("The leased session should be kept again", pool.release(KEY, terminal, dssMock, "RUN2", 2, MAX_IDLE));
+        Assert.assertEquals("The session should keep its slot", 2, dssContent.size());
+        Mockito.verify(terminal, Mockito.never()).disconnect();
+    }
+
+    @Test
+    public void testFailedReset() throws Exception {
+        CicsTerminalImpl terminal = newTerminal("TERM1", "DFHAC2001 Transaction '' is not recognized");
+        Assert.assertFalse("A session that does not reset should not be kept", pool.release(KEY, terminal, dssMock, "RUN1", 2, MAX_IDLE));
+        Assert.assertTrue("The session should not hold a slot", dssContent.isEmpty());
+
+        terminal = newTerminal("TERM2", "");
+        Assert.assertTrue("The session should be kept", pool.release(KEY, terminal, dssMock, "RUN1", 2, MAX_IDLE));
+        Mockito.when(terminal.retrieveScreen()).thenReturn("SIGNON");
+        Assert.assertNull("A session that does not reset should not be leased", pool.lease(KEY, dssMock, "RUN1", 2, MAX_IDLE));
+        Mockito.verify(terminal).disconnect();
+        Assert.assertTrue("The discarded session should free its slot", dssContent.isEmpty());
+
+        terminal = newTerminal("TERM3", "");
+        Mockito.when(terminal.isConnected()).thenReturn(false);
+        Assert.assertFalse("A disconnected session should not be kept", pool.release(KEY, terminal, dssMock, "RUN1", 2, MAX_IDLE));
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        CicsTerminalImpl terminal = newTerminal("TERM1", "");
+        Assert.assertTrue("The session should be kept", pool.release(KEY, terminal, dssMock, "RUN1", 2, MAX_IDLE));
+
+        Assert.assertNull("An idle session should not be leased", pool.lease(KEY, dssMock, "RUN1", 2, -1));
+        Mockito.verify(terminal).disconnect();
+        Assert.assertTrue("The idle session should free its slot", dssContent.isEmpty());
+    }
+
+    @Test
+    public void testSlots() throws Exception {
+        CicsTerminalImpl terminal1 = newTerminal("TERM1", "");
+        CicsTerminalImpl terminal2 = newTerminal("TERM2", "");
+        CicsTerminalImpl terminal3 = newTerminal("TERM3", "");
+
+        // *** Another run holds the first slot
+        dssContent.put("terminal.pool.slot.APPLID.0", "OTHER");
+        dssContent.put("terminal.pool.run.OTHER.APPLID.0", "active");
+
+        Assert.assertTrue("The first session should be kept", pool.release(KEY, terminal1, dssMock, "RUN1", 3, MAX_IDLE));
+        Assert.assertTrue("The second session should be kept", pool.release(KEY, terminal2, dssMock, "RUN1", 3, MAX_IDLE));
+        Assert.assertFalse("The third session should not be kept", pool.release(KEY, terminal3, dssMock, "RUN1", 3, MAX_IDLE));
+        Assert.assertEquals("The sessions should hold the free slots", "RUN1", dssContent.get("terminal.pool.slot.APPLID.1"));
+        Assert.assertEquals("The sessions should hold the free slots", "RUN1", dssContent.get("terminal.pool.slot.APPLID.2"));
+        Assert.assertEquals("The other run should keep its slot", "OTHER", dssContent.get("terminal.pool.slot.APPLID.0"));
+
+        Assert.assertFalse("No session should be kept if the pool is disabled", pool.release(KEY, terminal3, dssMock, "RUN1", 0, MAX_IDLE));
+
+        // *** Resource management frees the slots of a run that has gone
+        CicsTerminalPool.deleteDss("RUN1", "APPLID", "1", dssMock);
+        Assert.assertNull("The slot should be freed", dssContent.get("terminal.pool.slot.APPLID.1"));
+        Assert.assertNull("The run should not hold the slot", dssContent.get("terminal.pool.run.RUN1.APPLID.1"));
+
+        // *** The next run finds a slot again for the session that lost its own, or discards it
+        dssContent.put("terminal.pool.slot.APPLID.1", "OTHER");
+        Assert.assertNull("The session without a slot should be discarded", pool.lease("APPLID/OTHER", dssMock, "RUN2", 3, MAX_IDLE));
+        Mockito.verify(terminal1).disconnect();
+        Mockito.verify(terminal2, Mockito.never()).disconnect();
+        Assert.assertEquals("The kept session should move to the run", "RUN2", dssContent.get("terminal.pool.slot.APPLID.2"));
+        Assert.assertEquals("The kept session should move to the run", "active", dssContent.get("terminal.pool.run.RUN2.APPLID.2"));
+        Assert.assertSame("The kept session should be leased", terminal2, pool.lease(KEY, dssMock, "RUN2", 3, MAX_IDLE));
+    }
+
+}
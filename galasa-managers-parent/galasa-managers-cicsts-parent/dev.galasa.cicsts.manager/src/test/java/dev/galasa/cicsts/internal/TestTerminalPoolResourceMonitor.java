@@ -0,0 +1,96 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.cicsts.internal;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IFrameworkRuns;
+import dev.galasa.framework.spi.IResourceManagement;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TestTerminalPoolResourceMonitor {
+
+    private TerminalPoolResourceMonitor monitor;
+
+    private final HashMap<String, String> dssContent = new HashMap<>();
+
+    @Mock
+    private IFramework frameworkMock;
+
+    @Mock
+    private IFrameworkRuns frameworkRunsMock;
+
+    @Mock
+    private IResourceManagement resourceManagementMock;
+
+    @Mock
+    private IDynamicStatusStoreService dssMock;
+
+    @Before
+    public void setup() throws Exception {
+        Mockito.when(frameworkMock.getFrameworkRuns()).thenReturn(frameworkRunsMock);
+        HashSet<String> activeRuns = new HashSet<>();
+        activeRuns.add("ACTIVE");
+        Mockito.when(frameworkRunsMock.getActiveRunNames()).thenReturn(activeRuns);
+
+        Mockito.when(dssMock.get(ArgumentMatchers.anyString())).thenAnswer(i -> dssContent.get(i.getArgument(0)));
+        Mockito.when(dssMock.getPrefix(ArgumentMatchers.anyString())).thenAnswer(i -> {
+            String prefix = i.getArgument(0);
+            HashMap<String, String> found = new HashMap<>();
+            for (Map.Entry<String, String> entry : dssContent.entrySet()) {
+                if (entry.getKey().startsWith(prefix)) {
+                    found.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return found;
+        });
+        Mockito.doAnswer(i -> dssContent.keySet().removeAll((Collection<?>) i.getArgument(0))).when(dssMock).delete(ArgumentMatchers.anySet());
+
+        dssContent.put("terminal.pool.slot.APPLID.0", "ACTIVE");
+        dssContent.put("terminal.pool.run.ACTIVE.APPLID.0", "active");
+        dssContent.put("terminal.pool.slot.APPLID.1", "GONE");
+        dssContent.put("terminal.pool.run.GONE.APPLID.1", "active");
+        // *** The slot has since been taken over by the active run
+        dssContent.put("terminal.pool.slot.APPLID.2", "ACTIVE");
+        dssContent.put("terminal.pool.run.GONE.APPLID.2", "active");
+
+        monitor = new TerminalPoolResourceMonitor(frameworkMock, resourceManagementMock, dssMock);
+    }
+
+    @Test
+    public void testRun() {
+        monitor.run();
+
+        Assert.assertEquals("The slots of the active run should be kept", "ACTIVE", dssContent.get("terminal.pool.slot.APPLID.0"));
+        Assert.assertEquals("The slots of the active run should be kept", "ACTIVE", dssContent.get("terminal.pool.slot.APPLID.2"));
+        Assert.assertNull("The slot of the run that has gone should be freed", dssContent.get("terminal.pool.slot.APPLID.1"));
+        Assert.assertEquals("Only the active run should hold slots", 3, dssContent.size());
+        Mockito.verify(resourceManagementMock).resourceManagementRunSuccessful();
+    }
+
+    @Test
+    public void testRunFinishedOrDeleted() {
+        monitor.runFinishedOrDeleted("ACTIVE");
+
+        Assert.assertNull("The slots of the finished run should be freed", dssContent.get("terminal.pool.slot.APPLID.0"));
+        Assert.assertEquals("The slots of other runs should be kept", "GONE", dssContent.get("terminal.pool.slot.APPLID.1"));
+    }
+
+}
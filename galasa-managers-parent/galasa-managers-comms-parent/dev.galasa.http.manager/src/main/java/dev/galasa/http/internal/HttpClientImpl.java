@@ -55,6 +55,7 @@ import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ByteArrayEntity;
@@ -77,8 +78,9 @@ import dev.galasa.http.ContentType;
 import dev.galasa.http.HttpClientException;
 import dev.galasa.http.HttpClientResponse;
 import dev.galasa.http.IHttpClient;
+import dev.galasa.http.spi.IHttpClientSpi;
 
-public class HttpClientImpl implements IHttpClient {
+public class HttpClientImpl implements IHttpClientSpi {
 
     private static final String JAVA_VENDOR_PROPERTY = "java.vendor";
 
@@ -94,6 +96,7 @@ public class HttpClientImpl implements IHttpClient {
     private HostnameVerifier    hostnameVerifier     = NoopHostnameVerifier.INSTANCE;
     private CredentialsProvider credentialsProvider  = new BasicCredentialsProvider();
     private HttpClientContext   httpContext          = null;
+    private HttpClientConnectionManager connectionManager;
     private Set<Integer>        okResponseCodes      = new HashSet<>();
 
     private Log                 logger;
@@ -373,6 +376,44 @@ public class HttpClientImpl implements IHttpClient {
         return this;
     }
 
+    /**
+     * Use a connection manager shared with other clients
+     * 
+     * @param connectionManager
+     * @return the updated client
+     */
+    @Override
+    public IHttpClientSpi setConnectionManager(HttpClientConnectionManager connectionManager) {
+
+        this.connectionManager = connectionManager;
+
+        return this;
+    }
+
+    @Override
+    public IHttpClient withHeaders(Map<String, String> headers) {
+        HttpClientImpl client = new HttpClientImpl(this.timeout, this.logger);
+        client.host = this.host;
+        client.cookieStore = this.cookieStore;
+        client.sslContext = this.sslContext;
+        client.hostnameVerifier = this.hostnameVerifier;
+        client.credentialsProvider = this.credentialsProvider;
+        client.connectionManager = this.connectionManager;
+        client.okResponseCodes = this.okResponseCodes;
+        if (this.httpContext != null) {
+            // *** The context also holds the state of a request in flight, so only the authentication is shared
+            client.httpContext = HttpClientContext.create();
+            client.httpContext.setCredentialsProvider(this.credentialsProvider);
+            client.httpContext.setAuthCache(this.httpContext.getAuthCache());
+        }
+        client.commonHeaders.addAll(this.commonHeaders);
+        for (Entry<String, String> header : headers.entrySet()) {
+            client.addCommonHeader(header.getKey(), header.getValue());
+        }
+
+        return client;
+    }
+
     /**
      * Set the SSL Context
      * 
@@ -478,7 +519,11 @@ public class HttpClientImpl implements IHttpClient {
             builder.setDefaultRequestConfig(requestBuilder.build());
         }
 
-        if (sslContext != null) {
+        if (connectionManager != null) {
+            // *** The client is rebuilt for each request, so it must not close the shared connections
+            builder.setConnectionManager(connectionManager);
+            builder.setConnectionManagerShared(true);
+        } else if (sslContext != null) {
             SSLConnectionSocketFactory csf = new SSLConnectionSocketFactory(sslContext, hostnameVerifier);
             builder.setSSLSocketFactory(csf);
         }
@@ -25,6 +25,7 @@ import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.ResourceUnavailableException;
 import dev.galasa.http.HttpClient;
 import dev.galasa.http.IHttpClient;
+import dev.galasa.http.spi.IHttpClientSpi;
 import dev.galasa.http.spi.IHttpManagerSpi;
 
 @Component(service = { IManager.class })
@@ -72,15 +73,15 @@ public class HttpManagerImpl extends AbstractManager implements IHttpManagerSpi
     }
 
     @Override
-    public @NotNull IHttpClient newHttpClient() {
-        IHttpClient client = new HttpClientImpl(180000, logger);
+    public @NotNull IHttpClientSpi newHttpClient() {
+        IHttpClientSpi client = new HttpClientImpl(180000, logger);
         instantiatedClients.add(client);
         return client;
     }
     
     @Override
-    public @NotNull IHttpClient newHttpClient(int timeout) {
-        IHttpClient client = new HttpClientImpl(timeout, logger);
+    public @NotNull IHttpClientSpi newHttpClient(int timeout) {
+        IHttpClientSpi client = new HttpClientImpl(timeout, logger);
         instantiatedClients.add(client);
         return client;
     }
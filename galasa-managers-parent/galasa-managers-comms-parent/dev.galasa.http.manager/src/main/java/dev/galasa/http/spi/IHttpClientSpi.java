@@ -0,0 +1,42 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.http.spi;
+
+import java.util.Map;
+
+import org.apache.http.conn.HttpClientConnectionManager;
+
+import dev.galasa.http.IHttpClient;
+
+/**
+ * The HTTP client functions that are only available to other Managers
+ */
+public interface IHttpClientSpi extends IHttpClient {
+
+    /**
+     * Use a connection manager shared with other clients, so connections are
+     * kept open between requests. The client does not close a shared connection
+     * manager, and the SSL context of the client is not used for the
+     * connections it makes
+     *
+     * @param connectionManager
+     * @return the updated client
+     */
+    IHttpClientSpi setConnectionManager(HttpClientConnectionManager connectionManager);
+
+    /**
+     * Return a client that sends extra headers, for requests that need their
+     * own headers without changing the common headers of this client. The new
+     * client shares the connections, cookies and credentials of this client,
+     * so requests through it can be sent at the same time as requests through
+     * other clients returned by this method
+     *
+     * @param headers - sent as well as the common headers of this client
+     * @return the new client
+     */
+    IHttpClient withHeaders(Map<String, String> headers);
+
+}
@@ -7,15 +7,14 @@ package dev.galasa.http.spi;
 
 import javax.validation.constraints.NotNull;
 
-import dev.galasa.http.IHttpClient;
 import dev.galasa.http.IHttpManager;
 
 public interface IHttpManagerSpi extends IHttpManager {
 
     @NotNull
-    IHttpClient newHttpClient();
+    IHttpClientSpi newHttpClient();
 
     @NotNull
-    IHttpClient newHttpClient(int timeout);
+    IHttpClientSpi newHttpClient(int timeout);
 
 }
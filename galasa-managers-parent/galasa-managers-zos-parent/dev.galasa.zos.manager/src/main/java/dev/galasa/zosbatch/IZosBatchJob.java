@@ -5,6 +5,8 @@
  */
 package dev.galasa.zosbatch;
 
+import java.io.InputStream;
+
 /**
  * <p>Represents a zOS Batch Job.</p>
  * 
@@ -87,6 +89,18 @@ public interface IZosBatchJob {
      * @throws ZosBatchException
      */
     public IZosBatchJobOutputSpoolFile getSpoolFile(String ddname) throws ZosBatchException;
+
+    /**
+     * Retrieve the content of a spool file from the batch job given the ddname as a stream, without holding it in memory. 
+     * The stream must be closed.<p>
+     * <b>NOTE:</b> Returns the first matching instance in the list. If the batch job has multiple steps, there may be multiple 
+     * instances of the ddname. 
+     * 
+     * @param ddname of the spool file
+     * @return the content of the first found spool file with the specified ddname
+     * @throws ZosBatchException
+     */
+    public InputStream retrieveSpoolFileAsStream(String ddname) throws ZosBatchException;
     
     /**
      * Cancel the batch job
@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosfile;
 
+import java.io.InputStream;
 import java.util.Collection;
 
 import javax.validation.constraints.NotNull;
@@ -206,6 +207,14 @@ public interface IZosDataset {
      */
     public byte[] retrieveAsBinary() throws ZosDatasetException;
 
+    /**
+     * Retrieve content of the data set as a stream, without holding it in memory. The stream must be closed
+     * <p>See {@link #setDataType(DatasetDataType)}
+     * @return data set content
+     * @throws ZosDatasetException
+     */
+    public InputStream retrieveAsStream() throws ZosDatasetException;
+
     /**
      * Store the content of the data set with the test output
      * <p>See {@link #setDataType(DatasetDataType)}
@@ -274,6 +283,15 @@ public interface IZosDataset {
      */
     public  byte[] memberRetrieveAsBinary(@NotNull String memberName) throws ZosDatasetException;
 
+    /**
+     * Retrieve content from the partitioned data set member as a stream, without holding it in memory. The stream must 
+     * be closed
+     * @param memberName
+     * @return
+     * @throws ZosDatasetException
+     */
+    public InputStream memberRetrieveAsStream(@NotNull String memberName) throws ZosDatasetException;
+
     /**
      * List the members of the partitioned data set
      * @return
@@ -5,6 +5,7 @@
  */
 package dev.galasa.zosfile;
 
+import java.io.InputStream;
 import java.util.Map;
 
 /**
@@ -86,6 +87,13 @@ public interface IZosUNIXFile {
      */
     public String retrieve() throws ZosUNIXFileException;
 
+    /**
+     * Retrieve the content of the zOS UNIX file from the zOS image as a stream, without holding it in memory. The stream 
+     * must be closed. Data type is can be set by {@link #setDataType(UNIXFileDataType)}
+     * @throws ZosUNIXFileException
+     */
+    public InputStream retrieveAsStream() throws ZosUNIXFileException;
+
     /**
      * Recursively store the content of the zOS UNIX file or directory to the test output 
      * @throws ZosUNIXFileException
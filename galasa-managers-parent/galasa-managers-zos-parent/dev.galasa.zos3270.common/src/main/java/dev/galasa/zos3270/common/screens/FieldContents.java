@@ -65,4 +65,13 @@ public class FieldContents {
         return this.chars;
     }
 
+    /**
+     * Get the field text
+     * 
+     * @return the text, or null if the contents contain nulls
+     */
+    public String getText() {
+        return this.text;
+    }
+
 }
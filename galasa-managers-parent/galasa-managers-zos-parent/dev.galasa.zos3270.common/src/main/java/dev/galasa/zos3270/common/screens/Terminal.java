@@ -22,11 +22,24 @@ import javax.validation.constraints.NotNull;
  */
 public class Terminal {
 
+    /**
+     * Every image contains all the fields on the screen. Files written before
+     * the version was recorded have a version of 0 and are also full images
+     */
+    public static final int           VERSION_FULL  = 1;
+
+    /**
+     * Images after the first may only contain the fields that changed, see
+     * {@link TerminalImage#isDelta()}
+     */
+    public static final int           VERSION_DELTA = 2;
+
     private final String              id;
     private final String              runId;
     private final int                 sequence;
     private final List<TerminalImage> images = new ArrayList<>();
     private final TerminalSize        defaultSize;
+    private final int                 version;
 
     /**
      * Constructor
@@ -36,10 +49,24 @@ public class Terminal {
      * @param defaultSize Default size of the terminal
      */
     public Terminal(@NotNull String id, @NotNull String runId, int sequence, @NotNull TerminalSize defaultSize) {
+        this(id, runId, sequence, defaultSize, VERSION_FULL);
+    }
+
+    /**
+     * Constructor
+     * 
+     * @param id          Terminal ID
+     * @param sequence    Sequence number of this pojo for this terminal
+     * @param defaultSize Default size of the terminal
+     * @param version     The format of the images
+     */
+    public Terminal(@NotNull String id, @NotNull String runId, int sequence, @NotNull TerminalSize defaultSize,
+            int version) {
         this.id = id;
         this.runId = runId;
         this.sequence = sequence;
         this.defaultSize = defaultSize;
+        this.version = version;
     }
 
     /**
@@ -91,4 +118,14 @@ public class Terminal {
         return runId;
     }
 
+    /**
+     * Fetch the format version
+     * 
+     * @return the version, 0 if the file was written before versions were
+     *         recorded
+     */
+    public int getVersion() {
+        return version;
+    }
+
 }
@@ -32,6 +32,9 @@ public class TerminalImage {
     private final String              aid;
     private final List<TerminalField> fields = new ArrayList<>();
 
+    private boolean                   delta;
+    private List<int[]>               removedFields;
+
     /**
      * Constructor
      * 
@@ -135,4 +138,30 @@ public class TerminalImage {
         return cursorRow;
     }
 
+    /**
+     * Is this image a delta of the previous image. A delta only contains the
+     * fields that are new or have changed, use {@link TerminalImageDeltas} to
+     * rebuild the full image
+     * 
+     * @return true if a delta, false if this is a full image
+     */
+    public boolean isDelta() {
+        return delta;
+    }
+
+    /**
+     * Fetch the fields of the previous image that are not on this screen
+     * 
+     * @return the row and column of each removed field, null if this is a full
+     *         image
+     */
+    public List<int[]> getRemovedFields() {
+        return removedFields;
+    }
+
+    void setDelta(List<int[]> removedFields) {
+        this.delta = true;
+        this.removedFields = removedFields;
+    }
+
 }
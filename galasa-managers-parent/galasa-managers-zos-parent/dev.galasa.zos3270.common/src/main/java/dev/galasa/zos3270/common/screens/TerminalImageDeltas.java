@@ -0,0 +1,206 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.common.screens;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * Converts terminal images to and from the delta format.
+ * <p>
+ * A list of images is encoded as keyframes, which contain every field, and
+ * deltas, which only contain the fields that differ from the previous image
+ * along with the positions of any fields that were removed. Fields are
+ * identified by their start row and column. The first image of a list is
+ * always a keyframe, so each RAS file can be rebuilt on its own.
+ * </p>
+ */
+public class TerminalImageDeltas {
+
+    private TerminalImageDeltas() {
+    }
+
+    /**
+     * Encode a sequence of full images
+     *
+     * @param images           the full images, in sequence
+     * @param keyframeInterval the maximum number of images between keyframes, 1
+     *                         writes every image as a keyframe
+     * @return the encoded images
+     */
+    public static @NotNull List<TerminalImage> encode(@NotNull List<TerminalImage> images, int keyframeInterval) {
+        ArrayList<TerminalImage> encoded = new ArrayList<>(images.size());
+
+        TerminalImage previous = null;
+        int sinceKeyframe = 0;
+        for (TerminalImage image : images) {
+            TerminalImage delta = null;
+            if (previous != null && sinceKeyframe < keyframeInterval - 1) {
+                delta = delta(previous, image);
+            }
+
+            if (delta == null) {
+                encoded.add(image);
+                sinceKeyframe = 0;
+            } else {
+                encoded.add(delta);
+                sinceKeyframe++;
+            }
+            previous = image;
+        }
+
+        return encoded;
+    }
+
+    /**
+     * Create a delta between two full images
+     *
+     * @param previous the previous full image
+     * @param current  the current full image
+     * @return the delta, or null if a delta would not be smaller than the image
+     */
+    public static TerminalImage delta(@NotNull TerminalImage previous, @NotNull TerminalImage current) {
+        if (!sameSize(previous.getImageSize(), current.getImageSize())) {
+            return null;
+        }
+
+        TreeMap<Long, TerminalField> previousFields = fieldMap(previous.getFields());
+
+        TerminalImage delta = copyHeader(current);
+        for (TerminalField field : current.getFields()) {
+            TerminalField previousField = previousFields.remove(key(field));
+            if (previousField == null || !sameField(previousField, field)) {
+                delta.getFields().add(field);
+            }
+        }
+
+        ArrayList<int[]> removed = new ArrayList<>(previousFields.size());
+        for (TerminalField field : previousFields.values()) {
+            removed.add(new int[] { field.getRow(), field.getColumn() });
+        }
+
+        if (delta.getFields().size() + removed.size() >= current.getFields().size()) {
+            return null;
+        }
+
+        delta.setDelta(removed);
+        return delta;
+    }
+
+    /**
+     * Apply a delta to the previous full image
+     *
+     * @param previous the previous full image, or null if it is not available
+     * @param image    the image to apply, if it is not a delta it is returned
+     *                 unchanged
+     * @return the full image
+     */
+    public static @NotNull TerminalImage apply(TerminalImage previous, @NotNull TerminalImage image) {
+        if (!image.isDelta()) {
+            return image;
+        }
+
+        TreeMap<Long, TerminalField> fields;
+        if (previous == null) {
+            fields = new TreeMap<>();
+        } else {
+            fields = fieldMap(previous.getFields());
+        }
+
+        if (image.getRemovedFields() != null) {
+            for (int[] removed : image.getRemovedFields()) {
+                fields.remove(key(removed[0], removed[1]));
+            }
+        }
+        for (TerminalField field : image.getFields()) {
+            fields.put(key(field), field);
+        }
+
+        TerminalImage full = copyHeader(image);
+        full.getFields().addAll(fields.values());
+        return full;
+    }
+
+    /**
+     * Rebuild every image of a list
+     *
+     * @param images the encoded images
+     * @return the full images
+     */
+    public static @NotNull List<TerminalImage> rebuildAll(@NotNull List<TerminalImage> images) {
+        ArrayList<TerminalImage> fullImages = new ArrayList<>(images.size());
+        TerminalImage previous = null;
+        for (TerminalImage image : images) {
+            previous = apply(previous, image);
+            fullImages.add(previous);
+        }
+        return fullImages;
+    }
+
+    private static TerminalImage copyHeader(TerminalImage image) {
+        return new TerminalImage(image.getSequence(), image.getId(), image.isInbound(), image.getType(),
+                image.getAid(), image.getImageSize(), image.getCursorColumn(), image.getCursorRow());
+    }
+
+    private static TreeMap<Long, TerminalField> fieldMap(List<TerminalField> fields) {
+        TreeMap<Long, TerminalField> map = new TreeMap<>();
+        for (TerminalField field : fields) {
+            map.put(key(field), field);
+        }
+        return map;
+    }
+
+    private static long key(TerminalField field) {
+        return key(field.getRow(), field.getColumn());
+    }
+
+    /**
+     * Orders fields as they are on the screen, the column can be -1 for the
+     * field that wraps from the end of the screen
+     */
+    private static long key(int row, int column) {
+        return ((long) row << 32) + column;
+    }
+
+    private static boolean sameSize(TerminalSize a, TerminalSize b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getColumns() == b.getColumns() && a.getRows() == b.getRows();
+    }
+
+    private static boolean sameField(TerminalField a, TerminalField b) {
+        if (a.isUnformatted() != b.isUnformatted() || a.isFieldProtected() != b.isFieldProtected()
+                || a.isFieldNumeric() != b.isFieldNumeric() || a.isFieldDisplay() != b.isFieldDisplay()
+                || a.isFieldIntenseDisplay() != b.isFieldIntenseDisplay()
+                || a.isFieldSelectorPen() != b.isFieldSelectorPen() || a.isFieldModifed() != b.isFieldModifed()) {
+            return false;
+        }
+
+        List<FieldContents> aContents = a.getContents();
+        List<FieldContents> bContents = b.getContents();
+        if (aContents.size() != bContents.size()) {
+            return false;
+        }
+        for (int i = 0; i < aContents.size(); i++) {
+            FieldContents aContent = aContents.get(i);
+            FieldContents bContent = bContents.get(i);
+            if (!Objects.equals(aContent.getText(), bContent.getText())) {
+                return false;
+            }
+            if (aContent.getText() == null && !Arrays.equals(aContent.getChars(), bContent.getChars())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+public class TestTerminalImageDeltas {
+
+    private static final TerminalSize SIZE = new TerminalSize(80, 24);
+
+    /**
+     * Check that removed fields are recorded in the delta and removed again
+     * when the images are rebuilt
+     */
+    @Test
+    public void testRemovedFields() {
+        TerminalImage first = image(1, SIZE, "TITLE", "LINE 1", "LINE 2", "FOOTER");
+        TerminalImage second = image(2, SIZE, "TITLE", "LINE 1", null, "FOOTER");
+        TerminalImage third = image(3, SIZE, "TITLE", "CHANGED", null, "FOOTER");
+
+        List<TerminalImage> encoded = TerminalImageDeltas.encode(Arrays.asList(first, second, third), 10);
+
+        assertThat(encoded.get(0).isDelta()).as("first image is a keyframe").isFalse();
+        assertThat(encoded.get(1).isDelta()).as("second image is a delta").isTrue();
+        assertThat(encoded.get(1).getFields()).as("nothing changed in the second image").isEmpty();
+        assertThat(encoded.get(1).getRemovedFields()).as("removed field").hasSize(1);
+        assertThat(encoded.get(1).getRemovedFields().get(0)).as("removed field position").containsExactly(2, 0);
+        assertThat(encoded.get(2).getFields()).as("changed field").hasSize(1);
+        assertThat(encoded.get(2).getRemovedFields()).as("no fields removed").isEmpty();
+
+        assertRebuilt(Arrays.asList(first, second, third), TerminalImageDeltas.rebuildAll(encoded));
+    }
+
+    /**
+     * Check that a change of screen size is written as a keyframe
+     */
+    @Test
+    public void testSizeChange() {
+        TerminalImage first = image(1, SIZE, "TITLE", "LINE 1", "LINE 2", "FOOTER");
+        TerminalImage second = image(2, new TerminalSize(132, 27), "TITLE", "LINE 1", "LINE 2", "FOOTER");
+
+        assertThat(TerminalImageDeltas.delta(first, second)).as("delta across a size change").isNull();
+
+        List<TerminalImage> encoded = TerminalImageDeltas.encode(Arrays.asList(first, second), 10);
+        assertThat(encoded.get(1).isDelta()).as("image after the size change is a keyframe").isFalse();
+        assertRebuilt(Arrays.asList(first, second), TerminalImageDeltas.rebuildAll(encoded));
+    }
+
+    /**
+     * Check that a delta that would be no smaller than the image is written as
+     * a keyframe
+     */
+    @Test
+    public void testDeltaNotSmaller() {
+        TerminalImage first = image(1, SIZE, "TITLE", "LINE 1");
+        TerminalImage second = image(2, SIZE, "OTHER", "LINE 2");
+
+        assertThat(TerminalImageDeltas.delta(first, second)).as("delta of a changed screen").isNull();
+
+        List<TerminalImage> encoded = TerminalImageDeltas.encode(Arrays.asList(first, second), 10);
+        assertThat(encoded.get(1)).as("changed screen is written in full").isSameAs(second);
+    }
+
+    /**
+     * Check that each keyframe rebuilds without the images before it, so a
+     * viewer can seek to the keyframe before any image
+     */
+    @Test
+    public void testSeekToKeyframe() {
+        ArrayList<TerminalImage> images = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            images.add(image(i, SIZE, "TITLE", "LINE " + i, "LINE 2", "FOOTER"));
+        }
+
+        List<TerminalImage> encoded = TerminalImageDeltas.encode(images, 3);
+        assertThat(encoded.get(2).isDelta()).as("third image is a delta").isTrue();
+        assertThat(encoded.get(3).isDelta()).as("keyframe interval forces a keyframe").isFalse();
+        assertThat(encoded.get(4).isDelta()).as("fifth image is a delta").isTrue();
+
+        assertRebuilt(images, TerminalImageDeltas.rebuildAll(encoded));
+        assertRebuilt(images.subList(3, 5), TerminalImageDeltas.rebuildAll(encoded.subList(3, 5)));
+        assertThat(TerminalImageDeltas.apply(null, encoded.get(4)).getFields())
+                .as("a delta without its keyframe only holds the changed field").hasSize(1);
+    }
+
+    private void assertRebuilt(List<TerminalImage> expected, List<TerminalImage> rebuilt) {
+        assertThat(rebuilt).as("rebuilt images").hasSize(expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(rebuilt.get(i).isDelta()).as("rebuilt image " + i + " is full").isFalse();
+            assertThat(rebuilt.get(i).getSequence()).as("rebuilt image " + i + " sequence")
+                    .isEqualTo(expected.get(i).getSequence());
+            assertThat(text(rebuilt.get(i))).as("rebuilt image " + i).isEqualTo(text(expected.get(i)));
+        }
+    }
+
+    /**
+     * @param lines - the text of a field on each row, null for no field
+     */
+    private TerminalImage image(int sequence, TerminalSize size, String... lines) {
+        TerminalImage image = new TerminalImage(sequence, "term1-" + sequence, true, null, null, size, 0, 0);
+        for (int row = 0; row < lines.length; row++) {
+            if (lines[row] == null) {
+                continue;
+            }
+            TerminalField field = new TerminalField(row, 0, false, true, false, true, false, false, false);
+            Character[] chars = new Character[lines[row].length()];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = lines[row].charAt(i);
+            }
+            field.getContents().add(new FieldContents(chars));
+            image.getFields().add(field);
+        }
+        return image;
+    }
+
+    private String text(TerminalImage image) {
+        StringBuilder sb = new StringBuilder();
+        for (TerminalField field : image.getFields()) {
+            sb.append(field.getRow()).append(',').append(field.getColumn()).append('=');
+            for (FieldContents contents : field.getContents()) {
+                sb.append(contents.getText());
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+
+/**
+ * Parsing of captured inbound datastreams into orders
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DatastreamBenchmark {
+
+    @Param({ "vampstream.txt" })
+    public String capture;
+
+    private byte[] datastream;
+
+    @Setup
+    public void setup() throws Exception {
+        datastream = ScreenCapture.load(capture);
+    }
+
+    @Benchmark
+    public Inbound3270Message process3270Data() throws Exception {
+        return NetworkThread.process3270Data(ByteBuffer.wrap(datastream));
+    }
+
+    /**
+     * The orders only, skipping the command code and write control character
+     */
+    @Benchmark
+    public List<AbstractOrder> processOrders() throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(datastream);
+        buffer.position(2);
+        return NetworkThread.processOrders(buffer);
+    }
+
+}
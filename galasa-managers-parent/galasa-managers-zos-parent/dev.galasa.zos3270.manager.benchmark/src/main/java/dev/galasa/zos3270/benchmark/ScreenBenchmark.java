@@ -0,0 +1,116 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.benchmark;
+
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.terminal.TerminalImageCapture;
+import dev.galasa.zos3270.internal.terminal.TerminalJsonWriter;
+import dev.galasa.zos3270.spi.Field;
+import dev.galasa.zos3270.spi.Screen;
+
+/**
+ * The screen model paths, each starting from a screen holding the captured
+ * datastream
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScreenBenchmark {
+
+    @Param({ "vampstream.txt" })
+    public String              capture;
+
+    @Param({ "LATEST STATUS" })
+    public String              searchText;
+
+    private Inbound3270Message message;
+    private Screen             screen;
+    private TerminalSize       terminalSize;
+
+    @Setup
+    public void setup() throws Exception {
+        message = NetworkThread.process3270Data(ByteBuffer.wrap(ScreenCapture.load(capture)));
+        screen = new Screen(80, 24, null);
+        screen.processInboundMessage(message);
+        if (!screen.isTextInField(searchText)) {
+            throw new IllegalStateException("'" + searchText + "' is not on the " + capture + " screen");
+        }
+        terminalSize = new TerminalSize(screen.getNoOfColumns(), screen.getNoOfRows());
+    }
+
+    @Benchmark
+    public Screen processInboundMessage() throws Exception {
+        screen.processInboundMessage(message);
+        return screen;
+    }
+
+    /**
+     * Fields of an unchanged screen, served from the field index
+     */
+    @Benchmark
+    public Field[] calculateFields() {
+        return screen.calculateFields();
+    }
+
+    /**
+     * Fields after the screen has been written to, so the index is rebuilt
+     */
+    @Benchmark
+    public Field[] calculateFieldsAfterUpdate() throws Exception {
+        screen.processInboundMessage(message);
+        return screen.calculateFields();
+    }
+
+    @Benchmark
+    public Screen searchFieldContaining() throws Exception {
+        screen.searchFieldContaining(searchText);
+        return screen;
+    }
+
+    /**
+     * A search that has to look at every field
+     */
+    @Benchmark
+    public boolean searchFieldNotFound() {
+        return screen.isTextInField("NOT ON THIS SCREEN");
+    }
+
+    @Benchmark
+    public byte[] aidEnter() throws Exception {
+        return screen.aid(AttentionIdentification.ENTER);
+    }
+
+    /**
+     * Capturing the screen as a terminal image and serialising it for the RAS
+     */
+    @Benchmark
+    public String terminalImage() throws Exception {
+        Terminal terminal = new Terminal("bench", "run", 1, terminalSize);
+        terminal.getImages().add(TerminalImageCapture.capture(1, "bench-1", true, null, screen.snapshot()));
+
+        StringWriter json = new StringWriter();
+        TerminalJsonWriter.write(terminal, json);
+        return json.toString();
+    }
+
+}
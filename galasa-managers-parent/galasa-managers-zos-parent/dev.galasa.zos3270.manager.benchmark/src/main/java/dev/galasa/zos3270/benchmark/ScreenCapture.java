@@ -0,0 +1,34 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * A captured inbound 3270 datastream, held as a hex resource without the
+ * TN3270E header and trailer
+ */
+public class ScreenCapture {
+
+    private ScreenCapture() {
+    }
+
+    public static byte[] load(String resource) throws IOException, DecoderException {
+        try (InputStream is = ScreenCapture.class.getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IOException("Screen capture " + resource + " not found");
+            }
+            return Hex.decodeHex(IOUtils.toString(is, StandardCharsets.UTF_8).trim().toCharArray());
+        }
+    }
+
+}
@@ -5,6 +5,8 @@
  */
 package dev.galasa.zos3270;
 
+import java.util.function.Predicate;
+
 import javax.validation.constraints.NotNull;
 
 import dev.galasa.zos3270.spi.NetworkException;
@@ -24,6 +26,58 @@ public interface ITerminal {
 
     ITerminal waitForTextInField(String string) throws TerminalInterruptedException, Zos3270Exception;
 
+    /**
+     * Wait for any of the texts to appear in a field. The texts are searched for
+     * together in a single pass of the screen each time it is updated.
+     * 
+     * @param texts - the texts to wait for
+     * @return the text that was found, if more than one is present the one
+     *         nearest the top of the screen
+     * @throws TextNotFoundException - if none of the texts appear before the
+     *                               wait times out
+     */
+    String waitForAnyText(String... texts) throws TerminalInterruptedException, Zos3270Exception;
+
+    /**
+     * Wait for the terminal to satisfy a condition. The condition is tested each
+     * time the screen is updated, by the thread receiving the update, so it
+     * should only inspect the terminal and must not wait.
+     * 
+     * @param condition - the condition
+     * @throws TimeoutException - if the condition is not met before the wait
+     *                          times out
+     */
+    ITerminal waitForScreen(Predicate<ITerminal> condition) throws TerminalInterruptedException, Zos3270Exception;
+
+    /**
+     * Wait for the screen to match a signature registered in
+     * {@link #getScreenSignatures()}
+     * 
+     * @param signatureName - the name of the signature
+     * @throws TimeoutException - if the screen does not match before the wait
+     *                          times out
+     */
+    ITerminal waitForScreen(@NotNull String signatureName) throws TerminalInterruptedException, Zos3270Exception;
+
+    /**
+     * @return the fingerprint of the protected fields of the current screen,
+     *         to register as a signature
+     */
+    @NotNull
+    ScreenFingerprint getScreenFingerprint();
+
+    /**
+     * @return the signatures the screen is matched against
+     */
+    @NotNull
+    ScreenSignatures getScreenSignatures();
+
+    /**
+     * @return the name of the signature the current screen matches, or null if
+     *         it matches none
+     */
+    String getScreenSignature();
+
     ITerminal verifyTextInField(String string) throws TextNotFoundException;
 
     boolean isTextInField(String string);
@@ -0,0 +1,63 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270;
+
+/**
+ * Identifies a screen by its protected fields.
+ * <p>
+ * The layout hash covers the position and attributes of every field, the text
+ * hash covers the text of the protected fields, or all the text of an
+ * unformatted screen. The text typed into unprotected fields is not part of
+ * either, so a screen keeps its fingerprint as it is filled in.
+ * </p>
+ */
+public final class ScreenFingerprint {
+
+    private final long layout;
+    private final long text;
+
+    public ScreenFingerprint(long layout, long text) {
+        this.layout = layout;
+        this.text = text;
+    }
+
+    /**
+     * @return the hash of the field positions and attributes
+     */
+    public long getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return the hash of the protected text
+     */
+    public long getText() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ScreenFingerprint)) {
+            return false;
+        }
+        ScreenFingerprint otherFingerprint = (ScreenFingerprint) other;
+        return this.layout == otherFingerprint.layout && this.text == otherFingerprint.text;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.layout * 31 + this.text);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x-%016x", this.layout, this.text);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.validation.constraints.NotNull;
+
+/**
+ * A registry of named screens, so the current screen can be identified with a
+ * hash lookup of its {@link ScreenFingerprint} rather than by searching its
+ * text.
+ * <p>
+ * A signature registered with {@link #register(String, ScreenFingerprint)}
+ * matches the same layout and protected text, one registered with
+ * {@link #registerLayout(String, ScreenFingerprint)} matches the layout
+ * whatever the text, for screens that show variable data such as the time in
+ * protected fields. The registry can be shared by several terminals.
+ * </p>
+ */
+public class ScreenSignatures {
+
+    private final ConcurrentHashMap<String, Signature>         signatures = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ScreenFingerprint, String> screens    = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String>              layouts    = new ConcurrentHashMap<>();
+
+    private static class Signature {
+        private final ScreenFingerprint fingerprint;
+        private final boolean           layoutOnly;
+
+        private Signature(ScreenFingerprint fingerprint, boolean layoutOnly) {
+            this.fingerprint = fingerprint;
+            this.layoutOnly = layoutOnly;
+        }
+
+        private boolean matches(ScreenFingerprint other) {
+            if (this.layoutOnly) {
+                return this.fingerprint.getLayout() == other.getLayout();
+            }
+            return this.fingerprint.equals(other);
+        }
+    }
+
+    /**
+     * Name the screen with the fingerprint, matching its layout and protected
+     * text. Replaces any signature with the same name or fingerprint.
+     */
+    public synchronized void register(@NotNull String name, @NotNull ScreenFingerprint fingerprint) {
+        unregister(name);
+        Signature signature = new Signature(fingerprint, false);
+        String replaced = this.screens.put(fingerprint, name);
+        if (replaced != null) {
+            this.signatures.remove(replaced);
+        }
+        this.signatures.put(name, signature);
+    }
+
+    /**
+     * Name the screens with the layout of the fingerprint, whatever their text.
+     * Replaces any signature with the same name or layout.
+     */
+    public synchronized void registerLayout(@NotNull String name, @NotNull ScreenFingerprint fingerprint) {
+        unregister(name);
+        Signature signature = new Signature(fingerprint, true);
+        String replaced = this.layouts.put(fingerprint.getLayout(), name);
+        if (replaced != null) {
+            this.signatures.remove(replaced);
+        }
+        this.signatures.put(name, signature);
+    }
+
+    public synchronized void unregister(@NotNull String name) {
+        Signature signature = this.signatures.remove(name);
+        if (signature == null) {
+            return;
+        }
+
+        if (signature.layoutOnly) {
+            this.layouts.remove(signature.fingerprint.getLayout(), name);
+        } else {
+            this.screens.remove(signature.fingerprint, name);
+        }
+    }
+
+    public boolean contains(@NotNull String name) {
+        return this.signatures.containsKey(name);
+    }
+
+    /**
+     * @return the name of the signature matching the fingerprint, a signature
+     *         with the same text is preferred over one with only the same
+     *         layout, or null if none match
+     */
+    public String match(@NotNull ScreenFingerprint fingerprint) {
+        String name = this.screens.get(fingerprint);
+        if (name != null) {
+            return name;
+        }
+        return this.layouts.get(fingerprint.getLayout());
+    }
+
+    /**
+     * @return true if the named signature matches the fingerprint
+     */
+    public boolean matches(@NotNull String name, @NotNull ScreenFingerprint fingerprint) {
+        Signature signature = this.signatures.get(name);
+        return signature != null && signature.matches(fingerprint);
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import javax.validation.constraints.NotNull;
+
+import dev.galasa.zos3270.spi.Screen;
+import dev.galasa.zos3270.spi.Terminal;
+
+/**
+ * Waits on several terminals at once, so a single test thread can drive many
+ * sessions.
+ * <p>
+ * Whilst waiting, each terminal tells the group when its screen is updated or
+ * its keyboard is restored, and the waiting thread tests the condition again
+ * for just those terminals. There is one lock and condition for the group
+ * rather than a thread or latch for each terminal. The conditions are tested
+ * on the waiting thread, not the network threads, so they may be as slow as
+ * needed but must not wait themselves.
+ * </p>
+ */
+public class TerminalGroup {
+
+    private static final int           DEFAULT_WAIT = 120_000;
+
+    private final List<ITerminal>      terminals;
+    private final Screen[]             screens;
+
+    private final ReentrantLock        lock         = new ReentrantLock();
+    private final Condition            changed      = lock.newCondition();
+    private final boolean[]            dirty;
+    private boolean                    waiting;
+
+    /**
+     * @param terminals - the terminals of the group, created by the zOS 3270
+     *                  manager or a manager that extends it
+     */
+    public TerminalGroup(@NotNull ITerminal... terminals) {
+        this(Arrays.asList(terminals));
+    }
+
+    public TerminalGroup(@NotNull Collection<? extends ITerminal> terminals) {
+        this.terminals = Collections.unmodifiableList(new ArrayList<>(terminals));
+        this.screens = new Screen[this.terminals.size()];
+        this.dirty = new boolean[this.terminals.size()];
+        for (int i = 0; i < this.screens.length; i++) {
+            ITerminal terminal = this.terminals.get(i);
+            if (!(terminal instanceof Terminal)) {
+                throw new IllegalArgumentException("Terminal " + i + " of the group was not created by a 3270 manager");
+            }
+            this.screens[i] = ((Terminal) terminal).getScreen();
+        }
+    }
+
+    public @NotNull List<ITerminal> getTerminals() {
+        return this.terminals;
+    }
+
+    /**
+     * @return a condition met when the keyboard of the terminal is not locked
+     */
+    public static @NotNull Predicate<ITerminal> keyboardUnlocked() {
+        return terminal -> !((Terminal) terminal).getScreen().isKeyboardLocked();
+    }
+
+    /**
+     * @return a condition met when a field of the terminal contains the text
+     */
+    public static @NotNull Predicate<ITerminal> textInField(@NotNull String text) {
+        return terminal -> terminal.isTextInField(text);
+    }
+
+    /**
+     * @return a condition met when the screen of the terminal matches the
+     *         named signature of the terminal, see
+     *         {@link ITerminal#getScreenSignatures()}
+     */
+    public static @NotNull Predicate<ITerminal> screen(@NotNull String signatureName) {
+        return terminal -> terminal.getScreenSignatures().matches(signatureName, terminal.getScreenFingerprint());
+    }
+
+    /**
+     * Wait until any terminal meets the condition, waiting up to 2 minutes
+     *
+     * @return the first terminal found to meet the condition
+     */
+    public @NotNull ITerminal waitForAny(@NotNull Predicate<ITerminal> condition)
+            throws TerminalInterruptedException, Zos3270Exception {
+        return waitForAny(condition, DEFAULT_WAIT);
+    }
+
+    /**
+     * Wait until any terminal meets the condition
+     *
+     * @param condition - the condition
+     * @param maxWait   - time in milliseconds
+     * @return the first terminal found to meet the condition
+     * @throws TimeoutException - if no terminal meets the condition before the
+     *                          wait times out
+     */
+    public @NotNull ITerminal waitForAny(@NotNull Predicate<ITerminal> condition, int maxWait)
+            throws TerminalInterruptedException, Zos3270Exception {
+        int index = waitFor(condition, maxWait, false);
+        return this.terminals.get(index);
+    }
+
+    /**
+     * Wait until every terminal meets the condition, waiting up to 2 minutes
+     */
+    public void waitForAll(@NotNull Predicate<ITerminal> condition)
+            throws TerminalInterruptedException, Zos3270Exception {
+        waitForAll(condition, DEFAULT_WAIT);
+    }
+
+    /**
+     * Wait until every terminal meets the condition at the same time
+     *
+     * @param condition - the condition
+     * @param maxWait   - time in milliseconds
+     * @throws TimeoutException - if the terminals do not all meet the
+     *                          condition before the wait times out
+     */
+    public void waitForAll(@NotNull Predicate<ITerminal> condition, int maxWait)
+            throws TerminalInterruptedException, Zos3270Exception {
+        waitFor(condition, maxWait, true);
+    }
+
+    /**
+     * @return the index of the terminal that met the condition, or -1 when all
+     *         the terminals are wanted
+     */
+    private int waitFor(Predicate<ITerminal> condition, int maxWait, boolean all)
+            throws TerminalInterruptedException, Zos3270Exception {
+        ArrayList<Member> members = startWaiting();
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait);
+            boolean[] met = new boolean[this.screens.length];
+            int metCount = 0;
+
+            while (true) {
+                int[] changedTerminals = takeChanged(deadline);
+                if (changedTerminals == null) {
+                    String which = all ? "all of the " : "any of the ";
+                    throw new TimeoutException("Wait for " + which + this.screens.length
+                            + " terminals took longer than " + maxWait + "ms");
+                }
+
+                for (int index : changedTerminals) {
+                    boolean result;
+                    try {
+                        result = condition.test(this.terminals.get(index));
+                    } catch (RuntimeException e) {
+                        throw new Zos3270Exception("Terminal condition failed", e);
+                    }
+
+                    if (!all) {
+                        if (result) {
+                            return index;
+                        }
+                    } else if (result != met[index]) {
+                        // *** A terminal may stop meeting the condition, eg the keyboard is locked again
+                        met[index] = result;
+                        metCount += result ? 1 : -1;
+                    }
+                }
+
+                if (all && metCount == this.screens.length) {
+                    return -1;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TerminalInterruptedException("Wait for the terminal group was interrupted", e);
+        } finally {
+            stopWaiting(members);
+        }
+    }
+
+    /**
+     * Register with every terminal, then mark them all as changed so the
+     * condition is tested against the screens as they are now
+     */
+    private ArrayList<Member> startWaiting() throws Zos3270Exception {
+        this.lock.lock();
+        try {
+            if (this.waiting) {
+                throw new Zos3270Exception("The terminal group is already being waited on");
+            }
+            this.waiting = true;
+        } finally {
+            this.lock.unlock();
+        }
+
+        ArrayList<Member> members = new ArrayList<>(this.screens.length);
+        for (int i = 0; i < this.screens.length; i++) {
+            Member member = new Member(i);
+            this.screens[i].registerScreenUpdateListener(member);
+            this.screens[i].registerKeyboardUnlockListener(member);
+            members.add(member);
+        }
+
+        this.lock.lock();
+        try {
+            Arrays.fill(this.dirty, true);
+        } finally {
+            this.lock.unlock();
+        }
+        return members;
+    }
+
+    private void stopWaiting(ArrayList<Member> members) {
+        for (Member member : members) {
+            this.screens[member.index].unregisterScreenUpdateListener(member);
+            this.screens[member.index].unregisterKeyboardUnlockListener(member);
+        }
+
+        this.lock.lock();
+        try {
+            this.waiting = false;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for a terminal to change
+     *
+     * @return the terminals that have changed since the last call, or null if
+     *         the deadline passed first
+     */
+    private int[] takeChanged(long deadline) throws InterruptedException {
+        this.lock.lock();
+        try {
+            while (true) {
+                int count = 0;
+                for (boolean changedTerminal : this.dirty) {
+                    if (changedTerminal) {
+                        count++;
+                    }
+                }
+
+                if (count > 0) {
+                    int[] changedTerminals = new int[count];
+                    int next = 0;
+                    for (int i = 0; i < this.dirty.length; i++) {
+                        if (this.dirty[i]) {
+                            this.dirty[i] = false;
+                            changedTerminals[next++] = i;
+                        }
+                    }
+                    return changedTerminals;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                this.changed.awaitNanos(remaining);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Called by the network thread of a terminal, with the screen lock held
+     */
+    private void terminalChanged(int index) {
+        this.lock.lock();
+        try {
+            this.dirty[index] = true;
+            this.changed.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * The registration of the group with one terminal
+     */
+    private class Member implements IScreenUpdateListener, Runnable {
+
+        private final int index;
+
+        private Member(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void screenUpdated(Direction direction, AttentionIdentification aid) {
+            terminalChanged(this.index);
+        }
+
+        @Override
+        public void run() {
+            terminalChanged(this.index);
+        }
+    }
+
+}
@@ -8,7 +8,10 @@ package dev.galasa.zos3270.internal;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.validation.constraints.NotNull;
 
@@ -19,6 +22,7 @@ import org.osgi.service.component.annotations.Component;
 import dev.galasa.ManagerException;
 import dev.galasa.framework.spi.AbstractManager;
 import dev.galasa.framework.spi.AnnotatedField;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.GenerateAnnotatedField;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
@@ -33,9 +37,12 @@ import dev.galasa.zos3270.ITerminal;
 import dev.galasa.zos3270.TerminalInterruptedException;
 import dev.galasa.zos3270.Zos3270ManagerException;
 import dev.galasa.zos3270.Zos3270Terminal;
+import dev.galasa.zos3270.internal.metrics.TerminalMetrics;
+import dev.galasa.zos3270.internal.properties.ConnectParallelism;
 import dev.galasa.zos3270.internal.properties.Zos3270PropertiesSingleton;
 import dev.galasa.zos3270.spi.IZos3270ManagerSpi;
 import dev.galasa.zos3270.spi.NetworkException;
+import dev.galasa.zos3270.spi.TerminalConnector;
 import dev.galasa.zos3270.spi.Zos3270TerminalImpl;
 
 @Component(service = { IManager.class })
@@ -128,7 +135,7 @@ public class Zos3270ManagerImpl extends AbstractManager implements IZos3270Manag
             String terminaId = "term" + (terminalCount);
 
             Zos3270TerminalImpl terminal = new Zos3270TerminalImpl(terminaId, host.getHostname(), host.getTelnetPort(),
-                    host.isTelnetPortTls(), getFramework(), autoConnect);
+                    host.isTelnetPortTls(), getFramework(), autoConnect, image);
 
             this.terminals.add(terminal);
             logger.info("Generated a terminal for zOS Image tagged " + tag);
@@ -145,33 +152,56 @@ public class Zos3270ManagerImpl extends AbstractManager implements IZos3270Manag
             return;
         }
 
-        logger.info("Connecting zOS3270 Terminals");
+        ArrayList<Zos3270TerminalImpl> autoConnectTerminals = new ArrayList<>();
         for (Zos3270TerminalImpl terminal : terminals) {
-            try {
-                if (terminal.doAutoConnect()) {
-                    terminal.connect();
-                    logger.trace("Connected zOS 3270 Terminal " + terminal.getId());
-                } else {
-                    logger.trace("AutoConnect flag is false for: " + terminal.getId());
-                }
-                
-            } catch (NetworkException e) {
-                logger.info("Failed to connect zOS 3270 Terminal to " + terminal.getHostPort(), e);
+            if (terminal.doAutoConnect()) {
+                autoConnectTerminals.add(terminal);
+            } else {
+                logger.trace("AutoConnect flag is false for: " + terminal.getId());
             }
         }
+
+        logger.info("Connecting zOS3270 Terminals");
+        Map<Zos3270TerminalImpl, Exception> failures;
+        try {
+            failures = TerminalConnector.connectAll(autoConnectTerminals, ConnectParallelism.get(), terminal -> {
+                terminal.connect();
+                logger.trace("Connected zOS 3270 Terminal " + terminal.getId());
+            });
+        } catch (TerminalInterruptedException e) {
+            throw new Zos3270ManagerException("Interrupted whilst connecting the zOS 3270 Terminals", e);
+        }
+
+        for (Entry<Zos3270TerminalImpl, Exception> failure : failures.entrySet()) {
+            if (!(failure.getValue() instanceof NetworkException)) {
+                throw new Zos3270ManagerException("Unable to connect zOS 3270 Terminal " + failure.getKey().getId(),
+                        failure.getValue());
+            }
+            logger.info("Failed to connect zOS 3270 Terminal to " + failure.getKey().getHostPort(), failure.getValue());
+        }
     }
 
     @Override
     public void provisionStop() {
         logger.trace("Disconnecting terminals");
+        HashMap<String, Long> metrics = new HashMap<>();
         for (Zos3270TerminalImpl terminal : terminals) {
             try {
-                terminal.flushTerminalCache();
                 terminal.disconnect();
             } catch (TerminalInterruptedException e) {
                 logger.warn("Thread interrupted whilst disconnecting terminals", e);
                 Thread.currentThread().interrupt();
             }
+            // *** Drain after the disconnect so the final screen is included
+            terminal.closeTerminalCache();
+
+            terminal.getScreen().getMetrics().addTo(metrics);
+        }
+
+        try {
+            TerminalMetrics.addTo(this.dss, metrics);
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to record the metrics of the zOS 3270 Terminals", e);
         }
     }
 
@@ -0,0 +1,222 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable, growable buffer used to frame the inbound TN3270E stream.
+ * <p>
+ * Data is received in bulk and scanned for the IAC EOR record terminator.
+ * Doubled IAC bytes are removed in place so a record can be returned as a view
+ * of this buffer without being copied. If a record is only partially received
+ * the scan position is remembered, so the bytes already scanned are not
+ * scanned again when the rest arrives.
+ * </p>
+ * <p>
+ * A record returned by {@link #nextRecord(int)} is only valid until the buffer
+ * is next filled.
+ * </p>
+ */
+public class InboundRecordBuffer {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int MINIMUM_READ     = 1024;
+
+    private byte[]           data;
+    private int              start;
+    private int              end;
+
+    private int              recordStart      = -1;
+    private int              scanned;
+    private int              unescaped;
+
+    public InboundRecordBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InboundRecordBuffer(int capacity) {
+        this.data = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * @return the number of received bytes that have not been consumed
+     */
+    public int available() {
+        return end - start;
+    }
+
+    /**
+     * Look at an unconsumed byte without consuming it
+     *
+     * @param offset - offset from the first unconsumed byte, must be less than
+     *               {@link #available()}
+     * @return the byte
+     */
+    public byte peek(int offset) {
+        return data[start + offset];
+    }
+
+    /**
+     * Consume bytes that have been examined with {@link #peek(int)}
+     *
+     * @param count - the number of bytes to consume
+     */
+    public void skip(int count) {
+        start += Math.min(count, available());
+        recordStart = -1;
+    }
+
+    /**
+     * Consume unframed bytes, used during the telnet negotiation
+     *
+     * @return the number of bytes copied, which may be zero
+     */
+    public int read(byte[] b, int off, int len) {
+        int length = Math.min(len, available());
+        System.arraycopy(data, start, b, off, length);
+        skip(length);
+        return length;
+    }
+
+    /**
+     * Perform a single bulk read from the stream into the buffer
+     *
+     * @param inputStream - the stream to read
+     * @return the number of bytes read, or -1 at the end of the stream
+     * @throws IOException - if the read fails
+     */
+    public int fill(InputStream inputStream) throws IOException {
+        ensureSpace(MINIMUM_READ);
+        int length = inputStream.read(data, end, data.length - end);
+        if (length > 0) {
+            end += length;
+        }
+        return length;
+    }
+
+    /**
+     * Obtain a view of the free space at the end of the buffer so that a channel
+     * or TLS engine can write directly into it. {@link #received(ByteBuffer)}
+     * must be called with the view before the buffer is used again.
+     *
+     * @param minimum - the minimum number of free bytes required
+     * @return a view positioned at the end of the received data
+     */
+    public ByteBuffer receiveBuffer(int minimum) {
+        ensureSpace(Math.max(minimum, MINIMUM_READ));
+        return ByteBuffer.wrap(data, end, data.length - end);
+    }
+
+    /**
+     * Accept the bytes written into a view returned by
+     * {@link #receiveBuffer(int)}
+     *
+     * @param receiveBuffer - the view
+     */
+    public void received(ByteBuffer receiveBuffer) {
+        end = receiveBuffer.position();
+    }
+
+    /**
+     * Scan for the next IAC EOR terminated record. Doubled IAC bytes are
+     * replaced by a single IAC and the record and its terminator are consumed.
+     *
+     * @param offset - the number of unconsumed bytes preceding the record data,
+     *               ie the TN3270E header
+     * @return a view of the record data, or null if the terminator has not been
+     *         received yet
+     */
+    public ByteBuffer nextRecord(int offset) {
+        int from = start + offset;
+        if (recordStart != from) {
+            recordStart = from;
+            scanned = from;
+            unescaped = from;
+        }
+
+        while (scanned < end) {
+            int iac = indexOfIac(scanned);
+
+            int run = iac - scanned;
+            if (unescaped != scanned) {
+                System.arraycopy(data, scanned, data, unescaped, run);
+            }
+            unescaped += run;
+            scanned = iac;
+
+            // *** Need the byte following the IAC before deciding what it is
+            if (iac + 1 >= end) {
+                break;
+            }
+
+            byte command = data[iac + 1];
+            if (command == Network.EOR) {
+                ByteBuffer record = ByteBuffer.wrap(data, recordStart, unescaped - recordStart).slice();
+                start = iac + 2;
+                recordStart = -1;
+                return record;
+            }
+
+            if (command == Network.IAC) {
+                data[unescaped++] = Network.IAC;
+                scanned = iac + 2;
+            } else {
+                // *** Not valid within a record, drop the IAC and keep the byte
+                scanned = iac + 1;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the index of the next IAC, or the end of the data if there is none
+     */
+    private int indexOfIac(int from) {
+        byte[] bytes = this.data;
+        int limit = this.end;
+        for (int i = from; i < limit; i++) {
+            if (bytes[i] == Network.IAC) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private void ensureSpace(int minimum) {
+        if (start == end) {
+            start = 0;
+            end = 0;
+            recordStart = -1;
+        }
+
+        if (data.length - end >= minimum) {
+            return;
+        }
+
+        int length = end - start;
+        int shift = start;
+        if (data.length - length >= minimum) {
+            System.arraycopy(data, start, data, 0, length);
+        } else {
+            byte[] newData = new byte[Math.max(data.length * 2, length + minimum)];
+            System.arraycopy(data, start, newData, 0, length);
+            data = newData;
+        }
+        start = 0;
+        end = length;
+
+        if (recordStart >= 0) {
+            recordStart -= shift;
+            scanned -= shift;
+            unescaped -= shift;
+        }
+    }
+
+}
@@ -15,8 +15,10 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
@@ -25,6 +27,7 @@ import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.zos3270.internal.metrics.TerminalMetrics;
 import dev.galasa.zos3270.spi.NetworkException;
 
 public class Network {
@@ -64,14 +67,17 @@ public class Network {
 
     private final Log           logger          = LogFactory.getLog(getClass());
 
-    private final String        host;
-    private final int           port;
-    private final boolean       ssl;
+    protected final String      host;
+    protected final int         port;
+    protected final boolean     ssl;
 
     private Socket              socket;
     private OutputStream        outputStream;
     private InputStream         inputStream;
 
+    private volatile NetworkRecorder recorder;
+    private volatile TerminalMetrics metrics;
+
     public Network(String host, int port) {
         this(host, port, false);
     }
@@ -130,17 +136,15 @@ public class Network {
         if (!ssl) {
             newSocket = new Socket(this.host, this.port);
         } else {
-
-            boolean ibmJdk = System.getProperty("java.vendor").contains("IBM");
-            SSLContext sslContext;
-            if (ibmJdk) {
-                sslContext = SSLContext.getInstance("SSL_TLSv2");
-            } else {
-                sslContext = SSLContext.getInstance("TLSv1.2");
-            }
-            sslContext.init(null, new TrustManager[] { new TrustAllCerts() }, new java.security.SecureRandom());
-            newSocket = sslContext.getSocketFactory().createSocket(this.host, this.port);
-            ((SSLSocket) newSocket).startHandshake();
+            // *** The shared context lets the handshake resume an earlier session
+            TlsContext tlsContext = TlsContext.forServer(this);
+            SSLSocket sslSocket = (SSLSocket) tlsContext.getSslContext().getSocketFactory().createSocket(this.host,
+                    this.port);
+            long started = System.currentTimeMillis();
+            long startNanos = System.nanoTime();
+            sslSocket.startHandshake();
+            handshakeCompleted(tlsContext, sslSocket.getSession(), started, System.nanoTime() - startNanos);
+            newSocket = sslSocket;
         }
         newSocket.setTcpNoDelay(true);
         newSocket.setKeepAlive(true);
@@ -148,6 +152,22 @@ public class Network {
         return newSocket;
     }
 
+    /**
+     * Create a new SSL context, only called for the first connection to the
+     * server as the context is then shared, see {@link TlsContext}
+     */
+    protected SSLContext createSslContext() throws NoSuchAlgorithmException, KeyManagementException {
+        boolean ibmJdk = System.getProperty("java.vendor").contains("IBM");
+        SSLContext sslContext;
+        if (ibmJdk) {
+            sslContext = SSLContext.getInstance("SSL_TLSv2");
+        } else {
+            sslContext = SSLContext.getInstance("TLSv1.2");
+        }
+        sslContext.init(null, new TrustManager[] { new TrustAllCerts() }, new java.security.SecureRandom());
+        return sslContext;
+    }
+
     public void close() {
         if (socket != null) {
             try {
@@ -312,9 +332,53 @@ public class Network {
     }
 
     public void sendDatastream(byte[] outboundDatastream) throws NetworkException {
+        recordOutbound(outboundDatastream);
         sendDatastream(outputStream, outboundDatastream);
     }
 
+    /**
+     * Record the 3270 records of this session from now on
+     * 
+     * @param recorder - the recorder, or null to stop recording
+     */
+    public void setRecorder(NetworkRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public NetworkRecorder getRecorder() {
+        return this.recorder;
+    }
+
+    /**
+     * Count the TLS handshakes of this session in the terminal metrics
+     * 
+     * @param metrics - the metrics, or null to stop counting
+     */
+    public void setMetrics(TerminalMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public TerminalMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    protected void handshakeCompleted(TlsContext tlsContext, SSLSession session, long started, long nanos) {
+        boolean resumed = tlsContext.handshakeCompleted(session, started, nanos);
+        TerminalMetrics currentMetrics = this.metrics;
+        if (currentMetrics != null) {
+            currentMetrics.tlsHandshake(resumed, nanos);
+        }
+        logger.trace("TLS handshake with " + getHostPort() + " took " + TimeUnit.NANOSECONDS.toMillis(nanos)
+                + "ms, " + (resumed ? "resumed" : "full") + ", " + tlsContext.getStatistics());
+    }
+
+    protected void recordOutbound(byte[] outboundDatastream) {
+        NetworkRecorder currentRecorder = this.recorder;
+        if (currentRecorder != null) {
+            currentRecorder.outbound(outboundDatastream);
+        }
+    }
+
     public void sendDatastream(OutputStream outputStream, byte[] outboundDatastream) throws NetworkException {
         try {
             byte[] header = new byte[] { 0, 0, 0, 0, 0 };
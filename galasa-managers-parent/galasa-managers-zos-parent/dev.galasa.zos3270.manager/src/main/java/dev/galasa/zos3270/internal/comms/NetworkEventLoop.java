@@ -0,0 +1,131 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A single selector thread that services the inbound and outbound traffic of
+ * many non-blocking 3270 sessions
+ */
+public class NetworkEventLoop extends Thread {
+
+    private static final Log                      logger  = LogFactory.getLog(NetworkEventLoop.class);
+
+    private final Selector                        selector;
+    private final ConcurrentLinkedQueue<Runnable> tasks   = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean                      running = true;
+
+    public NetworkEventLoop(String name) throws IOException {
+        super(name);
+        setDaemon(true);
+        this.selector = Selector.open();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                logger.error("Problem with the 3270 network selector", e);
+                break;
+            }
+
+            runTasks();
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+
+                NioNetwork session = (NioNetwork) key.attachment();
+                try {
+                    if (key.isValid() && key.isReadable()) {
+                        session.handleRead();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        session.handleWrite();
+                    }
+                } catch (RuntimeException e) {
+                    logger.error("Problem servicing 3270 session", e);
+                    session.close();
+                }
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            ((NioNetwork) key.attachment()).close();
+        }
+
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close the 3270 network selector", e);
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("Problem running 3270 network task", e);
+            }
+        }
+    }
+
+    /**
+     * Run the task on the selector thread
+     *
+     * @param task - the task to run
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == this;
+    }
+
+    /**
+     * Register a connected, negotiated, session with this selector. The
+     * registration happens on the selector thread, any inbound data already
+     * buffered by the session is processed straight after.
+     *
+     * @param channel - the non-blocking channel
+     * @param session - the session that owns the channel
+     */
+    public void register(SocketChannel channel, NioNetwork session) {
+        execute(() -> {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ, session);
+                session.registered(key);
+            } catch (ClosedChannelException e) {
+                logger.error("Unable to register closed 3270 channel", e);
+                session.close();
+            }
+        });
+    }
+
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.IOException;
+
+/**
+ * The shared set of selector threads used by all the non-blocking 3270
+ * sessions in the JVM. The threads are started when the first session is
+ * registered and stopped when the last session is closed.
+ */
+public class NetworkEventLoopGroup {
+
+    private static NetworkEventLoopGroup shared;
+    private static int                   sessions;
+
+    private final NetworkEventLoop[]     eventLoops;
+    private int                          nextEventLoop;
+
+    private NetworkEventLoopGroup(int threads) throws IOException {
+        this.eventLoops = new NetworkEventLoop[threads];
+        for (int i = 0; i < threads; i++) {
+            this.eventLoops[i] = new NetworkEventLoop("zos3270-network-" + (i + 1));
+            this.eventLoops[i].start();
+        }
+    }
+
+    /**
+     * Obtain an event loop for a new session, starting the shared group if
+     * required
+     *
+     * @param threads - the number of selector threads to start if the group is not yet running
+     * @return the event loop the session is to be registered with
+     * @throws IOException - if the selectors could not be opened
+     */
+    public static synchronized NetworkEventLoop acquire(int threads) throws IOException {
+        if (shared == null) {
+            shared = new NetworkEventLoopGroup(Math.max(1, threads));
+        }
+        sessions++;
+
+        return shared.next();
+    }
+
+    /**
+     * Indicate a session has finished with its event loop, the last session out
+     * stops the selector threads
+     */
+    public static synchronized void release() {
+        if (sessions <= 0) {
+            return;
+        }
+
+        sessions--;
+        if (sessions == 0 && shared != null) {
+            for (NetworkEventLoop eventLoop : shared.eventLoops) {
+                eventLoop.shutdown();
+            }
+            shared = null;
+        }
+    }
+
+    private NetworkEventLoop next() {
+        NetworkEventLoop eventLoop = eventLoops[nextEventLoop];
+        nextEventLoop++;
+        if (nextEventLoop >= eventLoops.length) {
+            nextEventLoop = 0;
+        }
+        return eventLoop;
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.internal.comms.TerminalRecording.Record;
+import dev.galasa.zos3270.internal.comms.TerminalRecording.Type;
+import dev.galasa.zos3270.internal.terminal.TerminalOutputExecutor;
+
+/**
+ * Writes the records of a session in the {@link TerminalRecording} format as
+ * they are sent and received, so they can be served again by the
+ * {@link ReplayServer}.
+ * <p>
+ * The records are not passed through confidential text filtering, anything
+ * typed into the terminal, including passwords, will be in the recording.
+ * </p>
+ * <p>
+ * The records are buffered rather than flushed as they are written, as they
+ * are written on the network thread. The buffer is flushed every second on
+ * the {@link TerminalOutputExecutor} threads, and when the recorder is closed.
+ * </p>
+ */
+public class NetworkRecorder {
+
+    private static final long        FLUSH_INTERVAL = 1;
+
+    private final Log                logger         = LogFactory.getLog(getClass());
+
+    private final Writer             writer;
+    private final long               start          = System.nanoTime();
+    private final ScheduledFuture<?> flusher;
+    private boolean                  stopped;
+    private boolean                  closed;
+    private boolean                  unflushed;
+    private int                      records;
+
+    public NetworkRecorder(Writer writer) {
+        this.writer = new BufferedWriter(writer);
+        write(null);
+        this.flusher = TerminalOutputExecutor.acquire().scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL,
+                FLUSH_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param record - a 3270 datastream received by the terminal, the position
+     *               of the buffer is not changed
+     */
+    public void inbound(ByteBuffer record) {
+        ByteBuffer duplicate = record.duplicate();
+        byte[] data = new byte[duplicate.remaining()];
+        duplicate.get(data);
+        write(new Record(Type.INBOUND, elapsed(), data));
+    }
+
+    public void outbound(byte[] datastream) {
+        write(new Record(Type.OUTBOUND, elapsed(), datastream));
+    }
+
+    public void telnet(byte[] command) {
+        write(new Record(Type.TELNET, elapsed(), command));
+    }
+
+    public synchronized int getRecords() {
+        return records;
+    }
+
+    /**
+     * Write the buffered records, called periodically
+     */
+    public synchronized void flush() {
+        if (stopped || !unflushed) {
+            return;
+        }
+
+        try {
+            writer.flush();
+            unflushed = false;
+        } catch (IOException e) {
+            logger.warn("Failed to write the terminal recording, recording stopped", e);
+            stopped = true;
+        }
+    }
+
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close the terminal recording", e);
+            }
+            stopped = true;
+        }
+
+        flusher.cancel(false);
+        TerminalOutputExecutor.release();
+    }
+
+    private long elapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private synchronized void write(Record record) {
+        if (stopped) {
+            return;
+        }
+
+        try {
+            if (record == null) {
+                writer.write(TerminalRecording.HEADER);
+                writer.write('\n');
+            } else {
+                record.write(writer);
+                records++;
+            }
+            unflushed = true;
+        } catch (IOException e) {
+            logger.warn("Failed to write the terminal recording, recording stopped", e);
+            stopped = true;
+        }
+    }
+
+}
@@ -17,6 +17,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.zos3270.internal.datastream.AbstractCommandCode;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.CommandWrite;
 import dev.galasa.zos3270.internal.datastream.CommandWriteStructured;
 import dev.galasa.zos3270.internal.datastream.AbstractOrder;
 import dev.galasa.zos3270.internal.datastream.OrderInsertCursor;
@@ -48,6 +50,8 @@ public class NetworkThread extends Thread {
     private final Screen      screen;
     private final Network     network;
 
+    private final InboundRecordBuffer recordBuffer = new InboundRecordBuffer();
+
     private boolean           endOfStream     = false;
 
     private static Log               logger          = LogFactory.getLog(NetworkThread.class);
@@ -82,55 +86,131 @@ public class NetworkThread extends Thread {
     }
 
     public void processMessage(InputStream messageStream) throws IOException, NetworkException {
-        byte[] header = new byte[1];
-        int length = messageStream.read(header);
-        if (length == -1) {
-            endOfStream = true;
-            return;
+        while (!processBufferedMessage(recordBuffer, screen, network)) {
+            if (recordBuffer.fill(messageStream) == -1) {
+                if (recordBuffer.available() == 0) {
+                    endOfStream = true;
+                    return;
+                }
+                throw incompleteMessage(recordBuffer);
+            }
         }
-        if (length != 1) {
-            throw new NetworkException("Missing first byte of the telnet 3270 header");
+    }
+
+    /**
+     * Process the next TN3270E message held in the buffer
+     * 
+     * @param recordBuffer - the framing buffer
+     * @param screen - the screen to apply 3270 data to
+     * @param network - the network to send responses on
+     * @return true if a message was processed, false if the message is incomplete
+     * @throws NetworkException - if the message is invalid
+     */
+    public static boolean processBufferedMessage(InboundRecordBuffer recordBuffer, Screen screen, Network network)
+            throws NetworkException {
+        if (recordBuffer.available() < 1) {
+            return false;
         }
 
+        byte dataType = recordBuffer.peek(0);
+
         //In the middle of the DT_3270_DATA stream we can receive IAC DO TIMING_MARK requests
-        if(header[0]  == Network.IAC) {
-            byte[] remainingHeader = new byte[2];
-            if (messageStream.read(remainingHeader) != 2) {
-                throw new NetworkException("Missing remaining 2 bytes of the telnet 3270 IAC header");
+        if (dataType == Network.IAC) {
+            if (recordBuffer.available() < 3) {
+                return false;
             }
+            byte command = recordBuffer.peek(1);
+            byte option = recordBuffer.peek(2);
+            recordBuffer.skip(3);
+
+            NetworkRecorder recorder = network.getRecorder();
+            if (recorder != null) {
+                recorder.telnet(new byte[] { Network.IAC, command, option });
+            }
+
             //respond with DON'T_TIMING_MARK
-            if(remainingHeader[0] == Network.DO && remainingHeader[1] == Network.TIMING_MARK){
+            if (command == Network.DO && option == Network.TIMING_MARK) {
                 byte [] response = new byte[3];
                 response[0] = Network.IAC;
                 response[1] = Network.DONT;    
                 response[2] = Network.TIMING_MARK;
                 network.sendDatastream(response);
-            }else{
-                throw new NetworkException("In IAC request not supported, Command was: " + remainingHeader[0] + " " + remainingHeader[1]);
+            } else {
+                throw new NetworkException("In IAC request not supported, Command was: " + command + " " + option);
             }
-            return;
+            return true;
         }
 
-        if (header[0] == DT_3270_DATA) {
-            byte[] remainingHeader = new byte[4];
-            if (messageStream.read(remainingHeader) != 4) {
-                throw new NetworkException("Missing remaining 4 byte of the telnet 3270 header");
+        if (dataType == DT_3270_DATA) {
+            if (recordBuffer.available() < 5) {
+                return false;
             }
 
-            ByteBuffer buffer = readTerminatedMessage(messageStream);
+            ByteBuffer buffer = recordBuffer.nextRecord(5);
+            if (buffer == null) {
+                return false;
+            }
 
-            Inbound3270Message inbound3270Message = process3270Data(buffer);
-            this.screen.processInboundMessage(inbound3270Message);
-            return;
-        } 
+            NetworkRecorder recorder = network == null ? null : network.getRecorder();
+            if (recorder != null) {
+                recorder.inbound(buffer);
+            }
 
-        throw new NetworkException("TN3270E message Data-Type " + header[0] + " is unsupported");
+            process3270Data(buffer, screen);
+            return true;
+        }
+
+        throw new NetworkException("TN3270E message Data-Type " + dataType + " is unsupported");
+    }
+
+    private static NetworkException incompleteMessage(InboundRecordBuffer recordBuffer) {
+        byte dataType = recordBuffer.peek(0);
+        if (dataType == Network.IAC) {
+            return new NetworkException("Missing remaining 2 bytes of the telnet 3270 IAC header");
+        }
+        if (recordBuffer.available() < 5) {
+            return new NetworkException("Missing remaining 4 byte of the telnet 3270 header");
+        }
+        return new NetworkException("3270 message did not terminate with IAC EOR");
+    }
+
+    /**
+     * Apply an inbound 3270 datastream to the screen. The orders of a Write or
+     * Erase/Write are decoded straight into the screen, anything else is parsed
+     * into an {@link Inbound3270Message} first
+     * 
+     * @param buffer - the datastream
+     * @param screen - the screen to apply it to
+     * @throws NetworkException - if the datastream is invalid
+     */
+    public static void process3270Data(ByteBuffer buffer, Screen screen) throws NetworkException {
+        screen.getMetrics().inbound(buffer.remaining());
+        if (buffer.remaining() >= 2) {
+            AbstractCommandCode commandCode = AbstractCommandCode.getCommandCode(buffer.get(buffer.position()));
+            if (commandCode instanceof CommandWrite || commandCode instanceof CommandEraseWrite) {
+                if (logger.isTraceEnabled()) {
+                    byte[] traceBytes = new byte[buffer.remaining()];
+                    buffer.duplicate().get(traceBytes);
+                    logger.trace("inbound=" + Hex.encodeHexString(traceBytes));
+                }
+
+                buffer.get();
+                WriteControlCharacter writeControlCharacter = new WriteControlCharacter(buffer.get());
+                screen.processWrite(commandCode, writeControlCharacter, buffer);
+                return;
+            }
+        }
+
+        screen.processInboundMessage(process3270Data(buffer));
     }
 
     public static Inbound3270Message process3270Data(ByteBuffer buffer) throws NetworkException {
 
-        String hex = new String(Hex.encodeHex(buffer.array()));
-        logger.trace("inbound=" + hex);
+        if (logger.isTraceEnabled()) {
+            byte[] traceBytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(traceBytes);
+            logger.trace("inbound=" + Hex.encodeHexString(traceBytes));
+        }
 
         AbstractCommandCode commandCode = AbstractCommandCode.getCommandCode(buffer.get());
         if (commandCode instanceof CommandWriteStructured) {
@@ -219,6 +299,17 @@ public class NetworkThread extends Thread {
         return new Inbound3270Message(commandCode, structuredFields);
     }
 
+    /**
+     * Read a single IAC EOR terminated record directly from the stream. Nothing
+     * beyond the terminator is read, so this is unbuffered and is only for
+     * callers that do not own the stream, the network thread frames the
+     * inbound stream with an {@link InboundRecordBuffer}.
+     * 
+     * @param messageStream - the stream to read
+     * @return the record with the doubled IACs removed
+     * @throws IOException - if the read fails
+     * @throws NetworkException - if the stream ends before the IAC EOR
+     */
     public static ByteBuffer readTerminatedMessage(InputStream messageStream) throws IOException, NetworkException {
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
 
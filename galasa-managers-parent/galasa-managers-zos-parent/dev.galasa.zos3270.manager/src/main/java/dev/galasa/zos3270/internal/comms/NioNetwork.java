@@ -0,0 +1,538 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLEngineResult.Status;
+import javax.net.ssl.SSLException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.spi.NetworkException;
+import dev.galasa.zos3270.spi.Screen;
+
+/**
+ * A 3270 session that is serviced by a shared {@link NetworkEventLoop} rather
+ * than a dedicated {@link NetworkThread}.
+ * <p>
+ * The connection, TLS handshake and TN3270E negotiation are performed in
+ * blocking mode on the connecting thread. Once negotiated the channel is
+ * switched to non-blocking and inbound records are framed by an
+ * {@link InboundRecordBuffer} and passed to the {@link Screen} on the selector
+ * thread.
+ * </p>
+ */
+public class NioNetwork extends Network {
+
+    private static final ByteBuffer EMPTY         = ByteBuffer.allocate(0);
+
+    private final Log               logger        = LogFactory.getLog(getClass());
+
+    private final int               threads;
+
+    private SocketChannel           channel;
+    private SSLEngine               sslEngine;
+    private ByteBuffer              netIn;
+    private InboundRecordBuffer     inbound;
+
+    private final Object            writeLock     = new Object();
+    private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+
+    private NetworkEventLoop        eventLoop;
+    private SelectionKey            key;
+    private Screen                  screen;
+
+    public NioNetwork(String host, int port, boolean ssl, int threads) {
+        super(host, port, ssl);
+        this.threads = threads;
+    }
+
+    @Override
+    public synchronized boolean connectClient() throws NetworkException {
+        if (channel != null) {
+            if (channel.isOpen()) {
+                return true;
+            }
+
+            close();
+        }
+
+        SocketChannel newChannel = null;
+        try {
+            newChannel = SocketChannel.open();
+            newChannel.configureBlocking(true);
+            newChannel.socket().setTcpNoDelay(true);
+            newChannel.socket().setKeepAlive(true);
+            newChannel.connect(new InetSocketAddress(this.host, this.port));
+
+            this.channel = newChannel;
+            this.inbound = new InboundRecordBuffer();
+            if (ssl) {
+                TlsContext tlsContext = TlsContext.forServer(this);
+                this.sslEngine = tlsContext.getSslContext().createSSLEngine(this.host, this.port);
+                this.sslEngine.setUseClientMode(true);
+                this.netIn = ByteBuffer.allocate(this.sslEngine.getSession().getPacketBufferSize());
+                this.inbound = new InboundRecordBuffer(this.sslEngine.getSession().getApplicationBufferSize());
+                long started = System.currentTimeMillis();
+                long startNanos = System.nanoTime();
+                handshake();
+                handshakeCompleted(tlsContext, this.sslEngine.getSession(), started, System.nanoTime() - startNanos);
+            }
+
+            negotiate(new NegotiationInputStream(), new NegotiationOutputStream());
+
+            newChannel = null;
+            return true;
+        } catch (Exception e) {
+            throw new NetworkException("Unable to connect to Telnet server", e);
+        } finally {
+            if (newChannel != null) {
+                this.channel = null;
+                this.sslEngine = null;
+                try {
+                    newChannel.close();
+                } catch (IOException e) {
+                    logger.error("Failed to close the channel", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Switch the negotiated channel to non-blocking and hand it to one of the
+     * shared selector threads
+     *
+     * @param screen - the screen the inbound records are to be applied to
+     * @throws NetworkException - if the session is not connected
+     */
+    public synchronized void startReceiving(Screen screen) throws NetworkException {
+        if (channel == null) {
+            throw new NetworkException("Unable to start receiving, the session is not connected");
+        }
+
+        this.screen = screen;
+        try {
+            channel.configureBlocking(false);
+            this.eventLoop = NetworkEventLoopGroup.acquire(this.threads);
+        } catch (IOException e) {
+            throw new NetworkException("Unable to register the session with the selector", e);
+        }
+        this.eventLoop.register(channel, this);
+    }
+
+    /**
+     * Called on the selector thread once the channel is registered
+     */
+    protected void registered(SelectionKey key) {
+        this.key = key;
+
+        synchronized (writeLock) {
+            if (!pendingWrites.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        handleInbound(0);
+    }
+
+    @Override
+    public boolean isConnected() {
+        SocketChannel currentChannel = this.channel;
+        return currentChannel != null && currentChannel.isOpen();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return null;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+
+        if (key != null) {
+            key.cancel();
+            key = null;
+        }
+
+        if (sslEngine != null) {
+            sslEngine.closeOutbound();
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Failed to close the channel", e);
+        }
+
+        synchronized (writeLock) {
+            channel = null;
+            sslEngine = null;
+            pendingWrites.clear();
+        }
+
+        if (eventLoop != null) {
+            eventLoop = null;
+            NetworkEventLoopGroup.release();
+        }
+    }
+
+    @Override
+    public void sendDatastream(byte[] outboundDatastream) throws NetworkException {
+        recordOutbound(outboundDatastream);
+
+        ByteBuffer record = ByteBuffer.allocate(outboundDatastream.length + 7);
+        record.put(new byte[] { 0, 0, 0, 0, 0 });
+        record.put(outboundDatastream);
+        record.put(IAC);
+        record.put(EOR);
+        record.flip();
+
+        try {
+            send(record);
+        } catch (IOException e) {
+            throw new NetworkException("Unable to write outbound datastream", e);
+        }
+    }
+
+    /**
+     * Queue the application data for sending, writing as much as the socket
+     * will accept immediately. Anything left is written by the selector thread
+     * when the channel becomes writable again.
+     */
+    private void send(ByteBuffer data) throws IOException {
+        synchronized (writeLock) {
+            SocketChannel currentChannel = this.channel;
+            if (currentChannel == null) {
+                throw new IOException("Session is not connected");
+            }
+
+            if (sslEngine == null) {
+                pendingWrites.add(data);
+            } else {
+                do {
+                    pendingWrites.add(wrap(data));
+                } while (data.hasRemaining());
+            }
+
+            if (!flushPendingWrites(currentChannel)) {
+                requestWrite();
+            }
+        }
+    }
+
+    private ByteBuffer wrap(ByteBuffer data) throws SSLException {
+        ByteBuffer netOut = ByteBuffer.allocate(sslEngine.getSession().getPacketBufferSize());
+        while (true) {
+            SSLEngineResult result = sslEngine.wrap(data, netOut);
+            if (result.getStatus() == Status.BUFFER_OVERFLOW) {
+                netOut = enlarge(netOut, sslEngine.getSession().getPacketBufferSize());
+                continue;
+            }
+            if (result.getStatus() == Status.CLOSED) {
+                throw new SSLException("TLS session has been closed");
+            }
+            netOut.flip();
+            return netOut;
+        }
+    }
+
+    /**
+     * @return true if everything queued has been written
+     */
+    private boolean flushPendingWrites(SocketChannel currentChannel) throws IOException {
+        while (!pendingWrites.isEmpty()) {
+            ByteBuffer buffer = pendingWrites.peek();
+            currentChannel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            pendingWrites.poll();
+        }
+        return true;
+    }
+
+    private void requestWrite() {
+        NetworkEventLoop currentEventLoop = this.eventLoop;
+        if (currentEventLoop == null) {
+            return;
+        }
+
+        currentEventLoop.execute(() -> {
+            SelectionKey currentKey = this.key;
+            if (currentKey != null && currentKey.isValid()) {
+                currentKey.interestOps(currentKey.interestOps() | SelectionKey.OP_WRITE);
+            }
+        });
+    }
+
+    /**
+     * Called on the selector thread when the channel is writable
+     */
+    protected void handleWrite() {
+        try {
+            synchronized (writeLock) {
+                SocketChannel currentChannel = this.channel;
+                if (currentChannel == null) {
+                    return;
+                }
+                if (flushPendingWrites(currentChannel) && key != null && key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Problem writing to the 3270 session", e);
+            close();
+        }
+    }
+
+    /**
+     * Called on the selector thread when the channel is readable
+     */
+    protected void handleRead() {
+        if (channel == null) {
+            return;
+        }
+
+        int read;
+        try {
+            read = readApplicationData();
+        } catch (IOException e) {
+            logger.error("Problem reading from the 3270 session", e);
+            close();
+            return;
+        }
+
+        handleInbound(read);
+    }
+
+    private void handleInbound(int read) {
+        try {
+            processInbound();
+        } catch (NetworkException e) {
+            logger.error("Problem with the 3270 session", e);
+            close();
+            return;
+        }
+
+        if (read < 0) {
+            close();
+        }
+    }
+
+    /**
+     * Process every complete TN3270E message in the record buffer, leaving any
+     * partial message for the next read
+     */
+    private void processInbound() throws NetworkException {
+        while (NetworkThread.processBufferedMessage(inbound, screen, this)) {
+            // *** keep going until the buffer only holds a partial message
+        }
+    }
+
+    /**
+     * Read whatever is available on the channel into the application buffer,
+     * decrypting if necessary
+     *
+     * @return the number of application bytes made available, or -1 on end of
+     *         stream
+     */
+    private int readApplicationData() throws IOException {
+        if (sslEngine == null) {
+            ByteBuffer appIn = inbound.receiveBuffer(0);
+            int read = channel.read(appIn);
+            inbound.received(appIn);
+            return read;
+        }
+
+        // *** The handshake or a previous read may have left complete TLS records
+        // behind, use those before reading the channel
+        int produced = unwrapAvailable();
+        if (produced != 0) {
+            return produced;
+        }
+
+        if (!netIn.hasRemaining()) {
+            netIn = enlarge(netIn, sslEngine.getSession().getPacketBufferSize());
+        }
+        int read = channel.read(netIn);
+
+        produced = unwrapAvailable();
+        if (read < 0 && produced == 0) {
+            return -1;
+        }
+        return produced;
+    }
+
+    /**
+     * @return the number of application bytes produced, or -1 if the TLS
+     *         session has been closed by the server
+     */
+    private int unwrapAvailable() throws IOException {
+        int produced = 0;
+        int appSpace = sslEngine.getSession().getApplicationBufferSize();
+        ByteBuffer appIn = inbound.receiveBuffer(appSpace);
+        netIn.flip();
+        try {
+            while (netIn.hasRemaining()) {
+                SSLEngineResult result = sslEngine.unwrap(netIn, appIn);
+                produced += result.bytesProduced();
+
+                if (result.getStatus() == Status.BUFFER_OVERFLOW) {
+                    inbound.received(appIn);
+                    appSpace *= 2;
+                    appIn = inbound.receiveBuffer(appSpace);
+                    continue;
+                }
+                if (result.getStatus() == Status.BUFFER_UNDERFLOW) {
+                    break;
+                }
+                if (result.getStatus() == Status.CLOSED) {
+                    return produced > 0 ? produced : -1;
+                }
+
+                handlePostHandshake(result.getHandshakeStatus());
+                if (result.bytesConsumed() == 0 && result.bytesProduced() == 0) {
+                    break;
+                }
+            }
+        } finally {
+            inbound.received(appIn);
+            netIn.compact();
+        }
+        return produced;
+    }
+
+    private void handlePostHandshake(HandshakeStatus status) throws IOException {
+        while (true) {
+            if (status == HandshakeStatus.NEED_TASK) {
+                runDelegatedTasks();
+                status = sslEngine.getHandshakeStatus();
+            } else if (status == HandshakeStatus.NEED_WRAP) {
+                send(EMPTY.duplicate());
+                status = sslEngine.getHandshakeStatus();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Perform the TLS handshake with the channel in blocking mode
+     */
+    private void handshake() throws IOException {
+        sslEngine.beginHandshake();
+        HandshakeStatus status = sslEngine.getHandshakeStatus();
+        int appSpace = sslEngine.getSession().getApplicationBufferSize();
+
+        while (status != HandshakeStatus.FINISHED && status != HandshakeStatus.NOT_HANDSHAKING) {
+            if (status == HandshakeStatus.NEED_TASK) {
+                runDelegatedTasks();
+                status = sslEngine.getHandshakeStatus();
+            } else if (status == HandshakeStatus.NEED_WRAP) {
+                ByteBuffer netOut = wrap(EMPTY.duplicate());
+                while (netOut.hasRemaining()) {
+                    channel.write(netOut);
+                }
+                status = sslEngine.getHandshakeStatus();
+            } else {
+                ByteBuffer appIn = inbound.receiveBuffer(appSpace);
+                netIn.flip();
+                SSLEngineResult result = sslEngine.unwrap(netIn, appIn);
+                netIn.compact();
+                inbound.received(appIn);
+
+                if (result.getStatus() == Status.BUFFER_UNDERFLOW) {
+                    if (!netIn.hasRemaining()) {
+                        netIn = enlarge(netIn, sslEngine.getSession().getPacketBufferSize());
+                    }
+                    if (channel.read(netIn) < 0) {
+                        throw new EOFException("Connection closed during TLS handshake");
+                    }
+                } else if (result.getStatus() == Status.BUFFER_OVERFLOW) {
+                    appSpace *= 2;
+                } else if (result.getStatus() == Status.CLOSED) {
+                    throw new SSLException("TLS session closed during handshake");
+                }
+                status = result.getHandshakeStatus();
+            }
+        }
+    }
+
+    private void runDelegatedTasks() {
+        Runnable task;
+        while ((task = sslEngine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+
+    private static ByteBuffer enlarge(ByteBuffer buffer, int minimumExtra) {
+        ByteBuffer newBuffer = ByteBuffer.allocate(buffer.capacity() + Math.max(minimumExtra, 1024));
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    /**
+     * Blocking view of the channel used during the TN3270E negotiation. Reads
+     * wait until the requested number of bytes is available so that the
+     * negotiation expectations are not affected by how the server packets are
+     * split.
+     */
+    private class NegotiationInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            if (read(b, 0, 1) != 1) {
+                return -1;
+            }
+            return b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int total = 0;
+            while (total < len) {
+                total += inbound.read(b, off + total, len - total);
+
+                if (total < len && readApplicationData() < 0) {
+                    return total == 0 ? -1 : total;
+                }
+            }
+            return total;
+        }
+    }
+
+    private class NegotiationOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            send(ByteBuffer.wrap(b, off, len));
+        }
+    }
+
+}
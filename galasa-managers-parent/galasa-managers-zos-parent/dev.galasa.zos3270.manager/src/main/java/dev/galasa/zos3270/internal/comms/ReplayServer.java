@@ -0,0 +1,279 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.internal.comms.TerminalRecording.Record;
+import dev.galasa.zos3270.internal.comms.TerminalRecording.Type;
+import dev.galasa.zos3270.spi.NetworkException;
+
+/**
+ * A TN3270E server that plays a {@link TerminalRecording} to every terminal
+ * that connects, so terminal code can be exercised and profiled without a
+ * host.
+ * <p>
+ * Each connection is negotiated by a {@link NetworkServer} and then served the
+ * recording in lockstep. The records the host sent are sent to the terminal,
+ * and when the recording shows the terminal sending a record the session waits
+ * for the terminal to send one. The attention identifier of each record from
+ * the terminal is compared with the recording and the mismatches counted, but
+ * the replay carries on regardless. Once the recording is exhausted the session
+ * waits for the terminal to disconnect.
+ * </p>
+ * <p>
+ * The think time is the delay before the host responds to the terminal. A
+ * negative think time replays the gaps between the records as they were
+ * recorded.
+ * </p>
+ * <p>
+ * Run standalone with
+ * <code>java dev.galasa.zos3270.internal.comms.ReplayServer recording [port [thinkTime]]</code>
+ * </p>
+ */
+public class ReplayServer implements Runnable {
+
+    private final Log                 logger            = LogFactory.getLog(getClass());
+
+    private final TerminalRecording   recording;
+    private final long                thinkTime;
+    private final ServerSocket        serverSocket;
+    private final ExecutorService     sessions;
+    private final Set<Socket>         sockets           = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean          closed;
+
+    private final AtomicInteger       sessionsStarted   = new AtomicInteger();
+    private final AtomicInteger       sessionsCompleted = new AtomicInteger();
+    private final AtomicInteger       sessionsFailed    = new AtomicInteger();
+    private final AtomicLong          mismatches        = new AtomicLong();
+
+    /**
+     * @param port      - the port to listen on, 0 for any free port
+     * @param thinkTime - milliseconds before the host responds, negative to use
+     *                  the recorded timings
+     */
+    public ReplayServer(TerminalRecording recording, int port, long thinkTime) throws IOException {
+        this(recording, new ServerSocket(port), thinkTime);
+    }
+
+    public ReplayServer(TerminalRecording recording, ServerSocket serverSocket, long thinkTime) {
+        this.recording = recording;
+        this.serverSocket = serverSocket;
+        this.thinkTime = thinkTime;
+        this.sessions = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "zos3270-replay-session");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start accepting terminals on a background thread
+     */
+    public ReplayServer start() {
+        Thread thread = new Thread(this, "zos3270-replay");
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.warn("Problem closing the replay server socket", e);
+        }
+        sessions.shutdownNow();
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.warn("Problem closing replay session socket", e);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.error("Replay server failed to accept a connection", e);
+                }
+                return;
+            }
+
+            sessions.execute(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        sessionsStarted.incrementAndGet();
+        sockets.add(socket);
+        NetworkServer server = null;
+        try {
+            server = new NetworkServer(socket);
+            replay(server.getInputStream(), socket.getOutputStream(), server.getDeviceName());
+
+            // *** Recording exhausted, leave the terminal connected until it is finished
+            InputStream inputStream = server.getInputStream();
+            while (!closed && inputStream.read() != -1) {
+                // *** discard anything the terminal sends
+            }
+            sessionsCompleted.incrementAndGet();
+        } catch (NetworkException | IOException e) {
+            if (!closed) {
+                logger.warn("Replay session failed", e);
+                sessionsFailed.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sockets.remove(socket);
+            if (server != null) {
+                server.close();
+            } else {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    logger.warn("Problem closing replay session socket", e);
+                }
+            }
+        }
+    }
+
+    private void replay(InputStream inputStream, OutputStream outputStream, String deviceName)
+            throws IOException, NetworkException, InterruptedException {
+        long previousElapsed = 0;
+        boolean terminalSent = true;
+        for (Record record : recording.getRecords()) {
+            if (closed) {
+                return;
+            }
+
+            if (record.getType() == Type.OUTBOUND) {
+                ByteBuffer received = NetworkThread.readTerminatedMessage(inputStream);
+                if (received.remaining() < 5) {
+                    throw new NetworkException("Terminal " + deviceName + " sent a record without a TN3270E header");
+                }
+                received.position(5);
+                byte[] expected = record.getData();
+                if (expected.length > 0 && (!received.hasRemaining() || received.get() != expected[0])) {
+                    mismatches.incrementAndGet();
+                    logger.debug("Terminal " + deviceName + " did not send the recorded attention identifier");
+                }
+                terminalSent = true;
+            } else {
+                think(record.getElapsed() - previousElapsed, terminalSent);
+                terminalSent = false;
+                if (record.getType() == Type.TELNET) {
+                    outputStream.write(record.getData());
+                } else {
+                    outputStream.write(frame(record.getData()));
+                }
+                outputStream.flush();
+            }
+            previousElapsed = record.getElapsed();
+        }
+    }
+
+    private void think(long recordedGap, boolean terminalSent) throws InterruptedException {
+        long delay;
+        if (thinkTime < 0) {
+            delay = recordedGap;
+        } else {
+            delay = terminalSent ? thinkTime : 0;
+        }
+        if (delay > 0) {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Add the TN3270E header and IAC EOR trailer, doubling any IACs in the data
+     */
+    private static byte[] frame(byte[] datastream) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(datastream.length + 16);
+        baos.write(NetworkThread.DT_3270_DATA);
+        baos.write(0);
+        baos.write(0);
+        baos.write(0);
+        baos.write(0);
+        for (byte b : datastream) {
+            baos.write(b);
+            if (b == Network.IAC) {
+                baos.write(b);
+            }
+        }
+        baos.write(Network.IAC);
+        baos.write(Network.EOR);
+        return baos.toByteArray();
+    }
+
+    public int getSessionsStarted() {
+        return sessionsStarted.get();
+    }
+
+    public int getSessionsCompleted() {
+        return sessionsCompleted.get();
+    }
+
+    public int getSessionsFailed() {
+        return sessionsFailed.get();
+    }
+
+    /**
+     * @return the number of records from terminals that did not have the
+     *         recorded attention identifier
+     */
+    public long getMismatches() {
+        return mismatches.get();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayServer recording [port [thinkTime]]");
+            System.exit(8);
+        }
+
+        TerminalRecording recording = TerminalRecording.read(Paths.get(args[0]));
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 2023;
+        long thinkTime = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        ReplayServer server = new ReplayServer(recording,
+                new ServerSocket(port, 50, InetAddress.getLoopbackAddress()), thinkTime);
+        System.out.println("Replaying " + recording.getRecords().size() + " records on port " + server.getPort());
+        server.run();
+    }
+
+}
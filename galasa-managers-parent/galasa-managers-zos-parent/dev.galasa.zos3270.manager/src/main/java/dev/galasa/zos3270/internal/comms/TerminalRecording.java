@@ -0,0 +1,155 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import dev.galasa.zos3270.spi.NetworkException;
+
+/**
+ * The 3270 records exchanged by a terminal session after the TN3270E
+ * negotiation.
+ * <p>
+ * A recording is a text file, each line is a record of the form
+ * <code>type elapsed hex</code>, where type is I for a 3270 datastream
+ * received by the terminal, O for a datastream sent by the terminal or T for a
+ * telnet command received by the terminal, and elapsed is the number of
+ * milliseconds from the start of the recording. The datastreams are held
+ * without the TN3270E header and IAC EOR trailer, and with doubled IACs
+ * removed. Lines starting with # are comments.
+ * </p>
+ */
+public class TerminalRecording {
+
+    public static final String HEADER = "# zos3270 recording v1";
+
+    public enum Type {
+        INBOUND('I'),
+        OUTBOUND('O'),
+        TELNET('T');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        public static Type valueOf(char code) throws NetworkException {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new NetworkException("Unrecognised recording record type '" + code + "'");
+        }
+    }
+
+    private final List<Record> records;
+
+    public TerminalRecording(List<Record> records) {
+        this.records = Collections.unmodifiableList(new ArrayList<>(records));
+    }
+
+    public List<Record> getRecords() {
+        return records;
+    }
+
+    public static TerminalRecording read(Path path) throws IOException, NetworkException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    public static TerminalRecording read(Reader reader) throws IOException, NetworkException {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        ArrayList<Record> records = new ArrayList<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] parts = line.split(" ");
+            if (parts.length != 3 || parts[0].length() != 1) {
+                throw new NetworkException("Invalid recording record at line " + lineNumber);
+            }
+            try {
+                records.add(new Record(Type.valueOf(parts[0].charAt(0)), Long.parseLong(parts[1]),
+                        Hex.decodeHex(parts[2].toCharArray())));
+            } catch (NumberFormatException | DecoderException e) {
+                throw new NetworkException("Invalid recording record at line " + lineNumber, e);
+            }
+        }
+
+        return new TerminalRecording(records);
+    }
+
+    public void write(Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (Record record : records) {
+            record.write(writer);
+        }
+        writer.flush();
+    }
+
+    public static class Record {
+        private final Type   type;
+        private final long   elapsed;
+        private final byte[] data;
+
+        public Record(Type type, long elapsed, byte[] data) {
+            this.type = type;
+            this.elapsed = elapsed;
+            this.data = data;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * @return the milliseconds from the start of the recording
+         */
+        public long getElapsed() {
+            return elapsed;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public void write(Writer writer) throws IOException {
+            writer.write(type.getCode());
+            writer.write(' ');
+            writer.write(Long.toString(elapsed));
+            writer.write(' ');
+            writer.write(Hex.encodeHex(data));
+            writer.write('\n');
+        }
+    }
+
+}
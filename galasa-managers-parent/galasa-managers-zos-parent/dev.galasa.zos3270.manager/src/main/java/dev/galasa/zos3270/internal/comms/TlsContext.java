@@ -0,0 +1,124 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.comms;
+
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+
+/**
+ * The SSL context shared by every terminal connecting to a TN3270 server.
+ * <p>
+ * The context keeps the client session cache, so further terminals and
+ * reconnects to the same server can resume the TLS session with an abbreviated
+ * handshake instead of a full one. The handshakes of all the terminals are
+ * counted and timed here.
+ * </p>
+ */
+public class TlsContext {
+
+    private static final ConcurrentHashMap<String, TlsContext> contexts = new ConcurrentHashMap<>();
+
+    private final String     hostPort;
+    private final SSLContext sslContext;
+
+    private final AtomicLong fullHandshakes    = new AtomicLong();
+    private final AtomicLong resumedHandshakes = new AtomicLong();
+    private final AtomicLong handshakeNanos    = new AtomicLong();
+    private final AtomicLong maxHandshakeNanos = new AtomicLong();
+
+    private TlsContext(String hostPort, SSLContext sslContext) {
+        this.hostPort = hostPort;
+        this.sslContext = sslContext;
+    }
+
+    /**
+     * @return the shared context for the server, created with the SSL context
+     *         of the network if this is the first connection to the server
+     */
+    public static TlsContext forServer(Network network) throws NoSuchAlgorithmException, KeyManagementException {
+        String hostPort = network.getHostPort();
+        TlsContext context = contexts.get(hostPort);
+        if (context != null) {
+            return context;
+        }
+
+        TlsContext newContext = new TlsContext(hostPort, network.createSslContext());
+        context = contexts.putIfAbsent(hostPort, newContext);
+        return context == null ? newContext : context;
+    }
+
+    /**
+     * Drop the shared contexts, so the next connection to each server does a
+     * full handshake
+     */
+    public static void reset() {
+        contexts.clear();
+    }
+
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    /**
+     * Record a completed handshake
+     *
+     * @param session - the session negotiated by the handshake
+     * @param started - when the handshake started, from
+     *                {@link System#currentTimeMillis()}
+     * @param nanos   - how long the handshake took
+     * @return true if the session was resumed
+     */
+    public boolean handshakeCompleted(SSLSession session, long started, long nanos) {
+        // *** A resumed session was created by an earlier handshake
+        boolean resumed = session.getCreationTime() < started;
+        if (resumed) {
+            resumedHandshakes.incrementAndGet();
+        } else {
+            fullHandshakes.incrementAndGet();
+        }
+        handshakeNanos.addAndGet(nanos);
+        maxHandshakeNanos.accumulateAndGet(nanos, Math::max);
+        return resumed;
+    }
+
+    public String getHostPort() {
+        return hostPort;
+    }
+
+    public long getFullHandshakes() {
+        return fullHandshakes.get();
+    }
+
+    public long getResumedHandshakes() {
+        return resumedHandshakes.get();
+    }
+
+    /**
+     * @return the total time of the handshakes in milliseconds
+     */
+    public long getHandshakeTime() {
+        return TimeUnit.NANOSECONDS.toMillis(handshakeNanos.get());
+    }
+
+    /**
+     * @return the longest handshake in milliseconds
+     */
+    public long getMaxHandshakeTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxHandshakeNanos.get());
+    }
+
+    public String getStatistics() {
+        return "full=" + getFullHandshakes() + ", resumed=" + getResumedHandshakes() + ", handshakeTime="
+                + getHandshakeTime() + "ms, maxHandshakeTime=" + getMaxHandshakeTime() + "ms";
+    }
+
+}
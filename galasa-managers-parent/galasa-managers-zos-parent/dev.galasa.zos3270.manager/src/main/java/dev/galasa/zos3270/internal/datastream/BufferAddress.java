@@ -25,28 +25,31 @@ public class BufferAddress {
     private int                   address = 0;
 
     public BufferAddress(ByteBuffer buffer) throws DatastreamException {
-        byte[] data = new byte[4];
+        this.address = decode(buffer);
+    }
+
+    /**
+     * Read a 12, 14 or 16 bit buffer address from the datastream
+     * 
+     * @param buffer - positioned at the 2 address bytes
+     * @return the buffer address
+     * @throws DatastreamException - if the datastream ends early
+     */
+    public static int decode(ByteBuffer buffer) throws DatastreamException {
+        int preConv;
         try {
-            data[0] = 0;
-            data[1] = 0;
-            data[2] = buffer.get();
-            data[3] = buffer.get();
+            preConv = ((buffer.get() & 0xff) << 8) | (buffer.get() & 0xff);
         } catch (BufferUnderflowException e) {
             throw new DatastreamException("Buffer Address terminated too early", e);
         }
 
-        ByteBuffer toInt = ByteBuffer.wrap(data);
-
-        int preConv = toInt.getInt();
-
         if ((preConv & 0xc000) == 0) {
-            this.address = preConv;
-        } else {
-            int left = (preConv & 0x3f00) >> 2;
-            int right = (preConv & 0x3f);
-
-            this.address = left | right;
+            return preConv;
         }
+
+        int left = (preConv & 0x3f00) >> 2;
+        int right = (preConv & 0x3f);
+        return left | right;
     }
 
     public BufferAddress(int address) {
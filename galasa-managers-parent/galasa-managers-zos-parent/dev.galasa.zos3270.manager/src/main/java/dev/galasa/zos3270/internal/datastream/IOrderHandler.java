@@ -0,0 +1,49 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.datastream;
+
+import dev.galasa.zos3270.spi.DatastreamException;
+
+/**
+ * Receives the orders of a write as they are decoded by the
+ * {@link OrderDecoder}
+ */
+public interface IOrderHandler {
+
+    void setBufferAddress(int bufferAddress);
+
+    void repeatToAddress(int bufferAddress, char repeatChar) throws DatastreamException;
+
+    /**
+     * A Start Field, or a Start Field Extended with a 3270 field attribute
+     * 
+     * @param attributes - the 3270 field attribute byte, see
+     *                   {@link OrderStartField}
+     */
+    void startField(byte attributes);
+
+    /**
+     * A Start Field Extended without a 3270 field attribute
+     */
+    void startFieldDefault();
+
+    /**
+     * An extended field attribute of a Start Field Extended, passed before the
+     * {@link #startField(byte)} or {@link #startFieldDefault()} of the order
+     * 
+     * @param attributeId - the attribute type, e.g.
+     *                    {@link AttributeForegroundColour#ATTRIBUTE_ID}
+     * @param value       - the attribute value
+     */
+    void fieldAttribute(byte attributeId, byte value);
+
+    void setAttribute(byte attributeId, byte value);
+
+    void insertCursor();
+
+    void text(char character);
+
+}
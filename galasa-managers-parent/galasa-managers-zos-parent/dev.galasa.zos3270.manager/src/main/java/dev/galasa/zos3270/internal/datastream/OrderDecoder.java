@@ -0,0 +1,133 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.datastream;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.spi.CodePage;
+import dev.galasa.zos3270.spi.DatastreamException;
+
+/**
+ * Decodes the orders of a write in a single pass, passing each order straight
+ * to a handler rather than building order objects.
+ * <p>
+ * The orders are interpreted exactly as {@link NetworkThread#processOrders}
+ * and the order classes interpret them, but the handler sees each order as it
+ * is decoded, so if the datastream is invalid the orders before the error will
+ * have been passed to the handler, and an error raised by the handler will be
+ * reported ahead of a later decoding error.
+ * </p>
+ */
+public class OrderDecoder {
+
+    private static final Log logger = LogFactory.getLog(OrderDecoder.class);
+
+    private OrderDecoder() {
+    }
+
+    public static void decode(ByteBuffer buffer, CodePage codePage, IOrderHandler handler)
+            throws DatastreamException {
+        while (buffer.hasRemaining()) {
+            byte orderByte = buffer.get();
+
+            if (orderByte <= 0x00 || orderByte > 0x3f) {
+                if (orderByte == -1) {
+                    orderByte = 0x00;
+                }
+                handler.text(codePage.decode(orderByte));
+                continue;
+            }
+
+            switch (orderByte) {
+                case OrderSetBufferAddress.ID:
+                    handler.setBufferAddress(BufferAddress.decode(buffer));
+                    break;
+                case OrderRepeatToAddress.ID:
+                    int endOfRepeat = BufferAddress.decode(buffer);
+                    byte repeatByte = buffer.get();
+                    if (repeatByte == -1) {
+                        repeatByte = 0x00;
+                    }
+                    handler.repeatToAddress(endOfRepeat, codePage.decode(repeatByte));
+                    break;
+                case OrderStartField.ID:
+                    handler.startField(buffer.get());
+                    break;
+                case OrderStartFieldExtended.ID:
+                    decodeStartFieldExtended(buffer, handler);
+                    break;
+                case OrderSetAttribute.ID:
+                    decodeSetAttribute(buffer, handler);
+                    break;
+                case OrderInsertCursor.ID:
+                    handler.insertCursor();
+                    break;
+                default:
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Invalid byte detected in datastream, unrecognised byte order or text byte - 0x"
+                                + Hex.encodeHexString(new byte[] { orderByte }));
+                    }
+                    handler.text(' ');
+            }
+        }
+    }
+
+    private static void decodeStartFieldExtended(ByteBuffer buffer, IOrderHandler handler)
+            throws DatastreamException {
+        int fieldAttributeCount = buffer.get() & 0xff;
+
+        boolean startField = false;
+        byte fieldAttributes = 0;
+        for (int i = 0; i < fieldAttributeCount; i++) {
+            byte attributeId = buffer.get();
+            switch (attributeId) {
+                case OrderStartField.ATTRIBUTE_ID:
+                    startField = true;
+                    fieldAttributes = buffer.get();
+                    break;
+                case AttributeFieldValidation.ATTRIBUTE_ID:
+                case AttributeFieldOutlining.ATTRIBUTE_ID:
+                case AttributeExtendedHighlighting.ATTRIBUTE_ID:
+                case AttributeForegroundColour.ATTRIBUTE_ID:
+                case AttributeCharacterSet.ATTRIBUTE_ID:
+                case AttributeBackgroundColour.ATTRIBUTE_ID:
+                case AttributeTransparency.ATTRIBUTE_ID:
+                    handler.fieldAttribute(attributeId, buffer.get());
+                    break;
+                default:
+                    throw new DatastreamException("Unrecognised attribute in SFE, '" + attributeId + "'");
+            }
+        }
+
+        if (startField) {
+            handler.startField(fieldAttributes);
+        } else {
+            handler.startFieldDefault();
+        }
+    }
+
+    private static void decodeSetAttribute(ByteBuffer buffer, IOrderHandler handler) throws DatastreamException {
+        byte attributeId = buffer.get();
+        switch (attributeId) {
+            case AttributeResetAllAttributes.ATTRIBUTE_ID:
+            case AttributeExtendedHighlighting.ATTRIBUTE_ID:
+            case AttributeForegroundColour.ATTRIBUTE_ID:
+            case AttributeCharacterSet.ATTRIBUTE_ID:
+            case AttributeBackgroundColour.ATTRIBUTE_ID:
+            case AttributeTransparency.ATTRIBUTE_ID:
+                handler.setAttribute(attributeId, buffer.get());
+                break;
+            default:
+                throw new DatastreamException("Unrecognised attribute in SA, '" + attributeId + "'");
+        }
+    }
+
+}
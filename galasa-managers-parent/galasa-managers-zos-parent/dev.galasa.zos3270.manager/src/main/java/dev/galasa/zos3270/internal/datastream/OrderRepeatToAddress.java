@@ -6,39 +6,43 @@
 package dev.galasa.zos3270.internal.datastream;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 
+import dev.galasa.zos3270.spi.CodePage;
 import dev.galasa.zos3270.spi.DatastreamException;
 
 public class OrderRepeatToAddress extends AbstractOrder {
 
-    private static final Charset ebcdic = Charset.forName("Cp037");
-
     public static final byte     ID     = 0x3c;
 
     private final BufferAddress  bufferAddress;
 
     private final char           repeatChar;
+    private final byte           repeatEbcdic;
+    private final boolean        received;
 
     public OrderRepeatToAddress(ByteBuffer buffer) throws DatastreamException {
         this.bufferAddress = new BufferAddress(buffer);
 
-        byte[] charByte = new byte[] { buffer.get() };
-        if (charByte[0] == -1) {
-            charByte[0] = 0x00;
+        byte charByte = buffer.get();
+        if (charByte == -1) {
+            charByte = 0x00;
         }
 
-        repeatChar = ebcdic.decode(ByteBuffer.wrap(charByte)).array()[0];
+        this.repeatEbcdic = charByte;
+        this.repeatChar = 0;
+        this.received = true;
     }
 
     public OrderRepeatToAddress(char repeatChar, BufferAddress bufferAddress) {
         this.bufferAddress = bufferAddress;
         this.repeatChar = repeatChar;
+        this.repeatEbcdic = 0;
+        this.received = false;
     }
 
     @Override
     public String toString() {
-        return "RA(" + repeatChar + "," + bufferAddress + ")";
+        return "RA(" + getChar() + "," + bufferAddress + ")";
     }
 
     public int getBufferAddress() {
@@ -46,6 +50,13 @@ public class OrderRepeatToAddress extends AbstractOrder {
     }
 
     public char getChar() {
+        return getChar(CodePage.getDefault());
+    }
+
+    public char getChar(CodePage codePage) {
+        if (this.received) {
+            return codePage.decode(this.repeatEbcdic);
+        }
         return this.repeatChar;
     }
 
@@ -56,7 +67,7 @@ public class OrderRepeatToAddress extends AbstractOrder {
         buffer[0] = ID;
         buffer[1] = ba[0];
         buffer[2] = ba[1];
-        buffer[3] = String.valueOf(repeatChar).getBytes(ebcdic)[0];
+        buffer[3] = this.received ? this.repeatEbcdic : CodePage.getDefault().encode(this.repeatChar);
 
         return buffer;
     }
@@ -22,12 +22,12 @@ public class OrderStartField extends AbstractOrder implements IAttribute {
 
     public OrderStartField(ByteBuffer buffer) {
         byte attributes = buffer.get();
-        this.fieldProtected = ((attributes & 0x20) == 0x20);
-        this.fieldNumeric = ((attributes & 0x10) == 0x10);
-        this.fieldDisplay = ((attributes & 0x08) == 0x00);
-        this.fieldIntenseDisplay = ((attributes & 0x0c) == 0x08);
-        this.fieldSelectorPen = (((attributes & 0x0c) == 0x04) || ((attributes & 0x0c) == 0x08));
-        this.fieldModifed = ((attributes & 0x01) == 0x01);
+        this.fieldProtected = isProtected(attributes);
+        this.fieldNumeric = isNumeric(attributes);
+        this.fieldDisplay = isDisplay(attributes);
+        this.fieldIntenseDisplay = isIntenseDisplay(attributes);
+        this.fieldSelectorPen = isSelectorPen(attributes);
+        this.fieldModifed = isModified(attributes);
     }
 
     public OrderStartField(boolean fieldProtected, boolean fieldNumeric, boolean fieldDisplay,
@@ -40,6 +40,30 @@ public class OrderStartField extends AbstractOrder implements IAttribute {
         this.fieldModifed = fieldModifed;
     }
 
+    public static boolean isProtected(byte attributes) {
+        return (attributes & 0x20) == 0x20;
+    }
+
+    public static boolean isNumeric(byte attributes) {
+        return (attributes & 0x10) == 0x10;
+    }
+
+    public static boolean isDisplay(byte attributes) {
+        return (attributes & 0x08) == 0x00;
+    }
+
+    public static boolean isIntenseDisplay(byte attributes) {
+        return (attributes & 0x0c) == 0x08;
+    }
+
+    public static boolean isSelectorPen(byte attributes) {
+        return ((attributes & 0x0c) == 0x04) || ((attributes & 0x0c) == 0x08);
+    }
+
+    public static boolean isModified(byte attributes) {
+        return (attributes & 0x01) == 0x01;
+    }
+
     public boolean isFieldProtected() {
         return fieldProtected;
     }
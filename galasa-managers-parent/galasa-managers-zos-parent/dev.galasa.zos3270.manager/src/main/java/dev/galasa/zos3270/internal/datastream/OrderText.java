@@ -5,20 +5,26 @@
  */
 package dev.galasa.zos3270.internal.datastream;
 
-import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
+import java.util.Arrays;
 
+import dev.galasa.zos3270.spi.CodePage;
+
+/**
+ * Text in the datastream. Text received from the datastream is held as EBCDIC
+ * and translated with the code page of the screen it is applied to.
+ */
 public class OrderText extends AbstractOrder {
 
-    private static final Charset ebcdic = Charset.forName("Cp037");
+    private byte[] ebcdic = new byte[16];
+    private int    length;
 
-    private StringBuilder        text   = new StringBuilder();
+    private String text;
 
     public OrderText() {
     }
 
     public OrderText(String newText) {
-        this.text.append(newText);
+        this.text = newText;
     }
 
     public void append(byte data) {
@@ -26,17 +32,57 @@ public class OrderText extends AbstractOrder {
             data = 0x00;
         }
 
-        byte[] charByte = new byte[] { data };
-        text.append(ebcdic.decode(ByteBuffer.wrap(charByte)).array()[0]);
+        if (this.text != null) {
+            // *** Mixing constructed and received text, hold it all as EBCDIC
+            String oldText = this.text;
+            this.text = null;
+            for (int i = 0; i < oldText.length(); i++) {
+                append(CodePage.getDefault().encode(oldText.charAt(i)));
+            }
+        }
+
+        if (this.length == this.ebcdic.length) {
+            this.ebcdic = Arrays.copyOf(this.ebcdic, this.ebcdic.length * 2);
+        }
+        this.ebcdic[this.length++] = data;
     }
 
     @Override
     public String toString() {
-        return "TEXT(" + text.toString() + ")";
+        return "TEXT(" + getText() + ")";
     }
 
     public String getText() {
-        return text.toString();
+        return getText(CodePage.getDefault());
+    }
+
+    public String getText(CodePage codePage) {
+        if (this.text != null) {
+            return this.text;
+        }
+
+        char[] chars = new char[this.length];
+        codePage.decode(this.ebcdic, 0, chars, 0, this.length);
+        return new String(chars);
+    }
+
+    public int length() {
+        if (this.text != null) {
+            return this.text.length();
+        }
+        return this.length;
+    }
+
+    /**
+     * Copy characters of the text into an array, in the manner of
+     * {@link String#getChars(int, int, char[], int)}
+     */
+    public void getChars(CodePage codePage, int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+        if (this.text != null) {
+            this.text.getChars(srcBegin, srcEnd, dst, dstBegin);
+        } else {
+            codePage.decode(this.ebcdic, srcBegin, dst, dstBegin, srcEnd - srcBegin);
+        }
     }
 
     @Override
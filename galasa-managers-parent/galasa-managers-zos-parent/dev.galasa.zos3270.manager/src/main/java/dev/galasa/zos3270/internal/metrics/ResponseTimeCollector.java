@@ -0,0 +1,82 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Publishes the host response times that the test runs add to the DSS as a
+ * single Prometheus histogram, labelled by AID key
+ */
+public class ResponseTimeCollector extends Collector {
+
+    public static final String            NAME = "galasa_zos3270_response_seconds";
+    private static final String           HELP = "The host response times of the terminals for each AID key";
+
+    private volatile List<MetricFamilySamples.Sample> samples = Collections.emptyList();
+
+    /**
+     * Replace the samples with the response times in the DSS totals
+     *
+     * @param metrics - the totals under {@link TerminalMetrics#DSS_PREFIX}
+     */
+    public void update(Map<String, String> metrics) {
+        // *** Find the AIDs that have response times
+        TreeSet<String> aids = new TreeSet<>();
+        for (String key : metrics.keySet()) {
+            if (key.startsWith(TerminalMetrics.DSS_RESPONSE) && key.endsWith(".count")) {
+                aids.add(key.substring(TerminalMetrics.DSS_RESPONSE.length(), key.length() - 6));
+            }
+        }
+
+        List<String> aidLabel = Collections.singletonList("aid");
+        List<String> bucketLabels = Arrays.asList("aid", "le");
+        ArrayList<MetricFamilySamples.Sample> newSamples = new ArrayList<>();
+        for (String aid : aids) {
+            String prefix = TerminalMetrics.DSS_RESPONSE + aid + ".";
+
+            // *** Prometheus buckets are cumulative
+            double cumulative = 0.0;
+            int buckets = ResponseTimeHistogram.BOUNDS.length + 1;
+            for (int i = 0; i < buckets; i++) {
+                cumulative += value(metrics, prefix + "bucket." + TerminalMetrics.bucketName(i));
+                String le;
+                if (i < ResponseTimeHistogram.BOUNDS.length) {
+                    le = doubleToGoString(ResponseTimeHistogram.BOUNDS[i] / 1000.0);
+                } else {
+                    le = "+Inf";
+                }
+                newSamples.add(new MetricFamilySamples.Sample(NAME + "_bucket", bucketLabels, Arrays.asList(aid, le), cumulative));
+            }
+
+            newSamples.add(new MetricFamilySamples.Sample(NAME + "_count", aidLabel, Collections.singletonList(aid), value(metrics, prefix + "count")));
+            newSamples.add(new MetricFamilySamples.Sample(NAME + "_sum", aidLabel, Collections.singletonList(aid), value(metrics, prefix + "sum") / 1000.0));
+        }
+
+        this.samples = Collections.unmodifiableList(newSamples);
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        return Collections.singletonList(new MetricFamilySamples(NAME, Type.HISTOGRAM, HELP, this.samples));
+    }
+
+    private static double value(Map<String, String> metrics, String key) {
+        String value = metrics.get(key);
+        if (value == null) {
+            return 0.0;
+        }
+        return Double.parseDouble(value);
+    }
+
+}
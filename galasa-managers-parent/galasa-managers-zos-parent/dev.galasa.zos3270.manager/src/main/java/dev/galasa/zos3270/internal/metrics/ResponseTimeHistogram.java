@@ -0,0 +1,89 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * A histogram of host response times with fixed bucket bounds, in
+ * milliseconds. The last bucket holds everything over the highest bound.
+ */
+public class ResponseTimeHistogram {
+
+    public static final long[] BOUNDS = { 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000 };
+
+    private final long[]       buckets = new long[BOUNDS.length + 1];
+    private long               count;
+    private long               totalNanos;
+    private long               minNanos = Long.MAX_VALUE;
+    private long               maxNanos;
+
+    public synchronized void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket]++;
+
+        count++;
+        totalNanos += nanos;
+        minNanos = Math.min(minNanos, nanos);
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the total of the response times in milliseconds
+     */
+    public synchronized long getTotal() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    /**
+     * @return the number of response times in each bucket, the bucket at
+     *         index i holding those up to {@link #BOUNDS}[i] that are over the
+     *         previous bound
+     */
+    public synchronized long[] getBuckets() {
+        return buckets.clone();
+    }
+
+    public synchronized JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("count", count);
+        json.addProperty("totalMs", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        if (count > 0) {
+            json.addProperty("meanMs", TimeUnit.NANOSECONDS.toMillis(totalNanos / count));
+            json.addProperty("minMs", TimeUnit.NANOSECONDS.toMillis(minNanos));
+            json.addProperty("maxMs", TimeUnit.NANOSECONDS.toMillis(maxNanos));
+        }
+
+        JsonArray jsonBuckets = new JsonArray();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == 0) {
+                continue;
+            }
+            JsonObject bucket = new JsonObject();
+            if (i < BOUNDS.length) {
+                bucket.addProperty("leMs", BOUNDS[i]);
+            } else {
+                bucket.addProperty("leMs", "+Inf");
+            }
+            bucket.addProperty("count", buckets[i]);
+            jsonBuckets.add(bucket);
+        }
+        json.add("buckets", jsonBuckets);
+        return json;
+    }
+
+}
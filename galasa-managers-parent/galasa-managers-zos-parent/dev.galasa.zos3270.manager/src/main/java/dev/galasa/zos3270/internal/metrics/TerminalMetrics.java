@@ -0,0 +1,259 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.metrics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.JsonObject;
+
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.zos3270.AttentionIdentification;
+
+/**
+ * The metrics of a single terminal.
+ * <p>
+ * The response time is the time from the screen sending an AID to a write
+ * arriving with the keyboard restore bit set in the WCC. It is recorded for
+ * all the AIDs together and for each AID key.
+ * </p>
+ * <p>
+ * The TLS handshakes of the terminal are counted as full or resumed, a resumed
+ * handshake reusing the session of an earlier connection to the same server.
+ * </p>
+ */
+public class TerminalMetrics {
+
+    public static final String          DSS_PREFIX          = "metrics.";
+    public static final String          DSS_INBOUND_BYTES   = DSS_PREFIX + "inbound.bytes";
+    public static final String          DSS_INBOUND_RECORDS = DSS_PREFIX + "inbound.records";
+    public static final String          DSS_SCREEN_UPDATES  = DSS_PREFIX + "screen.updates";
+    public static final String          DSS_RESPONSE        = DSS_PREFIX + "response.";
+    public static final String          DSS_TLS_FULL        = DSS_PREFIX + "tls.full";
+    public static final String          DSS_TLS_RESUMED     = DSS_PREFIX + "tls.resumed";
+    public static final String          DSS_TLS_TIME        = DSS_PREFIX + "tls.handshake.time";
+    public static final String          DSS_VERSION         = DSS_PREFIX + "version";
+
+    private static final int            MAX_SWAPS           = 100;
+
+    private final AtomicLong            inboundBytes        = new AtomicLong();
+    private final AtomicLong            inboundRecords      = new AtomicLong();
+    private final AtomicLong            screenUpdates       = new AtomicLong();
+    private final AtomicLong            tlsFullHandshakes   = new AtomicLong();
+    private final AtomicLong            tlsResumedHandshakes = new AtomicLong();
+    private final AtomicLong            tlsHandshakeNanos   = new AtomicLong();
+
+    private final ResponseTimeHistogram responseTimes       = new ResponseTimeHistogram();
+    private final EnumMap<AttentionIdentification, ResponseTimeHistogram> aidResponseTimes = new EnumMap<>(
+            AttentionIdentification.class);
+
+    private long                        aidsSent;
+    private long                        aidsUnanswered;
+    private AttentionIdentification     pendingAid;
+    private long                        pendingSince;
+
+    public void inbound(int bytes) {
+        inboundRecords.incrementAndGet();
+        inboundBytes.addAndGet(bytes);
+    }
+
+    public void screenUpdated() {
+        screenUpdates.incrementAndGet();
+    }
+
+    /**
+     * @param resumed - true if the handshake resumed an earlier session
+     * @param nanos   - how long the handshake took
+     */
+    public void tlsHandshake(boolean resumed, long nanos) {
+        if (resumed) {
+            tlsResumedHandshakes.incrementAndGet();
+        } else {
+            tlsFullHandshakes.incrementAndGet();
+        }
+        tlsHandshakeNanos.addAndGet(nanos);
+    }
+
+    public synchronized void aidSent(AttentionIdentification aid) {
+        aidsSent++;
+        if (pendingAid != null) {
+            // *** The host did not restore the keyboard for the previous AID
+            aidsUnanswered++;
+        }
+        pendingAid = aid;
+        pendingSince = System.nanoTime();
+    }
+
+    public synchronized void keyboardRestored() {
+        if (pendingAid == null) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - pendingSince;
+        responseTimes.record(nanos);
+        aidResponseTimes.computeIfAbsent(pendingAid, aid -> new ResponseTimeHistogram()).record(nanos);
+        pendingAid = null;
+    }
+
+    public long getInboundBytes() {
+        return inboundBytes.get();
+    }
+
+    public long getInboundRecords() {
+        return inboundRecords.get();
+    }
+
+    public long getScreenUpdates() {
+        return screenUpdates.get();
+    }
+
+    public long getTlsFullHandshakes() {
+        return tlsFullHandshakes.get();
+    }
+
+    public long getTlsResumedHandshakes() {
+        return tlsResumedHandshakes.get();
+    }
+
+    /**
+     * @return the total time of the TLS handshakes in milliseconds
+     */
+    public long getTlsHandshakeTime() {
+        return TimeUnit.NANOSECONDS.toMillis(tlsHandshakeNanos.get());
+    }
+
+    public synchronized long getAidsSent() {
+        return aidsSent;
+    }
+
+    /**
+     * @return the number of AIDs that were followed by another AID before the
+     *         keyboard was restored, so have no response time
+     */
+    public synchronized long getAidsUnanswered() {
+        return aidsUnanswered;
+    }
+
+    public ResponseTimeHistogram getResponseTimes() {
+        return responseTimes;
+    }
+
+    /**
+     * @return the response times of the AID, or null if there are none
+     */
+    public synchronized ResponseTimeHistogram getResponseTimes(AttentionIdentification aid) {
+        return aidResponseTimes.get(aid);
+    }
+
+    public synchronized JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("inboundRecords", getInboundRecords());
+        json.addProperty("inboundBytes", getInboundBytes());
+        json.addProperty("screenUpdates", getScreenUpdates());
+        json.addProperty("tlsFullHandshakes", getTlsFullHandshakes());
+        json.addProperty("tlsResumedHandshakes", getTlsResumedHandshakes());
+        json.addProperty("tlsHandshakeMs", getTlsHandshakeTime());
+        json.addProperty("aidsSent", aidsSent);
+        json.addProperty("aidsUnanswered", aidsUnanswered);
+        json.add("responseTimes", responseTimes.toJson());
+
+        JsonObject aids = new JsonObject();
+        for (Entry<AttentionIdentification, ResponseTimeHistogram> entry : aidResponseTimes.entrySet()) {
+            aids.add(entry.getKey().name(), entry.getValue().toJson());
+        }
+        json.add("aidResponseTimes", aids);
+        return json;
+    }
+
+    /**
+     * Add the metrics to the totals of the run, so the DSS is updated once for
+     * all the terminals, see {@link #addTo(IDynamicStatusStoreService, Map)}
+     */
+    public void addTo(Map<String, Long> totals) {
+        addToTotal(totals, DSS_INBOUND_BYTES, getInboundBytes());
+        addToTotal(totals, DSS_INBOUND_RECORDS, getInboundRecords());
+        addToTotal(totals, DSS_SCREEN_UPDATES, getScreenUpdates());
+        addToTotal(totals, DSS_TLS_FULL, getTlsFullHandshakes());
+        addToTotal(totals, DSS_TLS_RESUMED, getTlsResumedHandshakes());
+        addToTotal(totals, DSS_TLS_TIME, getTlsHandshakeTime());
+
+        EnumMap<AttentionIdentification, ResponseTimeHistogram> aids;
+        synchronized (this) {
+            aids = new EnumMap<>(aidResponseTimes);
+        }
+        for (Entry<AttentionIdentification, ResponseTimeHistogram> entry : aids.entrySet()) {
+            String prefix = DSS_RESPONSE + entry.getKey().name() + ".";
+            ResponseTimeHistogram histogram = entry.getValue();
+            addToTotal(totals, prefix + "count", histogram.getCount());
+            addToTotal(totals, prefix + "sum", histogram.getTotal());
+
+            long[] buckets = histogram.getBuckets();
+            for (int i = 0; i < buckets.length; i++) {
+                addToTotal(totals, prefix + "bucket." + bucketName(i), buckets[i]);
+            }
+        }
+    }
+
+    /**
+     * Add the totals of a run to the running totals in the DSS, for the metrics
+     * provider. The totals are updated together in a single swap of the version
+     * of the metrics
+     */
+    public static void addTo(IDynamicStatusStoreService dss, Map<String, Long> totals)
+            throws DynamicStatusStoreException {
+        if (totals.isEmpty()) {
+            return;
+        }
+
+        // *** Other runs may be updating the same totals
+        for (int i = 0; i < MAX_SWAPS; i++) {
+            Map<String, String> current = dss.getPrefix(DSS_PREFIX);
+
+            HashMap<String, String> updated = new HashMap<>();
+            for (Entry<String, Long> total : totals.entrySet()) {
+                long value = total.getValue();
+                String oldValue = current.get(total.getKey());
+                if (oldValue != null) {
+                    value += Long.parseLong(oldValue);
+                }
+                updated.put(total.getKey(), Long.toString(value));
+            }
+
+            String oldVersion = current.get(DSS_VERSION);
+            long version = 1;
+            if (oldVersion != null) {
+                version += Long.parseLong(oldVersion);
+            }
+            if (dss.putSwap(DSS_VERSION, oldVersion, Long.toString(version), updated)) {
+                return;
+            }
+        }
+        throw new DynamicStatusStoreException("Unable to update the zOS 3270 metrics, too much contention");
+    }
+
+    /**
+     * @return the DSS name of the histogram bucket, the bound in milliseconds
+     *         or inf
+     */
+    public static String bucketName(int bucket) {
+        if (bucket < ResponseTimeHistogram.BOUNDS.length) {
+            return Long.toString(ResponseTimeHistogram.BOUNDS[bucket]);
+        }
+        return "inf";
+    }
+
+    private static void addToTotal(Map<String, Long> totals, String key, long value) {
+        if (value != 0) {
+            totals.merge(key, value, Long::sum);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.metrics;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.osgi.service.component.annotations.Component;
+
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IMetricsProvider;
+import dev.galasa.framework.spi.IMetricsServer;
+import dev.galasa.framework.spi.MetricsServerException;
+import io.prometheus.client.Gauge;
+
+/**
+ * Publishes the 3270 terminal totals that the test runs add to the DSS, see
+ * {@link TerminalMetrics#addTo(IDynamicStatusStoreService, Map)}
+ */
+@Component(service= {IMetricsProvider.class})
+public class Zos3270Metrics implements IMetricsProvider, Runnable {
+    private final Log                          logger = LogFactory.getLog(getClass());
+    private IFramework                         framework;
+    private IMetricsServer                     metricsServer;
+    private IDynamicStatusStoreService         dss;
+
+    private Gauge                              inboundBytes;
+    private Gauge                              inboundRecords;
+    private Gauge                              screenUpdates;
+    private Gauge                              tlsHandshakes;
+    private Gauge                              tlsHandshakeTime;
+    private ResponseTimeCollector              responseTimes;
+
+    @Override
+    public boolean initialise(IFramework framework, IMetricsServer metricsServer) throws MetricsServerException {
+        this.framework = framework;
+        this.metricsServer = metricsServer;
+        try {
+            this.dss = this.framework.getDynamicStatusStoreService("zos3270");
+        } catch (Exception e) {
+            throw new MetricsServerException("Unable to initialise zOS 3270 Metrics", e);
+        }
+
+        this.inboundBytes = Gauge.build()
+                .name("galasa_zos3270_inbound_bytes_total")
+                .help("How many bytes of 3270 data terminals have received")
+                .register();
+        this.inboundRecords = Gauge.build()
+                .name("galasa_zos3270_inbound_records_total")
+                .help("How many 3270 records terminals have received")
+                .register();
+        this.screenUpdates = Gauge.build()
+                .name("galasa_zos3270_screen_updates_total")
+                .help("How many times terminal screens have been updated by the host")
+                .register();
+        this.tlsHandshakes = Gauge.build()
+                .name("galasa_zos3270_tls_handshakes_total")
+                .help("How many TLS handshakes terminals have performed, full or resumed")
+                .labelNames("type")
+                .register();
+        this.tlsHandshakeTime = Gauge.build()
+                .name("galasa_zos3270_tls_handshake_seconds_total")
+                .help("The total time terminals have spent in TLS handshakes")
+                .register();
+        this.responseTimes = new ResponseTimeCollector().register();
+
+        return true;
+    }
+
+    @Override
+    public void start() {
+
+        this.metricsServer.getScheduledExecutorService().scheduleWithFixedDelay(this,
+                1,
+                10,
+                TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public void run() {
+        logger.info("zOS 3270 Poll");
+
+        try {
+            Map<String, String> metrics = dss.getPrefix(TerminalMetrics.DSS_PREFIX);
+
+            this.inboundBytes.set(value(metrics, TerminalMetrics.DSS_INBOUND_BYTES));
+            this.inboundRecords.set(value(metrics, TerminalMetrics.DSS_INBOUND_RECORDS));
+            this.screenUpdates.set(value(metrics, TerminalMetrics.DSS_SCREEN_UPDATES));
+            this.tlsHandshakes.labels("full").set(value(metrics, TerminalMetrics.DSS_TLS_FULL));
+            this.tlsHandshakes.labels("resumed").set(value(metrics, TerminalMetrics.DSS_TLS_RESUMED));
+            this.tlsHandshakeTime.set(value(metrics, TerminalMetrics.DSS_TLS_TIME) / 1000.0);
+
+            this.responseTimes.update(metrics);
+
+            this.metricsServer.metricsPollSuccessful();
+        } catch(Exception e) {
+            logger.error("Problem with zOS 3270 poll",e);
+        }
+
+    }
+
+    private static double value(Map<String, String> metrics, String key) {
+        String value = metrics.get(key);
+        if (value == null) {
+            return 0.0;
+        }
+        return Double.parseDouble(value);
+    }
+
+}
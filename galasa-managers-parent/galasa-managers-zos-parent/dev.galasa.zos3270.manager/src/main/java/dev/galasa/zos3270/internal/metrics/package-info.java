@@ -0,0 +1,9 @@
+/*
+ *Licensed Materials - Property of IBM
+ *
+ *(c) Copyright IBM Corp. 2020.
+ */
+/**
+ * zOS 3270 Terminal Manager - Internal Metrics
+ */
+package dev.galasa.zos3270.internal.metrics;
@@ -0,0 +1,32 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * Are the screen snapshot listeners of a terminal, such as the RAS imaging,
+ * console logging and live terminal, called on the shared listener threads so
+ * that they do not delay the processing of the next inbound record. They
+ * always are when zos3270.network.engine is NIO
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.listeners.async=false
+ * </p>
+ * <p>
+ * default value is false
+ * </p>
+ *
+ */
+public class AsyncScreenListeners extends CpsProperties {
+
+    public static boolean get() throws Zos3270ManagerException {
+        return Boolean.parseBoolean(getStringWithDefault(Zos3270PropertiesSingleton.cps(), "false", "listeners", "async"));
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The number of terminals that are connected at the same time during
+ * provisioning, 1 connects the terminals one after another
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.terminal.connect.parallelism=5
+ * </p>
+ * <p>
+ * default value is 5
+ * </p>
+ *
+ */
+public class ConnectParallelism extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return Math.max(1, getIntWithDefault(Zos3270PropertiesSingleton.cps(), 5, "terminal.connect", "parallelism"));
+    }
+
+}
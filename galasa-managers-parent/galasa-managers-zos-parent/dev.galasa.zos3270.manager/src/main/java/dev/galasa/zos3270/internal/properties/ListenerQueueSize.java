@@ -0,0 +1,31 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The number of screen updates that can be queued for the asynchronous screen
+ * listeners before later updates replace the last one queued, so the listeners
+ * skip screens rather than the network thread waiting for them
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.listeners.queue.size=1000
+ * </p>
+ * <p>
+ * default value is 1000
+ * </p>
+ *
+ */
+public class ListenerQueueSize extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return Math.max(1, getIntWithDefault(Zos3270PropertiesSingleton.cps(), 1000, "listeners.queue", "size"));
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * Which network engine is used to drive the 3270 terminals
+ * <p>
+ * THREAD uses a dedicated network thread per terminal. NIO shares a small
+ * number of selector threads between all the terminals in the run, which is
+ * useful when driving a large number of terminals at once. With NIO the screen
+ * snapshot listeners of each terminal are always called on the shared listener
+ * threads, see zos3270.listeners.async, so a slow listener does not hold up
+ * the other terminals sharing the selector thread. The screen update listeners,
+ * which include the waits for the keyboard and for text, are still called on
+ * the selector thread and must return quickly.
+ * </p>
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.network.engine=THREAD|NIO
+ * </p>
+ * <p>
+ * default value is THREAD
+ * </p>
+ *
+ */
+public class NetworkEngine extends CpsProperties {
+
+    public static final String THREAD = "THREAD";
+    public static final String NIO    = "NIO";
+
+    public static String get() throws Zos3270ManagerException {
+        String engine = getStringWithDefault(Zos3270PropertiesSingleton.cps(), THREAD, "network", "engine")
+                .trim().toUpperCase();
+        if (!THREAD.equals(engine) && !NIO.equals(engine)) {
+            throw new Zos3270ManagerException("Invalid value '" + engine + "' for property zos3270.network.engine, must be THREAD or NIO");
+        }
+        return engine;
+    }
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The number of selector threads shared by the terminals when the NIO network
+ * engine is in use
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.network.nio.threads=2
+ * </p>
+ * <p>
+ * default value is the number of processors, up to a maximum of 4
+ * </p>
+ *
+ */
+public class NetworkNioThreads extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        int defaultThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        return getIntWithDefault(Zos3270PropertiesSingleton.cps(), defaultThreads, "network.nio", "threads");
+    }
+
+}
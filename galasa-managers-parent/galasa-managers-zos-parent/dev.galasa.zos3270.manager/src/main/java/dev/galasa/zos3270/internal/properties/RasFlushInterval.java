@@ -0,0 +1,29 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The number of milliseconds a terminal image can wait to be written to the RAS
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.ras.flush.interval=5000
+ * </p>
+ * <p>
+ * default value is 5000
+ * </p>
+ *
+ */
+public class RasFlushInterval extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return Math.max(1, getIntWithDefault(Zos3270PropertiesSingleton.cps(), 5000, "ras.flush", "interval"));
+    }
+
+}
@@ -0,0 +1,30 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The maximum number of terminal images written to each RAS terminal file, no
+ * more than zos3270.ras.queue.size
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.ras.flush.size=10
+ * </p>
+ * <p>
+ * default value is 10
+ * </p>
+ *
+ */
+public class RasFlushSize extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return Math.max(1, getIntWithDefault(Zos3270PropertiesSingleton.cps(), 10, "ras.flush", "size"));
+    }
+
+}
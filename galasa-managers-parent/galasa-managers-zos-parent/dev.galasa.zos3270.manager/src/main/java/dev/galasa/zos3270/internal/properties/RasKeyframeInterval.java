@@ -0,0 +1,32 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The maximum number of terminal images between keyframes in the RAS, the
+ * images in between only record the fields that changed. Each RAS terminal file
+ * starts with a keyframe. Set to 1 to record every field of every image, as
+ * required by older viewers
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.ras.keyframe.interval=10
+ * </p>
+ * <p>
+ * default value is 10
+ * </p>
+ *
+ */
+public class RasKeyframeInterval extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return Math.max(1, getIntWithDefault(Zos3270PropertiesSingleton.cps(), 10, "ras.keyframe", "interval"));
+    }
+
+}
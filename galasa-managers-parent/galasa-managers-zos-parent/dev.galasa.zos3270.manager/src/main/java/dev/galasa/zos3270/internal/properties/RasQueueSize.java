@@ -0,0 +1,30 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * The number of terminal images that can be queued for the RAS writer before
+ * screen updates have to wait for the writer to catch up
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.ras.queue.size=100
+ * </p>
+ * <p>
+ * default value is 100
+ * </p>
+ *
+ */
+public class RasQueueSize extends CpsProperties {
+
+    public static int get() throws Zos3270ManagerException {
+        return Math.max(1, getIntWithDefault(Zos3270PropertiesSingleton.cps(), 100, "ras.queue", "size"));
+    }
+
+}
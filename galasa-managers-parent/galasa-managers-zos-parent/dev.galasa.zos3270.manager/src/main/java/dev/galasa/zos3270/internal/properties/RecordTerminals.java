@@ -0,0 +1,31 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos3270.Zos3270ManagerException;
+
+/**
+ * Are the 3270 records of each terminal session recorded to the RAS, under
+ * zos3270/recordings, so the session can be replayed by the replay server.
+ * The recordings are not passed through Confidential Text Filtering
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.terminal.record=false
+ * </p>
+ * <p>
+ * default value is false
+ * </p>
+ *
+ */
+public class RecordTerminals extends CpsProperties {
+
+    public static boolean get() throws Zos3270ManagerException {
+        return Boolean.parseBoolean(getStringWithDefault(Zos3270PropertiesSingleton.cps(), "false", "terminal", "record"));
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.properties;
+
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zos.IZosImage;
+import dev.galasa.zos3270.Zos3270ManagerException;
+import dev.galasa.zos3270.spi.CodePage;
+
+/**
+ * The EBCDIC code page used by the terminals connected to a zOS image
+ * <p>
+ * The property is:-<br>
+ * <br>
+ * zos3270.image.[imageid].codepage=037|1047|285|500|273
+ * </p>
+ * <p>
+ * default value is 037
+ * </p>
+ *
+ */
+public class TerminalCodePage extends CpsProperties {
+
+    public static CodePage get(IZosImage image) throws Zos3270ManagerException {
+        String codePage = getStringWithDefault(Zos3270PropertiesSingleton.cps(), CodePage.DEFAULT, "image", "codepage",
+                image.getImageID());
+        try {
+            return CodePage.getCodePage(codePage);
+        } catch (IllegalArgumentException e) {
+            throw new Zos3270ManagerException(
+                    "Invalid value for property zos3270.image." + image.getImageID() + ".codepage", e);
+        }
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.spi.IConfidentialTextService;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+/**
+ * Streams terminal images to a live terminal viewer.
+ * <p>
+ * A single chunked HTTP PUT is held open for the life of the terminal, each
+ * frame is a compact JSON Terminal followed by a newline. Frames after the
+ * first are deltas of the previous frame sent, with a keyframe at the keyframe
+ * interval.
+ * </p>
+ * <p>
+ * Only the latest image is held for sending. If the viewer has not accepted
+ * the previous frame by the time the next screen update arrives, the waiting
+ * image is replaced, so the viewer skips intermediate screens rather than the
+ * test waiting for the viewer.
+ * </p>
+ * <p>
+ * The frames are sent on threads of their own rather than the shared terminal
+ * output threads, so a slow viewer cannot hold up the RAS. A viewer that does
+ * not connect, accept a frame or respond within the timeout is disconnected
+ * and the live terminal disabled.
+ * </p>
+ */
+public class LiveTerminalSender {
+
+    private static final long              CLOSE_TIMEOUT = 10_000;
+    private static final int               TIMEOUT       = 10_000;
+
+    // *** Threads are only kept while viewers are being streamed to
+    private static final AtomicInteger     threadNumber  = new AtomicInteger();
+    private static final ExecutorService   liveThreads   = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "zos3270-live-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Log                      logger        = LogFactory.getLog(getClass());
+
+    private final URL                      liveTerminalUrl;
+    private final String                   terminalId;
+    private final String                   runId;
+    private final TerminalSize             terminalSize;
+    private final IConfidentialTextService cts;
+    private final int                      keyframeInterval;
+    private final int                      timeout;
+
+    private final Object                   lock          = new Object();
+    private final CountDownLatch           ended         = new CountDownLatch(1);
+    private TerminalImage                  pending;
+    private boolean                        sending;
+    private boolean                        closed;
+    private volatile boolean               failed;
+
+    private volatile HttpURLConnection     connection;
+    // *** When the frame being written was started, 0 if none is
+    private volatile long                  writeStarted;
+    private Writer                         writer;
+    private TerminalImage                  lastSent;
+    private int                            sequence;
+    private int                            sinceKeyframe;
+
+    private final AtomicLong               framesSent    = new AtomicLong();
+    private final AtomicLong               framesDropped = new AtomicLong();
+
+    /**
+     * @param cts - the confidential text service, or null if the images are not
+     *            to be filtered
+     */
+    public LiveTerminalSender(URL liveTerminalUrl, String terminalId, String runId, TerminalSize terminalSize,
+            IConfidentialTextService cts, int keyframeInterval) {
+        this(liveTerminalUrl, terminalId, runId, terminalSize, cts, keyframeInterval, TIMEOUT);
+    }
+
+    /**
+     * @param cts     - the confidential text service, or null if the images are
+     *                not to be filtered
+     * @param timeout - milliseconds the viewer has to connect, accept a frame
+     *                or respond before it is disconnected
+     */
+    public LiveTerminalSender(URL liveTerminalUrl, String terminalId, String runId, TerminalSize terminalSize,
+            IConfidentialTextService cts, int keyframeInterval, int timeout) {
+        this.liveTerminalUrl = liveTerminalUrl;
+        this.terminalId = terminalId;
+        this.runId = runId;
+        this.terminalSize = terminalSize;
+        this.cts = cts;
+        this.keyframeInterval = keyframeInterval;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Send an image, replacing any image still waiting to be sent
+     */
+    public void send(TerminalImage image) {
+        synchronized (lock) {
+            if (closed || failed) {
+                return;
+            }
+            if (isStalled()) {
+                disable("Live terminal " + terminalId + " has not accepted a frame for " + timeout
+                        + "ms, live terminal disabled");
+                return;
+            }
+            if (pending != null) {
+                framesDropped.incrementAndGet();
+            }
+            pending = image;
+            startSending();
+        }
+    }
+
+    /**
+     * Send the waiting image and end the stream
+     */
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            startSending();
+        }
+
+        try {
+            if (!ended.await(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                disable("Timed out waiting for live terminal " + terminalId + " to end");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.debug("Terminal " + terminalId + " live terminal frames sent=" + getFramesSent() + ", dropped="
+                + getFramesDropped());
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * @return the number of screen updates not sent because the viewer was
+     *         behind
+     */
+    public long getFramesDropped() {
+        return framesDropped.get();
+    }
+
+    /**
+     * Submit a task to send the waiting image, unless one is already running.
+     * Called holding the lock
+     */
+    private void startSending() {
+        if (!sending) {
+            sending = true;
+            liveThreads.execute(this::sendPending);
+        }
+    }
+
+    /**
+     * @return true if the viewer has taken longer than the timeout to accept
+     *         the frame being written
+     */
+    private boolean isStalled() {
+        long started = writeStarted;
+        return started != 0 && System.currentTimeMillis() - started > timeout;
+    }
+
+    /**
+     * Stop streaming, the disconnect fails any write blocked on the viewer
+     */
+    private void disable(String reason) {
+        logger.warn(reason);
+        failed = true;
+        HttpURLConnection currentConnection = connection;
+        if (currentConnection != null) {
+            currentConnection.disconnect();
+        }
+    }
+
+    /**
+     * Send the images until there are none waiting, ending the stream if the
+     * sender has been closed
+     */
+    private void sendPending() {
+        try {
+            while (true) {
+                TerminalImage image;
+                synchronized (lock) {
+                    if (pending == null) {
+                        if (!closed) {
+                            sending = false;
+                            return;
+                        }
+                        break;
+                    }
+                    image = pending;
+                    pending = null;
+                }
+
+                sendFrame(image);
+            }
+
+            endStream();
+        } catch (Exception e) {
+            if (!failed) {
+                logger.warn("Failed to stream live terminal " + terminalId + ", live terminal disabled", e);
+                failed = true;
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+        ended.countDown();
+    }
+
+    private void sendFrame(TerminalImage image) throws IOException {
+        if (connection == null) {
+            connection = (HttpURLConnection) liveTerminalUrl.openConnection();
+            connection.setConnectTimeout(timeout);
+            connection.setReadTimeout(timeout);
+            connection.setRequestMethod("PUT");
+            connection.addRequestProperty("Content-Type", "application/x-ndjson");
+            connection.setChunkedStreamingMode(0);
+            connection.setDoInput(true);
+            connection.setDoOutput(true);
+            connection.connect();
+            writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        TerminalImage frame = null;
+        if (lastSent != null && sinceKeyframe < keyframeInterval - 1) {
+            frame = TerminalImageDeltas.delta(lastSent, image);
+        }
+        if (frame == null) {
+            frame = image;
+            sinceKeyframe = 0;
+        } else {
+            sinceKeyframe++;
+        }
+
+        sequence++;
+        Terminal liveTerminal = new Terminal(terminalId, runId, sequence, terminalSize, Terminal.VERSION_DELTA);
+        liveTerminal.getImages().add(frame);
+
+        StringWriter json = new StringWriter();
+        TerminalJsonWriter.write(liveTerminal, json);
+        String frameJson = json.toString();
+        if (cts != null) {
+            frameJson = cts.removeConfidentialText(frameJson);
+        }
+
+        // *** Each flush is sent as a chunk
+        writeStarted = System.currentTimeMillis();
+        try {
+            writer.write(frameJson);
+            writer.write('\n');
+            writer.flush();
+        } finally {
+            writeStarted = 0;
+        }
+
+        lastSent = image;
+        framesSent.incrementAndGet();
+    }
+
+    private void endStream() throws IOException {
+        if (connection == null) {
+            return;
+        }
+
+        writer.close();
+        if (connection.getResponseCode() != 200) {
+            logger.warn("Live terminal " + terminalId + " stream ended with " + connection.getResponseCode() + " - "
+                    + connection.getResponseMessage());
+        }
+        connection.disconnect();
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared threads that call the screen snapshot listeners of all the
+ * terminals in the JVM, so a terminal does not need a listener thread of its
+ * own. The threads are started when the first dispatcher acquires the executor
+ * and stopped when the last dispatcher releases it.
+ */
+public class ScreenListenerExecutor {
+
+    private static final int       THREADS = 4;
+
+    private static ExecutorService shared;
+    private static int             dispatchers;
+
+    private ScreenListenerExecutor() {
+    }
+
+    /**
+     * Obtain the shared executor for a new dispatcher, starting it if required
+     *
+     * @return the executor the dispatcher is to call its listeners on
+     */
+    public static synchronized ExecutorService acquire() {
+        if (shared == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            shared = Executors.newFixedThreadPool(THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "zos3270-listeners-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        dispatchers++;
+
+        return shared;
+    }
+
+    /**
+     * Indicate a dispatcher has finished with the executor, the last dispatcher
+     * out stops the threads once the tasks already submitted have run
+     */
+    public static synchronized void release() {
+        if (dispatchers <= 0) {
+            return;
+        }
+
+        dispatchers--;
+        if (dispatchers == 0 && shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+
+}
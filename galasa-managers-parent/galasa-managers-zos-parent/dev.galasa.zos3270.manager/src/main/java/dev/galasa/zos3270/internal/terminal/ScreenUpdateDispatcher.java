@@ -0,0 +1,279 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.IScreenUpdateListener.Direction;
+import dev.galasa.zos3270.spi.IScreenSnapshotListener;
+import dev.galasa.zos3270.spi.ScreenSnapshot;
+
+/**
+ * Calls the screen snapshot listeners of a terminal on the shared
+ * {@link ScreenListenerExecutor} threads, so the network thread only has to
+ * take the snapshot.
+ * <p>
+ * Updates are queued and the listeners called in the order of the updates, by
+ * one listener thread at a time. The screen update never waits for the
+ * listeners, as the network thread may be a selector thread shared with other
+ * terminals. If the queue is full the latest update replaces the last update
+ * queued, so the listeners skip an intermediate screen rather than fall
+ * further behind. The queue depth, the number of coalesced updates and the lag
+ * between an update and its listeners being called are recorded so slow
+ * listeners can be seen.
+ * </p>
+ */
+public class ScreenUpdateDispatcher {
+
+    private static final long              CLOSE_TIMEOUT  = 120_000;
+    // *** Entries dispatched before the thread is offered to other terminals
+    private static final int               BATCH_SIZE     = 100;
+
+    private final Log                      logger         = LogFactory.getLog(getClass());
+
+    private final String                   terminalId;
+    private final int                      queueSize;
+    private final ExecutorService          executor;
+
+    private final ArrayDeque<Object>       queue          = new ArrayDeque<>();
+    private int                            queuedUpdates;
+    private boolean                        dispatching;
+    private boolean                        closed;
+
+    private final AtomicLong               updatesQueued  = new AtomicLong();
+    private final AtomicLong               updatesDispatched = new AtomicLong();
+    private final AtomicLong               updatesLost    = new AtomicLong();
+    private final AtomicLong               updatesCoalesced = new AtomicLong();
+    private final AtomicLong               listenerFailures = new AtomicLong();
+    private final AtomicInteger            maxQueueDepth  = new AtomicInteger();
+    private final AtomicLong               totalLagNanos  = new AtomicLong();
+    private final AtomicLong               maxLagNanos    = new AtomicLong();
+
+    public ScreenUpdateDispatcher(String terminalId, int queueSize) {
+        this.terminalId = terminalId;
+        this.queueSize = queueSize;
+        this.executor = ScreenListenerExecutor.acquire();
+    }
+
+    /**
+     * Queue an update for the listeners, replacing the last queued update if
+     * the queue is full
+     */
+    public void dispatch(Direction direction, AttentionIdentification aid, ScreenSnapshot snapshot,
+            IScreenSnapshotListener[] listeners) {
+        Update update = new Update(direction, aid, snapshot, listeners);
+        synchronized (queue) {
+            if (closed) {
+                updatesLost.incrementAndGet();
+                logger.warn("Screen update received after the listeners of terminal " + terminalId
+                        + " were closed, update lost");
+                return;
+            }
+
+            if (queuedUpdates >= queueSize && queue.peekLast() instanceof Update) {
+                // *** The listeners are not keeping up
+                queue.pollLast();
+                queue.addLast(update);
+                updatesCoalesced.incrementAndGet();
+            } else {
+                queue.addLast(update);
+                queuedUpdates++;
+            }
+            maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+            startDispatching();
+        }
+        updatesQueued.incrementAndGet();
+    }
+
+    /**
+     * Wait for the listeners to be called for all the queued updates
+     */
+    public void flush() {
+        drain(false);
+    }
+
+    /**
+     * Call the listeners for all the queued updates and release the listener
+     * threads, any updates received afterwards are lost
+     */
+    public void close() {
+        if (drain(true)) {
+            ScreenListenerExecutor.release();
+            logger.debug("Terminal " + terminalId + " screen listener statistics, " + getStatistics());
+        }
+    }
+
+    /**
+     * @return false if the dispatcher was already closed
+     */
+    private boolean drain(boolean stop) {
+        Marker marker = new Marker();
+        synchronized (queue) {
+            if (closed) {
+                return false;
+            }
+            closed = stop;
+            queue.addLast(marker);
+            startDispatching();
+        }
+
+        try {
+            if (!marker.done.await(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.error("Timed out waiting for the screen listeners of terminal " + terminalId);
+            }
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted whilst waiting for the screen listeners of terminal " + terminalId);
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    /**
+     * Submit a task to call the listeners, unless one is already running.
+     * Called holding the queue lock
+     */
+    private void startDispatching() {
+        if (!dispatching) {
+            dispatching = true;
+            executor.execute(this::dispatchQueued);
+        }
+    }
+
+    private void dispatchQueued() {
+        for (int dispatched = 0; dispatched < BATCH_SIZE; dispatched++) {
+            Object entry;
+            synchronized (queue) {
+                entry = queue.pollFirst();
+                if (entry == null) {
+                    dispatching = false;
+                    return;
+                }
+                if (entry instanceof Update) {
+                    queuedUpdates--;
+                }
+            }
+
+            if (entry instanceof Marker) {
+                ((Marker) entry).done.countDown();
+                continue;
+            }
+
+            Update update = (Update) entry;
+            long lag = System.nanoTime() - update.queued;
+            totalLagNanos.addAndGet(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+
+            for (IScreenSnapshotListener listener : update.listeners) {
+                try {
+                    listener.screenUpdated(update.direction, update.aid, update.snapshot);
+                } catch (RuntimeException e) {
+                    listenerFailures.incrementAndGet();
+                    logger.warn("Screen listener of terminal " + terminalId + " failed", e);
+                }
+            }
+            updatesDispatched.incrementAndGet();
+        }
+
+        // *** Let the other terminals have the thread, the remaining updates
+        // are dispatched after them
+        executor.execute(this::dispatchQueued);
+    }
+
+    public long getUpdatesQueued() {
+        return updatesQueued.get();
+    }
+
+    public long getUpdatesDispatched() {
+        return updatesDispatched.get();
+    }
+
+    public long getUpdatesLost() {
+        return updatesLost.get();
+    }
+
+    public long getListenerFailures() {
+        return listenerFailures.get();
+    }
+
+    /**
+     * @return the number of updates replaced by a later update because the
+     *         queue was full
+     */
+    public long getUpdatesCoalesced() {
+        return updatesCoalesced.get();
+    }
+
+    /**
+     * @return the number of updates waiting for the listeners, including any
+     *         being flushed
+     */
+    public int getQueueDepth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the longest time an update waited for its listeners to be called,
+     *         in milliseconds
+     */
+    public long getMaxLag() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get());
+    }
+
+    /**
+     * @return the average time an update waited for its listeners to be called,
+     *         in milliseconds
+     */
+    public long getAverageLag() {
+        long dispatched = updatesDispatched.get();
+        if (dispatched == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalLagNanos.get() / dispatched);
+    }
+
+    public String getStatistics() {
+        return "queued=" + getUpdatesQueued() + ", dispatched=" + getUpdatesDispatched() + ", lost="
+                + getUpdatesLost() + ", failures=" + getListenerFailures() + ", maxQueueDepth=" + getMaxQueueDepth()
+                + ", coalesced=" + getUpdatesCoalesced() + ", averageLag=" + getAverageLag() + "ms, maxLag="
+                + getMaxLag() + "ms";
+    }
+
+    private static class Update {
+        private final Direction                 direction;
+        private final AttentionIdentification   aid;
+        private final ScreenSnapshot            snapshot;
+        private final IScreenSnapshotListener[] listeners;
+        private final long                      queued = System.nanoTime();
+
+        private Update(Direction direction, AttentionIdentification aid, ScreenSnapshot snapshot,
+                IScreenSnapshotListener[] listeners) {
+            this.direction = direction;
+            this.aid = aid;
+            this.snapshot = snapshot;
+            this.listeners = listeners;
+        }
+    }
+
+    private static class Marker {
+        private final CountDownLatch done = new CountDownLatch(1);
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.IScreenUpdateListener;
+import dev.galasa.zos3270.Zos3270Exception;
+import dev.galasa.zos3270.spi.Screen;
+
+/**
+ * Waits for a screen condition to be met. The condition is evaluated once
+ * when the listener is created and then once per screen update, a non null
+ * result is the match.
+ */
+public class ScreenUpdateMatchListener<T> implements IScreenUpdateListener {
+
+    private final Screen                 screen;
+    private final Function<Screen, T>    condition;
+    private final CountDownLatch         matched = new CountDownLatch(1);
+
+    private volatile T                   match;
+    private volatile RuntimeException    failure;
+    private boolean                      used;
+
+    public ScreenUpdateMatchListener(Screen screen, Function<Screen, T> condition) {
+        this.screen = screen;
+        this.condition = condition;
+
+        synchronized (this.screen) {
+            screenUpdated(Direction.RECEIVED, null);
+            if (this.matched.getCount() == 0) {
+                return;
+            }
+            this.screen.registerScreenUpdateListener(this);
+        }
+    }
+
+    @Override
+    public void screenUpdated(Direction direction, AttentionIdentification aid) {
+        if (this.matched.getCount() == 0) {
+            return;
+        }
+
+        try {
+            T result = this.condition.apply(this.screen);
+            if (result != null) {
+                this.match = result;
+                this.matched.countDown();
+            }
+        } catch (RuntimeException e) {
+            // *** Do not let the condition break the network thread, report it to the waiter
+            this.failure = e;
+            this.matched.countDown();
+        }
+    }
+
+    /**
+     * @param maxWait - time in milliseconds
+     * @return the match, or null if the wait timed out
+     */
+    public T waitForMatch(long maxWait) throws InterruptedException, Zos3270Exception {
+        if (this.used) {
+            throw new Zos3270Exception("Not allowed to use this listener more than once");
+        }
+        this.used = true;
+
+        try {
+            this.matched.await(maxWait, TimeUnit.MILLISECONDS);
+        } finally {
+            screen.unregisterScreenUpdateListener(this);
+        }
+
+        if (this.failure != null) {
+            throw new Zos3270Exception("Screen condition failed", this.failure);
+        }
+        return this.match;
+    }
+
+}
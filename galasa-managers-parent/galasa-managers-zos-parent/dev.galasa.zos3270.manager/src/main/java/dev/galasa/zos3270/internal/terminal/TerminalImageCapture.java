@@ -0,0 +1,72 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.spi.Field;
+import dev.galasa.zos3270.spi.ScreenSnapshot;
+
+/**
+ * Captures a screen as the terminal image that is written to the RAS and sent
+ * to the live terminal viewers
+ */
+public class TerminalImageCapture {
+
+    private TerminalImageCapture() {
+    }
+
+    /**
+     * @param sequence - the number of the update on the terminal
+     * @param id       - the id of the image, the terminal id and the sequence
+     * @param inbound  - true if the screen was received from the host
+     * @param aid      - the AID key sent, or null
+     * @param snapshot - the screen to capture
+     * @return the terminal image
+     */
+    public static TerminalImage capture(int sequence, String id, boolean inbound, String aid,
+            ScreenSnapshot snapshot) {
+        int cursorPosition = snapshot.getCursor();
+        int screenCols = snapshot.getNoOfColumns();
+        int screenRows = snapshot.getNoOfRows();
+
+        int cursorRow = cursorPosition / screenCols;
+        int cursorCol = cursorPosition % screenCols;
+
+        TerminalSize terminalSize = new TerminalSize(screenCols, screenRows);
+        TerminalImage terminalImage = new TerminalImage(sequence, id, inbound, null, aid, terminalSize, cursorCol,
+                cursorRow);
+        terminalImage.getFields().addAll(buildFields(snapshot));
+        return terminalImage;
+    }
+
+    public static List<TerminalField> buildFields(ScreenSnapshot snapshot) {
+        ArrayList<TerminalField> terminalFields = new ArrayList<>();
+
+        int columns = snapshot.getNoOfColumns();
+        for (Field screenField : snapshot.calculateFields()) {
+            int row = screenField.getStart() / columns;
+            int column = screenField.getStart() % columns;
+
+            TerminalField terminalField = new TerminalField(row, column, screenField.isUnformatted(),
+                    screenField.isProtected(), screenField.isNumeric(), screenField.isDisplay(),
+                    screenField.isIntenseDisplay(), screenField.isSelectorPen(), screenField.isFieldModifed());
+
+            Character[] chars = screenField.getFieldCharsWithNulls();
+            terminalField.getContents().add(new FieldContents(chars)); // TODO needs to be expanded when we record
+            // extended attributes
+            terminalFields.add(terminalField);
+        }
+
+        return terminalFields;
+    }
+
+}
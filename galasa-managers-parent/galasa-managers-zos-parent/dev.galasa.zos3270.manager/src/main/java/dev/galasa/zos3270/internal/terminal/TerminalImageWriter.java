@@ -0,0 +1,313 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.ResultArchiveStoreContentType;
+import dev.galasa.SetContentType;
+import dev.galasa.framework.spi.IConfidentialTextService;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+/**
+ * Writes terminal images to the RAS on the shared terminal output threads so
+ * that the network thread only has to capture the image.
+ * <p>
+ * Images are queued on a bounded queue and written in batches when the batch
+ * is full, or when the oldest image in the batch has waited for the flush
+ * interval. A batch is never larger than the queue. If the queue is full the
+ * queued images are written at once and the screen update waits for the
+ * writer, the number and duration of these waits are recorded so a slow RAS
+ * can be seen.
+ * </p>
+ * <p>
+ * Unless the keyframe interval is 1 the images are written in the delta
+ * format, each file starting with a keyframe.
+ * </p>
+ */
+public class TerminalImageWriter {
+
+    private final Log                      logger        = LogFactory.getLog(getClass());
+
+    private final String                   terminalId;
+    private final String                   runId;
+    private final TerminalSize             terminalSize;
+    private final Path                     terminalRasDirectory;
+    private final IConfidentialTextService cts;
+    private final int                      flushSize;
+    private final long                     flushInterval;
+    private final int                      keyframeInterval;
+
+    private final ArrayBlockingQueue<TerminalImage> queue;
+    private final ScheduledExecutorService executor;
+    private volatile boolean               closed;
+
+    // *** Only one thread writes the images of the terminal at a time, so the
+    // files are written in order
+    private final Object                   writeLock     = new Object();
+    private final AtomicBoolean            batchSubmitted = new AtomicBoolean();
+    private final AtomicBoolean            timerSet      = new AtomicBoolean();
+
+    private int                            rasTerminalSequence;
+
+    private final AtomicLong               imagesQueued  = new AtomicLong();
+    private final AtomicLong               imagesWritten = new AtomicLong();
+    private final AtomicLong               imagesLost    = new AtomicLong();
+    private final AtomicLong               filesWritten  = new AtomicLong();
+    private final AtomicLong               queueFullWaits = new AtomicLong();
+    private final AtomicLong               queueFullNanos = new AtomicLong();
+    private final AtomicInteger            maxQueueDepth = new AtomicInteger();
+
+    /**
+     * @param cts - the confidential text service, or null if the images are not
+     *            to be filtered
+     */
+    public TerminalImageWriter(String terminalId, String runId, TerminalSize terminalSize, Path terminalRasDirectory,
+            IConfidentialTextService cts, int queueSize, int flushSize, long flushInterval, int keyframeInterval) {
+        this.terminalId = terminalId;
+        this.runId = runId;
+        this.terminalSize = terminalSize;
+        this.terminalRasDirectory = terminalRasDirectory;
+        this.cts = cts;
+        if (flushSize > queueSize) {
+            logger.warn("RAS flush size " + flushSize + " is larger than the queue size " + queueSize
+                    + ", the queue size will be used");
+            flushSize = queueSize;
+        }
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+        this.keyframeInterval = keyframeInterval;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.executor = TerminalOutputExecutor.acquire();
+    }
+
+    /**
+     * Queue an image to be written, waiting if the queue is full
+     */
+    public void write(TerminalImage image) {
+        synchronized (queue) {
+            if (closed) {
+                imagesLost.incrementAndGet();
+                logger.warn("Terminal image " + image.getId() + " received after the RAS writer was closed, image lost");
+                return;
+            }
+
+            try {
+                enqueue(image);
+            } catch (InterruptedException e) {
+                imagesLost.incrementAndGet();
+                logger.warn("Interrupted whilst queuing terminal image " + image.getId() + ", image lost");
+                Thread.currentThread().interrupt();
+                return;
+            }
+            scheduleWrite();
+        }
+        imagesQueued.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Write all the queued images and wait for them to reach the RAS
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            writeQueued(1);
+        }
+    }
+
+    /**
+     * Write all the queued images and stop the writer, any images received
+     * afterwards are lost
+     */
+    public void close() {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        flush();
+        TerminalOutputExecutor.release();
+        logger.debug("Terminal " + terminalId + " RAS writer statistics, " + getStatistics());
+    }
+
+    private void enqueue(TerminalImage image) throws InterruptedException {
+        if (queue.offer(image)) {
+            return;
+        }
+
+        // *** Backpressure, the writer is not keeping up. Do not wait for the
+        // flush interval to make room
+        submitBatch();
+        long start = System.nanoTime();
+        queue.put(image);
+        queueFullWaits.incrementAndGet();
+        queueFullNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Write the queued images now if there is a full batch, otherwise once the
+     * oldest has waited for the flush interval
+     */
+    private void scheduleWrite() {
+        if (queue.size() >= flushSize) {
+            submitBatch();
+        } else if (timerSet.compareAndSet(false, true)) {
+            executor.schedule(this::writeAfterInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void submitBatch() {
+        if (batchSubmitted.compareAndSet(false, true)) {
+            executor.execute(this::writeFullBatches);
+        }
+    }
+
+    private void writeFullBatches() {
+        do {
+            synchronized (writeLock) {
+                writeQueued(flushSize);
+            }
+            batchSubmitted.set(false);
+            // *** Another batch may have filled whilst the flag was set
+        } while (queue.size() >= flushSize && batchSubmitted.compareAndSet(false, true));
+    }
+
+    private void writeAfterInterval() {
+        // *** Images queued from now on set a timer of their own
+        timerSet.set(false);
+        synchronized (writeLock) {
+            writeQueued(1);
+        }
+    }
+
+    /**
+     * Write the queued images in batches of the flush size, whilst there are at
+     * least the minimum number queued
+     */
+    private void writeQueued(int minimum) {
+        ArrayList<TerminalImage> batch = new ArrayList<>(flushSize);
+        while (queue.size() >= minimum && queue.drainTo(batch, flushSize) > 0) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(ArrayList<TerminalImage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        rasTerminalSequence++;
+        Terminal rasTerminal;
+        if (keyframeInterval > 1) {
+            rasTerminal = new Terminal(this.terminalId, this.runId, rasTerminalSequence, terminalSize,
+                    Terminal.VERSION_DELTA);
+            rasTerminal.getImages().addAll(TerminalImageDeltas.encode(batch, keyframeInterval));
+        } else {
+            rasTerminal = new Terminal(this.terminalId, this.runId, rasTerminalSequence, terminalSize);
+            rasTerminal.getImages().addAll(batch);
+        }
+
+        String terminalFilename = this.terminalId + "-" + String.format("%05d", rasTerminalSequence) + ".gz";
+        Path terminalPath = terminalRasDirectory.resolve(terminalFilename);
+
+        try (OutputStream os = new GZIPOutputStream(newOutputStream(terminalPath))) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+            if (cts == null) {
+                TerminalJsonWriter.write(rasTerminal, writer);
+            } else {
+                // *** Confidential text may be anywhere in the text, so filter it as a whole
+                StringWriter json = new StringWriter();
+                TerminalJsonWriter.write(rasTerminal, json);
+                writer.write(cts.removeConfidentialText(json.toString()));
+            }
+            writer.flush();
+
+            imagesWritten.addAndGet(batch.size());
+            filesWritten.incrementAndGet();
+        } catch (Exception e) {
+            logger.error("Unable to write terminal " + terminalId + " images to the RAS, " + batch.size()
+                    + " images lost", e);
+            imagesLost.addAndGet(batch.size());
+            rasTerminalSequence--;
+        }
+
+        batch.clear();
+    }
+
+    protected OutputStream newOutputStream(Path terminalPath) throws IOException {
+        return Files.newOutputStream(terminalPath,
+                new SetContentType(new ResultArchiveStoreContentType("application/zos3270terminal")),
+                StandardOpenOption.CREATE);
+    }
+
+    public long getImagesQueued() {
+        return imagesQueued.get();
+    }
+
+    public long getImagesWritten() {
+        return imagesWritten.get();
+    }
+
+    public long getImagesLost() {
+        return imagesLost.get();
+    }
+
+    public long getFilesWritten() {
+        return filesWritten.get();
+    }
+
+    /**
+     * @return the number of times a screen update had to wait for space in the
+     *         queue
+     */
+    public long getQueueFullWaits() {
+        return queueFullWaits.get();
+    }
+
+    /**
+     * @return the total time screen updates waited for space in the queue, in
+     *         milliseconds
+     */
+    public long getQueueFullWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(queueFullNanos.get());
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public String getStatistics() {
+        return "queued=" + getImagesQueued() + ", written=" + getImagesWritten() + ", lost=" + getImagesLost()
+                + ", files=" + getFilesWritten() + ", maxQueueDepth=" + getMaxQueueDepth() + ", queueFullWaits="
+                + getQueueFullWaits() + ", queueFullWaitTime=" + getQueueFullWaitTime() + "ms";
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.google.gson.stream.JsonWriter;
+
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+
+/**
+ * Writes terminal images as compact JSON directly to a stream.
+ * <p>
+ * The output can be read back with Gson, and is what Gson would produce for
+ * the same objects once null members and false booleans are removed, without
+ * building an intermediate JSON tree.
+ * </p>
+ */
+public class TerminalJsonWriter {
+
+    private TerminalJsonWriter() {
+    }
+
+    public static void write(Terminal terminal, Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        string(json, "id", terminal.getId());
+        string(json, "runId", terminal.getRunId());
+        json.name("sequence").value(terminal.getSequence());
+        json.name("images").beginArray();
+        for (TerminalImage image : terminal.getImages()) {
+            writeImage(json, image);
+        }
+        json.endArray();
+        size(json, "defaultSize", terminal.getDefaultSize());
+        json.name("version").value(terminal.getVersion());
+        json.endObject();
+        json.flush();
+    }
+
+    private static void writeImage(JsonWriter json, TerminalImage image) throws IOException {
+        json.beginObject();
+        json.name("sequence").value(image.getSequence());
+        string(json, "id", image.getId());
+        flag(json, "inbound", image.isInbound());
+        string(json, "type", image.getType());
+        size(json, "imageSize", image.getImageSize());
+        json.name("cursorColumn").value(image.getCursorColumn());
+        json.name("cursorRow").value(image.getCursorRow());
+        string(json, "aid", image.getAid());
+        json.name("fields").beginArray();
+        for (TerminalField field : image.getFields()) {
+            writeField(json, field);
+        }
+        json.endArray();
+        flag(json, "delta", image.isDelta());
+        if (image.getRemovedFields() != null) {
+            json.name("removedFields").beginArray();
+            for (int[] position : image.getRemovedFields()) {
+                json.beginArray().value(position[0]).value(position[1]).endArray();
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    private static void writeField(JsonWriter json, TerminalField field) throws IOException {
+        json.beginObject();
+        json.name("row").value(field.getRow());
+        json.name("column").value(field.getColumn());
+        flag(json, "unformatted", field.isUnformatted());
+        flag(json, "fieldProtected", field.isFieldProtected());
+        flag(json, "fieldNumeric", field.isFieldNumeric());
+        flag(json, "fieldDisplay", field.isFieldDisplay());
+        flag(json, "fieldIntenseDisplay", field.isFieldIntenseDisplay());
+        flag(json, "fieldSelectorPen", field.isFieldSelectorPen());
+        flag(json, "fieldModifed", field.isFieldModifed());
+        json.name("contents").beginArray();
+        for (FieldContents contents : field.getContents()) {
+            writeContents(json, contents);
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    private static void writeContents(JsonWriter json, FieldContents contents) throws IOException {
+        json.beginObject();
+        String text = contents.getText();
+        if (text != null) {
+            json.name("text").value(text);
+        } else {
+            json.name("chars").beginArray();
+            for (Character c : contents.getChars()) {
+                if (c == null) {
+                    json.nullValue();
+                } else {
+                    json.value(String.valueOf(c.charValue()));
+                }
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    private static void size(JsonWriter json, String name, TerminalSize size) throws IOException {
+        if (size == null) {
+            return;
+        }
+        json.name(name).beginObject();
+        json.name("columns").value(size.getColumns());
+        json.name("rows").value(size.getRows());
+        json.endObject();
+    }
+
+    private static void string(JsonWriter json, String name, String value) throws IOException {
+        if (value != null) {
+            json.name(name).value(value);
+        }
+    }
+
+    private static void flag(JsonWriter json, String name, boolean value) throws IOException {
+        if (value) {
+            json.name(name).value(true);
+        }
+    }
+
+}
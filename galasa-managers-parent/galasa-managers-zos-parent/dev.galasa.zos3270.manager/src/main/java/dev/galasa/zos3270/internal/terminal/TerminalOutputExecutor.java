@@ -0,0 +1,65 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared threads that write the terminal images of all the terminals in
+ * the JVM to the RAS and flush the network recordings, so a terminal does not
+ * need threads of its own. The threads are started when the first writer
+ * acquires the executor and stopped when the last writer releases it.
+ */
+public class TerminalOutputExecutor {
+
+    private static final int                 THREADS = 2;
+
+    private static ScheduledExecutorService shared;
+    private static int                      writers;
+
+    private TerminalOutputExecutor() {
+    }
+
+    /**
+     * Obtain the shared executor for a new writer, starting it if required
+     *
+     * @return the executor the writer is to run its tasks on
+     */
+    public static synchronized ScheduledExecutorService acquire() {
+        if (shared == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "zos3270-output-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            shared = executor;
+        }
+        writers++;
+
+        return shared;
+    }
+
+    /**
+     * Indicate a writer has finished with the executor, the last writer out
+     * stops the threads once the tasks already submitted have run
+     */
+    public static synchronized void release() {
+        if (writers <= 0) {
+            return;
+        }
+
+        writers--;
+        if (writers == 0 && shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.internal.terminal;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Aho-Corasick automaton used to search for several texts in a single pass.
+ * <p>
+ * The automaton is compiled once into a dense transition table over the
+ * characters that appear in the texts, so matching is one table lookup per
+ * screen character regardless of how many texts are being searched for.
+ * </p>
+ */
+public class TextMatcher {
+
+    private final String[] texts;
+
+    // *** Characters that appear in the texts are mapped to symbols 1..n, any
+    // *** other character is symbol 0 and always returns to the root state
+    private final short[]  latinSymbols = new short[256];
+    private final char[]   otherChars;
+    private final short[]  otherSymbols;
+
+    private final int[][]  transitions;
+    private final int[]    matches;
+    private final int      emptyText;
+
+    public TextMatcher(String... texts) {
+        if (texts == null || texts.length == 0) {
+            throw new IllegalArgumentException("At least one text is required");
+        }
+        this.texts = texts.clone();
+
+        // *** Build the alphabet
+        TreeSet<Character> alphabet = new TreeSet<>();
+        int maxStates = 1;
+        int empty = -1;
+        for (int i = 0; i < this.texts.length; i++) {
+            String text = this.texts[i];
+            if (text == null) {
+                throw new IllegalArgumentException("Text " + i + " is null");
+            }
+            if (text.isEmpty() && empty < 0) {
+                empty = i;
+            }
+            for (int c = 0; c < text.length(); c++) {
+                alphabet.add(text.charAt(c));
+            }
+            maxStates += text.length();
+        }
+        this.emptyText = empty;
+
+        int otherCount = 0;
+        for (char c : alphabet) {
+            if (c >= 256) {
+                otherCount++;
+            }
+        }
+        this.otherChars = new char[otherCount];
+        this.otherSymbols = new short[otherCount];
+
+        short symbol = 1;
+        int other = 0;
+        for (char c : alphabet) {
+            if (c < 256) {
+                this.latinSymbols[c] = symbol;
+            } else {
+                this.otherChars[other] = c;
+                this.otherSymbols[other] = symbol;
+                other++;
+            }
+            symbol++;
+        }
+        int symbols = symbol;
+
+        // *** Build the trie, -1 is an undefined transition
+        int[][] table = new int[maxStates][];
+        int[] match = new int[maxStates];
+        table[0] = newState(symbols);
+        match[0] = -1;
+        int states = 1;
+
+        for (int i = 0; i < this.texts.length; i++) {
+            String text = this.texts[i];
+            int state = 0;
+            for (int c = 0; c < text.length(); c++) {
+                int s = symbolOf(text.charAt(c));
+                if (table[state][s] < 0) {
+                    table[states] = newState(symbols);
+                    match[states] = -1;
+                    table[state][s] = states;
+                    states++;
+                }
+                state = table[state][s];
+            }
+            if (state != 0 && match[state] < 0) {
+                match[state] = i;
+            }
+        }
+
+        // *** Breadth first over the trie to resolve the failure transitions, so
+        // *** the table becomes a complete automaton
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int s = 0; s < symbols; s++) {
+            int next = table[0][s];
+            if (next < 0) {
+                table[0][s] = 0;
+            } else {
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+
+        while (head < tail) {
+            int state = queue[head++];
+            if (match[state] < 0) {
+                match[state] = match[fail[state]];
+            }
+
+            for (int s = 0; s < symbols; s++) {
+                int next = table[state][s];
+                if (next < 0) {
+                    table[state][s] = table[fail[state]][s];
+                } else {
+                    fail[next] = table[fail[state]][s];
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(table, states);
+        this.matches = Arrays.copyOf(match, states);
+    }
+
+    private static int[] newState(int symbols) {
+        int[] state = new int[symbols];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private int symbolOf(char c) {
+        if (c < 256) {
+            return this.latinSymbols[c];
+        }
+
+        int index = Arrays.binarySearch(this.otherChars, c);
+        if (index >= 0) {
+            return this.otherSymbols[index];
+        }
+        return 0;
+    }
+
+    /**
+     * Search a range of characters for any of the texts
+     *
+     * @param text - the characters to search
+     * @param from - the first position, inclusive
+     * @param to   - the last position, exclusive
+     * @return the index of the text that ends earliest in the range, or -1 if
+     *         none were found
+     */
+    public int match(char[] text, int from, int to) {
+        if (this.emptyText >= 0) {
+            return this.emptyText;
+        }
+
+        int[][] table = this.transitions;
+        int state = 0;
+        for (int i = from; i < to; i++) {
+            state = table[state][symbolOf(text[i])];
+            int found = this.matches[state];
+            if (found >= 0) {
+                return found;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index - the index returned by {@link #match(char[], int, int)}
+     * @return the text
+     */
+    public String getText(int index) {
+        return this.texts[index];
+    }
+
+    /**
+     * @return the texts being searched for
+     */
+    public String[] getTexts() {
+        return this.texts.clone();
+    }
+
+}
@@ -5,13 +5,9 @@
  */
 package dev.galasa.zos3270.spi;
 
-import java.nio.charset.Charset;
-
 public class BufferChar implements IBufferHolder {
 
-    private static final Charset ebcdic = Charset.forName("Cp037");
-
-    private final char           character;
+    private final char character;
 
     public BufferChar(char character) {
         if (character == -1) {
@@ -39,13 +35,32 @@ public class BufferChar implements IBufferHolder {
     }
 
     public byte getFieldEbcdic() {
-        if (this.character == 0) {
+        return getFieldEbcdic(this.character);
+    }
+
+    /**
+     * Convert a buffer character to EBCDIC, a null character remains null
+     * 
+     * @param character - the buffer character
+     * @return the EBCDIC value
+     */
+    public static byte getFieldEbcdic(char character) {
+        return getFieldEbcdic(character, CodePage.getDefault());
+    }
+
+    /**
+     * Convert a buffer character to EBCDIC, a null character remains null
+     * 
+     * @param character - the buffer character
+     * @param codePage - the code page of the screen
+     * @return the EBCDIC value
+     */
+    public static byte getFieldEbcdic(char character, CodePage codePage) {
+        if (character == 0) {
             return 0;
         }
 
-        String value = new String(new char[] { this.character });
-
-        return value.getBytes(ebcdic)[0];
+        return codePage.encode(character);
     }
 
 }
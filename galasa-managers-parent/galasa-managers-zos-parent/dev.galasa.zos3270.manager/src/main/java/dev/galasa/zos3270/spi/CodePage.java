@@ -0,0 +1,136 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.spi;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table driven EBCDIC code page used to translate the 3270 datastream.
+ * <p>
+ * The 256 entry decode and encode tables are built once from the JVM charset,
+ * after which translation is an array lookup with no allocation. Characters
+ * outside Latin-1 that the code page can encode are held in a small sorted
+ * table. Anything the code page cannot encode is translated to the charset
+ * substitution byte, as {@link String#getBytes(Charset)} would.
+ * </p>
+ */
+public class CodePage {
+
+    public static final String                         DEFAULT   = "037";
+
+    private static final String[]                      SUPPORTED = { "037", "1047", "285", "500", "273" };
+
+    private static final Map<String, CodePage>         codePages = new ConcurrentHashMap<>();
+
+    private final String                               name;
+    private final char[]                               decodeTable = new char[256];
+    private final byte[]                               encodeTable = new byte[256];
+    private final char[]                               extraChars;
+    private final byte[]                               extraBytes;
+    private final byte                                 substitute;
+
+    private CodePage(String name) {
+        this.name = name;
+
+        Charset charset = Charset.forName("Cp" + name);
+        this.substitute = charset.newEncoder().replacement()[0];
+
+        for (int i = 0; i < 256; i++) {
+            this.decodeTable[i] = new String(new byte[] { (byte) i }, charset).charAt(0);
+        }
+
+        for (char c = 0; c < 256; c++) {
+            this.encodeTable[c] = String.valueOf(c).getBytes(charset)[0];
+        }
+
+        // *** Characters beyond Latin-1 that the code page contains
+        TreeMap<Character, Byte> extras = new TreeMap<>();
+        for (char c : this.decodeTable) {
+            if (c >= 256) {
+                extras.put(c, String.valueOf(c).getBytes(charset)[0]);
+            }
+        }
+
+        this.extraChars = new char[extras.size()];
+        this.extraBytes = new byte[extras.size()];
+        int i = 0;
+        for (Map.Entry<Character, Byte> entry : extras.entrySet()) {
+            this.extraChars[i] = entry.getKey();
+            this.extraBytes[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * Obtain a code page, the tables are built on first use
+     *
+     * @param name - the code page number, eg 037 or 1047
+     * @return the code page
+     * @throws IllegalArgumentException - if the code page is not supported
+     */
+    public static CodePage getCodePage(String name) {
+        String trimmedName = name.trim();
+        if (!Arrays.asList(SUPPORTED).contains(trimmedName)) {
+            throw new IllegalArgumentException(
+                    "Unsupported code page '" + name + "', supported are " + Arrays.toString(SUPPORTED));
+        }
+
+        return codePages.computeIfAbsent(trimmedName, CodePage::new);
+    }
+
+    public static CodePage getDefault() {
+        return getCodePage(DEFAULT);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @param ebcdic - the EBCDIC byte
+     * @return the character
+     */
+    public char decode(byte ebcdic) {
+        return this.decodeTable[ebcdic & 0xff];
+    }
+
+    /**
+     * Decode a run of EBCDIC bytes into a character array
+     */
+    public void decode(byte[] source, int sourcePos, char[] destination, int destinationPos, int length) {
+        char[] table = this.decodeTable;
+        for (int i = 0; i < length; i++) {
+            destination[destinationPos + i] = table[source[sourcePos + i] & 0xff];
+        }
+    }
+
+    /**
+     * @param character - the character
+     * @return the EBCDIC byte, or the substitution byte if the character is not
+     *         in the code page
+     */
+    public byte encode(char character) {
+        if (character < 256) {
+            return this.encodeTable[character];
+        }
+
+        int index = Arrays.binarySearch(this.extraChars, character);
+        if (index >= 0) {
+            return this.extraBytes[index];
+        }
+        return this.substitute;
+    }
+
+    @Override
+    public String toString() {
+        return "CodePage(" + this.name + ")";
+    }
+
+}
@@ -5,16 +5,16 @@
  */
 package dev.galasa.zos3270.spi;
 
-import java.nio.charset.Charset;
 import java.util.Arrays;
 
 public class Field {
 
-    private static final Charset ebcdic = Charset.forName("Cp037");
+    private final CodePage       codePage;
 
     private final int            start;
 
     private char[]               text;
+    private String               textString;
 
     private final boolean        fieldProtected;
     private final boolean        fieldNumeric;
@@ -24,17 +24,29 @@ public class Field {
     private final boolean        fieldModifed;
 
     protected Field(int start, BufferStartOfField sf) {
+        this(start, sf.isProtected(), sf.isNumeric(), sf.isDisplay(), sf.isIntenseDisplay(), sf.isSelectorPen(),
+                sf.isFieldModifed(), CodePage.getDefault());
+    }
+
+    protected Field(int start, boolean fieldProtected, boolean fieldNumeric, boolean fieldDisplay,
+            boolean fieldIntenseDisplay, boolean fieldSelectorPen, boolean fieldModifed, CodePage codePage) {
+        this.codePage = codePage;
         this.start = start;
-        this.fieldProtected = sf.isProtected();
-        this.fieldNumeric = sf.isNumeric();
-        this.fieldDisplay = sf.isDisplay();
-        this.fieldIntenseDisplay = sf.isIntenseDisplay();
-        this.fieldSelectorPen = sf.isSelectorPen();
-        this.fieldModifed = sf.isFieldModifed();
+        this.fieldProtected = fieldProtected;
+        this.fieldNumeric = fieldNumeric;
+        this.fieldDisplay = fieldDisplay;
+        this.fieldIntenseDisplay = fieldIntenseDisplay;
+        this.fieldSelectorPen = fieldSelectorPen;
+        this.fieldModifed = fieldModifed;
         this.text = new char[0];
     }
 
     public Field() {
+        this(CodePage.getDefault());
+    }
+
+    protected Field(CodePage codePage) {
+        this.codePage = codePage;
         this.start = -1;
         this.fieldProtected = false;
         this.fieldNumeric = false;
@@ -49,6 +61,14 @@ public class Field {
         char[] newText = Arrays.copyOf(this.text, this.text.length + 1);
         newText[newText.length - 1] = newChar;
         this.text = newText;
+        this.textString = null;
+    }
+
+    protected void appendChars(char[] newChars, int offset, int length) {
+        char[] newText = Arrays.copyOf(this.text, this.text.length + length);
+        System.arraycopy(newChars, offset, newText, this.text.length, length);
+        this.text = newText;
+        this.textString = null;
     }
 
     @Override
@@ -79,7 +99,10 @@ public class Field {
     }
 
     public boolean containsText(String searchText) {
-        return new String(this.text).contains(searchText);
+        if (this.textString == null) {
+            this.textString = new String(this.text);
+        }
+        return this.textString.contains(searchText);
     }
 
     public int getStart() {
@@ -136,8 +159,11 @@ public class Field {
     }
 
     public byte[] getFieldWithNulls() {
-        String otext = new String(text);
-        return otext.getBytes(ebcdic);
+        byte[] ebcdic = new byte[text.length];
+        for (int i = 0; i < text.length; i++) {
+            ebcdic[i] = codePage.encode(text[i]);
+        }
+        return ebcdic;
     }
 
     public Character[] getFieldCharsWithNulls() {
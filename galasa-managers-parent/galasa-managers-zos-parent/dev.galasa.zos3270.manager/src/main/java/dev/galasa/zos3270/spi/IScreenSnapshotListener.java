@@ -0,0 +1,24 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.spi;
+
+import javax.validation.constraints.NotNull;
+
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.IScreenUpdateListener.Direction;
+
+/**
+ * A screen listener that is given a snapshot of the screen as it was when it
+ * was updated. If the terminal has asynchronous listeners enabled the listener
+ * is called on the listener thread of the terminal, in the order of the
+ * updates, and the screen may have changed since, so only the snapshot should
+ * be examined.
+ */
+public interface IScreenSnapshotListener {
+
+    void screenUpdated(@NotNull Direction direction, AttentionIdentification aid, @NotNull ScreenSnapshot snapshot);
+
+}
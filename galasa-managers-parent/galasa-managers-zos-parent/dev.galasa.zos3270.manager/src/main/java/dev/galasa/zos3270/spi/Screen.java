@@ -7,12 +7,16 @@ package dev.galasa.zos3270.spi;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import javax.validation.constraints.NotNull;
 
@@ -25,6 +29,8 @@ import dev.galasa.zos3270.FieldNotFoundException;
 import dev.galasa.zos3270.IScreenUpdateListener;
 import dev.galasa.zos3270.IScreenUpdateListener.Direction;
 import dev.galasa.zos3270.KeyboardLockedException;
+import dev.galasa.zos3270.ScreenFingerprint;
+import dev.galasa.zos3270.ScreenSignatures;
 import dev.galasa.zos3270.TerminalInterruptedException;
 import dev.galasa.zos3270.TextNotFoundException;
 import dev.galasa.zos3270.TimeoutException;
@@ -39,6 +45,8 @@ import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
 import dev.galasa.zos3270.internal.datastream.CommandReadBuffer;
 import dev.galasa.zos3270.internal.datastream.CommandWriteStructured;
 import dev.galasa.zos3270.internal.datastream.IAttribute;
+import dev.galasa.zos3270.internal.datastream.IOrderHandler;
+import dev.galasa.zos3270.internal.datastream.OrderDecoder;
 import dev.galasa.zos3270.internal.datastream.OrderInsertCursor;
 import dev.galasa.zos3270.internal.datastream.OrderRepeatToAddress;
 import dev.galasa.zos3270.internal.datastream.OrderSetAttribute;
@@ -55,7 +63,11 @@ import dev.galasa.zos3270.internal.datastream.StructuredField;
 import dev.galasa.zos3270.internal.datastream.StructuredField3270DS;
 import dev.galasa.zos3270.internal.datastream.StructuredFieldReadPartition;
 import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.internal.metrics.TerminalMetrics;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateDispatcher;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateMatchListener;
 import dev.galasa.zos3270.internal.terminal.ScreenUpdateTextListener;
+import dev.galasa.zos3270.internal.terminal.TextMatcher;
 
 /**
  * Screen representation of the 3270 terminal
@@ -67,33 +79,72 @@ public class Screen {
 
     private static final String                     CANT_FIND_TEXT  = "Unable to find a field containing '";
 
+    // *** Flags held in the attribute plane for each buffer position
+    private static final byte                       ATTR_CHARACTER     = 0x01;
+    private static final byte                       ATTR_FIELD_START   = 0x02;
+    private static final byte                       ATTR_PROTECTED     = 0x04;
+    private static final byte                       ATTR_NUMERIC       = 0x08;
+    private static final byte                       ATTR_DISPLAY       = 0x10;
+    private static final byte                       ATTR_INTENSE       = 0x20;
+    private static final byte                       ATTR_SELECTOR_PEN  = 0x40;
+    private static final byte                       ATTR_MODIFIED      = (byte) 0x80;
+
+    // *** The field flags that are part of the screen fingerprint, the modified
+    // flag changes as the screen is typed on so is left out
+    private static final int                        FINGERPRINT_FLAGS  = ATTR_FIELD_START | ATTR_PROTECTED
+            | ATTR_NUMERIC | ATTR_DISPLAY | ATTR_INTENSE | ATTR_SELECTOR_PEN;
+
     private final Log                               logger          = LogFactory.getLog(getClass());
 
     private final Network                           network;
+    private final CodePage                          codePage;
 
-    private final IBufferHolder[]                   buffer;
+    // *** The buffer is held as parallel arrays, the character at each position
+    // and the attribute flags of the position. A position with no flags has
+    // never been written to
+    private final char[]                            chars;
+    private final byte[]                            attributes;
     private final int                               columns;
     private final int                               rows;
     private final int                               screenSize;
 
+    // *** The snapshot of the buffer, published after each inbound record and
+    // rebuilt when first needed after a local change. Readers use it without
+    // the screen lock, the fields and renderings are calculated from it
+    private volatile ScreenSnapshot                 published;
+    private volatile ScreenSignatures               signatures      = new ScreenSignatures();
+
     private int                                     workingCursor   = 0;
-    private int                                     screenCursor    = 0;
+    private volatile int                            screenCursor    = 0;
 
     private Semaphore                               keyboardLock    = new Semaphore(1, true);
     private boolean                                 keyboardLockSet = false;
 
     private final LinkedList<IScreenUpdateListener> updateListeners = new LinkedList<>();
+    private final CopyOnWriteArrayList<IScreenSnapshotListener> snapshotListeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<Runnable>    keyboardUnlockListeners = new CopyOnWriteArrayList<>();
+    private volatile ScreenUpdateDispatcher         dispatcher;
+
+    private final OrderApplier                      orderApplier    = new OrderApplier();
+
+    private volatile TerminalMetrics                metrics         = new TerminalMetrics();
 
     public Screen() throws TerminalInterruptedException {
         this(80, 24, null);
     }
 
     public Screen(int columns, int rows, Network network) throws TerminalInterruptedException {
+        this(columns, rows, network, CodePage.getDefault());
+    }
+
+    public Screen(int columns, int rows, Network network, CodePage codePage) throws TerminalInterruptedException {
         this.network = network;
+        this.codePage = codePage;
         this.columns = columns;
         this.rows = rows;
         this.screenSize = this.columns * this.rows;
-        this.buffer = new IBufferHolder[this.screenSize];
+        this.chars = new char[this.screenSize];
+        this.attributes = new byte[this.screenSize];
         lockKeyboard();
     }
 
@@ -114,9 +165,34 @@ public class Screen {
             logger.trace("Unlocking keyboard");
             keyboardLockSet = false;
             keyboardLock.release();
+            metrics.keyboardRestored();
+            for (Runnable listener : keyboardUnlockListeners) {
+                listener.run();
+            }
         }
     }
 
+    /**
+     * @return true if the keyboard is locked waiting for the host
+     */
+    public synchronized boolean isKeyboardLocked() {
+        return keyboardLockSet;
+    }
+
+    /**
+     * Register a listener that is called when the host restores the keyboard,
+     * which is after the screen update listeners have been called for the
+     * write. The listener is called with the screen lock held so must not
+     * block
+     */
+    public void registerKeyboardUnlockListener(Runnable listener) {
+        keyboardUnlockListeners.add(listener);
+    }
+
+    public void unregisterKeyboardUnlockListener(Runnable listener) {
+        keyboardUnlockListeners.remove(listener);
+    }
+
     public void processInboundMessage(Inbound3270Message inbound) throws DatastreamException {
         AbstractCommandCode commandCode = inbound.getCommandCode();
         if (commandCode instanceof CommandWriteStructured) {
@@ -124,23 +200,53 @@ public class Screen {
         } else if (commandCode instanceof CommandReadBuffer) {
             processReadBuffer();
         } else {
-            WriteControlCharacter writeControlCharacter = inbound.getWriteControlCharacter();
-            List<AbstractOrder> orders = inbound.getOrders();
+            processWrite(commandCode, inbound.getWriteControlCharacter(), inbound.getOrders());
+        }
 
-            if (commandCode instanceof CommandEraseWrite) {
-                erase();
-            }
-            
-            if (writeControlCharacter.isReset()) {
-                this.workingCursor = 0;
-            }
-            processOrders(orders);
+    }
 
-            if (writeControlCharacter.isKeyboardReset()) {
-                unlockKeyboard();
-            }
+    private synchronized void processWrite(AbstractCommandCode commandCode,
+            WriteControlCharacter writeControlCharacter, List<AbstractOrder> orders) throws DatastreamException {
+        if (commandCode instanceof CommandEraseWrite) {
+            erase();
+        }
+
+        if (writeControlCharacter.isReset()) {
+            this.workingCursor = 0;
+        }
+        processOrders(orders);
+
+        if (writeControlCharacter.isKeyboardReset()) {
+            unlockKeyboard();
+        }
+        publish();
+    }
+
+    /**
+     * Process a Write or Erase/Write, decoding the orders straight from the
+     * datastream into the buffer
+     * 
+     * @param commandCode           - the write command
+     * @param writeControlCharacter - the WCC of the write
+     * @param orders                - the datastream positioned at the first
+     *                              order
+     * @throws DatastreamException - if the orders are invalid
+     */
+    public synchronized void processWrite(AbstractCommandCode commandCode, WriteControlCharacter writeControlCharacter,
+            ByteBuffer orders) throws DatastreamException {
+        if (commandCode instanceof CommandEraseWrite) {
+            erase();
+        }
+
+        if (writeControlCharacter.isReset()) {
+            this.workingCursor = 0;
         }
+        processOrders(orders);
 
+        if (writeControlCharacter.isKeyboardReset()) {
+            unlockKeyboard();
+        }
+        publish();
     }
     
     private synchronized void processReadBuffer() throws DatastreamException {
@@ -152,18 +258,18 @@ public class Screen {
             BufferAddress cursor = new BufferAddress(this.screenCursor);
             outboundBuffer.write(cursor.getCharRepresentation());
             
-            for(IBufferHolder bh : this.buffer) {
-                if (bh == null) {
-                    outboundBuffer.write(0);
-                } else if (bh instanceof BufferChar) {
-                    BufferChar bc = (BufferChar) bh;
-                    outboundBuffer.write(bc.getFieldEbcdic());
-                } else if (bh instanceof BufferStartOfField) {
-                    BufferStartOfField sf = (BufferStartOfField) bh;
-                    OrderStartField osf = new OrderStartField(sf.isProtected(), sf.isNumeric(), sf.isDisplay(), sf.isIntenseDisplay(), sf.isSelectorPen(), sf.isFieldModifed());
+            for (int i = 0; i < this.screenSize; i++) {
+                byte attribute = this.attributes[i];
+                if (isFieldStart(attribute)) {
+                    OrderStartField osf = new OrderStartField(isSet(attribute, ATTR_PROTECTED),
+                            isSet(attribute, ATTR_NUMERIC), isSet(attribute, ATTR_DISPLAY),
+                            isSet(attribute, ATTR_INTENSE), isSet(attribute, ATTR_SELECTOR_PEN),
+                            isSet(attribute, ATTR_MODIFIED));
                     outboundBuffer.write(osf.getBytes());
+                } else if (isCharacter(attribute)) {
+                    outboundBuffer.write(BufferChar.getFieldEbcdic(this.chars[i], this.codePage));
                 } else {
-                    throw new DatastreamException("Unrecognised Buffer Holder - " + bh.getClass().getName());
+                    outboundBuffer.write(0);
                 }
             }
             this.network.sendDatastream(outboundBuffer.toByteArray());
@@ -259,8 +365,10 @@ public class Screen {
                 baos.write(reply.toByte());
             }
 
-            String hex = new String(Hex.encodeHex(baos.toByteArray()));
-            logger.trace("outbound sf=" + hex);
+            if (logger.isTraceEnabled()) {
+                String hex = new String(Hex.encodeHex(baos.toByteArray()));
+                logger.trace("outbound sf=" + hex);
+            }
 
             network.sendDatastream(baos.toByteArray());
         } catch (Exception e) {
@@ -270,6 +378,7 @@ public class Screen {
 
     public synchronized void processOrders(List<AbstractOrder> orders) throws DatastreamException {
         logger.trace("Processing orders");
+        bufferChanged();
         for (AbstractOrder order : orders) {
             if (order instanceof OrderSetBufferAddress) {
                 processSBA((OrderSetBufferAddress) order);
@@ -290,18 +399,62 @@ public class Screen {
             }
         }
 
+        notifyReceived();
+    }
+
+    /**
+     * Apply the orders as they are decoded from the datastream, without
+     * creating order objects. The result is the same as processing the orders
+     * parsed by {@link dev.galasa.zos3270.internal.comms.NetworkThread#processOrders(ByteBuffer)}
+     * 
+     * @param buffer - the datastream positioned at the first order
+     * @throws DatastreamException - if the orders are invalid
+     */
+    public synchronized void processOrders(ByteBuffer buffer) throws DatastreamException {
+        logger.trace("Processing orders");
+        bufferChanged();
+        OrderDecoder.decode(buffer, this.codePage, this.orderApplier);
+
+        notifyReceived();
+    }
+
+    private void notifyReceived() {
+        metrics.screenUpdated();
         synchronized (updateListeners) {
             for (IScreenUpdateListener listener : updateListeners) {
                 listener.screenUpdated(Direction.RECEIVED, null);
             }
         }
+        notifySnapshotListeners(Direction.RECEIVED, null);
     }
 
-    public synchronized void erase() {
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+    /**
+     * Pass a snapshot of the screen to the snapshot listeners, on the calling
+     * thread or queued on the dispatcher if there is one
+     */
+    private void notifySnapshotListeners(Direction direction, AttentionIdentification aid) {
+        if (snapshotListeners.isEmpty()) {
+            return;
+        }
+
+        IScreenSnapshotListener[] listeners = snapshotListeners.toArray(new IScreenSnapshotListener[0]);
+        ScreenSnapshot snapshot = snapshot();
+        ScreenUpdateDispatcher currentDispatcher = this.dispatcher;
+        if (currentDispatcher != null) {
+            currentDispatcher.dispatch(direction, aid, snapshot, listeners);
+            return;
         }
 
+        for (IScreenSnapshotListener listener : listeners) {
+            listener.screenUpdated(direction, aid, snapshot);
+        }
+    }
+
+    public synchronized void erase() {
+        bufferChanged();
+        Arrays.fill(this.chars, (char) 0);
+        Arrays.fill(this.attributes, (byte) 0);
+
         this.screenCursor  = 0;
         this.workingCursor = 0;
     }
@@ -312,7 +465,11 @@ public class Screen {
      * @param order - the order to process
      */
     private synchronized void processSBA(OrderSetBufferAddress order) {
-        this.workingCursor = order.getBufferAddress();
+        processSBA(order.getBufferAddress());
+    }
+
+    private void processSBA(int bufferAddress) {
+        this.workingCursor = bufferAddress;
         if (this.workingCursor >= this.screenSize) {
             this.workingCursor = this.workingCursor - this.screenSize;
         }
@@ -325,7 +482,10 @@ public class Screen {
      * @throws DatastreamException
      */
     private synchronized void processRA(OrderRepeatToAddress order) throws DatastreamException {
-        int endOfRepeat = order.getBufferAddress();
+        processRA(order.getBufferAddress(), order.getChar(this.codePage));
+    }
+
+    private void processRA(int endOfRepeat, char repeatChar) throws DatastreamException {
 
         if (endOfRepeat > this.screenSize || endOfRepeat < 0) {
             throw new DatastreamException(
@@ -333,7 +493,7 @@ public class Screen {
         }
 
         while (this.workingCursor != endOfRepeat) {
-            this.buffer[this.workingCursor] = new BufferChar(order.getChar());
+            setChar(this.workingCursor, repeatChar);
             if (endOfRepeat == this.screenSize && this.workingCursor == (this.screenSize - 1)) {
                 endOfRepeat = 0;
                 break;
@@ -351,85 +511,153 @@ public class Screen {
         }
     }
 
+    private void incrementWorkingCursor(int count) {
+        this.workingCursor += count;
+        if (this.workingCursor >= this.screenSize) {
+            this.workingCursor = this.workingCursor % this.screenSize;
+        }
+    }
+
+    private void setChar(int position, char character) {
+        this.chars[position] = character;
+        this.attributes[position] = ATTR_CHARACTER;
+    }
+
+    private void setFieldStart(int position, OrderStartField order) {
+        setFieldStart(position, order.isFieldProtected(), order.isFieldNumeric(), order.isFieldDisplay(),
+                order.isFieldIntenseDisplay(), order.isFieldSelectorPen(), order.isFieldModifed());
+    }
+
+    private void setFieldStart(int position, byte fieldAttributes) {
+        setFieldStart(position, OrderStartField.isProtected(fieldAttributes),
+                OrderStartField.isNumeric(fieldAttributes), OrderStartField.isDisplay(fieldAttributes),
+                OrderStartField.isIntenseDisplay(fieldAttributes), OrderStartField.isSelectorPen(fieldAttributes),
+                OrderStartField.isModified(fieldAttributes));
+    }
+
+    private void setFieldStart(int position, boolean fieldProtected, boolean fieldNumeric, boolean fieldDisplay,
+            boolean fieldIntenseDisplay, boolean fieldSelectorPen, boolean fieldModified) {
+        byte attribute = ATTR_FIELD_START;
+        if (fieldProtected) {
+            attribute |= ATTR_PROTECTED;
+        }
+        if (fieldNumeric) {
+            attribute |= ATTR_NUMERIC;
+        }
+        if (fieldDisplay) {
+            attribute |= ATTR_DISPLAY;
+        }
+        if (fieldIntenseDisplay) {
+            attribute |= ATTR_INTENSE;
+        }
+        if (fieldSelectorPen) {
+            attribute |= ATTR_SELECTOR_PEN;
+        }
+        if (fieldModified) {
+            attribute |= ATTR_MODIFIED;
+        }
+        this.chars[position] = 0;
+        this.attributes[position] = attribute;
+    }
+
+    private static boolean isSet(byte attribute, byte flag) {
+        return (attribute & flag) != 0;
+    }
+
+    static boolean isFieldStart(byte attribute) {
+        return (attribute & ATTR_FIELD_START) != 0;
+    }
+
+    private static boolean isCharacter(byte attribute) {
+        return (attribute & ATTR_CHARACTER) != 0;
+    }
+
+    private static Field newField(int start, byte attribute, CodePage codePage) {
+        return new Field(start, isSet(attribute, ATTR_PROTECTED), isSet(attribute, ATTR_NUMERIC),
+                isSet(attribute, ATTR_DISPLAY), isSet(attribute, ATTR_INTENSE), isSet(attribute, ATTR_SELECTOR_PEN),
+                isSet(attribute, ATTR_MODIFIED), codePage);
+    }
+
     private void processSF(OrderStartField order) {
-        this.buffer[this.workingCursor] = new BufferStartOfField(this.workingCursor, order.isFieldProtected(),
-                order.isFieldNumeric(), order.isFieldDisplay(), order.isFieldIntenseDisplay(),
-                order.isFieldSelectorPen(), order.isFieldModifed());
+        setFieldStart(this.workingCursor, order);
         incrementWorkingCursor();
     }
 
     private void processSFE(OrderStartFieldExtended order) {
-        List<IAttribute> attributes = order.getAttributes();
-
-        BufferStartOfField bsf = null;
-        for (IAttribute attr : attributes) {
+        OrderStartField sf = null;
+        for (IAttribute attr : order.getAttributes()) {
             if (attr instanceof OrderStartField) {
-                OrderStartField sf = (OrderStartField) attr;
-                bsf = new BufferStartOfField(this.workingCursor, sf.isFieldProtected(), sf.isFieldNumeric(),
-                        sf.isFieldDisplay(), sf.isFieldIntenseDisplay(), sf.isFieldSelectorPen(), sf.isFieldModifed());
+                sf = (OrderStartField) attr;
+            } else {
+                ignoredAttribute("SFE", attr);
             }
-            // TODO add processing for character attributes
         }
 
-        if (bsf == null) {
-            bsf = new BufferStartOfField(this.workingCursor, false, false, true, false, false, false);
+        if (sf == null) {
+            setDefaultFieldStart(this.workingCursor);
+        } else {
+            setFieldStart(this.workingCursor, sf);
         }
 
-        this.buffer[this.workingCursor] = bsf;
         incrementWorkingCursor();
     }
 
+    private void setDefaultFieldStart(int position) {
+        this.chars[position] = 0;
+        this.attributes[position] = ATTR_FIELD_START | ATTR_DISPLAY;
+    }
+
     private void processSA(OrderSetAttribute order) {
-        // TODO add processing for character attributes
+        ignoredAttribute("SA", order.getAttribute());
     }
 
     private void processText(OrderText order) {
-        String text = order.getText();
-        for (int i = 0; i < text.length(); i++) {
-            this.buffer[this.workingCursor] = new BufferChar(text.charAt(i));
-            incrementWorkingCursor();
-        }
+        int length = order.length();
+        int position = this.workingCursor;
+        int remaining = length;
+        while (remaining > 0) {
+            // *** Copy up to the end of the buffer, then wrap to the start
+            int run = Math.min(remaining, this.screenSize - position);
+            int offset = length - remaining;
+            order.getChars(this.codePage, offset, offset + run, this.chars, position);
+            Arrays.fill(this.attributes, position, position + run, ATTR_CHARACTER);
+            remaining -= run;
+            position = 0;
+        }
+        incrementWorkingCursor(length);
 
     }
 
     public String printScreen() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.buffer.length; i++) {
-            if (this.buffer[i] == null) {
-                sb.append(" ");
-            } else {
-                sb.append(this.buffer[i].getStringWithoutNulls());
-            }
-        }
+        return snapshot().printScreen();
+    }
+
+    static String printScreen(char[] text, int columns) {
+        String screenString = new String(text);
 
         StringBuilder screenSB = new StringBuilder();
-        String screenString = sb.toString();
-        for (int i = 0; i < this.screenSize; i += this.columns) {
-            screenSB.append(screenString.substring(i, i + this.columns));
+        for (int i = 0; i < text.length; i += columns) {
+            screenSB.append(screenString.substring(i, i + columns));
             screenSB.append('\n');
         }
         return screenSB.toString();
     }
 
     public String printScreenTextWithCursor() {
+        return snapshot().printScreenTextWithCursor();
+    }
+
+    static String printScreenTextWithCursor(char[] text, int screenCursor, int columns) {
         int cursorRow = screenCursor / columns;
         int cursorCol = screenCursor % columns;
 
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.buffer.length; i++) {
-            if (this.buffer[i] == null) {
-                sb.append(" ");
-            } else {
-                sb.append(this.buffer[i].getStringWithoutNulls());
-            }
-        }
+        String screenString = new String(text);
 
         StringBuilder screenSB = new StringBuilder();
-        String screenString = sb.toString();
         int row = 0;
-        for (int i = 0; i < this.screenSize; i += this.columns) {
+        for (int i = 0; i < text.length; i += columns) {
             screenSB.append("=|");
-            screenSB.append(screenString.substring(i, i + this.columns));
+            screenSB.append(screenString.substring(i, i + columns));
             screenSB.append("|");
             screenSB.append('\n');
             if (row == cursorRow) {
@@ -447,58 +675,163 @@ public class Screen {
     }
 
     public String retrieveFlatScreen() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < this.buffer.length; i++) {
-            if (this.buffer[i] == null) {
-                sb.append(" ");
-            } else {
-                sb.append(this.buffer[i].getStringWithoutNulls());
+        return snapshot().retrieveFlatScreen();
+    }
+
+    public @NotNull Field[] calculateFields() {
+        return snapshot().calculateFields();
+    }
+
+    /**
+     * The snapshot is published after each inbound record, so this does not
+     * take the screen lock unless the screen has been typed on or the cursor
+     * moved since
+     * 
+     * @return an immutable copy of the screen as it is now
+     */
+    public @NotNull ScreenSnapshot snapshot() {
+        ScreenSnapshot current = this.published;
+        if (current != null && current.getCursor() == this.screenCursor) {
+            return current;
+        }
+        return publish();
+    }
+
+    /**
+     * Copy the buffer into a new snapshot if it has changed since the last,
+     * and make it the snapshot read by other threads
+     */
+    private synchronized ScreenSnapshot publish() {
+        ScreenSnapshot current = this.published;
+        if (current == null) {
+            current = new ScreenSnapshot(this.chars.clone(), this.attributes.clone(), this.codePage,
+                    this.screenCursor, this.columns, this.rows);
+        } else if (current.getCursor() != this.screenCursor) {
+            current = current.withCursor(this.screenCursor);
+        }
+        this.published = current;
+        return current;
+    }
+
+    /**
+     * Drop the published snapshot, called with the screen lock held whenever
+     * the buffer changes
+     */
+    private void bufferChanged() {
+        this.published = null;
+    }
+
+    /**
+     * @return the fingerprint of the protected fields of the screen, calculated
+     *         at most once for each change to the screen
+     */
+    public @NotNull ScreenFingerprint getFingerprint() {
+        return snapshot().getFingerprint();
+    }
+
+    static ScreenFingerprint buildFingerprint(char[] chars, byte[] attributes) {
+        int screenSize = chars.length;
+        long layout = screenSize;
+        long text = screenSize;
+
+        // *** The text before the first field start belongs to the last field, all
+        // the text of an unformatted screen is included
+        boolean protectedText = true;
+        for (int i = screenSize - 1; i >= 0; i--) {
+            if (isFieldStart(attributes[i])) {
+                protectedText = isSet(attributes[i], ATTR_PROTECTED);
+                break;
             }
         }
-        return sb.toString();
+
+        for (int i = 0; i < screenSize; i++) {
+            byte attribute = attributes[i];
+            if (isFieldStart(attribute)) {
+                protectedText = isSet(attribute, ATTR_PROTECTED);
+                layout = mix(layout, ((long) i << 8) | (attribute & FINGERPRINT_FLAGS));
+            } else if (protectedText) {
+                char c = chars[i];
+                if (c != 0 && c != ' ') {
+                    text = mix(text, ((long) i << 16) | c);
+                }
+            }
+        }
+        return new ScreenFingerprint(layout, text);
     }
 
+    private static long mix(long hash, long value) {
+        long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return mixed ^ (mixed >>> 32);
+    }
+
+    /**
+     * @return the signatures the screen is matched against
+     */
+    public @NotNull ScreenSignatures getScreenSignatures() {
+        return this.signatures;
+    }
+
+    /**
+     * Match the screen against another set of signatures, so several
+     * terminals can share one set
+     */
+    public void setScreenSignatures(@NotNull ScreenSignatures signatures) {
+        this.signatures = signatures;
+    }
+
+    /**
+     * @return the name of the signature the screen matches, or null if it
+     *         matches none
+     */
+    public String getScreenSignature() {
+        return this.signatures.match(getFingerprint());
+    }
 
+    /**
+     * @return the shared field index of the current snapshot, which must not be
+     *         modified
+     */
+    private Field[] fields() {
+        return snapshot().fields();
+    }
 
-    public synchronized @NotNull Field[] calculateFields() {
+    static Field[] buildFields(char[] chars, byte[] attributes, CodePage codePage) {
+        int screenSize = chars.length;
         ArrayList<Field> fields = new ArrayList<>();
 
         Field currentField = null;
+        int textStart = 0;
 
         // *** Check to see if the screen is wrapped or unformatted
-        if (!(this.buffer[0] instanceof BufferStartOfField)) {
-            BufferStartOfField wrapSoField = null;
-            for (int i = this.buffer.length - 1; i >= 0; i--) {
-                IBufferHolder bh = this.buffer[i];
-                if (bh instanceof BufferStartOfField) {
-                    wrapSoField = (BufferStartOfField) bh;
+        if (!isFieldStart(attributes[0])) {
+            int wrapSoField = -1;
+            for (int i = screenSize - 1; i >= 0; i--) {
+                if (isFieldStart(attributes[i])) {
+                    wrapSoField = i;
                     break;
                 }
             }
 
-            if (wrapSoField == null) {
-                currentField = new Field();
+            if (wrapSoField == -1) {
+                currentField = new Field(codePage);
             } else {
-                currentField = new Field(-1, wrapSoField);
+                currentField = newField(-1, attributes[wrapSoField], codePage);
             }
         }
 
-        for (int i = 0; i < this.buffer.length; i++) {
-            IBufferHolder bh = this.buffer[i];
-            if (bh == null) {
-                currentField.appendChar((char) 0x00); // NOSONAR, can't be null
-            } else if (bh instanceof BufferStartOfField) {
+        for (int i = 0; i < screenSize; i++) {
+            byte attribute = attributes[i];
+            if (isFieldStart(attribute)) {
                 if (currentField != null) {
+                    currentField.appendChars(chars, textStart, i - textStart);
                     fields.add(currentField);
                 }
-                currentField = new Field(i, (BufferStartOfField) bh);
-            } else if (bh instanceof BufferChar) {
-                currentField.appendChar(((BufferChar) bh).getChar());// NOSONAR, can't be null
-            } else {
-                throw new UnsupportedOperationException("Unrecognised buffer type " + bh.getClass().getName());
+                currentField = newField(i, attribute, codePage);
+                textStart = i + 1;
             }
         }
         if (currentField != null) {
+            currentField.appendChars(chars, textStart, screenSize - textStart);
             fields.add(currentField);
         }
 
@@ -513,24 +846,34 @@ public class Screen {
         return fields.toArray(new Field[fields.size()]);
     }
 
-    public void searchFieldContaining(String text) throws TextNotFoundException {
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                return;
+    /**
+     * Binary search of the field index
+     * 
+     * @return the index of the last field starting at or before the position, or
+     *         -1 if there is none
+     */
+    private static int indexOfFieldAt(Field[] fields, int position) {
+        int low = 0;
+        int high = fields.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (fields[mid].getStart() <= position) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
             }
         }
+        return found;
+    }
 
-        throw new TextNotFoundException(CANT_FIND_TEXT + text + "'");
+    public void searchFieldContaining(String text) throws TextNotFoundException {
+        snapshot().searchFieldContaining(text);
     }
 
     public boolean isTextInField(String text) {
-        for (Field field : calculateFields()) {
-            if (field.containsText(text)) {
-                return true;
-            }
-        }
-
-        return false;
+        return snapshot().isTextInField(text);
     }
 
     /**
@@ -561,13 +904,99 @@ public class Screen {
         }
     }
 
+    /**
+     * Search the fields for any of the texts in a single pass, as with
+     * {@link #searchFieldContaining(String)} a text must be within one field
+     * 
+     * @param matcher - the compiled texts
+     * @return the index of the first text found in screen order, or -1 if none
+     *         were found
+     */
+    public int searchFieldsContaining(TextMatcher matcher) {
+        return snapshot().searchFieldsContaining(matcher);
+    }
+
+    /**
+     * Wait for any of the texts to appear in a field
+     * 
+     * @param texts   - the texts to wait for
+     * @param maxWait - time in milliseconds
+     * @return the text that was found
+     */
+    public String waitForAnyText(String[] texts, int maxWait) throws TerminalInterruptedException, Zos3270Exception {
+        TextMatcher matcher = new TextMatcher(texts);
+        try {
+            String found = new ScreenUpdateMatchListener<>(this, screen -> {
+                int index = screen.searchFieldsContaining(matcher);
+                return index < 0 ? null : matcher.getText(index);
+            }).waitForMatch(maxWait);
+
+            if (found == null) {
+                throw new TextNotFoundException("Unable to find a field containing any of " + Arrays.toString(texts));
+            }
+            return found;
+        } catch(InterruptedException e) {
+            throw new TerminalInterruptedException("Wait for text was interrupted", e);
+        }
+    }
+
+    /**
+     * Wait for the screen to satisfy a condition. The condition is tested on
+     * each screen update by the thread that updated the screen, so it must not
+     * block
+     * 
+     * @param condition - the condition
+     * @param maxWait   - time in milliseconds
+     */
+    public void waitForScreen(Predicate<Screen> condition, int maxWait)
+            throws TerminalInterruptedException, Zos3270Exception {
+        try {
+            Boolean found = new ScreenUpdateMatchListener<>(this,
+                    screen -> condition.test(screen) ? Boolean.TRUE : null).waitForMatch(maxWait);
+
+            if (found == null) {
+                throw new TimeoutException("Wait for screen condition took longer than " + maxWait + "ms");
+            }
+        } catch(InterruptedException e) {
+            throw new TerminalInterruptedException("Wait for screen was interrupted", e);
+        }
+    }
+
+    /**
+     * Wait for the screen to match the named signature
+     * 
+     * @param signatureName - the name of a signature in
+     *                      {@link #getScreenSignatures()}
+     * @param maxWait       - time in milliseconds
+     */
+    public void waitForScreen(@NotNull String signatureName, int maxWait)
+            throws TerminalInterruptedException, Zos3270Exception {
+        ScreenSignatures currentSignatures = this.signatures;
+        if (!currentSignatures.contains(signatureName)) {
+            throw new Zos3270Exception("There is no screen signature named '" + signatureName + "'");
+        }
+
+        try {
+            Boolean found = new ScreenUpdateMatchListener<>(this,
+                    screen -> currentSignatures.matches(signatureName, screen.getFingerprint()) ? Boolean.TRUE : null)
+                            .waitForMatch(maxWait);
+
+            if (found == null) {
+                throw new TimeoutException(
+                        "Wait for screen '" + signatureName + "' took longer than " + maxWait + "ms");
+            }
+        } catch(InterruptedException e) {
+            throw new TerminalInterruptedException("Wait for screen was interrupted", e);
+        }
+    }
+
     public synchronized void positionCursorToFieldContaining(@NotNull String text)
             throws KeyboardLockedException, TextNotFoundException {
         if (keyboardLockSet) {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        for (Field field : calculateFields()) {
+        for (Field field : fields()) {
             if (field.containsText(text)) {
                 this.screenCursor = field.getStart();
                 return;
@@ -582,40 +1011,26 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        if (buffer[screenCursor] != null && !(buffer[screenCursor] instanceof BufferChar)) {
+        if (isFieldStart(attributes[screenCursor])) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + this.screenCursor);
         }
 
-        BufferStartOfField sf = null;
-        int sfPos = screenCursor - 1;
-        if (sfPos < 0) {
-            sfPos = buffer.length - 1;
-        }
-        while(sfPos != screenCursor) {
-            if (buffer[sfPos] instanceof BufferStartOfField) {
-                sf = (BufferStartOfField) buffer[sfPos];
-                break;
-            }
-
-            sfPos--;
-            if (sfPos < 0) {
-                sfPos = buffer.length - 1;
-            }
-        }
+        int sfPos = findFieldStart(screenCursor);
 
         // *** if no field found, assume unprotected
-        if (sf != null && sf.isProtected()) {
+        if (sfPos != -1 && isSet(attributes[sfPos], ATTR_PROTECTED)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + screenCursor);
         }
 
         //*** Set this and following characters to null
+        bufferChanged();
         int pos = this.screenCursor;
         while(true) {
-            if (!(buffer[pos] instanceof BufferChar)) {
+            if (!isCharacter(attributes[pos])) {
                 break;
             }
 
-            buffer[pos] = new BufferChar((char) 0);
+            chars[pos] = 0;
             pos++;
             if (pos >= this.screenSize) {
                 pos = 0;
@@ -635,16 +1050,12 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        Field[] fields = calculateFields();
+        Field[] fields = fields();
 
-        int fieldPosition = 0;
+        int fieldPosition = indexOfFieldAt(fields, this.screenCursor);
         Field startField = null;
-        for (; fieldPosition < fields.length; fieldPosition++) {
-            Field field = fields[fieldPosition];
-            if (field.containsPosition(this.screenCursor)) {
-                startField = field;
-                break;
-            }
+        if (fieldPosition >= 0 && fields[fieldPosition].containsPosition(this.screenCursor)) {
+            startField = fields[fieldPosition];
         }
 
         if (startField == null) {
@@ -725,7 +1136,7 @@ public class Screen {
             throw new KeyboardLockedException("Unable to move cursor as keyboard is locked");
         }
 
-        Field[] fields = calculateFields();
+        Field[] fields = fields();
 
         if (fields == null || fields.length == 0) {
             this.screenCursor = 0;
@@ -750,6 +1161,10 @@ public class Screen {
     }
 
 
+    public CodePage getCodePage() {
+        return this.codePage;
+    }
+
     public int getNoOfColumns() {
         return this.columns;
     }
@@ -770,26 +1185,88 @@ public class Screen {
         }
     }
 
+    /**
+     * Register a listener that is given a snapshot of the screen after each
+     * update. Unlike the screen update listeners, these listeners are called
+     * on the listener threads of the dispatcher if the screen has one
+     */
+    public void registerScreenSnapshotListener(IScreenSnapshotListener listener) {
+        snapshotListeners.add(listener);
+    }
+
+    public void unregisterScreenSnapshotListener(IScreenSnapshotListener listener) {
+        snapshotListeners.remove(listener);
+    }
+
+    /**
+     * Remove the listeners of a terminal that has finished with the screen, so
+     * the connection can be passed to another terminal
+     */
+    synchronized void removeAllListeners() {
+        synchronized (updateListeners) {
+            updateListeners.clear();
+        }
+        snapshotListeners.clear();
+        keyboardUnlockListeners.clear();
+    }
+
+    /**
+     * Forget the listeners, signatures and metrics of a terminal that has
+     * finished with the screen, so the terminal taking over the connection
+     * starts afresh
+     */
+    synchronized void takeOver() {
+        removeAllListeners();
+        this.signatures = new ScreenSignatures();
+        this.metrics = new TerminalMetrics();
+    }
+
+    /**
+     * Call the snapshot listeners on the threads of the dispatcher rather than
+     * the thread updating the screen, so slow listeners do not delay the
+     * processing of inbound records or the keyboard unlock. The screen update
+     * listeners, which include the waits, are still called synchronously
+     * 
+     * @param dispatcher - the dispatcher, or null to call the snapshot listeners
+     *                   synchronously
+     */
+    public void setScreenUpdateDispatcher(ScreenUpdateDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public ScreenUpdateDispatcher getScreenUpdateDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * @return the response time and traffic metrics of the terminal
+     */
+    public TerminalMetrics getMetrics() {
+        return this.metrics;
+    }
+
     public int getCursor() {
         return this.screenCursor;
     }
 
     public Field locateFieldAt(int cursorPos) {
-        Field[] fields = calculateFields();
+        Field[] fields = fields();
 
-        int fieldPosition = 0;
-        for (; fieldPosition < fields.length; fieldPosition++) {
-            Field field = fields[fieldPosition];
-            if (field.containsPosition(cursorPos)) {
-                return field;
-            }
+        int fieldPosition = indexOfFieldAt(fields, cursorPos);
+        if (fieldPosition >= 0 && fields[fieldPosition].containsPosition(cursorPos)) {
+            return fields[fieldPosition];
+        }
+
+        // *** Only the wrapped first field can contain a position before its start
+        if (fields.length > 0 && fields[0].containsPosition(cursorPos)) {
+            return fields[0];
         }
         return null;
     }
 
     public String getValueFromFieldContaining(String text) throws TextNotFoundException {
         Boolean foundHeader = false;
-        for (Field field : calculateFields()) {
+        for (Field field : fields()) {
             if (!foundHeader) {
                 if (field.containsText(text)) {
                     foundHeader = true;
@@ -820,29 +1297,14 @@ public class Screen {
             throw new KeyboardLockedException("Unable to type as keyboard is locked");
         }
 
-        if (buffer[position] != null && !(buffer[position] instanceof BufferChar)) {
+        if (isFieldStart(attributes[position])) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + this.screenCursor);
         }
 
-        BufferStartOfField sf = null;
-        int sfPos = position - 1;
-        if (sfPos < 0) {
-            sfPos = buffer.length - 1;
-        }
-        while(sfPos != position) {
-            if (buffer[sfPos] instanceof BufferStartOfField) {
-                sf = (BufferStartOfField) buffer[sfPos];
-                break;
-            }
-
-            sfPos--;
-            if (sfPos < 0) {
-                sfPos = buffer.length - 1;
-            }
-        }
+        int sfPos = findFieldStart(position);
 
         // *** if no field found, assume unprotected
-        if (sf != null && sf.isProtected()) {
+        if (sfPos != -1 && isSet(attributes[sfPos], ATTR_PROTECTED)) {
             throw new FieldNotFoundException("Unable to type where the cursor is pointing to - " + position);
         }
 
@@ -850,14 +1312,14 @@ public class Screen {
             return position;
         }
 
+        bufferChanged();
         for (int i = 0; i < text.length(); i++) {
-            IBufferHolder bh = buffer[position];
-            if (bh != null && !(bh instanceof BufferChar)) {
+            if (isFieldStart(attributes[position])) {
                 throw new FieldNotFoundException(
                         "Unable to type where the cursor is pointing to - " + position);
             }
 
-            buffer[position] = new BufferChar(text.charAt(i));
+            setChar(position, text.charAt(i));
             position++;
             if (position >= screenSize) {
                 position = 0;
@@ -866,15 +1328,40 @@ public class Screen {
             this.screenCursor = position;
         }
 
-        if (sf != null) {
-            sf.setFieldModified();
+        if (sfPos != -1) {
+            attributes[sfPos] |= ATTR_MODIFIED;
         }
 
         return position;
     }
 
+    /**
+     * Search backwards, wrapping, for the start of the field containing the
+     * position
+     * 
+     * @return the position of the field start, or -1 if the screen is unformatted
+     */
+    private int findFieldStart(int position) {
+        int sfPos = position - 1;
+        if (sfPos < 0) {
+            sfPos = screenSize - 1;
+        }
+        while(sfPos != position) {
+            if (isFieldStart(attributes[sfPos])) {
+                return sfPos;
+            }
+
+            sfPos--;
+            if (sfPos < 0) {
+                sfPos = screenSize - 1;
+            }
+        }
+        return -1;
+    }
+
     public synchronized byte[] aid(AttentionIdentification aid) throws DatastreamException, TerminalInterruptedException {
         lockKeyboard();
+        metrics.aidSent(aid);
 
         try {
             ByteArrayOutputStream outboundBuffer = new ByteArrayOutputStream();
@@ -895,15 +1382,15 @@ public class Screen {
 
                 int start = 0;
                 int end = 0;
-                for (; start < buffer.length; start++) {
-                    if (buffer[start] instanceof BufferStartOfField) {
+                for (; start < screenSize; start++) {
+                    if (isFieldStart(attributes[start])) {
                         break;
                     }
                 }
 
-                if (start >= buffer.length) { // indicates unfromatted, send it all
+                if (start >= screenSize) { // indicates unfromatted, send it all
                     start = 0;
-                    end = buffer.length - 1;
+                    end = screenSize - 1;
 
                     // OrderSetBufferAddress sba = new OrderSetBufferAddress(new BufferAddress(0));
                     // outboundBuffer.write(sba.getCharRepresentation());
@@ -911,26 +1398,24 @@ public class Screen {
                 } else { // formatted
                     end = start - 1;
                     if (end < 0) {
-                        end = buffer.length - 1;
+                        end = screenSize - 1;
                     }
                 }
 
                 int pos = start;
                 while (true) {
-                    IBufferHolder bh = buffer[pos];
-                    if (bh instanceof BufferStartOfField) {
-                        BufferStartOfField bsf = (BufferStartOfField) bh;
-                        fieldModified = bsf.isFieldModifed();
-                        fieldProtected = bsf.isProtected();
+                    byte attribute = attributes[pos];
+                    if (isFieldStart(attribute)) {
+                        fieldModified = isSet(attribute, ATTR_MODIFIED);
+                        fieldProtected = isSet(attribute, ATTR_PROTECTED);
 
                         if (fieldModified && !fieldProtected) {
                             OrderSetBufferAddress sba = new OrderSetBufferAddress(new BufferAddress(pos + 1));
                             outboundBuffer.write(sba.getCharRepresentation());
                         }
-                    } else if (bh instanceof BufferChar) {
-                        BufferChar bc = (BufferChar) bh;
+                    } else if (isCharacter(attribute)) {
                         if (fieldModified && !fieldProtected) {
-                            byte value = bc.getFieldEbcdic();
+                            byte value = BufferChar.getFieldEbcdic(chars[pos], codePage);
                             if (value != 0) {
                                 outboundBuffer.write(value);
                             }
@@ -942,21 +1427,22 @@ public class Screen {
                     }
 
                     pos++;
-                    if (pos >= buffer.length) {
+                    if (pos >= screenSize) {
                         pos = 0;
                     }
                 }
 
+            }
+
+            if (logger.isTraceEnabled()) {
                 String hex = new String(Hex.encodeHex(outboundBuffer.toByteArray()));
                 logger.trace("outbound=" + hex);
             }
 
-            String hex = new String(Hex.encodeHex(outboundBuffer.toByteArray()));
-            logger.trace("outbound=" + hex);
-
             for (IScreenUpdateListener listener : updateListeners) {
                 listener.screenUpdated(Direction.SENDING, aid);
             }
+            notifySnapshotListeners(Direction.SENDING, aid);
 
             return outboundBuffer.toByteArray();
         } catch (IOException e) {
@@ -969,7 +1455,7 @@ public class Screen {
     }
 
     public String printFields() {
-        Field[] fields = calculateFields();
+        Field[] fields = fields();
 
         StringBuilder sb = new StringBuilder();
         for (Field field : fields) {
@@ -980,45 +1466,119 @@ public class Screen {
         return sb.toString();
     }
 
-    public void setBuffer(IBufferHolder[] newBuffer) {
-        for (int i = 0; i < this.buffer.length && i < newBuffer.length; i++) {
-            this.buffer[i] = newBuffer[i];
+    public synchronized void setBuffer(IBufferHolder[] newBuffer) {
+        bufferChanged();
+        for (int i = 0; i < this.screenSize && i < newBuffer.length; i++) {
+            IBufferHolder bh = newBuffer[i];
+            if (bh instanceof BufferStartOfField) {
+                BufferStartOfField sf = (BufferStartOfField) bh;
+                setFieldStart(i, new OrderStartField(sf.isProtected(), sf.isNumeric(), sf.isDisplay(),
+                        sf.isIntenseDisplay(), sf.isSelectorPen(), sf.isFieldModifed()));
+            } else if (bh instanceof BufferChar) {
+                setChar(i, ((BufferChar) bh).getChar());
+            } else {
+                this.chars[i] = 0;
+                this.attributes[i] = 0;
+            }
         }
     }
 
-    public void setBuffer(int col, int row, String text) {
+    public synchronized void setBuffer(int col, int row, String text) {
+        bufferChanged();
         int pos = (row * 80) + col;
         for (int i = 0; i < text.length(); i++) {
-            buffer[pos] = new BufferChar(text.charAt(i));
+            setChar(pos, text.charAt(i));
             pos++;
         }
     }
 
-    public void nullify(int col, int row, int len) {
+    public synchronized void nullify(int col, int row, int len) {
+        bufferChanged();
         int pos = (row * 80) + col;
-        for (int i = 0; i < len; i++) {
-            buffer[pos] = null;
-            pos++;
-        }
+        Arrays.fill(this.chars, pos, pos + len, (char) 0);
+        Arrays.fill(this.attributes, pos, pos + len, (byte) 0);
     }
 
     public Field getFieldAt(int col, int row) {
         int pos = (row * 80) + col;
 
-        Field[] fields = calculateFields();
-        Field currentField = fields[0];
-        for (int i = 1; i < fields.length; i++) {
-            if (fields[i].getStart() > pos) {
-                return currentField;
-            }
-            currentField = fields[i];
-        }
+        Field[] fields = fields();
+        int fieldPosition = indexOfFieldAt(fields, pos);
 
-        return currentField;
+        return fields[Math.max(fieldPosition, 0)];
     }
 
     public void setCursorPosition(int newPosition) {
         this.screenCursor = newPosition;
     }
 
+    /**
+     * The buffer only holds the 3270 field attributes, so extended highlighting,
+     * colour, character set, transparency, validation and outlining from an SFE
+     * or SA are not rendered and are logged instead
+     */
+    private void ignoredAttribute(String order, byte attributeId, byte value) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Ignoring " + order + " attribute 0x" + Hex.encodeHexString(new byte[] { attributeId })
+                    + "=0x" + Hex.encodeHexString(new byte[] { value }) + " at position " + this.workingCursor);
+        }
+    }
+
+    private void ignoredAttribute(String order, IAttribute attribute) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Ignoring " + order + " attribute " + attribute.getClass().getSimpleName() + " at position "
+                    + this.workingCursor);
+        }
+    }
+
+    /**
+     * Applies the orders from the {@link OrderDecoder} to the buffer, called
+     * with the screen lock held
+     */
+    private class OrderApplier implements IOrderHandler {
+
+        @Override
+        public void setBufferAddress(int bufferAddress) {
+            processSBA(bufferAddress);
+        }
+
+        @Override
+        public void repeatToAddress(int bufferAddress, char repeatChar) throws DatastreamException {
+            processRA(bufferAddress, repeatChar);
+        }
+
+        @Override
+        public void startField(byte fieldAttributes) {
+            setFieldStart(workingCursor, fieldAttributes);
+            incrementWorkingCursor();
+        }
+
+        @Override
+        public void startFieldDefault() {
+            setDefaultFieldStart(workingCursor);
+            incrementWorkingCursor();
+        }
+
+        @Override
+        public void fieldAttribute(byte attributeId, byte value) {
+            ignoredAttribute("SFE", attributeId, value);
+        }
+
+        @Override
+        public void setAttribute(byte attributeId, byte value) {
+            ignoredAttribute("SA", attributeId, value);
+        }
+
+        @Override
+        public void insertCursor() {
+            screenCursor = workingCursor;
+        }
+
+        @Override
+        public void text(char character) {
+            setChar(workingCursor, character);
+            incrementWorkingCursor();
+        }
+    }
+
 }
@@ -0,0 +1,201 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.spi;
+
+import javax.validation.constraints.NotNull;
+
+import dev.galasa.zos3270.ScreenFingerprint;
+import dev.galasa.zos3270.TextNotFoundException;
+import dev.galasa.zos3270.internal.terminal.TextMatcher;
+
+/**
+ * An immutable copy of the screen taken when it was updated, so the screen can
+ * be examined after it has moved on, without holding the screen lock.
+ * <p>
+ * The fields, fingerprint and text renderings are calculated when first asked
+ * for and then kept, so each is calculated at most once for each change to the
+ * screen however many readers there are. Snapshots that differ only in the
+ * cursor position share them.
+ * </p>
+ */
+public final class ScreenSnapshot {
+
+    private final Buffer buffer;
+    private final int    cursor;
+
+    private volatile String screenWithCursor;
+
+    /**
+     * The buffer of the screen and what has been calculated from it
+     */
+    private static final class Buffer {
+        private final char[]   chars;
+        private final byte[]   attributes;
+        private final CodePage codePage;
+        private final int      columns;
+        private final int      rows;
+
+        // *** Calculated on first use, racing threads calculate the same value
+        private volatile char[]            text;
+        private volatile Field[]           fields;
+        private volatile ScreenFingerprint fingerprint;
+        private volatile String            flatScreen;
+        private volatile String            screen;
+
+        private Buffer(char[] chars, byte[] attributes, CodePage codePage, int columns, int rows) {
+            this.chars = chars;
+            this.attributes = attributes;
+            this.codePage = codePage;
+            this.columns = columns;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * @param chars      - the characters of the buffer, not copied
+     * @param attributes - the attribute flags of the buffer, not copied
+     */
+    ScreenSnapshot(char[] chars, byte[] attributes, CodePage codePage, int cursor, int columns, int rows) {
+        this(new Buffer(chars, attributes, codePage, columns, rows), cursor);
+    }
+
+    private ScreenSnapshot(Buffer buffer, int cursor) {
+        this.buffer = buffer;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return a snapshot of the same buffer with the cursor elsewhere
+     */
+    ScreenSnapshot withCursor(int newCursor) {
+        return new ScreenSnapshot(this.buffer, newCursor);
+    }
+
+    public int getCursor() {
+        return this.cursor;
+    }
+
+    public int getNoOfColumns() {
+        return this.buffer.columns;
+    }
+
+    public int getNoOfRows() {
+        return this.buffer.rows;
+    }
+
+    public int getScreenSize() {
+        return this.buffer.chars.length;
+    }
+
+    public @NotNull Field[] calculateFields() {
+        return fields().clone();
+    }
+
+    /**
+     * @return the shared field index, which must not be modified
+     */
+    Field[] fields() {
+        Field[] fields = this.buffer.fields;
+        if (fields == null) {
+            fields = Screen.buildFields(this.buffer.chars, this.buffer.attributes, this.buffer.codePage);
+            this.buffer.fields = fields;
+        }
+        return fields;
+    }
+
+    public @NotNull ScreenFingerprint getFingerprint() {
+        ScreenFingerprint fingerprint = this.buffer.fingerprint;
+        if (fingerprint == null) {
+            fingerprint = Screen.buildFingerprint(this.buffer.chars, this.buffer.attributes);
+            this.buffer.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    public boolean isTextInField(String text) {
+        for (Field field : fields()) {
+            if (field.containsText(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void searchFieldContaining(String text) throws TextNotFoundException {
+        if (!isTextInField(text)) {
+            throw new TextNotFoundException("Unable to find a field containing '" + text + "'");
+        }
+    }
+
+    /**
+     * Search the fields for any of the texts in a single pass
+     *
+     * @return the index of the first text found in screen order, or -1 if none
+     *         were found
+     */
+    public int searchFieldsContaining(TextMatcher matcher) {
+        char[] chars = this.buffer.chars;
+        byte[] attributes = this.buffer.attributes;
+
+        int fieldTextStart = 0;
+        for (int i = 0; i < chars.length; i++) {
+            if (Screen.isFieldStart(attributes[i])) {
+                int found = matcher.match(chars, fieldTextStart, i);
+                if (found >= 0) {
+                    return found;
+                }
+                fieldTextStart = i + 1;
+            }
+        }
+        return matcher.match(chars, fieldTextStart, chars.length);
+    }
+
+    public String printScreen() {
+        String screen = this.buffer.screen;
+        if (screen == null) {
+            screen = Screen.printScreen(text(), this.buffer.columns);
+            this.buffer.screen = screen;
+        }
+        return screen;
+    }
+
+    public String printScreenTextWithCursor() {
+        String screen = this.screenWithCursor;
+        if (screen == null) {
+            screen = Screen.printScreenTextWithCursor(text(), this.cursor, this.buffer.columns);
+            this.screenWithCursor = screen;
+        }
+        return screen;
+    }
+
+    public String retrieveFlatScreen() {
+        String flatScreen = this.buffer.flatScreen;
+        if (flatScreen == null) {
+            flatScreen = new String(text());
+            this.buffer.flatScreen = flatScreen;
+        }
+        return flatScreen;
+    }
+
+    /**
+     * @return the buffer text with nulls, field starts and unwritten positions
+     *         as spaces, which must not be modified
+     */
+    private char[] text() {
+        char[] text = this.buffer.text;
+        if (text == null) {
+            char[] chars = this.buffer.chars;
+            text = new char[chars.length];
+            for (int i = 0; i < chars.length; i++) {
+                char c = chars[i];
+                text[i] = (c == 0) ? ' ' : c;
+            }
+            this.buffer.text = text;
+        }
+        return text;
+    }
+
+}
@@ -5,6 +5,8 @@
  */
 package dev.galasa.zos3270.spi;
 
+import java.util.function.Predicate;
+
 import javax.validation.constraints.NotNull;
 
 import org.apache.commons.logging.Log;
@@ -14,12 +16,15 @@ import dev.galasa.zos3270.AttentionIdentification;
 import dev.galasa.zos3270.FieldNotFoundException;
 import dev.galasa.zos3270.ITerminal;
 import dev.galasa.zos3270.KeyboardLockedException;
+import dev.galasa.zos3270.ScreenFingerprint;
+import dev.galasa.zos3270.ScreenSignatures;
 import dev.galasa.zos3270.TerminalInterruptedException;
 import dev.galasa.zos3270.TextNotFoundException;
 import dev.galasa.zos3270.TimeoutException;
 import dev.galasa.zos3270.Zos3270Exception;
 import dev.galasa.zos3270.internal.comms.Network;
 import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.comms.NioNetwork;
 
 public class Terminal implements ITerminal {
 
@@ -37,13 +42,47 @@ public class Terminal implements ITerminal {
     }
 
     public Terminal(String host, int port, boolean ssl) throws TerminalInterruptedException {
-        network = new Network(host, port, ssl);
-        screen = new Screen(80, 24, this.network);
+        this(new Network(host, port, ssl));
+    }
+
+    public Terminal(Network network) throws TerminalInterruptedException {
+        this(network, CodePage.getDefault());
+    }
+
+    public Terminal(Network network, CodePage codePage) throws TerminalInterruptedException {
+        this.network = network;
+        screen = new Screen(80, 24, this.network, codePage);
+        this.network.setMetrics(screen.getMetrics());
+    }
+
+    /**
+     * Take over the connection and screen of another terminal, so a session
+     * that is already logged on can be passed from one terminal to another.
+     * The other terminal must not be used afterwards.
+     * 
+     * @param connection - the terminal giving up its connection
+     */
+    protected Terminal(Terminal connection) {
+        synchronized (connection) {
+            this.network = connection.network;
+            this.screen = connection.screen;
+            this.networkThread = connection.networkThread;
+            this.connected = connection.connected;
+
+            connection.networkThread = null;
+            connection.connected = false;
+        }
+        this.screen.takeOver();
+        this.network.setMetrics(this.screen.getMetrics());
     }
 
     @Override
     public synchronized void connect() throws NetworkException {
         connected = network.connectClient();
+        if (network instanceof NioNetwork) {
+            ((NioNetwork) network).startReceiving(screen);
+            return;
+        }
         networkThread = new NetworkThread(screen, network, network.getInputStream());
         networkThread.start();
     }
@@ -89,6 +128,10 @@ public class Terminal implements ITerminal {
         return this.screen;
     }
 
+    public Network getNetwork() {
+        return this.network;
+    }
+
     @Override
     public ITerminal positionCursorToFieldContaining(@NotNull String text)
             throws TextNotFoundException, KeyboardLockedException {
@@ -113,6 +156,38 @@ public class Terminal implements ITerminal {
         return this;
     }
 
+    @Override
+    public String waitForAnyText(String... texts) throws TerminalInterruptedException, Zos3270Exception {
+        return screen.waitForAnyText(texts, defaultWaitTime);
+    }
+
+    @Override
+    public Terminal waitForScreen(Predicate<ITerminal> condition) throws TerminalInterruptedException, Zos3270Exception {
+        screen.waitForScreen(s -> condition.test(this), defaultWaitTime);
+        return this;
+    }
+
+    @Override
+    public Terminal waitForScreen(@NotNull String signatureName) throws TerminalInterruptedException, Zos3270Exception {
+        screen.waitForScreen(signatureName, defaultWaitTime);
+        return this;
+    }
+
+    @Override
+    public @NotNull ScreenFingerprint getScreenFingerprint() {
+        return screen.getFingerprint();
+    }
+
+    @Override
+    public @NotNull ScreenSignatures getScreenSignatures() {
+        return screen.getScreenSignatures();
+    }
+
+    @Override
+    public String getScreenSignature() {
+        return screen.getScreenSignature();
+    }
+
     @Override
     public ITerminal type(String text) throws KeyboardLockedException, FieldNotFoundException {
         screen.type(text);
@@ -0,0 +1,106 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zos3270.spi;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.galasa.zos3270.TerminalInterruptedException;
+
+/**
+ * Connects a number of terminals at the same time, used by the managers during
+ * provisioning so that the TCP/TLS connect, negotiation and any logon of each
+ * terminal overlap.
+ * <p>
+ * The terminals are started in list order. The failures are returned in list
+ * order rather than thrown, so the manager can decide whether a failure is
+ * fatal.
+ * </p>
+ */
+public class TerminalConnector {
+
+    private static final AtomicInteger poolNumber = new AtomicInteger();
+
+    @FunctionalInterface
+    public interface IConnectTask<T> {
+        void connect(T terminal) throws Exception;
+    }
+
+    private TerminalConnector() {
+    }
+
+    /**
+     * @param terminals   - the terminals to connect
+     * @param parallelism - the most terminals to connect at once, 1 connects
+     *                    them one after another on the calling thread
+     * @param task        - connects a single terminal
+     * @return the terminals that failed with their exceptions, empty if all
+     *         connected
+     * @throws TerminalInterruptedException - if interrupted while waiting for
+     *                                      the terminals
+     */
+    public static <T> Map<T, Exception> connectAll(List<T> terminals, int parallelism, IConnectTask<T> task)
+            throws TerminalInterruptedException {
+        LinkedHashMap<T, Exception> failures = new LinkedHashMap<>();
+
+        if (parallelism <= 1 || terminals.size() <= 1) {
+            for (T terminal : terminals) {
+                try {
+                    task.connect(terminal);
+                } catch (Exception e) {
+                    failures.put(terminal, e);
+                }
+            }
+            return failures;
+        }
+
+        String poolName = "zos3270-connect-" + poolNumber.incrementAndGet() + "-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, terminals.size()), runnable -> {
+            Thread thread = new Thread(runnable, poolName + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            ArrayList<Future<?>> futures = new ArrayList<>(terminals.size());
+            for (T terminal : terminals) {
+                futures.add(executor.submit(() -> {
+                    task.connect(terminal);
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < terminals.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        failures.put(terminals.get(i), (Exception) cause);
+                    } else {
+                        failures.put(terminals.get(i), e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TerminalInterruptedException("Interrupted whilst connecting terminals", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return failures;
+    }
+
+}
@@ -5,51 +5,59 @@
  */
 package dev.galasa.zos3270.spi;
 
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map.Entry;
-import java.util.zip.GZIPOutputStream;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
 
 import dev.galasa.ResultArchiveStoreContentType;
 import dev.galasa.SetContentType;
 import dev.galasa.framework.spi.IConfidentialTextService;
 import dev.galasa.framework.spi.IFramework;
+import dev.galasa.zos.IZosImage;
 import dev.galasa.zos3270.AttentionIdentification;
-import dev.galasa.zos3270.IScreenUpdateListener;
+import dev.galasa.zos3270.IScreenUpdateListener.Direction;
 import dev.galasa.zos3270.TerminalInterruptedException;
 import dev.galasa.zos3270.Zos3270ManagerException;
-import dev.galasa.zos3270.common.screens.FieldContents;
-import dev.galasa.zos3270.common.screens.TerminalField;
 import dev.galasa.zos3270.common.screens.TerminalImage;
 import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.comms.Network;
+import dev.galasa.zos3270.internal.comms.NetworkRecorder;
+import dev.galasa.zos3270.internal.comms.NioNetwork;
 import dev.galasa.zos3270.internal.properties.ApplyConfidentialTextFiltering;
+import dev.galasa.zos3270.internal.properties.AsyncScreenListeners;
+import dev.galasa.zos3270.internal.properties.ListenerQueueSize;
 import dev.galasa.zos3270.internal.properties.LiveTerminalUrl;
 import dev.galasa.zos3270.internal.properties.LogConsoleTerminals;
-
-public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListener {
+import dev.galasa.zos3270.internal.properties.NetworkEngine;
+import dev.galasa.zos3270.internal.properties.NetworkNioThreads;
+import dev.galasa.zos3270.internal.properties.RasFlushInterval;
+import dev.galasa.zos3270.internal.properties.RasFlushSize;
+import dev.galasa.zos3270.internal.properties.RasKeyframeInterval;
+import dev.galasa.zos3270.internal.properties.RasQueueSize;
+import dev.galasa.zos3270.internal.properties.RecordTerminals;
+import dev.galasa.zos3270.internal.properties.TerminalCodePage;
+import dev.galasa.zos3270.internal.terminal.LiveTerminalSender;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateDispatcher;
+import dev.galasa.zos3270.internal.terminal.TerminalImageCapture;
+import dev.galasa.zos3270.internal.terminal.TerminalImageWriter;
+
+public class Zos3270TerminalImpl extends Terminal implements IScreenSnapshotListener {
 
     private Log                            logger       = LogFactory.getLog(getClass());
 
-    private final Gson                     gson         = new GsonBuilder().setPrettyPrinting().create();
-
     private final String                   terminalId;
     private int                            updateId;
     private final String                   runId;
@@ -57,18 +65,43 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
     private final IConfidentialTextService cts;
     private final boolean                  applyCtf;
 
-    private final ArrayList<TerminalImage> cachedImages = new ArrayList<>();
-
+    private final TerminalImageWriter      rasWriter;
     private final Path                     terminalRasDirectory;
-    private int                            rasTerminalSequence;
-    private URL                            liveTerminalUrl;
-    private int                            liveTerminalSequence;
+
+    private NetworkRecorder                recorder;
+    private ScreenUpdateDispatcher         dispatcher;
+    private LiveTerminalSender             liveTerminalSender;
     private boolean                        logConsoleTerminals;
     private boolean                        autoConnect;
 
     public Zos3270TerminalImpl(String id, String host, int port, boolean tls, IFramework framework, boolean autoConnect)
             throws Zos3270ManagerException, TerminalInterruptedException {
-        super(host, port, tls);
+        this(id, host, port, tls, framework, autoConnect, CodePage.getDefault());
+    }
+
+    public Zos3270TerminalImpl(String id, String host, int port, boolean tls, IFramework framework, boolean autoConnect,
+            IZosImage image) throws Zos3270ManagerException, TerminalInterruptedException {
+        this(id, host, port, tls, framework, autoConnect, TerminalCodePage.get(image));
+    }
+
+    public Zos3270TerminalImpl(String id, String host, int port, boolean tls, IFramework framework, boolean autoConnect,
+            CodePage codePage) throws Zos3270ManagerException, TerminalInterruptedException {
+        this(id, new Terminal(createNetwork(host, port, tls), codePage), framework, autoConnect);
+    }
+
+    /**
+     * Create a terminal that takes over the connection of another terminal,
+     * which may already be logged on
+     * 
+     * @param id          - the id of the new terminal
+     * @param terminal    - the terminal giving up its connection, see
+     *                    {@link Terminal#Terminal(Terminal)}
+     * @param framework   - the framework of the run using the new terminal
+     * @param autoConnect - true if the manager should connect the terminal
+     */
+    public Zos3270TerminalImpl(String id, Terminal terminal, IFramework framework, boolean autoConnect)
+            throws Zos3270ManagerException {
+        super(terminal);
         this.terminalId = id;
         this.runId = framework.getTestRunName();
         this.autoConnect = autoConnect;
@@ -76,15 +109,43 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         this.cts = framework.getConfidentialTextService();
         this.applyCtf = ApplyConfidentialTextFiltering.get();
 
-        getScreen().registerScreenUpdateListener(this);
+        getScreen().registerScreenSnapshotListener(this);
+        // *** The NIO selector threads are shared by all the terminals, so the
+        // listeners of one terminal must not hold up the others
+        if (AsyncScreenListeners.get() || getNetwork() instanceof NioNetwork) {
+            this.dispatcher = new ScreenUpdateDispatcher(this.terminalId, ListenerQueueSize.get());
+            getScreen().setScreenUpdateDispatcher(this.dispatcher);
+        }
 
         Path storedArtifactsRoot = framework.getResultArchiveStore().getStoredArtifactsRoot();
-        terminalRasDirectory = storedArtifactsRoot.resolve("zos3270").resolve("terminals").resolve(this.terminalId);
+        this.terminalRasDirectory = storedArtifactsRoot.resolve("zos3270").resolve("terminals").resolve(this.terminalId);
+        TerminalSize terminalSize = new TerminalSize(getScreen().getNoOfColumns(), getScreen().getNoOfRows()); // TODO
+        // sort
+        // out
+        // alt
+        // sizes
+        int keyframeInterval = RasKeyframeInterval.get();
+        this.rasWriter = new TerminalImageWriter(this.terminalId, this.runId, terminalSize, terminalRasDirectory,
+                this.applyCtf ? this.cts : null, RasQueueSize.get(), RasFlushSize.get(), RasFlushInterval.get(),
+                keyframeInterval);
+
+        if (RecordTerminals.get()) {
+            Path recordingPath = storedArtifactsRoot.resolve("zos3270").resolve("recordings")
+                    .resolve(this.terminalId + ".3270rec");
+            try {
+                this.recorder = new NetworkRecorder(new OutputStreamWriter(Files.newOutputStream(recordingPath,
+                        new SetContentType(ResultArchiveStoreContentType.TEXT), StandardOpenOption.CREATE),
+                        StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                throw new Zos3270ManagerException("Unable to create the terminal recording", e);
+            }
+            getNetwork().setRecorder(this.recorder);
+            logger.warn("Terminal " + this.terminalId
+                    + " is being recorded, the recording is not confidential text filtered");
+        }
 
         URL propLiveTerminalUrl = LiveTerminalUrl.get();
-        if (propLiveTerminalUrl == null) {
-            liveTerminalUrl = null;
-        } else {
+        if (propLiveTerminalUrl != null) {
             try {
                 // *** Register the terminal to the UI which will own the terminal view
                 HttpURLConnection connection = (HttpURLConnection) propLiveTerminalUrl.openConnection();
@@ -98,8 +159,10 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
                     logger.warn("Unable to activate live terminal due to " + connection.getResponseCode() + " - "
                             + connection.getResponseMessage());
                 } else {
-                    this.liveTerminalUrl = new URL(
+                    URL liveTerminalUrl = new URL(
                             propLiveTerminalUrl.toString() + "/" + this.runId + "/" + this.terminalId);
+                    this.liveTerminalSender = new LiveTerminalSender(liveTerminalUrl, this.terminalId, this.runId,
+                            terminalSize, this.applyCtf ? this.cts : null, keyframeInterval);
                 }
             } catch (Exception e) {
                 throw new Zos3270ManagerException("Unable to create the live terminal directory", e);
@@ -109,12 +172,19 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         logConsoleTerminals = LogConsoleTerminals.get();
     }
 
+    private static Network createNetwork(String host, int port, boolean tls) throws Zos3270ManagerException {
+        if (NetworkEngine.NIO.equals(NetworkEngine.get())) {
+            return new NioNetwork(host, port, tls, NetworkNioThreads.get());
+        }
+        return new Network(host, port, tls);
+    }
+
     public boolean doAutoConnect() {
         return this.autoConnect;
     }
 
     @Override
-    public synchronized void screenUpdated(Direction direction, AttentionIdentification aid) {
+    public synchronized void screenUpdated(Direction direction, AttentionIdentification aid, ScreenSnapshot snapshot) {
         updateId++;
         String update = terminalId + "-" + (updateId);
 
@@ -127,63 +197,16 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
             aidString = " update";
         }
 
-        int cursorPosition = getScreen().getCursor();
-        int screenCols = getScreen().getNoOfColumns();
-        int screenRows = getScreen().getNoOfRows();
-
-        int cursorRow = cursorPosition / screenRows;
-        int cursorCol = cursorPosition % screenCols;
-
-        TerminalSize terminalSize = new TerminalSize(screenCols, screenRows); // TODO
-        // sort
-        // out
-        // alt
-        // sizes
-        TerminalImage terminalImage = new TerminalImage(updateId, update, direction == Direction.RECEIVED, null,
-                aidText, terminalSize, cursorCol, cursorRow);
-        terminalImage.getFields().addAll(buildTerminalFields(getScreen()));
-        cachedImages.add(terminalImage);
-        if (cachedImages.size() >= 10) {
-            flushTerminalCache();
-        }
-
-        if (liveTerminalUrl != null) {
-            try {
-                liveTerminalSequence++;
-                dev.galasa.zos3270.common.screens.Terminal liveTerminal = new dev.galasa.zos3270.common.screens.Terminal(
-                        this.terminalId, this.runId, liveTerminalSequence, terminalSize);
-                liveTerminal.getImages().add(terminalImage);
-
-                JsonObject intermediateJson = (JsonObject) gson.toJsonTree(liveTerminal);
-                stripFalseBooleans(intermediateJson);
-                String tempJson = gson.toJson(intermediateJson);
+        TerminalImage terminalImage = TerminalImageCapture.capture(updateId, update, direction == Direction.RECEIVED,
+                aidText, snapshot);
+        rasWriter.write(terminalImage);
 
-                if (applyCtf) {
-                    tempJson = cts.removeConfidentialText(tempJson);
-                }
-
-                HttpURLConnection connection = (HttpURLConnection) this.liveTerminalUrl.openConnection();
-                connection.setRequestMethod("PUT");
-                connection.addRequestProperty("Content-Type", "application/json");
-                connection.setDoInput(true);
-                connection.setDoOutput(true);
-                connection.connect();
-                try (OutputStream os = connection.getOutputStream()) {
-                    IOUtils.write(tempJson, os, StandardCharsets.UTF_8);
-                }
-                if (connection.getResponseCode() != 200) {
-                    logger.warn("Unable to write live terminal due to " + connection.getResponseCode() + " - "
-                            + connection.getResponseMessage());
-                    this.liveTerminalUrl = null;
-                }
-            } catch (Exception e) {
-                logger.error("Failed to write live terminal image, image lost", e);
-                this.liveTerminalUrl = null;
-            }
+        if (liveTerminalSender != null) {
+            liveTerminalSender.send(terminalImage);
         }
 
         if (logConsoleTerminals) {
-            String screenData = getScreen().printScreenTextWithCursor();
+            String screenData = snapshot.printScreenTextWithCursor();
             if (applyCtf) {
                 screenData = cts.removeConfidentialText(screenData);
             }
@@ -195,95 +218,75 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
         }
     }
 
-    public synchronized void flushTerminalCache() {
-        if (cachedImages.isEmpty()) {
-            return;
+    /**
+     * Wait for the terminal images captured so far to be written to the RAS
+     */
+    public void flushTerminalCache() {
+        if (dispatcher != null) {
+            dispatcher.flush();
         }
+        rasWriter.flush();
+    }
 
-        rasTerminalSequence++;
-
-        try {
-            TerminalSize terminalSize = new TerminalSize(getScreen().getNoOfColumns(), getScreen().getNoOfRows()); // TODO
-            // sort
-            // out
-            // alt
-            // sizes
-            dev.galasa.zos3270.common.screens.Terminal rasTerminal = new dev.galasa.zos3270.common.screens.Terminal(
-                    this.terminalId, this.runId, rasTerminalSequence, terminalSize);
-            rasTerminal.getImages().addAll(this.cachedImages);
-
-            JsonObject intermediateJson = (JsonObject) gson.toJsonTree(rasTerminal);
-            stripFalseBooleans(intermediateJson);
-            String tempJson = gson.toJson(intermediateJson);
-
-            if (applyCtf) {
-                tempJson = cts.removeConfidentialText(tempJson);
-            }
+    /**
+     * Write the outstanding terminal images to the RAS and stop the writer, end
+     * the live terminal stream and the recording, used when the terminal is
+     * finished with
+     */
+    public void closeTerminalCache() {
+        getScreen().unregisterScreenSnapshotListener(this);
+        if (dispatcher != null) {
+            getScreen().setScreenUpdateDispatcher(null);
+            dispatcher.close();
+        }
+        rasWriter.close();
+        writeMetricsSummary();
+        if (recorder != null) {
+            getNetwork().setRecorder(null);
+            recorder.close();
+        }
+        if (liveTerminalSender != null) {
+            liveTerminalSender.close();
+        }
+    }
 
-            String terminalFilename = this.terminalId + "-" + String.format("%05d", rasTerminalSequence) + ".gz";
-            Path terminalPath = terminalRasDirectory.resolve(terminalFilename);
+    /**
+     * Write the response time and traffic metrics of the terminal to the
+     * terminal RAS directory
+     */
+    private void writeMetricsSummary() {
+        JsonObject summary = new JsonObject();
+        summary.addProperty("id", this.terminalId);
+        summary.addProperty("runId", this.runId);
+        JsonObject metrics = getScreen().getMetrics().toJson();
+        for (Entry<String, JsonElement> entry : metrics.entrySet()) {
+            summary.add(entry.getKey(), entry.getValue());
+        }
 
-            try (GZIPOutputStream gos = new GZIPOutputStream(Files.newOutputStream(terminalPath,
-                    new SetContentType(new ResultArchiveStoreContentType("application/zos3270terminal")),
-                    StandardOpenOption.CREATE))) {
-                IOUtils.write(tempJson, gos, "utf-8");
-            }
+        Path metricsPath = this.terminalRasDirectory.resolve(this.terminalId + "-metrics.json");
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(metricsPath,
+                new SetContentType(new ResultArchiveStoreContentType("application/json")), StandardOpenOption.CREATE),
+                StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(summary, writer);
         } catch (Exception e) {
-            logger.error("Unable to write terminal cache to the RAS", e);
-            rasTerminalSequence--;
-            return;
+            logger.warn("Unable to write the metrics of terminal " + this.terminalId + " to the RAS", e);
         }
-
-        this.cachedImages.clear();
     }
 
-    private static List<TerminalField> buildTerminalFields(Screen screen) {
-        ArrayList<TerminalField> terminalFields = new ArrayList<>();
-
-        Field[] screenFields = screen.calculateFields();
-        for (Field screenField : screenFields) {
-            int row = screenField.getStart() / screen.getNoOfColumns();
-            int column = screenField.getStart() % screen.getNoOfColumns();
-
-            TerminalField terminalField = new TerminalField(row, column, screenField.isUnformatted(),
-                    screenField.isProtected(), screenField.isNumeric(), screenField.isDisplay(),
-                    screenField.isIntenseDisplay(), screenField.isSelectorPen(), screenField.isFieldModifed());
-
-            Character[] chars = screenField.getFieldCharsWithNulls();
-            terminalField.getContents().add(new FieldContents(chars)); // TODO needs to be expanded when we record
-            // extended attributes
-            terminalFields.add(terminalField);
-        }
+    public TerminalImageWriter getRasWriter() {
+        return rasWriter;
+    }
 
-        return terminalFields;
+    /**
+     * @return the dispatcher of the asynchronous screen listeners, or null if
+     *         the listeners are called synchronously
+     */
+    public ScreenUpdateDispatcher getScreenUpdateDispatcher() {
+        return dispatcher;
     }
 
     public String getId() {
         return this.terminalId;
     }
 
-    public static void stripFalseBooleans(JsonObject json) {
-
-        ArrayList<Entry<String, JsonElement>> entries = new ArrayList<>();
-        entries.addAll(json.entrySet());
-
-        for (Entry<String, JsonElement> entry : entries) {
-            JsonElement element = entry.getValue();
-
-            if (element.isJsonPrimitive() && ((JsonPrimitive) element).isBoolean()
-                    && !((JsonPrimitive) element).getAsBoolean()) {
-                json.remove(entry.getKey());
-            } else if (element.isJsonObject()) {
-                stripFalseBooleans((JsonObject) element);
-            } else if (element.isJsonArray()) {
-                JsonArray array = (JsonArray) element;
-                for (int i = 0; i < array.size(); i++) {
-                    if (array.get(i).isJsonObject()) {
-                        stripFalseBooleans((JsonObject) array.get(i));
-                    }
-                }
-            }
-        }
-    }
-
 }
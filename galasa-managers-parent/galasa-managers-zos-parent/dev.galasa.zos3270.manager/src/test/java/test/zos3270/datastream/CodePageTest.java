@@ -0,0 +1,77 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.datastream;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.TerminalInterruptedException;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.spi.CodePage;
+import dev.galasa.zos3270.spi.DatastreamException;
+import dev.galasa.zos3270.spi.Screen;
+
+public class CodePageTest {
+
+    @Test
+    public void testTablesMatchCharsets() {
+        for (String name : new String[] { "037", "1047", "285", "500", "273" }) {
+            CodePage codePage = CodePage.getCodePage(name);
+            Charset charset = Charset.forName("Cp" + name);
+
+            for (int i = 0; i < 256; i++) {
+                char expected = new String(new byte[] { (byte) i }, charset).charAt(0);
+                Assert.assertEquals("Decode of " + i + " incorrect for " + name, expected, codePage.decode((byte) i));
+            }
+
+            for (int c = 0; c <= Character.MAX_VALUE; c++) {
+                if (Character.isSurrogate((char) c)) {
+                    continue;
+                }
+                byte expected = String.valueOf((char) c).getBytes(charset)[0];
+                Assert.assertEquals("Encode of " + c + " incorrect for " + name, expected, codePage.encode((char) c));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedCodePage() {
+        try {
+            CodePage.getCodePage("1208");
+            Assert.fail("Should have rejected the code page");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue("Message should name the code page", e.getMessage().contains("1208"));
+        }
+    }
+
+    @Test
+    public void testScreenUsesCodePage() throws DatastreamException, TerminalInterruptedException {
+        // *** x'AD' is '[' in 1047 but Y acute in 037
+        OrderText text = new OrderText();
+        text.append((byte) 0xad);
+
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(text);
+
+        Screen screen = new Screen(10, 2, null, CodePage.getCodePage("1047"));
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+
+        Assert.assertEquals("Text not decoded with the screen code page", '[', screen.retrieveFlatScreen().charAt(0));
+        Assert.assertEquals("Default decode should be 037", "\u00dd", text.getText());
+    }
+
+}
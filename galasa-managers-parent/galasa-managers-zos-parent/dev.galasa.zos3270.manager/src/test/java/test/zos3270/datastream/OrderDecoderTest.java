@@ -0,0 +1,227 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.datastream;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.IOrderHandler;
+import dev.galasa.zos3270.internal.datastream.OrderDecoder;
+import dev.galasa.zos3270.internal.terminal.TerminalImageCapture;
+import dev.galasa.zos3270.spi.CodePage;
+import dev.galasa.zos3270.spi.Screen;
+
+public class OrderDecoderTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void testVampScreenMatchesOrderObjects() throws Exception {
+        URL vampFile = getClass().getClassLoader().getResource("vampstream.txt");
+        byte[] stream = Hex.decodeHex(IOUtils.toString(vampFile.openStream(), "utf-8").trim().toCharArray());
+
+        assertSameScreen(stream);
+    }
+
+    @Test
+    public void testOrdersMatchOrderObjects() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(new byte[] { (byte) 0xf5, (byte) 0xc3 });
+        // *** SBA to the last row, SF protected intense, text wrapping past the end
+        baos.write(new byte[] { 0x11, 0x5d, 0x7f, 0x1d, (byte) 0xe8 });
+        baos.write(new byte[] { (byte) 0xc1, (byte) 0xc2, (byte) 0xc3, (byte) 0xff, (byte) 0xc4 });
+        // *** SFE with a field attribute and colour, SFE with colour only
+        baos.write(new byte[] { 0x29, 0x02, (byte) 0xc0, 0x60, 0x42, (byte) 0xf2, (byte) 0xc5 });
+        baos.write(new byte[] { 0x29, 0x01, 0x42, (byte) 0xf4, (byte) 0xc6 });
+        // *** SA, IC, an unrecognised order byte and RA to the end of the screen
+        baos.write(new byte[] { 0x28, 0x42, (byte) 0xf1, 0x13, 0x05, (byte) 0xc7 });
+        baos.write(new byte[] { 0x11, 0x40, 0x50, 0x3c, 0x40, 0x60, (byte) 0x5c });
+        baos.write(new byte[] { 0x3c, 0x00, 0x00, (byte) 0xff });
+
+        assertSameScreen(baos.toByteArray());
+    }
+
+    @Test
+    public void testExtendedAttributesPassedToHandler() throws Exception {
+        // *** SFE with validation, colour and a field attribute, SFE with highlighting only, SA colour
+        byte[] stream = new byte[] { 0x29, 0x03, (byte) 0xc1, 0x04, 0x42, (byte) 0xf2, (byte) 0xc0, 0x60,
+                0x29, 0x01, 0x41, (byte) 0xf1, 0x28, 0x42, (byte) 0xf4 };
+
+        List<String> calls = new ArrayList<>();
+        OrderDecoder.decode(ByteBuffer.wrap(stream), CodePage.getDefault(), new IOrderHandler() {
+            @Override
+            public void setBufferAddress(int bufferAddress) {
+                calls.add("SBA " + bufferAddress);
+            }
+
+            @Override
+            public void repeatToAddress(int bufferAddress, char repeatChar) {
+                calls.add("RA " + bufferAddress);
+            }
+
+            @Override
+            public void startField(byte attributes) {
+                calls.add("SF " + Hex.encodeHexString(new byte[] { attributes }));
+            }
+
+            @Override
+            public void startFieldDefault() {
+                calls.add("SF default");
+            }
+
+            @Override
+            public void fieldAttribute(byte attributeId, byte value) {
+                calls.add("FA " + Hex.encodeHexString(new byte[] { attributeId, value }));
+            }
+
+            @Override
+            public void setAttribute(byte attributeId, byte value) {
+                calls.add("SA " + Hex.encodeHexString(new byte[] { attributeId, value }));
+            }
+
+            @Override
+            public void insertCursor() {
+                calls.add("IC");
+            }
+
+            @Override
+            public void text(char character) {
+                calls.add("text " + character);
+            }
+        });
+
+        Assert.assertEquals("Wrong orders", Arrays.asList("FA c104", "FA 42f2", "SF 60", "FA 41f1", "SF default",
+                "SA 42f4"), calls);
+    }
+
+    @Test
+    public void testRandomDatastreamsMatchOrderObjects() throws Exception {
+        byte[] sfeAttributeIds = new byte[] { (byte) 0xc0, (byte) 0xc1, (byte) 0xc2, 0x41, 0x42, 0x43, 0x45, 0x46 };
+        byte[] saAttributeIds = new byte[] { 0x00, 0x41, 0x42, 0x43, 0x45, 0x46 };
+
+        Random random = new Random(3270);
+        for (int i = 0; i < 500; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            baos.write(random.nextBoolean() ? 0xf5 : 0xf1);
+            baos.write(random.nextInt(256));
+
+            int orders = random.nextInt(60);
+            for (int j = 0; j < orders; j++) {
+                switch (random.nextInt(9)) {
+                    case 0:
+                        baos.write(0x11);
+                        writeAddress(baos, random.nextInt(1920));
+                        break;
+                    case 1:
+                        baos.write(0x3c);
+                        writeAddress(baos, random.nextInt(1921));
+                        baos.write(random.nextInt(256));
+                        break;
+                    case 2:
+                        baos.write(0x1d);
+                        baos.write(random.nextInt(256));
+                        break;
+                    case 3:
+                        int count = random.nextInt(4);
+                        baos.write(0x29);
+                        baos.write(count);
+                        for (int k = 0; k < count; k++) {
+                            baos.write(sfeAttributeIds[random.nextInt(sfeAttributeIds.length)]);
+                            baos.write(random.nextInt(256));
+                        }
+                        break;
+                    case 4:
+                        baos.write(0x28);
+                        baos.write(saAttributeIds[random.nextInt(saAttributeIds.length)]);
+                        baos.write(random.nextInt(256));
+                        break;
+                    case 5:
+                        baos.write(0x13);
+                        break;
+                    case 6:
+                        // *** Anything, valid or not
+                        baos.write(random.nextInt(256));
+                        break;
+                    default:
+                        int length = random.nextInt(100);
+                        for (int k = 0; k < length; k++) {
+                            baos.write(0x40 + random.nextInt(0xc0));
+                        }
+                }
+            }
+
+            assertSameScreen(baos.toByteArray());
+        }
+    }
+
+    /**
+     * 12 bit or 14 bit buffer address
+     */
+    private void writeAddress(ByteArrayOutputStream baos, int address) {
+        if (address < 4096 && (address & 1) == 0) {
+            byte[] chars = BufferAddress.getAddressChars();
+            baos.write(chars[(address >> 6) & 0x3f]);
+            baos.write(chars[address & 0x3f]);
+        } else {
+            baos.write((address >> 8) & 0x3f);
+            baos.write(address & 0xff);
+        }
+    }
+
+    /**
+     * Apply the datastream through the order objects and through the decoder,
+     * the screens must be the same or both must fail
+     */
+    private void assertSameScreen(byte[] stream) throws Exception {
+        String hex = Hex.encodeHexString(stream);
+
+        Screen expected = new Screen();
+        Exception expectedException = null;
+        try {
+            expected.processInboundMessage(NetworkThread.process3270Data(ByteBuffer.wrap(stream)));
+        } catch (Exception e) {
+            expectedException = e;
+        }
+
+        Screen actual = new Screen();
+        Exception actualException = null;
+        try {
+            NetworkThread.process3270Data(ByteBuffer.wrap(stream), actual);
+        } catch (Exception e) {
+            actualException = e;
+        }
+
+        // *** The decoder stops at the first error in the datastream, the order
+        // objects at the first error in parsing, so only the failure is compared
+        if (expectedException != null) {
+            Assert.assertNotNull("Decoder should have failed for " + hex, actualException);
+            return;
+        }
+        if (actualException != null) {
+            throw new AssertionError("Decoder failed for " + hex, actualException);
+        }
+
+        Assert.assertEquals("Screen differs for " + hex, expected.printScreen(), actual.printScreen());
+        Assert.assertEquals("Fields differ for " + hex, gson.toJson(TerminalImageCapture.buildFields(expected.snapshot())),
+                gson.toJson(TerminalImageCapture.buildFields(actual.snapshot())));
+        Assert.assertEquals("Cursor differs for " + hex, expected.getCursor(), actual.getCursor());
+    }
+
+}
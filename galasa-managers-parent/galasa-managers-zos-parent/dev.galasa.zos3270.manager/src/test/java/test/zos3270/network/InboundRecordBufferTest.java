@@ -0,0 +1,120 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.internal.comms.InboundRecordBuffer;
+import dev.galasa.zos3270.internal.comms.Network;
+
+public class InboundRecordBufferTest {
+
+    @Test
+    public void testMultipleRecordsInOneRead() throws IOException {
+        InboundRecordBuffer recordBuffer = new InboundRecordBuffer();
+        recordBuffer.fill(new ByteArrayInputStream(new byte[] { 1, 2, Network.IAC, Network.EOR, 3, Network.IAC,
+                Network.IAC, 4, Network.IAC, Network.EOR }));
+
+        assertRecord(new byte[] { 1, 2 }, recordBuffer.nextRecord(0));
+        assertRecord(new byte[] { 3, Network.IAC, 4 }, recordBuffer.nextRecord(0));
+        Assert.assertNull("Should be no more records", recordBuffer.nextRecord(0));
+        Assert.assertEquals("Buffer should be empty", 0, recordBuffer.available());
+    }
+
+    @Test
+    public void testHeaderIsSkipped() throws IOException {
+        InboundRecordBuffer recordBuffer = new InboundRecordBuffer();
+        recordBuffer.fill(new ByteArrayInputStream(new byte[] { 0, 0, 0, 0, 0, 7, Network.IAC, Network.EOR }));
+
+        assertRecord(new byte[] { 7 }, recordBuffer.nextRecord(5));
+    }
+
+    @Test
+    public void testRecordSplitAcrossReads() throws IOException {
+        // *** Split between the two bytes of a doubled IAC and between IAC EOR
+        InputStream inputStream = new ChunkedInputStream(new byte[] { 1, Network.IAC, Network.IAC, 2, Network.IAC,
+                Network.EOR }, 2);
+        InboundRecordBuffer recordBuffer = new InboundRecordBuffer();
+
+        ByteBuffer record = null;
+        int reads = 0;
+        while (record == null) {
+            Assert.assertNotEquals("Stream ended before the record was complete", -1, recordBuffer.fill(inputStream));
+            reads++;
+            record = recordBuffer.nextRecord(0);
+        }
+
+        Assert.assertEquals("Record should need all three reads", 3, reads);
+        assertRecord(new byte[] { 1, Network.IAC, 2 }, record);
+    }
+
+    @Test
+    public void testBufferGrows() throws IOException {
+        byte[] data = new byte[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 200);
+        }
+        byte[] stream = new byte[data.length + 2];
+        System.arraycopy(data, 0, stream, 0, data.length);
+        stream[data.length] = Network.IAC;
+        stream[data.length + 1] = Network.EOR;
+
+        InputStream inputStream = new ChunkedInputStream(stream, 1500);
+        InboundRecordBuffer recordBuffer = new InboundRecordBuffer(16);
+
+        ByteBuffer record = null;
+        while (record == null) {
+            Assert.assertNotEquals("Stream ended before the record was complete", -1, recordBuffer.fill(inputStream));
+            record = recordBuffer.nextRecord(0);
+        }
+
+        assertRecord(data, record);
+    }
+
+    @Test
+    public void testReceiveBuffer() {
+        InboundRecordBuffer recordBuffer = new InboundRecordBuffer();
+
+        ByteBuffer receive = recordBuffer.receiveBuffer(10);
+        receive.put(new byte[] { 9, Network.IAC });
+        recordBuffer.received(receive);
+        Assert.assertNull("Record is not complete", recordBuffer.nextRecord(0));
+
+        receive = recordBuffer.receiveBuffer(10);
+        receive.put(Network.EOR);
+        recordBuffer.received(receive);
+        assertRecord(new byte[] { 9 }, recordBuffer.nextRecord(0));
+    }
+
+    private void assertRecord(byte[] expected, ByteBuffer record) {
+        Assert.assertNotNull("Record should have been found", record);
+        byte[] actual = new byte[record.remaining()];
+        record.get(actual);
+        Assert.assertArrayEquals("Record is incorrect", expected, actual);
+    }
+
+    private static class ChunkedInputStream extends ByteArrayInputStream {
+
+        private final int chunk;
+
+        public ChunkedInputStream(byte[] data, int chunk) {
+            super(data);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.network;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.zos3270.TerminalInterruptedException;
+import dev.galasa.zos3270.TimeoutException;
+import dev.galasa.zos3270.internal.comms.Network;
+import dev.galasa.zos3270.internal.comms.NetworkServer;
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.comms.NioNetwork;
+import dev.galasa.zos3270.internal.datastream.AbstractCommandCode;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.spi.NetworkException;
+import dev.galasa.zos3270.spi.Screen;
+
+public class NioNetworkTest {
+
+    private ServerSocket  serverSocket;
+    private NetworkServer server;
+
+    @Before
+    public void init() throws IOException {
+        serverSocket = new ServerSocket(0, 5, InetAddress.getLoopbackAddress());
+    }
+
+    @After
+    public void tidy() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+        serverSocket.close();
+    }
+
+    @Test
+    public void testScreenUpdatedBySelector() throws Exception {
+        Thread accept = acceptInBackground();
+
+        NioNetwork network = new NioNetwork(InetAddress.getLoopbackAddress().getHostAddress(),
+                serverSocket.getLocalPort(), false, 1);
+        Assert.assertTrue("Client failed to connect", network.connectClient());
+        accept.join(5000);
+        Assert.assertNotNull("Server did not negotiate", server);
+
+        Screen screen = new Screen(80, 24, network);
+        network.startReceiving(screen);
+
+        // *** Erase/Write, restore keyboard, SBA to 0, "HELLO" in EBCDIC, with an
+        // *** escaped IAC in the text
+        server.sendDatastream(new byte[] { AbstractCommandCode.ERASE_WRITE, 0x02, OrderSetBufferAddress.ID, 0x40,
+                0x40, (byte) 0xc8, (byte) 0xc5, (byte) 0xd3, (byte) 0xd3, (byte) 0xd6, Network.IAC, Network.IAC });
+
+        screen.waitForKeyboard(5000);
+        Assert.assertTrue("Screen was not updated", screen.printScreen().startsWith("HELLO"));
+
+        network.close();
+        Assert.assertFalse("Session should be closed", network.isConnected());
+    }
+
+    @Test
+    public void testOutboundDatastream() throws Exception {
+        Thread accept = acceptInBackground();
+
+        NioNetwork network = new NioNetwork(InetAddress.getLoopbackAddress().getHostAddress(),
+                serverSocket.getLocalPort(), false, 1);
+        network.connectClient();
+        accept.join(5000);
+
+        network.startReceiving(new Screen(80, 24, network));
+        network.sendDatastream(new byte[] { 0x7d, 0x40, 0x40 });
+
+        byte[] header = new byte[5];
+        Assert.assertEquals("Header missing", 5, server.getInputStream().read(header));
+        ByteBuffer buffer = NetworkThread.readTerminatedMessage(server.getInputStream());
+        Assert.assertArrayEquals("Outbound datastream incorrect", new byte[] { 0x7d, 0x40, 0x40 }, buffer.array());
+
+        network.close();
+    }
+
+    @Test
+    public void testServerClose() throws Exception {
+        Thread accept = acceptInBackground();
+
+        NioNetwork network = new NioNetwork(InetAddress.getLoopbackAddress().getHostAddress(),
+                serverSocket.getLocalPort(), false, 1);
+        network.connectClient();
+        accept.join(5000);
+
+        network.startReceiving(new Screen(80, 24, network));
+        server.close();
+
+        for (int i = 0; i < 50 && network.isConnected(); i++) {
+            Thread.sleep(100);
+        }
+        Assert.assertFalse("Session should have been closed by the selector", network.isConnected());
+    }
+
+    @Test
+    public void testKeyboardStaysLockedWithoutData() throws Exception {
+        Thread accept = acceptInBackground();
+
+        NioNetwork network = new NioNetwork(InetAddress.getLoopbackAddress().getHostAddress(),
+                serverSocket.getLocalPort(), false, 1);
+        network.connectClient();
+        accept.join(5000);
+
+        Screen screen = new Screen(80, 24, network);
+        network.startReceiving(screen);
+        try {
+            screen.waitForKeyboard(200);
+            Assert.fail("Keyboard should still be locked");
+        } catch (TimeoutException e) {
+            // expected
+        } finally {
+            network.close();
+        }
+    }
+
+    @Test
+    public void testNotConnected() throws TerminalInterruptedException {
+        NioNetwork network = new NioNetwork("localhost", 0, false, 1);
+        try {
+            network.startReceiving(new Screen());
+            Assert.fail("Should have failed as not connected");
+        } catch (NetworkException e) {
+            Assert.assertEquals("Error message incorrect", "Unable to start receiving, the session is not connected",
+                    e.getMessage());
+        }
+    }
+
+    private Thread acceptInBackground() {
+        Thread accept = new Thread(() -> {
+            try {
+                Socket socket = serverSocket.accept();
+                server = new NetworkServer(socket);
+            } catch (IOException | NetworkException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        accept.start();
+        return accept;
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.internal.comms.Network;
+import dev.galasa.zos3270.internal.comms.NetworkRecorder;
+import dev.galasa.zos3270.internal.comms.ReplayServer;
+import dev.galasa.zos3270.internal.comms.TerminalRecording;
+import dev.galasa.zos3270.internal.comms.TerminalRecording.Record;
+import dev.galasa.zos3270.internal.comms.TerminalRecording.Type;
+import dev.galasa.zos3270.spi.CodePage;
+import dev.galasa.zos3270.spi.Terminal;
+
+public class ReplayServerTest {
+
+    private ReplayServer server;
+
+    @After
+    public void tidy() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testRecordingRoundTrip() throws Exception {
+        TerminalRecording recording = logonRecording();
+
+        StringWriter writer = new StringWriter();
+        recording.write(writer);
+        TerminalRecording read = TerminalRecording.read(new StringReader(writer.toString()));
+
+        Assert.assertEquals("Wrong number of records", 3, read.getRecords().size());
+        for (int i = 0; i < 3; i++) {
+            Record expected = recording.getRecords().get(i);
+            Record actual = read.getRecords().get(i);
+            Assert.assertEquals("Wrong type", expected.getType(), actual.getType());
+            Assert.assertEquals("Wrong elapsed", expected.getElapsed(), actual.getElapsed());
+            Assert.assertArrayEquals("Wrong data", expected.getData(), actual.getData());
+        }
+    }
+
+    @Test
+    public void testReplayToConcurrentTerminals() throws Exception {
+        server = new ReplayServer(logonRecording(), new ServerSocket(0, 50, InetAddress.getLoopbackAddress()), 10)
+                .start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ArrayList<Future<Boolean>> sessions = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                sessions.add(executor.submit(() -> {
+                    Terminal terminal = new Terminal(newNetwork());
+                    terminal.connect();
+                    terminal.waitForTextInField("LOGON SCREEN");
+                    terminal.waitForKeyboard();
+                    terminal.enter();
+                    terminal.waitForTextInField("WELCOME");
+                    terminal.disconnect();
+                    return true;
+                }));
+            }
+            for (Future<Boolean> session : sessions) {
+                Assert.assertTrue("Session failed", session.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals("Wrong number of sessions", 4, server.getSessionsStarted());
+        Assert.assertEquals("No sessions should fail", 0, server.getSessionsFailed());
+        Assert.assertEquals("Terminals sent the recorded AID", 0, server.getMismatches());
+    }
+
+    @Test
+    public void testRecordReplayedSession() throws Exception {
+        TerminalRecording recording = logonRecording();
+        server = new ReplayServer(recording, new ServerSocket(0, 50, InetAddress.getLoopbackAddress()), 0).start();
+
+        StringWriter recorded = new StringWriter();
+        NetworkRecorder recorder = new NetworkRecorder(recorded);
+
+        Network network = newNetwork();
+        network.setRecorder(recorder);
+        Terminal terminal = new Terminal(network);
+        terminal.connect();
+        terminal.waitForTextInField("LOGON SCREEN");
+        terminal.waitForKeyboard();
+        terminal.enter();
+        terminal.waitForTextInField("WELCOME");
+        terminal.disconnect();
+        recorder.close();
+
+        List<Record> records = TerminalRecording.read(new StringReader(recorded.toString())).getRecords();
+        Assert.assertEquals("Wrong number of records", 3, records.size());
+        Assert.assertEquals("Wrong record types", Arrays.asList(Type.INBOUND, Type.OUTBOUND, Type.INBOUND),
+                Arrays.asList(records.get(0).getType(), records.get(1).getType(), records.get(2).getType()));
+        Assert.assertArrayEquals("Inbound record incorrect", recording.getRecords().get(2).getData(),
+                records.get(2).getData());
+        Assert.assertEquals("Outbound should be ENTER", (byte) 0x7d, records.get(1).getData()[0]);
+    }
+
+    @Test
+    public void testRecorderBuffersRecords() throws Exception {
+        StringWriter recorded = new StringWriter();
+        AtomicInteger flushes = new AtomicInteger();
+        NetworkRecorder recorder = new NetworkRecorder(new FilterWriter(recorded) {
+            @Override
+            public void flush() throws IOException {
+                flushes.incrementAndGet();
+                super.flush();
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            recorder.outbound(new byte[] { 0x7d });
+        }
+        Assert.assertTrue("Records should not be flushed as they are written", flushes.get() <= 1);
+
+        recorder.close();
+        recorder.close();
+        Assert.assertEquals("All the records should be written on close", 100,
+                TerminalRecording.read(new StringReader(recorded.toString())).getRecords().size());
+    }
+
+    private Network newNetwork() {
+        return new Network(InetAddress.getLoopbackAddress().getHostAddress(), server.getPort());
+    }
+
+    private TerminalRecording logonRecording() throws Exception {
+        ArrayList<Record> records = new ArrayList<>();
+        records.add(new Record(Type.INBOUND, 5, screen("LOGON SCREEN")));
+        records.add(new Record(Type.OUTBOUND, 1000, new byte[] { 0x7d }));
+        records.add(new Record(Type.INBOUND, 1020, screen("WELCOME")));
+        return new TerminalRecording(records);
+    }
+
+    /**
+     * Erase/Write of a protected field with the text followed by an unprotected
+     * field holding the cursor
+     */
+    private byte[] screen(String text) {
+        CodePage codePage = CodePage.getDefault();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(0xf5);
+        baos.write(0xc3);
+        baos.write(0x11);
+        baos.write(0x40);
+        baos.write(0x40);
+        baos.write(0x1d);
+        baos.write(0xf0);
+        for (char c : text.toCharArray()) {
+            baos.write(codePage.encode(c));
+        }
+        baos.write(0x1d);
+        baos.write(0x40);
+        baos.write(0x13);
+        return baos.toByteArray();
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.network;
+
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.KeyStore;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.zos3270.internal.comms.Network;
+import dev.galasa.zos3270.internal.comms.TlsContext;
+import dev.galasa.zos3270.internal.metrics.TerminalMetrics;
+
+public class TlsContextTest {
+
+    private static final char[] PASSWORD = "password".toCharArray();
+
+    private SSLServerSocket     serverSocket;
+    private Thread              serverThread;
+
+    @Before
+    public void startServer() throws Exception {
+        TlsContext.reset();
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream is = getClass().getResourceAsStream("/tn3270-test.p12")) {
+            keyStore.load(is, PASSWORD);
+        }
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(keyStore, PASSWORD);
+        SSLContext serverContext = SSLContext.getInstance("TLSv1.2");
+        serverContext.init(kmf.getKeyManagers(), null, null);
+
+        serverSocket = (SSLServerSocket) serverContext.getServerSocketFactory().createServerSocket(0, 5,
+                InetAddress.getLoopbackAddress());
+        serverThread = new Thread(() -> {
+            try {
+                while (true) {
+                    try (SSLSocket socket = (SSLSocket) serverSocket.accept()) {
+                        socket.startHandshake();
+                    }
+                }
+            } catch (Exception e) {
+                // *** Server socket closed
+            }
+        }, "tls-test-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        serverSocket.close();
+        serverThread.join(5000);
+        TlsContext.reset();
+    }
+
+    @Test
+    public void testSecondConnectionResumesSession() throws Exception {
+        TerminalMetrics metrics1 = new TerminalMetrics();
+        Network network1 = new Network("127.0.0.1", serverSocket.getLocalPort(), true);
+        network1.setMetrics(metrics1);
+        try (Socket socket = network1.createSocket()) {
+            Assert.assertTrue("Should be a TLS socket", socket instanceof SSLSocket);
+        }
+
+        TerminalMetrics metrics2 = new TerminalMetrics();
+        Network network2 = new Network("127.0.0.1", serverSocket.getLocalPort(), true);
+        network2.setMetrics(metrics2);
+        try (Socket socket = network2.createSocket()) {
+            Assert.assertTrue("Should be a TLS socket", socket instanceof SSLSocket);
+        }
+
+        Assert.assertEquals("First terminal should do a full handshake", 1, metrics1.getTlsFullHandshakes());
+        Assert.assertEquals("First terminal should not resume", 0, metrics1.getTlsResumedHandshakes());
+        Assert.assertEquals("Second terminal should resume", 1, metrics2.getTlsResumedHandshakes());
+        Assert.assertEquals("Second terminal should not do a full handshake", 0, metrics2.getTlsFullHandshakes());
+
+        TlsContext tlsContext = TlsContext.forServer(network2);
+        Assert.assertEquals("Wrong full handshakes for the server", 1, tlsContext.getFullHandshakes());
+        Assert.assertEquals("Wrong resumed handshakes for the server", 1, tlsContext.getResumedHandshakes());
+    }
+
+}
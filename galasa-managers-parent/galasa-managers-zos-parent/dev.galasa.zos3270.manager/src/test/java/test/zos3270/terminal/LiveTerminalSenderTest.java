@@ -0,0 +1,191 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.terminal.LiveTerminalSender;
+
+public class LiveTerminalSenderTest {
+
+    private final Gson         gson      = new Gson();
+
+    private HttpServer         server;
+    private final List<String> frames    = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch requests = new CountDownLatch(1);
+    private final CountDownLatch release  = new CountDownLatch(1);
+    private volatile boolean   holdFirst;
+
+    @Before
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/live", exchange -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    frames.add(line);
+                    if (holdFirst && frames.size() == 1) {
+                        release.await(5, TimeUnit.SECONDS);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            requests.countDown();
+        });
+        server.createContext("/stalled", exchange -> {
+            // *** Reads the frames but never responds
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                while (reader.readLine() != null) {
+                }
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tidy() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testSingleStreamWithDeltas() throws Exception {
+        LiveTerminalSender sender = newSender();
+        for (int i = 1; i <= 3; i++) {
+            sender.send(image(i));
+            waitForFrames(i);
+        }
+        sender.close();
+
+        Assert.assertTrue("Stream should have ended", requests.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("Wrong number of frames", 3, frames.size());
+        Assert.assertFalse("Sender should not have failed", sender.isFailed());
+
+        TerminalImage previous = null;
+        for (int i = 0; i < frames.size(); i++) {
+            Terminal terminal = gson.fromJson(frames.get(i), Terminal.class);
+            Assert.assertEquals("Wrong version", Terminal.VERSION_DELTA, terminal.getVersion());
+            Assert.assertEquals("Wrong sequence", i + 1, terminal.getSequence());
+
+            TerminalImage frame = terminal.getImages().get(0);
+            Assert.assertEquals("Only the first frame should be a keyframe", i > 0, frame.isDelta());
+            previous = TerminalImageDeltas.apply(previous, frame);
+            Assert.assertEquals("Rebuilt frame incorrect", "LINE " + (i + 1),
+                    previous.getFields().get(1).getContents().get(0).getText());
+        }
+    }
+
+    @Test
+    public void testDropsFramesWhenViewerBehind() throws Exception {
+        holdFirst = true;
+        LiveTerminalSender sender = newSender();
+        sender.send(image(1));
+        waitForFrames(1);
+
+        // *** The viewer is stalled, so only the latest image should be sent
+        for (int i = 2; i <= 20; i++) {
+            sender.send(image(i));
+        }
+        release.countDown();
+        sender.close();
+
+        Assert.assertTrue("Stream should have ended", requests.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue("Frames should have been dropped", sender.getFramesDropped() > 0);
+        Assert.assertEquals("Sent and dropped should account for every image", 20,
+                sender.getFramesSent() + sender.getFramesDropped());
+
+        TerminalImage previous = null;
+        for (String json : frames) {
+            previous = TerminalImageDeltas.apply(previous, gson.fromJson(json, Terminal.class).getImages().get(0));
+        }
+        Assert.assertEquals("Last frame should be the latest screen", 20, previous.getSequence());
+        Assert.assertEquals("Last frame incorrect", "LINE 20",
+                previous.getFields().get(1).getContents().get(0).getText());
+    }
+
+    @Test
+    public void testStalledViewerTimesOut() throws Exception {
+        URL url = new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + "/stalled");
+        LiveTerminalSender sender = new LiveTerminalSender(url, "term1", "run1", new TerminalSize(80, 24), null, 10,
+                500);
+        sender.send(image(1));
+
+        long start = System.currentTimeMillis();
+        sender.close();
+        release.countDown();
+
+        Assert.assertTrue("Close should not wait longer than the timeout", System.currentTimeMillis() - start < 5000);
+        Assert.assertTrue("Sender should have been disabled", sender.isFailed());
+        sender.send(image(2));
+        Assert.assertEquals("No more frames should be sent", 1, sender.getFramesSent());
+    }
+
+    private LiveTerminalSender newSender() throws IOException {
+        URL url = new URL("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + "/live");
+        return new LiveTerminalSender(url, "term1", "run1", new TerminalSize(80, 24), null, 10);
+    }
+
+    private void waitForFrames(int count) throws InterruptedException {
+        for (int i = 0; i < 250 && frames.size() < count; i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals("Frame not received", count, frames.size());
+    }
+
+    private TerminalImage image(int sequence) {
+        TerminalImage image = new TerminalImage(sequence, "term1-" + sequence, true, null, null, null, 0, 0);
+        image.getFields().add(field(0, "TITLE"));
+        image.getFields().add(field(1, "LINE " + sequence));
+        image.getFields().add(field(2, "FOOTER"));
+        return image;
+    }
+
+    private TerminalField field(int row, String text) {
+        TerminalField field = new TerminalField(row, 0, false, true, false, true, false, false, false);
+        Character[] chars = new Character[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        field.getContents().add(new FieldContents(chars));
+        return field;
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.ScreenFingerprint;
+import dev.galasa.zos3270.ScreenSignatures;
+import dev.galasa.zos3270.TimeoutException;
+import dev.galasa.zos3270.Zos3270Exception;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderInsertCursor;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.spi.Screen;
+
+public class ScreenFingerprintTest {
+
+    /**
+     * A protected label, an input field with the cursor and a protected
+     * message
+     */
+    private static void writeScreen(Screen screen, String label, String message) throws Exception {
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText(label));
+        orders.add(new OrderSetBufferAddress(new BufferAddress(10)));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+        orders.add(new OrderInsertCursor());
+        orders.add(new OrderSetBufferAddress(new BufferAddress(20)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText(message));
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+    }
+
+    @Test
+    public void testTypingKeepsFingerprint() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        writeScreen(screen, "NAME", "READY");
+        ScreenFingerprint before = screen.getFingerprint();
+
+        screen.type("JOHN");
+        Assert.assertEquals("Typing into an input field should not change the fingerprint", before,
+                screen.getFingerprint());
+
+        Screen other = new Screen(20, 2, null);
+        writeScreen(other, "NAME", "READY");
+        Assert.assertEquals("The same screen should have the same fingerprint", before, other.getFingerprint());
+    }
+
+    @Test
+    public void testProtectedTextChangesFingerprint() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        writeScreen(screen, "NAME", "READY");
+        ScreenFingerprint ready = screen.getFingerprint();
+
+        writeScreen(screen, "NAME", "ERROR");
+        ScreenFingerprint error = screen.getFingerprint();
+
+        Assert.assertNotEquals("Different protected text should change the fingerprint", ready, error);
+        Assert.assertEquals("The layout has not changed", ready.getLayout(), error.getLayout());
+        Assert.assertNotEquals("The text has changed", ready.getText(), error.getText());
+    }
+
+    @Test
+    public void testSignatures() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        ScreenSignatures signatures = screen.getScreenSignatures();
+
+        writeScreen(screen, "NAME", "READY");
+        signatures.register("ready", screen.getFingerprint());
+        signatures.registerLayout("form", screen.getFingerprint());
+        Assert.assertEquals("The exact signature should be preferred", "ready", screen.getScreenSignature());
+
+        writeScreen(screen, "NAME", "ERROR");
+        Assert.assertEquals("Only the layout should match", "form", screen.getScreenSignature());
+        Assert.assertTrue("The layout signature should match", signatures.matches("form", screen.getFingerprint()));
+        Assert.assertFalse("The exact signature should not match",
+                signatures.matches("ready", screen.getFingerprint()));
+
+        signatures.unregister("form");
+        Assert.assertNull("No signature should match", screen.getScreenSignature());
+    }
+
+    @Test
+    public void testWaitForScreen() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        writeScreen(screen, "NAME", "READY");
+        screen.getScreenSignatures().register("ready", screen.getFingerprint());
+        writeScreen(screen, "NAME", "BUSY");
+
+        Thread update = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                writeScreen(screen, "NAME", "READY");
+            } catch (Exception e) {
+                // *** The wait will time out
+            }
+        });
+        update.start();
+
+        screen.waitForScreen("ready", 5000);
+        update.join();
+
+        try {
+            screen.waitForScreen("unknown", 10);
+            Assert.fail("Should have rejected an unknown signature");
+        } catch (TimeoutException e) {
+            Assert.fail("Should not wait for an unknown signature");
+        } catch (Zos3270Exception e) {
+            Assert.assertTrue("Wrong message", e.getMessage().contains("unknown"));
+        }
+    }
+
+}
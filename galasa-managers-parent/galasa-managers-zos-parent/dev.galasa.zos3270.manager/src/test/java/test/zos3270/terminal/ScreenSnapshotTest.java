@@ -0,0 +1,102 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderInsertCursor;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.internal.terminal.TerminalImageCapture;
+import dev.galasa.zos3270.spi.Screen;
+import dev.galasa.zos3270.spi.ScreenSnapshot;
+
+public class ScreenSnapshotTest {
+
+    private static void writeScreen(Screen screen, String label) throws Exception {
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText(label));
+        orders.add(new OrderSetBufferAddress(new BufferAddress(10)));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+        orders.add(new OrderInsertCursor());
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+    }
+
+    @Test
+    public void testSnapshotPublishedOncePerUpdate() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        writeScreen(screen, "NAME");
+
+        ScreenSnapshot snapshot = screen.snapshot();
+        Assert.assertSame("The published snapshot should be reused", snapshot, screen.snapshot());
+        Assert.assertSame("The rendering should be calculated once", snapshot.printScreen(), screen.printScreen());
+
+        writeScreen(screen, "USER");
+        Assert.assertNotSame("An update should publish a new snapshot", snapshot, screen.snapshot());
+        Assert.assertTrue("The old snapshot should not change", snapshot.retrieveFlatScreen().contains("NAME"));
+        Assert.assertTrue("The new snapshot should have the update", screen.retrieveFlatScreen().contains("USER"));
+    }
+
+    @Test
+    public void testTypingReplacesSnapshot() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        writeScreen(screen, "NAME");
+        ScreenSnapshot before = screen.snapshot();
+
+        screen.type("JOHN");
+        ScreenSnapshot after = screen.snapshot();
+
+        Assert.assertNotSame("Typing should replace the snapshot", before, after);
+        Assert.assertFalse("The old snapshot should not change", before.isTextInField("JOHN"));
+        Assert.assertTrue("The typed text should be in a field", after.isTextInField("JOHN"));
+        Assert.assertEquals("The cursor should follow the typing", 15, after.getCursor());
+    }
+
+    @Test
+    public void testCursorMoveSharesBuffer() throws Exception {
+        Screen screen = new Screen(20, 2, null);
+        writeScreen(screen, "NAME");
+        ScreenSnapshot before = screen.snapshot();
+        String printed = before.printScreen();
+
+        screen.setCursorPosition(25);
+        ScreenSnapshot after = screen.snapshot();
+
+        Assert.assertNotSame("Moving the cursor should give a new snapshot", before, after);
+        Assert.assertEquals("The snapshot should have the new cursor", 25, after.getCursor());
+        Assert.assertEquals("The old snapshot should keep its cursor", 11, before.getCursor());
+        Assert.assertSame("The renderings of the buffer should be shared", printed, after.printScreen());
+        Assert.assertSame("The fields should be shared", before.getFingerprint(), after.getFingerprint());
+    }
+
+    @Test
+    public void testCaptureCursorPosition() throws Exception {
+        Screen screen = new Screen(80, 24, null);
+        writeScreen(screen, "NAME");
+        screen.setCursorPosition(165);
+
+        TerminalImage image = TerminalImageCapture.capture(1, "term1-1", true, null, screen.snapshot());
+        Assert.assertEquals("Wrong cursor row", 2, image.getCursorRow());
+        Assert.assertEquals("Wrong cursor column", 5, image.getCursorColumn());
+        Assert.assertEquals("Wrong columns", 80, image.getImageSize().getColumns());
+        Assert.assertEquals("Wrong rows", 24, image.getImageSize().getRows());
+    }
+
+}
@@ -16,7 +16,10 @@ import java.util.ArrayList;
 import org.junit.Assert;
 import org.junit.Test;
 
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.FieldNotFoundException;
 import dev.galasa.zos3270.TerminalInterruptedException;
+import dev.galasa.zos3270.Zos3270Exception;
 import dev.galasa.zos3270.internal.comms.Inbound3270Message;
 import dev.galasa.zos3270.internal.comms.Network;
 import dev.galasa.zos3270.internal.comms.NetworkThread;
@@ -33,6 +36,7 @@ import dev.galasa.zos3270.internal.datastream.StructuredField;
 import dev.galasa.zos3270.internal.datastream.StructuredFieldReadPartition;
 import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
 import dev.galasa.zos3270.spi.DatastreamException;
+import dev.galasa.zos3270.spi.Field;
 import dev.galasa.zos3270.spi.NetworkException;
 import dev.galasa.zos3270.spi.Screen;
 
@@ -185,6 +189,87 @@ public class ScreenTest {
                 "Field(pos=-1,p=false,n=false,d=true,i=false,s=false,m=false,XXXXXZZZZZYYYYYYYYYY)\n", fields);
     }
 
+    @Test
+    public void testTextWrapsToStartOfBuffer() throws DatastreamException, TerminalInterruptedException {
+        Screen screen = new Screen(10, 2, null);
+
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(17)));
+        orders.add(new OrderText("ABCDE"));
+        orders.add(new OrderText("F"));
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+
+        Assert.assertEquals("Screen text is incorrect", "DEF              ABC", screen.retrieveFlatScreen());
+    }
+
+    @Test
+    public void testTypeSetsModifiedForAid() throws DatastreamException, TerminalInterruptedException, Zos3270Exception {
+        Screen screen = new Screen(10, 2, null);
+
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText("ID:"));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+
+        try {
+            screen.type("XY", 0);
+            Assert.fail("Should not be able to type on a field start");
+        } catch (FieldNotFoundException e) {
+            // expected
+        }
+        Assert.assertEquals("Cursor not at end of typed text", 7, screen.type("XY", 5));
+
+        byte[] outbound = screen.aid(AttentionIdentification.ENTER);
+
+        ByteBuffer expected = ByteBuffer.allocate(8);
+        expected.put(AttentionIdentification.ENTER.getKeyValue());
+        expected.put(new BufferAddress(7).getCharRepresentation());
+        expected.put(new OrderSetBufferAddress(new BufferAddress(5)).getCharRepresentation());
+        expected.put((byte) 0xe7);
+        expected.put((byte) 0xe8);
+        Assert.assertArrayEquals("Outbound datastream incorrect", expected.array(), outbound);
+    }
+
+    @Test
+    public void testFieldIndex() throws DatastreamException, TerminalInterruptedException, Zos3270Exception {
+        Screen screen = new Screen(10, 2, null);
+
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(3)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText("ID:"));
+        orders.add(new OrderStartField(false, false, true, false, false, false));
+        orders.add(new OrderSetBufferAddress(new BufferAddress(12)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+
+        screen.processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+
+        Field[] fields = screen.calculateFields();
+        Assert.assertEquals("Wrong number of fields", 4, fields.length);
+        Assert.assertSame("Wrapped field should hold position 0", fields[0], screen.locateFieldAt(0));
+        Assert.assertSame("Wrapped field should hold position 2", fields[0], screen.locateFieldAt(2));
+        Assert.assertSame("ID field should hold position 5", fields[1], screen.locateFieldAt(5));
+        Assert.assertSame("Input field should hold position 11", fields[2], screen.locateFieldAt(11));
+        Assert.assertSame("Last field should hold position 19", fields[3], screen.locateFieldAt(19));
+        Assert.assertNull("Position is off the screen", screen.locateFieldAt(20));
+        Assert.assertSame("Field at column/row incorrect", fields[2], screen.getFieldAt(8, 0));
+
+        Assert.assertSame("Unchanged screen should share the fields", fields[1], screen.calculateFields()[1]);
+
+        screen.type("AB", 8);
+        Field[] newFields = screen.calculateFields();
+        Assert.assertNotSame("Typing should have recalculated the fields", fields[2], newFields[2]);
+        Assert.assertTrue("Typed field should be modified", newFields[2].isFieldModifed());
+        Assert.assertTrue("Typed text missing", newFields[2].containsText("AB"));
+    }
+
     @Test
     public void testProcessReadPartitionQueryListEquivalent() throws TerminalInterruptedException, NetworkException {
         Network network = mock(Network.class);
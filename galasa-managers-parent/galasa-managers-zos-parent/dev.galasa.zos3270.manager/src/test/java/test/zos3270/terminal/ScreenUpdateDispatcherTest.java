@@ -0,0 +1,152 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.IScreenUpdateListener.Direction;
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.terminal.ScreenUpdateDispatcher;
+import dev.galasa.zos3270.spi.CodePage;
+import dev.galasa.zos3270.spi.Screen;
+
+public class ScreenUpdateDispatcherTest {
+
+    @Test
+    public void testSynchronousByDefault() throws Exception {
+        Screen screen = new Screen();
+        List<Thread> threads = new ArrayList<>();
+        screen.registerScreenSnapshotListener((direction, aid, snapshot) -> threads.add(Thread.currentThread()));
+
+        write(screen, "HELLO");
+
+        Assert.assertEquals("Listener should have been called on the updating thread",
+                Collections.singletonList(Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void testSlowListenerDoesNotHoldUpKeyboard() throws Exception {
+        Screen screen = new Screen();
+        ScreenUpdateDispatcher dispatcher = new ScreenUpdateDispatcher("T1", 10);
+        screen.setScreenUpdateDispatcher(dispatcher);
+
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> screens = Collections.synchronizedList(new ArrayList<>());
+        screen.registerScreenSnapshotListener((direction, aid, snapshot) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            screens.add(direction + " " + snapshot.retrieveFlatScreen().trim());
+        });
+
+        write(screen, "FIRST");
+        write(screen, "SECOND");
+        screen.waitForKeyboard(1000);
+        Assert.assertTrue("Screen should have moved on", screen.retrieveFlatScreen().contains("SECOND"));
+        Assert.assertTrue("Listener should still be held", screens.isEmpty());
+        Assert.assertTrue("Updates should be queued", dispatcher.getQueueDepth() >= 1);
+
+        Thread.sleep(20);
+        release.countDown();
+        dispatcher.close();
+
+        Assert.assertEquals("Listener should see each update in order as it was",
+                Arrays.asList(Direction.RECEIVED + " FIRST", Direction.RECEIVED + " SECOND"), screens);
+        Assert.assertEquals("Wrong number dispatched", 2, dispatcher.getUpdatesDispatched());
+        Assert.assertTrue("Lag should have been recorded", dispatcher.getMaxLag() > 0);
+    }
+
+    @Test
+    public void testFailingListenerDoesNotStopOthers() throws Exception {
+        Screen screen = new Screen();
+        ScreenUpdateDispatcher dispatcher = new ScreenUpdateDispatcher("T2", 10);
+        screen.setScreenUpdateDispatcher(dispatcher);
+
+        List<String> screens = Collections.synchronizedList(new ArrayList<>());
+        screen.registerScreenSnapshotListener((direction, aid, snapshot) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        screen.registerScreenSnapshotListener(
+                (direction, aid, snapshot) -> screens.add(snapshot.retrieveFlatScreen().trim()));
+
+        write(screen, "ONE");
+        write(screen, "TWO");
+        dispatcher.flush();
+
+        Assert.assertEquals("Second listener should have been called", Arrays.asList("ONE", "TWO"), screens);
+        Assert.assertEquals("Failures should be counted", 2, dispatcher.getListenerFailures());
+
+        dispatcher.close();
+        write(screen, "THREE");
+        Assert.assertEquals("Update after close should be lost", 1, dispatcher.getUpdatesLost());
+    }
+
+    @Test
+    public void testFullQueueCoalescesOnSharedThreads() throws Exception {
+        Screen screen = new Screen();
+        ScreenUpdateDispatcher dispatcher = new ScreenUpdateDispatcher("T3", 1);
+        screen.setScreenUpdateDispatcher(dispatcher);
+
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> screens = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        screen.registerScreenSnapshotListener((direction, aid, snapshot) -> {
+            held.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            screens.add(snapshot.retrieveFlatScreen().trim());
+            threads.add(Thread.currentThread().getName());
+        });
+
+        write(screen, "FIRST");
+        Assert.assertTrue("Listener should have been called", held.await(5, TimeUnit.SECONDS));
+
+        // *** The queue holds one update, so THIRD replaces SECOND without waiting
+        write(screen, "SECOND");
+        write(screen, "THIRD");
+        Assert.assertEquals("An update should have been coalesced", 1, dispatcher.getUpdatesCoalesced());
+
+        release.countDown();
+        dispatcher.close();
+
+        Assert.assertEquals("Listener should see the first and latest screens", Arrays.asList("FIRST", "THIRD"),
+                screens);
+        for (String thread : threads) {
+            Assert.assertTrue("Listener should be called on a shared thread", thread.startsWith("zos3270-listeners-"));
+        }
+    }
+
+    /**
+     * Erase/Write the text at the top of the screen, restoring the keyboard
+     */
+    private void write(Screen screen, String text) throws Exception {
+        CodePage codePage = CodePage.getDefault();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(0xf5);
+        baos.write(0xc2);
+        for (char c : text.toCharArray()) {
+            baos.write(codePage.encode(c));
+        }
+        NetworkThread.process3270Data(ByteBuffer.wrap(baos.toByteArray()), screen);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.spi.NetworkException;
+import dev.galasa.zos3270.spi.TerminalConnector;
+
+public class TerminalConnectorTest {
+
+    @Test
+    public void testConnectsInParallel() throws Exception {
+        List<String> terminals = Arrays.asList("term1", "term2", "term3", "term4");
+        CountDownLatch allConnecting = new CountDownLatch(terminals.size());
+
+        Map<String, Exception> failures = TerminalConnector.connectAll(terminals, 4, terminal -> {
+            allConnecting.countDown();
+            if (!allConnecting.await(5, TimeUnit.SECONDS)) {
+                throw new NetworkException("Terminals were not connected at the same time");
+            }
+        });
+
+        Assert.assertTrue("No terminals should fail " + failures, failures.isEmpty());
+    }
+
+    @Test
+    public void testParallelismLimit() throws Exception {
+        List<String> terminals = Arrays.asList("term1", "term2", "term3", "term4", "term5", "term6");
+        AtomicInteger connecting = new AtomicInteger();
+        AtomicInteger maxConnecting = new AtomicInteger();
+
+        Map<String, Exception> failures = TerminalConnector.connectAll(terminals, 2, terminal -> {
+            maxConnecting.accumulateAndGet(connecting.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            connecting.decrementAndGet();
+        });
+
+        Assert.assertTrue("No terminals should fail", failures.isEmpty());
+        Assert.assertTrue("Too many terminals connecting at once", maxConnecting.get() <= 2);
+    }
+
+    @Test
+    public void testFailuresAreCollectedInOrder() throws Exception {
+        List<String> terminals = Arrays.asList("term1", "term2", "term3", "term4");
+
+        Map<String, Exception> failures = TerminalConnector.connectAll(terminals, 4, terminal -> {
+            if (terminal.equals("term2") || terminal.equals("term4")) {
+                throw new NetworkException("Unable to connect " + terminal);
+            }
+        });
+
+        Assert.assertEquals("Wrong terminals failed", Arrays.asList("term2", "term4"),
+                new ArrayList<>(failures.keySet()));
+        Assert.assertEquals("Wrong failure", "Unable to connect term4", failures.get("term4").getMessage());
+    }
+
+    @Test
+    public void testSerialOnCallingThread() throws Exception {
+        List<String> terminals = Arrays.asList("term1", "term2", "term3");
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        TerminalConnector.connectAll(terminals, 1, terminal -> {
+            threads.add(Thread.currentThread());
+            order.add(terminal);
+        });
+
+        Assert.assertEquals("Should connect in order", terminals, order);
+        Assert.assertEquals("Should connect on the calling thread",
+                Collections.nCopies(3, Thread.currentThread()), threads);
+    }
+
+}
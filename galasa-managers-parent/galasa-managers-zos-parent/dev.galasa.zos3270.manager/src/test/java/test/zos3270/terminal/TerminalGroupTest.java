@@ -0,0 +1,98 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.ITerminal;
+import dev.galasa.zos3270.TerminalGroup;
+import dev.galasa.zos3270.TimeoutException;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.spi.Terminal;
+
+public class TerminalGroupTest {
+
+    private static void writeScreen(Terminal terminal, String text) throws Exception {
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText(text));
+
+        terminal.getScreen().processInboundMessage(new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders));
+    }
+
+    private static Thread writeLater(Terminal terminal, String text, long delay) {
+        Thread update = new Thread(() -> {
+            try {
+                Thread.sleep(delay);
+                writeScreen(terminal, text);
+            } catch (Exception e) {
+                // *** The wait will time out
+            }
+        });
+        update.start();
+        return update;
+    }
+
+    @Test
+    public void testWaitForAny() throws Exception {
+        Terminal terminal1 = new Terminal("host1", 23);
+        Terminal terminal2 = new Terminal("host2", 23);
+        Terminal terminal3 = new Terminal("host3", 23);
+        TerminalGroup group = new TerminalGroup(terminal1, terminal2, terminal3);
+
+        Thread update = writeLater(terminal2, "READY", 50);
+        ITerminal ready = group.waitForAny(TerminalGroup.textInField("READY"), 5000);
+        update.join();
+
+        Assert.assertSame("The second terminal should be ready", terminal2, ready);
+    }
+
+    @Test
+    public void testWaitForAll() throws Exception {
+        Terminal terminal1 = new Terminal("host1", 23);
+        Terminal terminal2 = new Terminal("host2", 23);
+        TerminalGroup group = new TerminalGroup(terminal1, terminal2);
+
+        Thread update1 = writeLater(terminal1, "READY", 20);
+        Thread update2 = writeLater(terminal2, "READY", 60);
+        group.waitForAll(TerminalGroup.keyboardUnlocked(), 5000);
+        update1.join();
+        update2.join();
+
+        group.waitForAll(TerminalGroup.textInField("READY"), 10);
+    }
+
+    @Test
+    public void testWaitTimesOut() throws Exception {
+        Terminal terminal1 = new Terminal("host1", 23);
+        Terminal terminal2 = new Terminal("host2", 23);
+        TerminalGroup group = new TerminalGroup(terminal1, terminal2);
+
+        writeScreen(terminal1, "READY");
+        try {
+            group.waitForAll(TerminalGroup.textInField("READY"), 50);
+            Assert.fail("Should have timed out, only one terminal is ready");
+        } catch (TimeoutException e) {
+            Assert.assertTrue("Wrong message", e.getMessage().contains("all of the 2 terminals"));
+        }
+
+        Assert.assertSame("The first terminal is ready", terminal1,
+                group.waitForAny(TerminalGroup.textInField("READY"), 10));
+    }
+
+}
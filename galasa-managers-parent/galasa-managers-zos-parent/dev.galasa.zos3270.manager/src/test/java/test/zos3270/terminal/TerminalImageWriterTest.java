@@ -0,0 +1,317 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import dev.galasa.framework.spi.IConfidentialTextService;
+import dev.galasa.zos3270.common.screens.FieldContents;
+import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalField;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
+import dev.galasa.zos3270.common.screens.TerminalSize;
+import dev.galasa.zos3270.internal.terminal.TerminalImageWriter;
+import dev.galasa.zos3270.internal.terminal.TerminalJsonWriter;
+
+public class TerminalImageWriterTest {
+
+    private final Gson   gson = new Gson();
+
+    private Path         rasDirectory;
+
+    @Before
+    public void init() throws IOException {
+        rasDirectory = Files.createTempDirectory("zos3270ras");
+    }
+
+    @After
+    public void tidy() throws IOException {
+        FileUtils.deleteDirectory(rasDirectory.toFile());
+    }
+
+    @Test
+    public void testJsonMatchesStrippedGson() throws IOException {
+        Terminal terminal = new Terminal("term1", "run1", 3, new TerminalSize(80, 24), Terminal.VERSION_DELTA);
+        TerminalImage image = new TerminalImage(1, "term1-1", false, null, "ENTER", null, 4, 5);
+        TerminalField field = new TerminalField(0, 1, false, true, false, true, false, false, true);
+        field.getContents().add(new FieldContents(new Character[] { 'A', 'B' }));
+        field.getContents().add(new FieldContents(new Character[] { 'C', null }));
+        image.getFields().add(field);
+        image.getFields().add(field(1, 0, "X"));
+        image.getFields().add(field(1, 5, "Y"));
+        TerminalField unchanged = field(2, 0, "W");
+        image.getFields().add(unchanged);
+
+        TerminalImage next = new TerminalImage(2, "term1-2", true, null, null, null, 0, 0);
+        next.getFields().add(field);
+        next.getFields().add(field(1, 5, "Z"));
+        next.getFields().add(unchanged);
+        terminal.getImages().addAll(TerminalImageDeltas.encode(Arrays.asList(image, next), 10));
+        Assert.assertTrue("Second image should be a delta", terminal.getImages().get(1).isDelta());
+
+        JsonObject expected = (JsonObject) gson.toJsonTree(terminal);
+        stripFalseBooleans(expected);
+
+        StringWriter json = new StringWriter();
+        TerminalJsonWriter.write(terminal, json);
+
+        Assert.assertEquals("Streamed JSON is not the same as the stripped Gson JSON", gson.toJson(expected),
+                json.toString());
+    }
+
+    @Test
+    public void testBatchesBySize() throws IOException {
+        TestImageWriter writer = new TestImageWriter(null, 100, 3, 60_000, 1);
+        for (int i = 1; i <= 7; i++) {
+            writer.write(image(i, "SCREEN " + i));
+        }
+        writer.close();
+
+        Assert.assertEquals("Wrong number of files", 3, writer.getFilesWritten());
+        Assert.assertEquals("Wrong number of images written", 7, writer.getImagesWritten());
+        Assert.assertEquals("No images should be lost", 0, writer.getImagesLost());
+
+        Terminal first = read("term1-00001.gz");
+        Assert.assertEquals("First file should have 3 images", 3, first.getImages().size());
+        Assert.assertEquals("Sequence incorrect", 1, first.getSequence());
+        Terminal last = read("term1-00003.gz");
+        Assert.assertEquals("Last file should hold the remainder", 1, last.getImages().size());
+        Assert.assertEquals("Wrong image in last file", 7, last.getImages().get(0).getSequence());
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        TestImageWriter writer = new TestImageWriter(null, 100, 10, 50, 1);
+        writer.write(image(1, "SCREEN"));
+
+        for (int i = 0; i < 50 && writer.getFilesWritten() == 0; i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertEquals("Image should have been written after the interval", 1, writer.getFilesWritten());
+        writer.close();
+    }
+
+    @Test
+    public void testSharedThreads() throws Exception {
+        TestImageWriter writer1 = new TestImageWriter(null, 100, 1, 60_000, 1);
+        TestImageWriter writer2 = new TestImageWriter(null, 100, 1, 60_000, 1);
+        writer1.write(image(1, "SCREEN 1"));
+        writer2.write(image(1, "SCREEN 2"));
+
+        for (int i = 0; i < 50 && (writer1.getFilesWritten() == 0 || writer2.getFilesWritten() == 0); i++) {
+            Thread.sleep(20);
+        }
+        Assert.assertTrue("The first writer should use the shared threads",
+                writer1.writingThread.startsWith("zos3270-output-"));
+        Assert.assertTrue("The second writer should use the shared threads",
+                writer2.writingThread.startsWith("zos3270-output-"));
+        writer1.close();
+        writer2.close();
+    }
+
+    @Test
+    public void testBackpressureAndClose() throws IOException {
+        TestImageWriter writer = new TestImageWriter(null, 1, 1, 60_000, 1);
+        writer.slow = true;
+        for (int i = 1; i <= 5; i++) {
+            writer.write(image(i, "SCREEN " + i));
+        }
+        writer.close();
+
+        Assert.assertEquals("All images should be written", 5, writer.getImagesWritten());
+        Assert.assertTrue("Should have waited for the writer", writer.getQueueFullWaits() > 0);
+
+        writer.write(image(6, "LATE"));
+        Assert.assertEquals("Late image should be lost", 1, writer.getImagesLost());
+    }
+
+    @Test
+    public void testFlushSizeLargerThanQueue() throws IOException {
+        TestImageWriter writer = new TestImageWriter(null, 2, 10, 60_000, 1);
+        long start = System.currentTimeMillis();
+        for (int i = 1; i <= 5; i++) {
+            writer.write(image(i, "SCREEN " + i));
+        }
+        Assert.assertTrue("A full queue should not wait for the flush interval",
+                System.currentTimeMillis() - start < 10_000);
+        writer.close();
+
+        Assert.assertEquals("All images should be written", 5, writer.getImagesWritten());
+        Assert.assertEquals("Batches should be no larger than the queue", 2, read("term1-00001.gz").getImages().size());
+    }
+
+    @Test
+    public void testDeltaFormat() throws IOException {
+        TestImageWriter writer = new TestImageWriter(null, 100, 4, 60_000, 3);
+        ArrayList<TerminalImage> images = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            TerminalImage image = new TerminalImage(i, "term1-" + i, true, null, null, null, 0, i);
+            image.getFields().add(field(0, 0, "TITLE"));
+            image.getFields().add(field(1, 0, "LINE " + i));
+            image.getFields().add(field(2, 0, "FOOTER"));
+            images.add(image);
+            writer.write(image);
+        }
+        writer.close();
+
+        Terminal terminal = read("term1-00001.gz");
+        Assert.assertEquals("Wrong version", Terminal.VERSION_DELTA, terminal.getVersion());
+        List<TerminalImage> encoded = terminal.getImages();
+        Assert.assertFalse("First image should be a keyframe", encoded.get(0).isDelta());
+        Assert.assertTrue("Second image should be a delta", encoded.get(1).isDelta());
+        Assert.assertEquals("Delta should only hold the changed field", 1, encoded.get(1).getFields().size());
+        Assert.assertFalse("Keyframe interval should force a keyframe", encoded.get(3).isDelta());
+
+        List<TerminalImage> rebuilt = TerminalImageDeltas.rebuildAll(encoded);
+        for (int i = 0; i < images.size(); i++) {
+            Assert.assertEquals("Rebuilt image " + i + " is incorrect", text(images.get(i)), text(rebuilt.get(i)));
+            Assert.assertEquals("Cursor incorrect", i + 1, rebuilt.get(i).getCursorRow());
+        }
+    }
+
+    @Test
+    public void testConfidentialTextFiltered() throws IOException {
+        IConfidentialTextService cts = new IConfidentialTextService() {
+            @Override
+            public void registerText(String text, String comment) {
+            }
+
+            @Override
+            public String removeConfidentialText(String text) {
+                return text.replace("SECRET", "*****");
+            }
+        };
+
+        TestImageWriter writer = new TestImageWriter(cts, 10, 10, 60_000, 10);
+        writer.write(image(1, "PASSWORD SECRET"));
+        writer.flush();
+        Assert.assertEquals("Flush should have written the image", 1, writer.getFilesWritten());
+        writer.close();
+
+        Terminal terminal = read("term1-00001.gz");
+        Assert.assertEquals("Text should be filtered", "PASSWORD *****",
+                terminal.getImages().get(0).getFields().get(0).getContents().get(0).getText());
+    }
+
+    /**
+     * The JSON Gson writes for the terminal, less the false booleans the
+     * streamed JSON leaves out
+     */
+    private static void stripFalseBooleans(JsonObject json) {
+
+        ArrayList<Entry<String, JsonElement>> entries = new ArrayList<>();
+        entries.addAll(json.entrySet());
+
+        for (Entry<String, JsonElement> entry : entries) {
+            JsonElement element = entry.getValue();
+
+            if (element.isJsonPrimitive() && ((JsonPrimitive) element).isBoolean()
+                    && !((JsonPrimitive) element).getAsBoolean()) {
+                json.remove(entry.getKey());
+            } else if (element.isJsonObject()) {
+                stripFalseBooleans((JsonObject) element);
+            } else if (element.isJsonArray()) {
+                JsonArray array = (JsonArray) element;
+                for (int i = 0; i < array.size(); i++) {
+                    if (array.get(i).isJsonObject()) {
+                        stripFalseBooleans((JsonObject) array.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    private TerminalField field(int row, int column, String text) {
+        TerminalField field = new TerminalField(row, column, false, true, false, true, false, false, false);
+        field.getContents().add(new FieldContents(toChars(text)));
+        return field;
+    }
+
+    private Character[] toChars(String text) {
+        Character[] chars = new Character[text.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return chars;
+    }
+
+    private String text(TerminalImage image) {
+        StringBuilder sb = new StringBuilder();
+        for (TerminalField field : image.getFields()) {
+            sb.append(field.getRow()).append(',').append(field.getColumn()).append('=');
+            for (FieldContents contents : field.getContents()) {
+                sb.append(contents.getText());
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    private TerminalImage image(int sequence, String text) {
+        TerminalImage image = new TerminalImage(sequence, "term1-" + sequence, true, null, null, null, 0, 0);
+        image.getFields().add(field(0, 0, text));
+        return image;
+    }
+
+    private Terminal read(String name) throws IOException {
+        try (InputStream is = new GZIPInputStream(Files.newInputStream(rasDirectory.resolve(name)))) {
+            String json = IOUtils.toString(is, StandardCharsets.UTF_8);
+            Assert.assertFalse("JSON should be compact", json.contains("\n"));
+            return gson.fromJson(json, Terminal.class);
+        }
+    }
+
+    private class TestImageWriter extends TerminalImageWriter {
+
+        private volatile boolean slow;
+        private volatile String  writingThread;
+
+        public TestImageWriter(IConfidentialTextService cts, int queueSize, int flushSize, long flushInterval,
+                int keyframeInterval) {
+            super("term1", "run1", new TerminalSize(80, 24), rasDirectory, cts, queueSize, flushSize, flushInterval,
+                    keyframeInterval);
+        }
+
+        @Override
+        protected OutputStream newOutputStream(Path terminalPath) throws IOException {
+            writingThread = Thread.currentThread().getName();
+            if (slow) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Files.newOutputStream(terminalPath);
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.gson.JsonObject;
+
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.zos3270.AttentionIdentification;
+import dev.galasa.zos3270.internal.comms.NetworkThread;
+import dev.galasa.zos3270.internal.metrics.ResponseTimeCollector;
+import dev.galasa.zos3270.internal.metrics.ResponseTimeHistogram;
+import dev.galasa.zos3270.internal.metrics.TerminalMetrics;
+import dev.galasa.zos3270.spi.Screen;
+import dev.galasa.zos3270.spi.Terminal;
+import io.prometheus.client.Collector;
+import io.prometheus.client.Collector.MetricFamilySamples;
+
+public class TerminalMetricsTest {
+
+    @Test
+    public void testHistogramBuckets() {
+        ResponseTimeHistogram histogram = new ResponseTimeHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(11));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(60_000));
+
+        long[] buckets = histogram.getBuckets();
+        Assert.assertEquals("Up to 10ms", 2, buckets[0]);
+        Assert.assertEquals("Up to 25ms", 1, buckets[1]);
+        Assert.assertEquals("Over the highest bound", 1, buckets[buckets.length - 1]);
+        Assert.assertEquals("Wrong count", 4, histogram.getCount());
+        Assert.assertEquals("Wrong total", 60_026, histogram.getTotal());
+
+        JsonObject json = histogram.toJson();
+        Assert.assertEquals("Wrong max", 60_000, json.get("maxMs").getAsLong());
+        Assert.assertEquals("Empty buckets should be left out", 3, json.getAsJsonArray("buckets").size());
+    }
+
+    @Test
+    public void testResponseTimeFromAidToKeyboardRestore() throws Exception {
+        Screen screen = new Screen();
+        TerminalMetrics metrics = screen.getMetrics();
+
+        // *** Write without keyboard restore, then with
+        NetworkThread.process3270Data(ByteBuffer.wrap(new byte[] { (byte) 0xf5, (byte) 0xc0, (byte) 0xc1 }), screen);
+        NetworkThread.process3270Data(ByteBuffer.wrap(new byte[] { (byte) 0xf1, (byte) 0xc2 }), screen);
+        Assert.assertNull("No AID sent yet", metrics.getResponseTimes(AttentionIdentification.ENTER));
+
+        screen.aid(AttentionIdentification.ENTER);
+        Thread.sleep(20);
+        NetworkThread.process3270Data(ByteBuffer.wrap(new byte[] { (byte) 0xf1, (byte) 0xc0 }), screen);
+        Assert.assertEquals("Response not complete until the keyboard is restored", 0,
+                metrics.getResponseTimes().getCount());
+        NetworkThread.process3270Data(ByteBuffer.wrap(new byte[] { (byte) 0xf1, (byte) 0xc2 }), screen);
+
+        ResponseTimeHistogram enter = metrics.getResponseTimes(AttentionIdentification.ENTER);
+        Assert.assertEquals("Wrong ENTER count", 1, enter.getCount());
+        Assert.assertTrue("Response time too short", enter.getTotal() >= 20);
+        Assert.assertEquals("Wrong overall count", 1, metrics.getResponseTimes().getCount());
+
+        Assert.assertEquals("Wrong inbound records", 4, metrics.getInboundRecords());
+        Assert.assertEquals("Wrong inbound bytes", 9, metrics.getInboundBytes());
+        Assert.assertEquals("Wrong screen updates", 4, metrics.getScreenUpdates());
+        Assert.assertEquals("Wrong AIDs sent", 1, metrics.getAidsSent());
+    }
+
+    @Test
+    public void testAddToDss() throws Exception {
+        HashMap<String, String> store = new HashMap<>();
+        IDynamicStatusStoreService dss = Mockito.mock(IDynamicStatusStoreService.class);
+        Mockito.when(dss.getPrefix(Mockito.anyString())).thenAnswer(invocation -> new HashMap<>(store));
+        Mockito.when(dss.putSwap(Mockito.anyString(), Mockito.any(), Mockito.anyString(), Mockito.anyMap())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            if (!Objects.equals(store.get(key), invocation.getArgument(1))) {
+                return false;
+            }
+            store.put(key, invocation.getArgument(2));
+            store.putAll(invocation.getArgument(3));
+            return true;
+        });
+
+        TerminalMetrics metrics = new TerminalMetrics();
+        metrics.inbound(100);
+        metrics.aidSent(AttentionIdentification.PF3);
+        metrics.keyboardRestored();
+
+        HashMap<String, Long> totals = new HashMap<>();
+        metrics.addTo(totals);
+        metrics.addTo(totals);
+        TerminalMetrics.addTo(dss, totals);
+        TerminalMetrics.addTo(dss, totals);
+
+        Mockito.verify(dss, Mockito.times(2)).putSwap(Mockito.anyString(), Mockito.any(), Mockito.anyString(), Mockito.anyMap());
+        Mockito.verify(dss, Mockito.never()).putSwap(Mockito.anyString(), Mockito.any(), Mockito.anyString());
+        Assert.assertEquals("Each update should change the version", "2", store.get(TerminalMetrics.DSS_VERSION));
+
+        Assert.assertEquals("Bytes should be totalled", "400", store.get(TerminalMetrics.DSS_INBOUND_BYTES));
+        Assert.assertEquals("Records should be totalled", "4", store.get(TerminalMetrics.DSS_INBOUND_RECORDS));
+        Assert.assertEquals("PF3 count should be totalled", "4", store.get(TerminalMetrics.DSS_RESPONSE + "PF3.count"));
+        Assert.assertEquals("PF3 should be in the first bucket", "4",
+                store.get(TerminalMetrics.DSS_RESPONSE + "PF3.bucket.10"));
+        Assert.assertNull("Screen updates are zero", store.get(TerminalMetrics.DSS_SCREEN_UPDATES));
+    }
+
+    @Test
+    public void testResponseTimeCollector() throws Exception {
+        HashMap<String, String> store = new HashMap<>();
+        store.put(TerminalMetrics.DSS_RESPONSE + "PF3.count", "3");
+        store.put(TerminalMetrics.DSS_RESPONSE + "PF3.sum", "1500");
+        store.put(TerminalMetrics.DSS_RESPONSE + "PF3.bucket." + TerminalMetrics.bucketName(0), "2");
+        store.put(TerminalMetrics.DSS_RESPONSE + "PF3.bucket." + TerminalMetrics.bucketName(ResponseTimeHistogram.BOUNDS.length), "1");
+
+        ResponseTimeCollector collector = new ResponseTimeCollector();
+        collector.update(store);
+
+        List<MetricFamilySamples> families = collector.collect();
+        Assert.assertEquals("There should be one family", 1, families.size());
+        MetricFamilySamples family = families.get(0);
+        Assert.assertEquals("The family should be a histogram", Collector.Type.HISTOGRAM, family.type);
+        Assert.assertEquals("galasa_zos3270_response_seconds", family.name);
+
+        HashMap<String, Double> samples = new HashMap<>();
+        for (MetricFamilySamples.Sample sample : family.samples) {
+            samples.put(sample.name + sample.labelValues, sample.value);
+        }
+        Assert.assertEquals(3.0, samples.get("galasa_zos3270_response_seconds_count[PF3]"), 0.0);
+        Assert.assertEquals(1.5, samples.get("galasa_zos3270_response_seconds_sum[PF3]"), 0.0);
+        Assert.assertEquals("Buckets should be cumulative", 2.0, samples.get("galasa_zos3270_response_seconds_bucket[PF3, 0.01]"), 0.0);
+        Assert.assertEquals("Buckets should be cumulative", 3.0, samples.get("galasa_zos3270_response_seconds_bucket[PF3, +Inf]"), 0.0);
+    }
+
+    @Test
+    public void testTakeOverStartsAfresh() throws Exception {
+        Terminal first = new Terminal("host", 23);
+        TerminalMetrics firstMetrics = first.getScreen().getMetrics();
+        firstMetrics.inbound(100);
+        first.getScreen().getScreenSignatures().register("LOGON", first.getScreen().getFingerprint());
+
+        Terminal second = new Terminal(first) {
+        };
+        Assert.assertSame("The screen should be taken over", first.getScreen(), second.getScreen());
+
+        TerminalMetrics secondMetrics = second.getScreen().getMetrics();
+        Assert.assertNotSame("The metrics should not be shared", firstMetrics, secondMetrics);
+        Assert.assertEquals("The metrics should start afresh", 0, secondMetrics.getInboundBytes());
+        Assert.assertSame("The network should count into the new metrics", secondMetrics,
+                second.getNetwork().getMetrics());
+        Assert.assertFalse("The signatures should start afresh",
+                second.getScreen().getScreenSignatures().contains("LOGON"));
+    }
+
+}
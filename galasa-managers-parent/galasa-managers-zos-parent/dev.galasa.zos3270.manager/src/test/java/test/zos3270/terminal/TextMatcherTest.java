@@ -0,0 +1,151 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package test.zos3270.terminal;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zos3270.TerminalInterruptedException;
+import dev.galasa.zos3270.TextNotFoundException;
+import dev.galasa.zos3270.TimeoutException;
+import dev.galasa.zos3270.Zos3270Exception;
+import dev.galasa.zos3270.internal.comms.Inbound3270Message;
+import dev.galasa.zos3270.internal.datastream.AbstractOrder;
+import dev.galasa.zos3270.internal.datastream.BufferAddress;
+import dev.galasa.zos3270.internal.datastream.CommandEraseWrite;
+import dev.galasa.zos3270.internal.datastream.OrderSetBufferAddress;
+import dev.galasa.zos3270.internal.datastream.OrderStartField;
+import dev.galasa.zos3270.internal.datastream.OrderText;
+import dev.galasa.zos3270.internal.datastream.WriteControlCharacter;
+import dev.galasa.zos3270.internal.terminal.TextMatcher;
+import dev.galasa.zos3270.spi.DatastreamException;
+import dev.galasa.zos3270.spi.Screen;
+
+public class TextMatcherTest {
+
+    @Test
+    public void testMatchesEarliestText() {
+        TextMatcher matcher = new TextMatcher("ABEND", "NOT AUTHORIZED", "DFHAC2001");
+
+        Assert.assertEquals("Should find the abend", 0, match(matcher, "TRANSACTION ABEND ASRA"));
+        Assert.assertEquals("Should find the earliest text", 2, match(matcher, "DFHAC2001 ... NOT AUTHORIZED"));
+        Assert.assertEquals("Should find nothing", -1, match(matcher, "ABEN NOT AUTHORISED DFHAC200"));
+    }
+
+    @Test
+    public void testOverlappingTexts() {
+        TextMatcher matcher = new TextMatcher("HERS", "SHE", "HE");
+
+        // *** SHE and HE both end at the same position, the longest wins
+        Assert.assertEquals("Should find SHE", 1, match(matcher, "USHERS"));
+        Assert.assertEquals("Should find HE via the failure link", 2, match(matcher, "XHEX"));
+        Assert.assertEquals("HE ends before HERS", 2, match(matcher, "SHHERS"));
+        Assert.assertEquals("Should find HERS after a failed SHE", 0, match(new TextMatcher("HERS", "SHE"), "SHHERS"));
+    }
+
+    @Test
+    public void testRangeAndEmptyText() {
+        TextMatcher matcher = new TextMatcher("CD");
+        char[] text = "ABCDEF".toCharArray();
+        Assert.assertEquals("Should find within range", 0, matcher.match(text, 1, 4));
+        Assert.assertEquals("Should not find outside the range", -1, matcher.match(text, 3, 6));
+
+        Assert.assertEquals("Empty text is always found", 1, new TextMatcher("XYZ", "").match(text, 0, 0));
+    }
+
+    @Test
+    public void testScreenFieldsAreSearchedSeparately() throws DatastreamException, TerminalInterruptedException {
+        Screen screen = screenWithFields("LOGON", "APPLID");
+
+        Assert.assertEquals("Should find APPLID", 1, screen.searchFieldsContaining(new TextMatcher("XXX", "APPLID")));
+        Assert.assertEquals("Should not match across fields", -1,
+                screen.searchFieldsContaining(new TextMatcher("LOGONAPPLID", "ONAP")));
+    }
+
+    @Test
+    public void testWaitForAnyText() throws Exception {
+        Screen screen = screenWithFields("PLEASE WAIT", "");
+
+        Thread updater = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                screen.processInboundMessage(message(fields("PLEASE WAIT", "NOT AUTHORIZED")));
+            } catch (InterruptedException | DatastreamException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        updater.start();
+
+        String found = screen.waitForAnyText(new String[] { "SIGNON COMPLETE", "NOT AUTHORIZED" }, 5000);
+        updater.join();
+        Assert.assertEquals("Wrong text found", "NOT AUTHORIZED", found);
+    }
+
+    @Test
+    public void testWaitForAnyTextTimesOut() throws Exception {
+        Screen screen = screenWithFields("PLEASE WAIT", "");
+
+        try {
+            screen.waitForAnyText(new String[] { "A1", "B2" }, 50);
+            Assert.fail("Should have timed out");
+        } catch (TextNotFoundException e) {
+            Assert.assertEquals("Error message incorrect", "Unable to find a field containing any of [A1, B2]",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void testWaitForScreen() throws Exception {
+        Screen screen = screenWithFields("PLEASE WAIT", "");
+
+        screen.waitForScreen(s -> s.isTextInField("WAIT"), 50);
+
+        try {
+            screen.waitForScreen(s -> s.isTextInField("READY"), 50);
+            Assert.fail("Should have timed out");
+        } catch (TimeoutException e) {
+            // expected
+        }
+
+        try {
+            screen.waitForScreen(s -> {
+                throw new IllegalStateException("broken");
+            }, 50);
+            Assert.fail("Should have failed");
+        } catch (Zos3270Exception e) {
+            Assert.assertEquals("Cause incorrect", "broken", e.getCause().getMessage());
+        }
+    }
+
+    private int match(TextMatcher matcher, String text) {
+        return matcher.match(text.toCharArray(), 0, text.length());
+    }
+
+    private Screen screenWithFields(String first, String second) throws DatastreamException, TerminalInterruptedException {
+        Screen screen = new Screen(20, 2, null);
+        screen.processInboundMessage(message(fields(first, second)));
+        return screen;
+    }
+
+    private ArrayList<AbstractOrder> fields(String first, String second) {
+        ArrayList<AbstractOrder> orders = new ArrayList<>();
+        orders.add(new OrderSetBufferAddress(new BufferAddress(0)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText(first));
+        orders.add(new OrderSetBufferAddress(new BufferAddress(20)));
+        orders.add(new OrderStartField(true, false, true, false, false, false));
+        orders.add(new OrderText(second));
+        return orders;
+    }
+
+    private Inbound3270Message message(ArrayList<AbstractOrder> orders) {
+        return new Inbound3270Message(new CommandEraseWrite(),
+                new WriteControlCharacter(false, false, false, false, false, false, true, true), orders);
+    }
+
+}
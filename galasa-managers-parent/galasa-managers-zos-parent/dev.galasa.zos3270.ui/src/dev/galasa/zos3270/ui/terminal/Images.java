@@ -10,12 +10,14 @@ import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.GZIPInputStream;
 
 import com.google.gson.Gson;
 
 import dev.galasa.zos3270.common.screens.Terminal;
 import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
 import dev.galasa.zos3270.common.screens.TerminalSize;
 import dev.galasa.zos3270.ui.Zos3270Activator;
 
@@ -26,7 +28,7 @@ public class Images {
 
     private final Gson         gson = new Gson();
 
-    private Terminal terminal;
+    private List<TerminalImage> terminalImages;
     
     private final TerminalSize size;
 
@@ -53,13 +55,15 @@ public class Images {
     public boolean cacheImages(int currentImageSequence) {
         boolean updatedCurrentSequence = false; 
         try {
-            if (this.terminal == null) {
+            if (this.terminalImages == null) {
                 try (Reader reader = new InputStreamReader(new GZIPInputStream(Files.newInputStream(imagesFile)))) {
-                    this.terminal = gson.fromJson(reader, Terminal.class);
+                    Terminal terminal = gson.fromJson(reader, Terminal.class);
+                    //*** Each file starts with a keyframe, so the deltas can be applied in one pass
+                    this.terminalImages = TerminalImageDeltas.rebuildAll(terminal.getImages());
                 }
             }
 
-            for(TerminalImage ti : this.terminal.getImages()) {
+            for(TerminalImage ti : this.terminalImages) {
                 int seq = (int)ti.getSequence() - 1;
                 for(Image image : images) {
                     if (image.getSequence() == seq) {
@@ -81,7 +85,7 @@ public class Images {
     }
 
     public void clearCache() {
-        this.terminal = null;
+        this.terminalImages = null;
         for(Image image : images) {
             image.clearCache();
         }
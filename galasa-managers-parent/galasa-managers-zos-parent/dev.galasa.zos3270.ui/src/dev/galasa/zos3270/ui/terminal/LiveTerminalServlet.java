@@ -7,6 +7,7 @@ package dev.galasa.zos3270.ui.terminal;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
@@ -14,20 +15,32 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import dev.galasa.zos3270.common.screens.Terminal;
+import dev.galasa.zos3270.common.screens.TerminalImage;
+import dev.galasa.zos3270.common.screens.TerminalImageDeltas;
 import dev.galasa.zos3270.ui.Zos3270Activator;
 
 public class LiveTerminalServlet extends HttpServlet {
     
-    private TerminalView terminalView;
+    private volatile TerminalView terminalView;
 
     private Gson gson = new Gson();
 
+    private int  frameSequence;
+
     public void register(TerminalView terminalView) {
         this.terminalView = terminalView;
     }
     
+    /**
+     * Receives either a single terminal, or a stream of terminals from a
+     * long-lived chunked request, one per screen update. Streamed terminals may
+     * contain deltas of the previous frame, which are rebuilt here so the view
+     * only sees full images
+     */
     @Override
     protected void doPut(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         if (terminalView == null) {
@@ -36,9 +49,32 @@ public class LiveTerminalServlet extends HttpServlet {
         }
         
         try {
-            Terminal terminal = gson.fromJson(new InputStreamReader(req.getInputStream()), Terminal.class);
-            
-            this.terminalView.addLiveTerminal(terminal);
+            JsonReader reader = new JsonReader(new InputStreamReader(req.getInputStream(), StandardCharsets.UTF_8));
+            reader.setLenient(true);
+
+            TerminalImage previous = null;
+            while (reader.peek() != JsonToken.END_DOCUMENT) {
+                Terminal terminal = gson.fromJson(reader, Terminal.class);
+
+                TerminalView view = this.terminalView;
+                if (view == null) {
+                    resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Terminal view closed");
+                    return;
+                }
+
+                if (terminal.getVersion() >= Terminal.VERSION_DELTA) {
+                    //*** Rebuild the frames and number them contiguously, as the sender skips updates when behind
+                    Terminal fullTerminal = new Terminal(terminal.getId(), terminal.getRunId(), terminal.getSequence(),
+                            terminal.getDefaultSize());
+                    for (TerminalImage image : terminal.getImages()) {
+                        previous = TerminalImageDeltas.apply(previous, image);
+                        fullTerminal.addImage(renumber(previous, ++frameSequence));
+                    }
+                    terminal = fullTerminal;
+                }
+
+                view.addLiveTerminal(terminal);
+            }
             
             resp.setStatus(HttpServletResponse.SC_OK);
         } catch(Exception e) {
@@ -47,6 +83,13 @@ public class LiveTerminalServlet extends HttpServlet {
         }
         
     }
+
+    private TerminalImage renumber(TerminalImage image, int sequence) {
+        TerminalImage renumbered = new TerminalImage(sequence, image.getId(), image.isInbound(), image.getType(),
+                image.getAid(), image.getImageSize(), image.getCursorColumn(), image.getCursorRow());
+        renumbered.getFields().addAll(image.getFields());
+        return renumbered;
+    }
     
     public void dispose() {
         this.terminalView = null;
@@ -6,6 +6,7 @@
 package dev.galasa.zosbatch.zosmf.manager.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
@@ -93,6 +94,7 @@ public class ZosBatchJobImpl implements IZosBatchJob {
     private static final String PROP_TYPE = "type";
     private static final String PROP_RETCODE = "retcode";
     private static final String PROP_ID = "id";
+    private static final String PROP_DDNAME = "ddname";
     private static final String PROP_MESSAGE = "message";
     private static final String PROP_DETAILS = "details";
     private static final String PROP_STACK = "stack";
@@ -102,6 +104,7 @@ public class ZosBatchJobImpl implements IZosBatchJob {
     public static final String RESTJOBS_PATH = SLASH + "zosmf" + SLASH + "restjobs" + SLASH + "jobs";
     
     private static final String LOG_JOB_NOT_SUBMITTED = "Job has not been submitted by manager";
+    private static final String JESJCLIN = "JESJCLIN";
     
     private static final Log logger = LogFactory.getLog(ZosBatchJobImpl.class);
 
@@ -265,6 +268,51 @@ public class ZosBatchJobImpl implements IZosBatchJob {
         return ((ZosBatchJobOutputImpl) retrieveOutput()).getSpoolFile(ddname);
     }
 
+    @Override
+    public InputStream retrieveSpoolFileAsStream(@NotNull String ddname) throws ZosBatchException {
+        if (!submitted()) {
+            throw new ZosBatchException(LOG_JOB_NOT_SUBMITTED);
+        }
+        String filesPath = RESTJOBS_PATH + SLASH + this.jobname.getName() + SLASH + this.jobid + "/files";
+        String path;
+        if (JESJCLIN.equals(ddname)) {
+            path = filesPath + "/JCL/records";
+        } else {
+            path = filesPath + "/" + spoolFileId(filesPath, ddname) + "/records";
+        }
+        
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_CSRF_ZOSMF_HEADER.toString(), "");
+        IZosmfResponse response;
+        try {
+            response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, path, headers, null, new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), false);
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+        
+        if (response.getStatusCode() == HttpStatus.SC_OK) {
+            try {
+                return response.getStreamContent();
+            } catch (ZosmfException e) {
+                closeResponse(response);
+                throw new ZosBatchException(e);
+            }
+        }
+        
+        // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
+        JsonObject errorResponseBody;
+        try {
+            errorResponseBody = response.getJsonContent();
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        } finally {
+            closeResponse(response);
+        }
+        String displayMessage = buildErrorString("Retrieve job output", errorResponseBody);
+        logger.error(displayMessage);
+        throw new ZosBatchException(displayMessage);
+    }
+
     @Override
     public void saveOutputToTestResultsArchive() throws ZosBatchException {
         if (jobOutput() == null) {
@@ -356,6 +404,51 @@ public class ZosBatchJobImpl implements IZosBatchJob {
         }
     }
 
+    protected String spoolFileId(String filesPath, String ddname) throws ZosBatchException {
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_CSRF_ZOSMF_HEADER.toString(), "");
+        IZosmfResponse response;
+        try {
+            response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, filesPath, headers, null, new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), true);
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+        
+        if (response.getStatusCode() != HttpStatus.SC_OK) {
+            // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
+            String displayMessage;
+            try {
+                displayMessage = buildErrorString("Retrieve job output", response.getJsonContent());
+            } catch (ZosmfException e) {
+                throw new ZosBatchException(e);
+            }
+            logger.error(displayMessage);
+            throw new ZosBatchException(displayMessage);
+        }
+        
+        JsonArray jsonArray;
+        try {
+            jsonArray = response.getJsonArrayContent();
+        } catch (ZosmfException e) {
+            throw new ZosBatchException(e);
+        }
+        for (JsonElement jsonElement : jsonArray) {
+            JsonObject responseBody = jsonElement.getAsJsonObject();
+            if (ddname.equals(jsonNull(responseBody, PROP_DDNAME))) {
+                return jsonNull(responseBody, PROP_ID);
+            }
+        }
+        throw new ZosBatchException("Spool file " + ddname + " not found for job " + this.jobname.getName() + "(" + this.jobid + ")");
+    }
+    
+    private void closeResponse(IZosmfResponse response) {
+        try {
+            response.close();
+        } catch (ZosmfException e) {
+            logger.warn("Unable to close zOSMF response", e);
+        }
+    }
+
     protected void setJobid(String jobid) {
         this.jobid = jobid;
     }
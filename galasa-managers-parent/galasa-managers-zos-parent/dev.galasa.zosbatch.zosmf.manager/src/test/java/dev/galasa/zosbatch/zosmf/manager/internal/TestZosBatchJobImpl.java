@@ -5,7 +5,9 @@
  */
 package dev.galasa.zosbatch.zosmf.manager.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileSystem;
@@ -524,6 +526,65 @@ public class TestZosBatchJobImpl {
         Assert.assertEquals("getSpoolFile() should return the the mocked IZosBatchJobOutputSpoolFile", zosBatchJobOutputSpoolFileMock, zosBatchJobSpy.getSpoolFile("DDNAME"));
     }
 
+    @Test
+    public void testRetrieveSpoolFileAsStream() throws ZosBatchException, ZosmfException {
+        Mockito.doReturn(true).when(zosBatchJobSpy).submitted();
+        Whitebox.setInternalState(zosBatchJobSpy, "jobid", FIXED_JOBID);
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(true))).thenReturn(zosmfResponseMockStatus);
+        Mockito.when(zosmfResponseMockStatus.getJsonArrayContent()).thenReturn(getJsonArray());
+        Mockito.when(zosmfResponseMockStatus.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false))).thenReturn(zosmfResponseMockSubmit);
+        Mockito.when(zosmfResponseMockSubmit.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        InputStream stream = new ByteArrayInputStream("records".getBytes());
+        Mockito.when(zosmfResponseMockSubmit.getStreamContent()).thenReturn(stream);
+        
+        Assert.assertSame("retrieveSpoolFileAsStream() should return the response stream", stream, zosBatchJobSpy.retrieveSpoolFileAsStream("ddname"));
+        String filesPath = ZosBatchJobImpl.RESTJOBS_PATH + "/" + FIXED_JOBNAME + "/" + FIXED_JOBID + "/files";
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.eq(filesPath + "/1/records"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false));
+        Mockito.verify(zosmfResponseMockSubmit, Mockito.never()).close();
+        
+        Assert.assertSame("retrieveSpoolFileAsStream() should return the response stream", stream, zosBatchJobSpy.retrieveSpoolFileAsStream("JESJCLIN"));
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.eq(filesPath + "/JCL/records"), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false));
+    }
+    
+    @Test
+    public void testRetrieveSpoolFileAsStreamNotSubmittedException() throws ZosBatchException {
+        exceptionRule.expect(ZosBatchException.class);
+        exceptionRule.expectMessage("Job has not been submitted by manager");
+        
+        zosBatchJobSpy.retrieveSpoolFileAsStream("ddname");
+    }
+    
+    @Test
+    public void testRetrieveSpoolFileAsStreamNotFoundException() throws ZosBatchException, ZosmfException {
+        Mockito.doReturn(true).when(zosBatchJobSpy).submitted();
+        Whitebox.setInternalState(zosBatchJobSpy, "jobid", FIXED_JOBID);
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMockStatus);
+        Mockito.when(zosmfResponseMockStatus.getJsonArrayContent()).thenReturn(getJsonArray());
+        Mockito.when(zosmfResponseMockStatus.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        exceptionRule.expect(ZosBatchException.class);
+        exceptionRule.expectMessage("Spool file SYSOUT not found for job " + FIXED_JOBNAME + "(" + FIXED_JOBID + ")");
+        
+        zosBatchJobSpy.retrieveSpoolFileAsStream("SYSOUT");
+    }
+    
+    @Test
+    public void testRetrieveSpoolFileAsStreamBadHttpResponseException() throws ZosBatchException, ZosmfException {
+        Mockito.doReturn(true).when(zosBatchJobSpy).submitted();
+        Whitebox.setInternalState(zosBatchJobSpy, "jobid", FIXED_JOBID);
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMockStatus);
+        Mockito.when(zosmfResponseMockStatus.getJsonContent()).thenReturn(getJsonObject());
+        Mockito.when(zosmfResponseMockStatus.getStatusCode()).thenReturn(HttpStatus.SC_NOT_FOUND);
+        
+        try {
+            zosBatchJobSpy.retrieveSpoolFileAsStream("JESJCLIN");
+            Assert.fail("retrieveSpoolFileAsStream() should throw an exception");
+        } catch (ZosBatchException e) {
+            Assert.assertThat("exception should contain expected message", e.getMessage(), StringStartsWith.startsWith("Error Retrieve job output"));
+        }
+        Mockito.verify(zosmfResponseMockStatus).close();
+    }
+    
     @Test
     public void testUpdateJobStatus() throws ZosBatchException, ZosmfException  {
         Whitebox.setInternalState(zosBatchJobSpy, "status", (String) null);
@@ -324,6 +324,14 @@ public class ZosDatasetImpl implements IZosDataset {
         }
         return inputStreamToByteArray((InputStream) retrieve(null));
     }
+
+    @Override
+    public InputStream retrieveAsStream() throws ZosDatasetException {
+        if (isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + " is a partitioned data data set. Use memberRetrieveAsStream(String memberName) method instead");
+        }
+        return retrieveStream(null);
+    }
     
     @Override
     public void saveToResultsArchive() throws ZosDatasetException {
@@ -427,6 +435,8 @@ public class ZosDatasetImpl implements IZosDataset {
             responseBody = response.getJsonContent();
         } catch (ZosmfException e) {
             throw new ZosDatasetException("Unable to list members of data set " + quoted(this.dsname) + logOnImage(), e);
+        } finally {
+            closeResponse(response);
         }
         
         logger.trace(responseBody);
@@ -484,6 +494,14 @@ public class ZosDatasetImpl implements IZosDataset {
         return inputStreamToByteArray((InputStream) retrieve(memberName));
     }
 
+    @Override
+    public InputStream memberRetrieveAsStream(String memberName) throws ZosDatasetException {
+        if (!isPDS()) {
+            throw new ZosDatasetException(LOG_DATA_SET + quoted(this.dsname) + LOG_NOT_PDS);
+        }
+        return retrieveStream(memberName);
+    }
+
     @Override
     public Collection<String> memberList() throws ZosDatasetException {
         if (!isPDS()) {
@@ -508,6 +526,8 @@ public class ZosDatasetImpl implements IZosDataset {
                 responseBody = response.getJsonContent();
             } catch (ZosmfException e) {
                 throw new ZosDatasetException("Unable to retrieve member list of data set " + quoted(this.dsname) + logOnImage(), e);
+            } finally {
+                closeResponse(response);
             }
             
             logger.trace(responseBody);
@@ -802,53 +822,84 @@ public class ZosDatasetImpl implements IZosDataset {
     }
     
     protected Object retrieve(String memberName) throws ZosDatasetException {
-      Map<String, String> headers = new HashMap<>();
-      String dType = this.dataType.toString();
-      headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), dType);
-      String urlPath = RESTFILES_DATASET_PATH + SLASH + joinDSN(memberName);
-      IZosmfResponse response;
-      if ("binary".equals(dType)) {
+        if ("binary".equals(this.dataType.toString())) {
             this.convert = false;
         }
+        IZosmfResponse response = retrieveResponse(memberName, this.convert);
+  
+        Object content;
+        try {
+            content = response.getContent();
+        } catch (ZosmfException e) {
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+        }
+    
+        logger.trace("Content of data set " + quoted(joinDSN(memberName)) + " retrieved from  image " + this.image.getImageID());
+        return content;
+    }
+    
+    protected InputStream retrieveStream(String memberName) throws ZosDatasetException {
+        IZosmfResponse response = retrieveResponse(memberName, false);
+        
+        InputStream content;
+        try {
+            content = response.getStreamContent();
+        } catch (ZosmfException e) {
+            closeResponse(response);
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+        }
+        
+        logger.trace("Content of data set " + quoted(joinDSN(memberName)) + " streaming from image " + this.image.getImageID());
+        return content;
+    }
+    
+    protected IZosmfResponse retrieveResponse(String memberName, boolean convert) throws ZosDatasetException {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), this.dataType.toString());
+        String urlPath = RESTFILES_DATASET_PATH + SLASH + joinDSN(memberName);
+        IZosmfResponse response;
         try {
             response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, urlPath, headers, null,
-                    new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_NOT_FOUND, HttpStatus.SC_INTERNAL_SERVER_ERROR)), this.convert);
+                    new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_NOT_FOUND, HttpStatus.SC_INTERNAL_SERVER_ERROR)), convert);
         } catch (ZosmfException e) {
             throw new ZosDatasetException(e);
         }
   
-        Object content;
         if (response.getStatusCode() == HttpStatus.SC_OK) {
-            try {
-                content = response.getContent();
-            } catch (ZosmfException e) {
-                throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
-            }
-        } else {            
-            JsonObject responseBody;
-            try {
-                responseBody = response.getJsonContent();
-            } catch (ZosmfException e) {
-                throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
-            }
-            logger.trace(responseBody);    
-            // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
-            String displayMessage = buildErrorString(LOG_READING_FROM, responseBody); 
-            logger.error(displayMessage);
-            throw new ZosDatasetException(displayMessage);
+            return response;
+        }
+        
+        JsonObject responseBody;
+        try {
+            responseBody = response.getJsonContent();
+        } catch (ZosmfException e) {
+            throw new ZosDatasetException("Unable to retrieve content of data set " + quoted(joinDSN(memberName)) + logOnImage(), e);
+        } finally {
+            closeResponse(response);
         }
+        logger.trace(responseBody);    
+        // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
+        String displayMessage = buildErrorString(LOG_READING_FROM, responseBody); 
+        logger.error(displayMessage);
+        throw new ZosDatasetException(displayMessage);
+    }
     
-        logger.trace("Content of data set " + quoted(joinDSN(memberName)) + " retrieved from  image " + this.image.getImageID());
-        return content;
+    private void closeResponse(IZosmfResponse response) {
+        try {
+            response.close();
+        } catch (ZosmfException e) {
+            logger.warn("Unable to close zOSMF response", e);
+        }
     }
 
     protected byte[] inputStreamToByteArray(InputStream in) throws ZosDatasetException {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        byte[] buffer = new byte[2048];
+        byte[] buffer = new byte[8192];
         int count;
 
-        try {
-            while ((count = in.read(buffer)) != -1) {
+        // *** Closing the stream releases the connection to zOSMF
+        try (InputStream content = in) {
+            while ((count = content.read(buffer)) != -1) {
                 out.write(buffer, 0, count);
             }
         } catch(IOException e){
@@ -6,6 +6,7 @@
 package dev.galasa.zosfile.zosmf.manager.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
@@ -234,6 +235,17 @@ public class ZosUNIXFileImpl implements IZosUNIXFile {
         return retrieve(this.unixPath);
     }
 
+    @Override
+    public InputStream retrieveAsStream() throws ZosUNIXFileException {
+        if (!exists()) {
+            throw new ZosUNIXFileException(LOG_UNIX_PATH + quoted(this.unixPath) + LOG_DOES_NOT_EXIST + logOnImage());
+        }
+        if (isDirectory()) {
+            throw new ZosUNIXFileException(LOG_INVALID_REQUETS + quoted(this.unixPath) + " is a directory");
+        }
+        return retrieveStream(this.unixPath);
+    }
+
     @Override
     public void saveToResultsArchive() throws ZosUNIXFileException {
         saveToResultsArchive(this.unixPath);
@@ -502,41 +514,71 @@ public class ZosUNIXFileImpl implements IZosUNIXFile {
 
 
     protected String retrieve(String path) throws ZosUNIXFileException {
+        IZosmfResponse response = retrieveResponse(path, true);
+    
+        String content;
+        try {
+            content = response.getTextContent();
+        } catch (ZosmfException e) {
+            throw new ZosUNIXFileException("Unable to retrieve content of " + quoted(path) + logOnImage(), e);
+        }
+    
+        logger.trace("Content of " + LOG_UNIX_PATH + quoted(path) + " retrieved from  image " + this.image.getImageID());
+        return content;
+    }
+    
+    protected InputStream retrieveStream(String path) throws ZosUNIXFileException {
+        IZosmfResponse response = retrieveResponse(path, false);
+        
+        InputStream content;
+        try {
+            content = response.getStreamContent();
+        } catch (ZosmfException e) {
+            closeResponse(response);
+            throw new ZosUNIXFileException("Unable to retrieve content of " + quoted(path) + logOnImage(), e);
+        }
+        
+        logger.trace("Content of " + LOG_UNIX_PATH + quoted(path) + " streaming from image " + this.image.getImageID());
+        return content;
+    }
+    
+    protected IZosmfResponse retrieveResponse(String path, boolean convert) throws ZosUNIXFileException {
         Map<String, String> headers = new HashMap<>();
         headers.put(ZosmfCustomHeaders.X_IBM_DATA_TYPE.toString(), getDataType().toString());
         String urlPath = RESTFILES_FILE_SYSTEM_PATH + path;
         IZosmfResponse response;
         try {
             response = this.zosmfApiProcessor.sendRequest(ZosmfRequestType.GET, urlPath, headers, null,
-                    new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), true);
+                    new ArrayList<>(Arrays.asList(HttpStatus.SC_OK, HttpStatus.SC_BAD_REQUEST, HttpStatus.SC_INTERNAL_SERVER_ERROR)), convert);
         } catch (ZosmfException e) {
             throw new ZosUNIXFileException(e);
         }        
     
-        String content;
         if (response.getStatusCode() == HttpStatus.SC_OK) {
-            try {
-                content = response.getTextContent();
-            } catch (ZosmfException e) {
-                throw new ZosUNIXFileException("Unable to retrieve content of " + quoted(path) + logOnImage(), e);
-            }
-        } else {
-            
-            JsonObject responseBody;
-            try {
-                responseBody = response.getJsonContent();
-            } catch (ZosmfException e) {
-                throw new ZosUNIXFileException("Unable to retrieve content of " + quoted(path) + logOnImage(), e);
-            }
-            logger.trace(responseBody);    
-            // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
-            String displayMessage = buildErrorString(LOG_READING_FROM, responseBody, path); 
-            logger.error(displayMessage);
-            throw new ZosUNIXFileException(displayMessage);
+            return response;
+        }
+        
+        JsonObject responseBody;
+        try {
+            responseBody = response.getJsonContent();
+        } catch (ZosmfException e) {
+            throw new ZosUNIXFileException("Unable to retrieve content of " + quoted(path) + logOnImage(), e);
+        } finally {
+            closeResponse(response);
         }
+        logger.trace(responseBody);    
+        // Error case - BAD_REQUEST or INTERNAL_SERVER_ERROR
+        String displayMessage = buildErrorString(LOG_READING_FROM, responseBody, path); 
+        logger.error(displayMessage);
+        throw new ZosUNIXFileException(displayMessage);
+    }
     
-        logger.trace("Content of " + LOG_UNIX_PATH + quoted(path) + " retrieved from  image " + this.image.getImageID());
-        return content;
+    private void closeResponse(IZosmfResponse response) {
+        try {
+            response.close();
+        } catch (ZosmfException e) {
+            logger.warn("Unable to close zOSMF response", e);
+        }
     }
 
 
@@ -7,6 +7,7 @@ package dev.galasa.zosfile.zosmf.manager.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileSystem;
@@ -360,6 +361,21 @@ public class TestZosDatasetImpl {
         zosDatasetSpy.retrieveAsText();
     }
 
+    @Test
+    public void testRetrieveAsStream() throws ZosDatasetException {
+        PowerMockito.doReturn(false).when(zosDatasetSpy).isPDS();
+        InputStream content = new ByteArrayInputStream(CONTENT.getBytes());
+        PowerMockito.doReturn(content).when(zosDatasetSpy).retrieveStream(Mockito.any());
+        
+        Assert.assertSame("retrieveAsStream() should return the supplied value", content, zosDatasetSpy.retrieveAsStream());
+        
+        PowerMockito.doReturn(true).when(zosDatasetSpy).isPDS();        
+        exceptionRule.expect(ZosDatasetException.class);
+        exceptionRule.expectMessage("Data set \"" + DATASET_NAME + "\" is a partitioned data data set. Use memberRetrieveAsStream(String memberName) method instead");
+        
+        zosDatasetSpy.retrieveAsStream();
+    }
+
     @Test
     public void testRetrieveAsBinary() throws ZosDatasetException {
         PowerMockito.doReturn(false).when(zosDatasetSpy).isPDS();
@@ -555,6 +571,7 @@ public class TestZosDatasetImpl {
         jsonObject = getJsonObject(2);
         Mockito.when(zosmfResponseMock.getJsonContent()).thenReturn(jsonObject);        
         Assert.assertFalse("memberExists() should return false", zosDatasetSpy.memberExists(MEMBER_NAME));
+        Mockito.verify(zosmfResponseMock, Mockito.times(3)).close();
     }
     
     @Test
@@ -699,6 +716,20 @@ public class TestZosDatasetImpl {
         zosDatasetSpy.memberRetrieveAsBinary(MEMBER_NAME);
     }
 
+    @Test
+    public void testMemberRetrieveAsStream() throws ZosDatasetException {
+        PowerMockito.doReturn(true).when(zosDatasetSpy).isPDS();
+        InputStream content = new ByteArrayInputStream(CONTENT.getBytes());
+        PowerMockito.doReturn(content).when(zosDatasetSpy).retrieveStream(Mockito.any());
+        Assert.assertSame("memberRetrieveAsStream() should return the supplied value", content, zosDatasetSpy.memberRetrieveAsStream(MEMBER_NAME));
+        
+        PowerMockito.doReturn(false).when(zosDatasetSpy).isPDS();
+        exceptionRule.expect(ZosDatasetException.class);
+        exceptionRule.expectMessage("\"" + DATASET_NAME + "\" is not a partitioned data data set");
+        
+        zosDatasetSpy.memberRetrieveAsStream(MEMBER_NAME);
+    }
+
     @Test
     public void testMemberRetrieveAsBinaryNotPDS() throws ZosDatasetException {
         PowerMockito.doReturn(false).when(zosDatasetSpy).isPDS();
@@ -733,6 +764,7 @@ public class TestZosDatasetImpl {
         
         memberList = zosDatasetSpy.memberList();
         Assert.assertEquals("memberlist() should return a list with 4 members", listOfMembers(4), memberList);
+        Mockito.verify(zosmfResponseMock, Mockito.times(4)).close();
     }
     
     @Test
@@ -1081,6 +1113,26 @@ public class TestZosDatasetImpl {
         Assert.assertEquals("retrieve() should return the supplied value", CONTENT, zosDatasetSpy.retrieve(null));
     }
     
+    @Test
+    public void testInternalRetrieveStream() throws ZosDatasetException, ZosmfException {
+        InputStream content = new ByteArrayInputStream(CONTENT.getBytes());
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false))).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfResponseMock.getStreamContent()).thenReturn(content);
+        
+        Assert.assertSame("retrieveStream() should return the supplied value", content, zosDatasetSpy.retrieveStream(null));
+        Mockito.verify(zosmfResponseMock, Mockito.times(0)).close();
+        
+        Mockito.when(zosmfResponseMock.getStreamContent()).thenThrow(new ZosmfException(EXCEPTION));
+        try {
+            zosDatasetSpy.retrieveStream(null);
+            Assert.fail("retrieveStream() should throw an exception");
+        } catch (ZosDatasetException e) {
+            Assert.assertEquals("exception should contain expected message", "Unable to retrieve content of data set \"" + DATASET_NAME + "\" on image " + IMAGE, e.getMessage());
+        }
+        Mockito.verify(zosmfResponseMock, Mockito.times(1)).close();
+    }
+    
     @Test
     public void testInternalRetrieveZosmfException() throws ZosDatasetException, ZosmfException {
         PowerMockito.doReturn(true).when(zosDatasetSpy).exists();
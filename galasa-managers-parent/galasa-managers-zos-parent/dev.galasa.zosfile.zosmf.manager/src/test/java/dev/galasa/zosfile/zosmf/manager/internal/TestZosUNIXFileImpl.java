@@ -5,7 +5,9 @@
  */
 package dev.galasa.zosfile.zosmf.manager.internal;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileSystem;
@@ -288,6 +290,25 @@ public class TestZosUNIXFileImpl {
         Assert.assertEquals("retrieve() should return the supplied value", CONTENT, zosUNIXFileSpy.retrieve());
     }
     
+    @Test
+    public void testRetrieveAsStream() throws ZosUNIXFileException {
+        PowerMockito.doReturn(true).when(zosUNIXFileSpy).exists();
+        PowerMockito.doReturn(false).when(zosUNIXFileSpy).isDirectory();
+        InputStream stream = new ByteArrayInputStream(CONTENT.getBytes());
+        PowerMockito.doReturn(stream).when(zosUNIXFileSpy).retrieveStream(Mockito.any());
+        Assert.assertSame("retrieveAsStream() should return the supplied value", stream, zosUNIXFileSpy.retrieveAsStream());
+    }
+    
+    @Test
+    public void testRetrieveAsStreamException() throws ZosUNIXFileException {
+        PowerMockito.doReturn(true).when(zosUNIXFileSpy).exists();
+        PowerMockito.doReturn(true).when(zosUNIXFileSpy).isDirectory();
+        exceptionRule.expect(ZosUNIXFileException.class);
+        exceptionRule.expectMessage("Invalid request, \"" + UNIX_PATH + "\" is a directory");
+        
+        zosUNIXFileSpy.retrieveAsStream();
+    }
+    
     @Test
     public void testRetrieveException1() throws ZosUNIXFileException {
         PowerMockito.doReturn(false).when(zosUNIXFileSpy).exists();
@@ -665,6 +686,49 @@ public class TestZosUNIXFileImpl {
         zosUNIXFileSpy.retrieve(UNIX_PATH);
     }
     
+    @Test
+    public void testInternalRetrieveStream() throws ZosUNIXFileException, ZosmfException {
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        InputStream stream = new ByteArrayInputStream(CONTENT.getBytes());
+        Mockito.when(zosmfResponseMock.getStreamContent()).thenReturn(stream);
+        
+        Assert.assertSame("retrieveStream() should return the response stream", stream, zosUNIXFileSpy.retrieveStream(UNIX_PATH));
+        Mockito.verify(zosmfApiProcessorMock).sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.eq(false));
+        Mockito.verify(zosmfResponseMock, Mockito.never()).close();
+    }
+    
+    @Test
+    public void testInternalRetrieveStreamException() throws ZosUNIXFileException, ZosmfException {
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfResponseMock.getStreamContent()).thenThrow(new ZosmfException(EXCEPTION));
+        
+        try {
+            zosUNIXFileSpy.retrieveStream(UNIX_PATH);
+            Assert.fail("retrieveStream() should throw an exception");
+        } catch (ZosUNIXFileException e) {
+            Assert.assertEquals("exception should contain expected message", "Unable to retrieve content of \"" + UNIX_PATH + "\" on image " + IMAGE, e.getMessage());
+        }
+        Mockito.verify(zosmfResponseMock).close();
+    }
+    
+    @Test
+    public void testInternalRetrieveClosesErrorResponse() throws ZosUNIXFileException, ZosmfException {
+        Mockito.when(zosmfApiProcessorMock.sendRequest(Mockito.eq(ZosmfRequestType.GET), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_NOT_FOUND);
+        Mockito.when(zosmfResponseMock.getJsonContent()).thenReturn(new JsonObject());
+        PowerMockito.doReturn(ERROR).when(zosUNIXFileSpy).buildErrorString(Mockito.any(), Mockito.any(), Mockito.any());
+        
+        try {
+            zosUNIXFileSpy.retrieveStream(UNIX_PATH);
+            Assert.fail("retrieveStream() should throw an exception");
+        } catch (ZosUNIXFileException e) {
+            Assert.assertEquals("exception should contain expected message", ERROR, e.getMessage());
+        }
+        Mockito.verify(zosmfResponseMock).close();
+    }
+    
     @Test
     public void testSaveToResultsArchive() throws ZosUNIXFileException {
         PowerMockito.doReturn(true).when(zosUNIXFileSpy).exists(Mockito.any());
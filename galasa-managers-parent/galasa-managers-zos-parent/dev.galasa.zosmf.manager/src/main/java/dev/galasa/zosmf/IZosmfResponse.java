@@ -5,16 +5,21 @@
  */
 package dev.galasa.zosmf;
 
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.channels.ReadableByteChannel;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 /**
  * Represents the response from a zOSMF server request
- *
+ * <p>
+ * A response with binary content holds its connection to the server until the content has been read and the stream
+ * or the response closed.
+ * </p>
  */
-public interface IZosmfResponse {
+public interface IZosmfResponse extends AutoCloseable {
 
     /**
      * Return the text content from the zOSMF request as text
@@ -47,6 +52,22 @@ public interface IZosmfResponse {
      */
     public Object getContent() throws ZosmfException;
 
+    /**
+     * Return the content from the zOSMF request as a stream, without reading it into memory. Closing the stream closes
+     * the response
+     * @return the content
+     * @throws ZosmfException
+     */
+    public InputStream getStreamContent() throws ZosmfException;
+
+    /**
+     * Return the content from the zOSMF request as a channel, without reading it into memory. Closing the channel closes
+     * the response
+     * @return the content
+     * @throws ZosmfException
+     */
+    public ReadableByteChannel getChannelContent() throws ZosmfException;
+
     /**
      * Return the HTTP status code from the zOSMF request
      * @return the HTTP code
@@ -64,4 +85,11 @@ public interface IZosmfResponse {
      * @return the request URL
      */
     public URL getRequestUrl();
+
+    /**
+     * Close the response, releasing the connection to the zOSMF server without reading any remaining content
+     * @throws ZosmfException
+     */
+    @Override
+    public void close() throws ZosmfException;
 }
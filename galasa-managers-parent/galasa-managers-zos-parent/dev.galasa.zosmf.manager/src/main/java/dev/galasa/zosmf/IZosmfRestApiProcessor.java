@@ -7,6 +7,7 @@ package dev.galasa.zosmf;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.validation.constraints.NotNull;
 
@@ -28,4 +29,30 @@ public interface IZosmfRestApiProcessor {
      * @throws ZosBatchException
      */
     public @NotNull IZosmfResponse sendRequest(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert) throws ZosmfException;
+    
+    /**
+     * Send zOSMF request without waiting for the response. The request is sent at the same time as other requests, so it may 
+     * complete before requests sent earlier, use {@link #sendRequestAsyncInOrder} for requests that depend on each other.
+     * @param requestType as defined by {@link ZosmfRequestType}
+     * @param path the zOSMF API path
+     * @param headers the required HTTP headers (e.g. See {@link ZosmfCustomHeaders} or null
+     * @param body the request body or null
+     * @param validStatusCodes list HTTP status codes expected from this request. default of HTTP 200 when null 
+     * @param convert is a data conversion required. If true, data will be converted betwen EBCDIC to ISO8859-1. If false, no data conversion will take place.
+     * @return the future response {@link IZosmfResponse}, completed exceptionally with a {@link ZosmfException} if the request fails
+     */
+    public @NotNull CompletableFuture<IZosmfResponse> sendRequestAsync(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert);
+    
+    /**
+     * Send zOSMF request without waiting for the response, once the requests sent earlier with this method through the same 
+     * processor have completed. Use a processor for each sequence of requests that depend on each other.
+     * @param requestType as defined by {@link ZosmfRequestType}
+     * @param path the zOSMF API path
+     * @param headers the required HTTP headers (e.g. See {@link ZosmfCustomHeaders} or null
+     * @param body the request body or null
+     * @param validStatusCodes list HTTP status codes expected from this request. default of HTTP 200 when null 
+     * @param convert is a data conversion required. If true, data will be converted betwen EBCDIC to ISO8859-1. If false, no data conversion will take place.
+     * @return the future response {@link IZosmfResponse}, completed exceptionally with a {@link ZosmfException} if the request fails
+     */
+    public @NotNull CompletableFuture<IZosmfResponse> sendRequestAsyncInOrder(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert);
 }
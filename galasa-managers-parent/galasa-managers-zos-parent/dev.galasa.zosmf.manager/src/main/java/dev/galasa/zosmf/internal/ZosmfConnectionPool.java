@@ -0,0 +1,235 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import dev.galasa.zosmf.ZosmfException;
+
+/**
+ * The keep-alive connections to a zOSMF server, shared by every
+ * {@link ZosmfImpl} for the server in the JVM.
+ * <p>
+ * The HTTP client of a {@link ZosmfImpl} is rebuilt for each request, so
+ * without a shared pool every request opened a new connection, with a new TLS
+ * handshake, and left the connection manager of the last client behind. The
+ * pool also limits the requests in flight to the server, so a test with many
+ * threads waits rather than overloading zOSMF.
+ * </p>
+ * <p>
+ * The pool for a server is created with the settings of the first image to
+ * use it, different settings for another image of the same server are logged
+ * and ignored.
+ * </p>
+ */
+public class ZosmfConnectionPool {
+
+    private static final Log logger = LogFactory.getLog(ZosmfConnectionPool.class);
+
+    // *** Connections idle for longer than this are closed rather than risk zOSMF having timed them out
+    private static final int KEEP_ALIVE_SECONDS = 60;
+    // *** Check a pooled connection is still open if it has not been used for this long
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLISECONDS = 2000;
+    // *** How often expired and idle connections are closed
+    private static final int SWEEP_SECONDS = 15;
+
+    private static final ConcurrentHashMap<String, ZosmfConnectionPool> pools = new ConcurrentHashMap<>();
+
+    // *** Closes the expired and idle connections of every pool, so requests do not wait for it
+    private static final ScheduledThreadPoolExecutor sweeper = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "zosmf-connection-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ZosmfConnectionPool::shutdownAll, "zosmf-connection-pool"));
+        sweeper.scheduleWithFixedDelay(ZosmfConnectionPool::sweepAll, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private final String zosmfUrl;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final int maxConnections;
+    private final int maxRequests;
+    private final Semaphore requestPermits;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong waitingRequests = new AtomicLong();
+
+    protected ZosmfConnectionPool(String zosmfUrl, SSLContext sslContext, int maxConnections, int maxRequests) {
+        this.zosmfUrl = zosmfUrl;
+
+        SSLConnectionSocketFactory sslSocketFactory;
+        if (sslContext != null) {
+            sslSocketFactory = new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+        } else {
+            sslSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
+        }
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+
+        this.connectionManager = new PoolingHttpClientConnectionManager(socketFactories);
+        this.connectionManager.setMaxTotal(maxConnections);
+        this.connectionManager.setDefaultMaxPerRoute(maxConnections);
+        this.connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLISECONDS);
+
+        this.maxConnections = maxConnections;
+        this.maxRequests = maxRequests;
+        this.requestPermits = new Semaphore(maxRequests, true);
+    }
+
+    /**
+     * @param zosmfUrl       - the scheme, host and port of the server
+     * @param sslContext     - the SSL context for https connections, or null
+     *                       for the default
+     * @param maxConnections - the most connections to keep open to the server
+     * @param maxRequests    - the most requests in flight to the server
+     * @return the pool for the server, created if this is the first request
+     *         for it
+     */
+    public static ZosmfConnectionPool forServer(String zosmfUrl, SSLContext sslContext, int maxConnections, int maxRequests) {
+        ZosmfConnectionPool pool = pools.computeIfAbsent(zosmfUrl, url -> {
+            logger.debug("Creating zOSMF connection pool for " + url + " with " + maxConnections + " connections and " + maxRequests + " concurrent requests");
+            return new ZosmfConnectionPool(url, sslContext, maxConnections, maxRequests);
+        });
+        if (pool.maxConnections != maxConnections || pool.maxRequests != maxRequests) {
+            logger.warn("Ignoring " + maxConnections + " connections and " + maxRequests + " concurrent requests for zOSMF server " + zosmfUrl
+                    + ", the pool was created with " + pool.maxConnections + " connections and " + pool.maxRequests + " concurrent requests");
+        }
+        return pool;
+    }
+
+    /**
+     * @return the pools of the servers used in the JVM, by URL
+     */
+    public static Map<String, ZosmfConnectionPool> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    /**
+     * Close the connections of every pool and forget them
+     */
+    public static void shutdownAll() {
+        for (ZosmfConnectionPool pool : pools.values()) {
+            pool.connectionManager.shutdown();
+        }
+        pools.clear();
+    }
+
+    /**
+     * Close the expired and idle connections of every pool
+     */
+    protected static void sweepAll() {
+        for (ZosmfConnectionPool pool : pools.values()) {
+            try {
+                pool.sweep();
+            } catch (RuntimeException e) {
+                // *** An exception would stop the sweeper for every pool
+                logger.warn("Unable to close idle connections to zOSMF server " + pool.getZosmfUrl(), e);
+            }
+        }
+    }
+
+    protected void sweep() {
+        this.connectionManager.closeExpiredConnections();
+        this.connectionManager.closeIdleConnections(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public HttpClientConnectionManager getConnectionManager() {
+        return this.connectionManager;
+    }
+
+    /**
+     * Wait for a request to the server to be allowed, {@link #endRequest()}
+     * must be called when the request is complete
+     *
+     * @throws ZosmfException if the wait is interrupted
+     */
+    public void startRequest() throws ZosmfException {
+        if (!this.requestPermits.tryAcquire()) {
+            this.waitingRequests.incrementAndGet();
+            try {
+                this.requestPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ZosmfException("Interrupted waiting to send a request to zOSMF server " + this.zosmfUrl, e);
+            } finally {
+                this.waitingRequests.decrementAndGet();
+            }
+        }
+        this.requests.incrementAndGet();
+    }
+
+    public void endRequest() {
+        this.requestPermits.release();
+    }
+
+    public String getZosmfUrl() {
+        return this.zosmfUrl;
+    }
+
+    /**
+     * @return the total number of requests sent through the pool
+     */
+    public long getRequests() {
+        return this.requests.get();
+    }
+
+    public int getRequestsInFlight() {
+        return this.maxRequests - this.requestPermits.availablePermits();
+    }
+
+    /**
+     * @return the number of requests waiting because the maximum number are
+     *         in flight
+     */
+    public long getWaitingRequests() {
+        return this.waitingRequests.get();
+    }
+
+    public int getMaxRequests() {
+        return this.maxRequests;
+    }
+
+    public int getMaxConnections() {
+        return this.maxConnections;
+    }
+
+    /**
+     * @return the leased, idle and pending connections of the pool
+     */
+    public PoolStats getConnectionStats() {
+        return this.connectionManager.getTotalStats();
+    }
+
+    @Override
+    public String toString() {
+        return this.zosmfUrl + " requests=" + getRequests() + " inflight=" + getRequestsInFlight() + " waiting="
+                + getWaitingRequests() + " " + getConnectionStats();
+    }
+
+}
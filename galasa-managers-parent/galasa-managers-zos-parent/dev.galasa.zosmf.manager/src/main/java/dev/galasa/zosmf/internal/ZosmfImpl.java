@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import javax.validation.constraints.NotNull;
@@ -20,6 +21,7 @@ import javax.validation.constraints.NotNull;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
 
 import com.google.gson.JsonObject;
 
@@ -27,6 +29,7 @@ import dev.galasa.ICredentials;
 import dev.galasa.ICredentialsUsernamePassword;
 import dev.galasa.http.HttpClientException;
 import dev.galasa.http.IHttpClient;
+import dev.galasa.http.spi.IHttpClientSpi;
 import dev.galasa.zos.IZosImage;
 import dev.galasa.zos.ZosManagerException;
 import dev.galasa.zosmf.IZosmf;
@@ -34,6 +37,8 @@ import dev.galasa.zosmf.IZosmfResponse;
 import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
 import dev.galasa.zosmf.internal.properties.Https;
+import dev.galasa.zosmf.internal.properties.MaxConnections;
+import dev.galasa.zosmf.internal.properties.MaxRequests;
 import dev.galasa.zosmf.internal.properties.RequestRetry;
 import dev.galasa.zosmf.internal.properties.ServerHostname;
 import dev.galasa.zosmf.internal.properties.ServerImages;
@@ -51,7 +56,8 @@ public class ZosmfImpl implements IZosmf {
 
     private String imageTag;
     private IZosImage image;
-    private IHttpClient httpClient;
+    private IHttpClientSpi httpClient;
+    private ZosmfConnectionPool connectionPool;
     private String zosmfUrl;
     protected int requestRetry;
 
@@ -81,25 +87,33 @@ public class ZosmfImpl implements IZosmf {
 
     @Override
     public @NotNull IZosmfResponse get(String path, List<Integer> validStatusCodes, boolean convert) throws ZosmfException {
+        return get(path, this.commonHeaders, validStatusCodes, convert);
+    }
+
+    /**
+     * As {@link #get(String, List, boolean)}, with the headers for this request in place of the common headers
+     */
+    protected @NotNull IZosmfResponse get(String path, Map<String, String> headers, List<Integer> validStatusCodes, boolean convert) throws ZosmfException {
         String method = ZosmfRequestType.GET.name();
         if (validStatusCodes == null) {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
         }
         ZosmfResponseImpl zosmfResponse;
         try {
-            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
-            addCommonHeaders();
+            IHttpClient client = requestClient(method, headers);
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.debug(logRequest(method, zosmfResponse.getRequestUrl()));
             if (convert) {
-                zosmfResponse.setHttpClientresponse(this.httpClient.getText(validPath(path)));
+                zosmfResponse.setHttpClientresponse(send(() -> client.getText(validPath(path))));
             } else {
-                zosmfResponse.setHttpClientresponse(this.httpClient.getFile(validPath(path)));
+                sendStreaming(zosmfResponse, () -> client.getFile(validPath(path)));
             }
             
             logger.debug(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
-                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+                // *** The response is not returned, so its connection must be released here
+                zosmfResponse.close();
+                throw new ZosmfStatusCodeException(logBadStatusCode(zosmfResponse.getStatusCode()), zosmfResponse.getStatusCode());
             }
         } catch (MalformedURLException | HttpClientException  e) {
             logger.error(e);
@@ -111,21 +125,27 @@ public class ZosmfImpl implements IZosmf {
 
     @Override
     public @NotNull IZosmfResponse postJson(String path, JsonObject requestBody, List<Integer> validStatusCodes) throws ZosmfException {
+        return postJson(path, this.commonHeaders, requestBody, validStatusCodes);
+    }
+
+    /**
+     * As {@link #postJson(String, JsonObject, List)}, with the headers for this request in place of the common headers
+     */
+    protected @NotNull IZosmfResponse postJson(String path, Map<String, String> headers, JsonObject requestBody, List<Integer> validStatusCodes) throws ZosmfException {
         String method = ZosmfRequestType.POST.name();
         if (validStatusCodes == null) {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
         }
         ZosmfResponseImpl zosmfResponse;
         try {
-            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
-            addCommonHeaders();
+            IHttpClient client = requestClient(method, headers);
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.debug(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.debug(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.postJson(validPath(path), requestBody));
+            zosmfResponse.setHttpClientresponse(send(() -> client.postJson(validPath(path), requestBody)));
             logger.debug(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
-                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+                throw new ZosmfStatusCodeException(logBadStatusCode(zosmfResponse.getStatusCode()), zosmfResponse.getStatusCode());
             }
         } catch (MalformedURLException | HttpClientException  e) {
             logger.error(e);
@@ -137,21 +157,27 @@ public class ZosmfImpl implements IZosmf {
 
     @Override
     public @NotNull IZosmfResponse putText(String path, String requestBody, List<Integer> validStatusCodes) throws ZosmfException {
+        return putText(path, this.commonHeaders, requestBody, validStatusCodes);
+    }
+
+    /**
+     * As {@link #putText(String, String, List)}, with the headers for this request in place of the common headers
+     */
+    protected @NotNull IZosmfResponse putText(String path, Map<String, String> headers, String requestBody, List<Integer> validStatusCodes) throws ZosmfException {
         String method = ZosmfRequestType.PUT.name();
         if (validStatusCodes == null) {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
         }
         ZosmfResponseImpl zosmfResponse;
         try {
-            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
-            addCommonHeaders();
+            IHttpClient client = requestClient(method, headers);
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.debug(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.debug(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.putText(validPath(path), requestBody));
+            zosmfResponse.setHttpClientresponse(send(() -> client.putText(validPath(path), requestBody)));
             logger.debug(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
-                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+                throw new ZosmfStatusCodeException(logBadStatusCode(zosmfResponse.getStatusCode()), zosmfResponse.getStatusCode());
             }
         } catch (MalformedURLException | HttpClientException  e) {
             logger.error(e);
@@ -163,21 +189,27 @@ public class ZosmfImpl implements IZosmf {
 
     @Override
     public @NotNull IZosmfResponse putJson(String path, JsonObject requestBody, List<Integer> validStatusCodes) throws ZosmfException {
+        return putJson(path, this.commonHeaders, requestBody, validStatusCodes);
+    }
+
+    /**
+     * As {@link #putJson(String, JsonObject, List)}, with the headers for this request in place of the common headers
+     */
+    protected @NotNull IZosmfResponse putJson(String path, Map<String, String> headers, JsonObject requestBody, List<Integer> validStatusCodes) throws ZosmfException {
         String method = ZosmfRequestType.PUT.name();
         if (validStatusCodes == null) {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
         }
         ZosmfResponseImpl zosmfResponse;
         try {
-            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
-            addCommonHeaders();
+            IHttpClient client = requestClient(method, headers);
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.debug(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.debug(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.putJson(validPath(path), requestBody));
+            zosmfResponse.setHttpClientresponse(send(() -> client.putJson(validPath(path), requestBody)));
             logger.debug(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
-                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+                throw new ZosmfStatusCodeException(logBadStatusCode(zosmfResponse.getStatusCode()), zosmfResponse.getStatusCode());
             }
         } catch (MalformedURLException | HttpClientException  e) {
             logger.error(e);
@@ -188,7 +220,14 @@ public class ZosmfImpl implements IZosmf {
     }
 
     @Override
-    public @NotNull IZosmfResponse putBinary(String path, byte[] requestBody, List<Integer> validStatusCodes) throws ZosmfException  {
+    public @NotNull IZosmfResponse putBinary(String path, byte[] requestBody, List<Integer> validStatusCodes) throws ZosmfException {
+        return putBinary(path, this.commonHeaders, requestBody, validStatusCodes);
+    }
+
+    /**
+     * As {@link #putBinary(String, byte[], List)}, with the headers for this request in place of the common headers
+     */
+    protected @NotNull IZosmfResponse putBinary(String path, Map<String, String> headers, byte[] requestBody, List<Integer> validStatusCodes) throws ZosmfException {
         String method = ZosmfRequestType.PUT.name();
         if (validStatusCodes == null) {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
@@ -196,15 +235,14 @@ public class ZosmfImpl implements IZosmf {
         ZosmfResponseImpl zosmfResponse;
 
         try {
-            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
-            addCommonHeaders();
+            IHttpClient client = requestClient(method, headers);
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.debug(logRequest(method, zosmfResponse.getRequestUrl()));
             logger.debug(LOG_BODY + requestBody);
-            zosmfResponse.setHttpClientresponse(this.httpClient.putBinary(path, requestBody));
+            zosmfResponse.setHttpClientresponse(send(() -> client.putBinary(path, requestBody)));
             logger.debug(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
-                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+                throw new ZosmfStatusCodeException(logBadStatusCode(zosmfResponse.getStatusCode()), zosmfResponse.getStatusCode());
             }
         } catch (MalformedURLException | HttpClientException  e) {
             logger.error(e);
@@ -216,20 +254,26 @@ public class ZosmfImpl implements IZosmf {
 
     @Override
     public @NotNull IZosmfResponse delete(String path, List<Integer> validStatusCodes) throws ZosmfException {
+        return delete(path, this.commonHeaders, validStatusCodes);
+    }
+
+    /**
+     * As {@link #delete(String, List)}, with the headers for this request in place of the common headers
+     */
+    protected @NotNull IZosmfResponse delete(String path, Map<String, String> headers, List<Integer> validStatusCodes) throws ZosmfException {
         String method = ZosmfRequestType.DELETE.name();
         if (validStatusCodes == null) {
             validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
         }
         ZosmfResponseImpl zosmfResponse;
         try {
-            setHeader(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
-            addCommonHeaders();
+            IHttpClient client = requestClient(method, headers);
             zosmfResponse = new ZosmfResponseImpl(this.zosmfUrl, validPath(path));
             logger.debug(logRequest(method, zosmfResponse.getRequestUrl()));
-            zosmfResponse.setHttpClientresponse(this.httpClient.deleteJson(validPath(path)));
+            zosmfResponse.setHttpClientresponse(send(() -> client.deleteJson(validPath(path))));
             logger.debug(logResponse(zosmfResponse.getStatusLine(), method, zosmfResponse.getRequestUrl()));
             if (!validStatusCodes.contains(zosmfResponse.getStatusCode())) {
-                throw new ZosmfException(logBadStatusCode(zosmfResponse.getStatusCode()));
+                throw new ZosmfStatusCodeException(logBadStatusCode(zosmfResponse.getStatusCode()), zosmfResponse.getStatusCode());
             }
         } catch (MalformedURLException | HttpClientException  e) {
             throw new ZosmfException(logBadRequest(method), e);
@@ -289,6 +333,15 @@ public class ZosmfImpl implements IZosmf {
         
         this.zosmfUrl = scheme + "://" + zosmfHostname + ":" + zosmfPort;
 
+        int maxConnections;
+        int maxRequests;
+        try {
+            maxConnections = MaxConnections.get(image.getImageID());
+            maxRequests = MaxRequests.get(image.getImageID());
+        } catch (ZosmfManagerException e) {
+            throw new ZosmfException(e);
+        }
+
         this.httpClient = ZosmfManagerImpl.httpManager.newHttpClient();
         
         try {
@@ -300,6 +353,8 @@ public class ZosmfImpl implements IZosmf {
             if (scheme.equals("https")) {
                 this.httpClient.setTrustingSSLContext();
             }
+            this.connectionPool = ZosmfConnectionPool.forServer(this.zosmfUrl, this.httpClient.getSSLContext(), maxConnections, maxRequests);
+            this.httpClient.setConnectionManager(this.connectionPool.getConnectionManager());
             this.httpClient.build();
         } catch (HttpClientException | ZosManagerException | URISyntaxException e) {
             throw new ZosmfException("Unable to create HTTP Client", e);
@@ -312,6 +367,43 @@ public class ZosmfImpl implements IZosmf {
         }
     }
 
+    /**
+     * Send a request once the connection pool of the server allows it
+     */
+    private <T> T send(HttpRequest<T> request) throws HttpClientException, ZosmfException {
+        this.connectionPool.startRequest();
+        try {
+            return request.send();
+        } finally {
+            this.connectionPool.endRequest();
+        }
+    }
+
+    /**
+     * Send a request whose content is read after it is returned, the permit of the connection pool is held
+     * until the response is closed
+     */
+    private void sendStreaming(ZosmfResponseImpl zosmfResponse, HttpRequest<CloseableHttpResponse> request) throws HttpClientException, ZosmfException {
+        this.connectionPool.startRequest();
+        CloseableHttpResponse httpResponse;
+        try {
+            httpResponse = request.send();
+        } catch (HttpClientException | RuntimeException e) {
+            this.connectionPool.endRequest();
+            throw e;
+        }
+        zosmfResponse.setHttpClientresponse(httpResponse, this.connectionPool::endRequest);
+    }
+
+    @FunctionalInterface
+    private interface HttpRequest<T> {
+        T send() throws HttpClientException;
+    }
+
+    protected ZosmfConnectionPool getConnectionPool() {
+        return this.connectionPool;
+    }
+
     protected void setImage() throws ZosmfException {
         if (this.image == null) {
             try {
@@ -322,12 +414,17 @@ public class ZosmfImpl implements IZosmf {
         }
     }
 
-    protected void addCommonHeaders() {
-        for (Entry<String, String> entry : this.commonHeaders.entrySet()) {
+    /**
+     * @return a client that sends the headers with one request, so requests to
+     *         the server can be sent at the same time without sharing headers
+     */
+    protected IHttpClient requestClient(String method, Map<String, String> headers) {
+        HashMap<String, String> requestHeaders = new HashMap<>(headers);
+        requestHeaders.put(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), method);
+        for (Entry<String, String> entry : requestHeaders.entrySet()) {
             logger.debug("Adding HTTP header: " + entry.getKey() + ": " + entry.getValue());
-            this.httpClient.addCommonHeader(entry.getKey(), entry.getValue());
         }
-        
+        return this.httpClient.withHeaders(requestHeaders);
     }
 
     protected String logRequest(String method, URL requestUrl) {
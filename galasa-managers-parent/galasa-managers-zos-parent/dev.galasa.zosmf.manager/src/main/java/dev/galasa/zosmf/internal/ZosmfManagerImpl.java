@@ -34,6 +34,7 @@ import dev.galasa.zosmf.IZosmfRestApiProcessor;
 import dev.galasa.zosmf.Zosmf;
 import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
+import dev.galasa.zosmf.internal.properties.MetadataCacheTtl;
 import dev.galasa.zosmf.internal.properties.ServerImages;
 import dev.galasa.zosmf.internal.properties.ZosmfPropertiesSingleton;
 import dev.galasa.zosmf.spi.IZosmfManagerSpi;
@@ -58,6 +59,8 @@ public class ZosmfManagerImpl extends AbstractManager implements IZosmfManagerSp
     private final HashMap<String, IZosmf> taggedZosmfs = new HashMap<>();
     private final HashMap<String, IZosmf> zosmfs = new HashMap<>();
     
+    private ZosmfMetadataCache metadataCache;
+    
     /* (non-Javadoc)
      * @see dev.galasa.framework.spi.AbstractManager#initialise(dev.galasa.framework.spi.IFramework, java.util.List, java.util.List, java.lang.Class)
      */
@@ -175,9 +178,20 @@ public class ZosmfManagerImpl extends AbstractManager implements IZosmfManagerSp
                 throw new ZosmfManagerException("No zOSMF sever configured on " + image.getImageID());
             }
             zosmfMap.put(image.getImageID(), zosmf);
-            return new ZosmfRestApiProcessor(zosmfMap);
+            return new ZosmfRestApiProcessor(zosmfMap, getMetadataCache());
+        }
+        return new ZosmfRestApiProcessor(getZosmfs(image.getClusterID()), getMetadataCache());
+    }
+    
+    /**
+     * @return the file listings shared by the zOSMF REST API processors of the run
+     * @throws ZosmfManagerException
+     */
+    protected synchronized ZosmfMetadataCache getMetadataCache() throws ZosmfManagerException {
+        if (this.metadataCache == null) {
+            this.metadataCache = new ZosmfMetadataCache(MetadataCacheTtl.get());
         }
-        return new ZosmfRestApiProcessor(getZosmfs(image.getClusterID()));
+        return this.metadataCache;
     }
 
 
@@ -0,0 +1,207 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpStatus;
+
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.ZosmfException;
+
+/**
+ * The data set, member and UNIX file listings returned by zOSMF during a run,
+ * which the zOS File Manager asks for again and again to check that a file
+ * exists, what type it is and what its attributes are.
+ * <p>
+ * A listing is kept for a short time, and all the listings are dropped by
+ * any request through the zOSMF Manager that is not a GET, as a job or a
+ * command can change files as well as the file services.
+ * Identical requests made while the first is in flight wait for its response
+ * rather than sending their own.
+ * </p>
+ */
+public class ZosmfMetadataCache {
+
+    private static final Log logger = LogFactory.getLog(ZosmfMetadataCache.class);
+
+    // *** The data set, member and UNIX file list services
+    private static final Pattern METADATA_PATH = Pattern.compile("/zosmf/restfiles/(ds|fs)\\?.*|/zosmf/restfiles/ds/[^/?]+/member(\\?.*)?");
+
+    private final long ttlMilliseconds;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // *** Changed by each invalidation, so a listing requested before it is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Request {
+        IZosmfResponse send() throws ZosmfException;
+    }
+
+    private static class Entry {
+        private final CompletableFuture<IZosmfResponse> response = new CompletableFuture<>();
+        // *** Does not expire until the response has arrived
+        private volatile long expires = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return now >= this.expires;
+        }
+    }
+
+    /**
+     * @param ttlSeconds - how long a listing is kept for, 0 for not at all
+     */
+    public ZosmfMetadataCache(int ttlSeconds) {
+        this.ttlMilliseconds = ttlSeconds * 1000L;
+    }
+
+    /**
+     * @return true if the request only lists data sets, members or UNIX files
+     */
+    public static boolean isMetadataRequest(ZosmfRequestType requestType, String path) {
+        return requestType == ZosmfRequestType.GET && path != null && METADATA_PATH.matcher(path).matches();
+    }
+
+    /**
+     * @return true if the request could create, change or delete a data set,
+     *         member or UNIX file
+     */
+    public static boolean isInvalidatingRequest(ZosmfRequestType requestType) {
+        return requestType != ZosmfRequestType.GET;
+    }
+
+    /**
+     * Return the kept response to a request, or send the request if there is
+     * none
+     *
+     * @param key     - identifies the request, including anything that
+     *                changes the response
+     * @param request - sends the request
+     * @return the response, with its content read into memory
+     * @throws ZosmfException if the request fails
+     */
+    public IZosmfResponse get(String key, Request request) throws ZosmfException {
+        if (this.ttlMilliseconds <= 0) {
+            return request.send();
+        }
+
+        long startGeneration = this.generation.get();
+        long now = System.currentTimeMillis();
+        Entry newEntry = new Entry();
+        Entry entry = this.entries.compute(key, (k, existing) -> existing != null && !existing.isExpired(now) ? existing : newEntry);
+        if (entry != newEntry) {
+            if (entry.response.isDone()) {
+                this.hits.incrementAndGet();
+            } else {
+                this.coalesced.incrementAndGet();
+            }
+            return await(entry);
+        }
+
+        this.misses.incrementAndGet();
+        try {
+            IZosmfResponse response = buffer(request.send());
+            entry.expires = System.currentTimeMillis() + this.ttlMilliseconds;
+            entry.response.complete(response);
+            if (response.getStatusCode() != HttpStatus.SC_OK || this.generation.get() != startGeneration) {
+                this.entries.remove(key, entry);
+            }
+            return response;
+        } catch (ZosmfException | RuntimeException e) {
+            this.entries.remove(key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop all the kept responses
+     */
+    public void invalidate() {
+        this.generation.incrementAndGet();
+        this.invalidations.incrementAndGet();
+        this.entries.clear();
+        logger.debug("zOSMF metadata cache invalidated, " + this);
+    }
+
+    private IZosmfResponse await(Entry entry) throws ZosmfException {
+        try {
+            return entry.response.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZosmfException("Interrupted waiting for zOSMF response", e);
+        } catch (ExecutionException e) {
+            throw new ZosmfException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * @return a copy of the response that can be read any number of times
+     */
+    private IZosmfResponse buffer(IZosmfResponse response) throws ZosmfException {
+        Object content = response.getContent();
+        if (content instanceof InputStream) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            try (InputStream in = (InputStream) content) {
+                while ((count = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, count);
+                }
+            } catch (IOException e) {
+                throw new ZosmfException("Could not retrieve response", e);
+            } finally {
+                response.close();
+            }
+            content = bytes.toByteArray();
+        }
+        return new ZosmfResponseImpl(response.getRequestUrl(), content, response.getStatusCode(), response.getStatusLine());
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return the number of requests that waited for an identical request in
+     *         flight
+     */
+    public long getCoalesced() {
+        return this.coalesced.get();
+    }
+
+    public long getInvalidations() {
+        return this.invalidations.get();
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + getHits() + " misses=" + getMisses() + " coalesced=" + getCoalesced() + " invalidations="
+                + getInvalidations() + " entries=" + this.entries.size();
+    }
+
+}
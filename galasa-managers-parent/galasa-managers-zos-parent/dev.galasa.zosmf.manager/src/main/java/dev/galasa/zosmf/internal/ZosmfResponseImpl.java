@@ -5,13 +5,18 @@
  */
 package dev.galasa.zosmf.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
@@ -27,9 +32,18 @@ public class ZosmfResponseImpl implements IZosmfResponse {
     private Object content;
     private int statusCode;
     private String statusLine;
+    private CloseableHttpResponse httpResponse;
+    private Runnable onClose;
 
     public ZosmfResponseImpl(String url, String path) throws MalformedURLException {
-        this.requestUrl = new URL(url + path); 
+        this.requestUrl = new URL(url + path);
+    }
+
+    protected ZosmfResponseImpl(URL requestUrl, Object content, int statusCode, String statusLine) {
+        this.requestUrl = requestUrl;
+        this.content = content;
+        this.statusCode = statusCode;
+        this.statusLine = statusLine;
     }
 
     @Override
@@ -73,6 +87,62 @@ public class ZosmfResponseImpl implements IZosmfResponse {
         return this.content;
     }
 
+    @Override
+    public InputStream getStreamContent() throws ZosmfException {
+        if (this.content instanceof InputStream) {
+            return new FilterInputStream((InputStream) this.content) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        closeHttpResponse();
+                    }
+                }
+            };
+        } else if (this.content instanceof String) {
+            return new ByteArrayInputStream(((String) this.content).getBytes());
+        } else if (this.content instanceof byte[]) {
+            return new ByteArrayInputStream((byte[]) this.content);
+        } else if (this.content instanceof JsonElement) {
+            return new ByteArrayInputStream(this.content.toString().getBytes());
+        }
+        
+        throw new ZosmfException("Content not a stream - " + content.getClass().getName());
+    }
+
+    @Override
+    public ReadableByteChannel getChannelContent() throws ZosmfException {
+        return Channels.newChannel(getStreamContent());
+    }
+
+    @Override
+    public void close() throws ZosmfException {
+        try {
+            if (this.content instanceof InputStream) {
+                ((InputStream) this.content).close();
+            }
+            closeHttpResponse();
+        } catch (IOException e) {
+            throw new ZosmfException("Could not close response", e);
+        }
+    }
+
+    private synchronized void closeHttpResponse() throws IOException {
+        try {
+            if (this.httpResponse != null) {
+                this.httpResponse.close();
+            }
+        } finally {
+            // *** Release whatever was held while the content was being read, only once
+            Runnable release = this.onClose;
+            this.onClose = null;
+            if (release != null) {
+                release.run();
+            }
+        }
+    }
+
     @Override
     public int getStatusCode() {
         return this.statusCode;
@@ -96,6 +166,7 @@ public class ZosmfResponseImpl implements IZosmfResponse {
 
     protected void setHttpClientresponse(CloseableHttpResponse httpClientResponse) throws ZosmfException{
         try{
+            this.httpResponse = httpClientResponse;
             this.content = httpClientResponse.getEntity().getContent();
             this.statusCode = httpClientResponse.getStatusLine().getStatusCode();
             this.statusLine = httpClientResponse.getStatusLine().getReasonPhrase();
@@ -104,4 +175,21 @@ public class ZosmfResponseImpl implements IZosmfResponse {
         }
     }
 
+    /**
+     * Set a streaming response, onClose is run once the response or its stream is closed
+     */
+    protected void setHttpClientresponse(CloseableHttpResponse httpClientResponse, Runnable onClose) throws ZosmfException {
+        this.onClose = onClose;
+        try {
+            setHttpClientresponse(httpClientResponse);
+        } catch (ZosmfException e) {
+            try {
+                closeHttpResponse();
+            } catch (IOException e1) {
+                e.addSuppressed(e1);
+            }
+            throw e;
+        }
+    }
+
 }
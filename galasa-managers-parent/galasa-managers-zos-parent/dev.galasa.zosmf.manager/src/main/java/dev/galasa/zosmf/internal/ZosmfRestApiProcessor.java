@@ -5,14 +5,25 @@
  */
 package dev.galasa.zosmf.internal;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.validation.constraints.NotNull;
 
@@ -22,6 +33,7 @@ import org.apache.http.HttpStatus;
 
 import com.google.gson.JsonObject;
 
+import dev.galasa.http.HttpClientException;
 import dev.galasa.zosbatch.ZosBatchException;
 import dev.galasa.zosmf.IZosmf;
 import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
@@ -32,17 +44,65 @@ import dev.galasa.zosmf.ZosmfManagerException;
 
 public class ZosmfRestApiProcessor implements IZosmfRestApiProcessor {
     
-    private IZosmf currentZosmf;
-    private String currentZosmfImageId;
+    // *** The server chosen for the last request, only changed while choosing a server as requests are sent without a lock
+    private volatile IZosmf currentZosmf;
+    private volatile String currentZosmfImageId;
     
     private final HashMap<String, IZosmf> zosmfs = new LinkedHashMap<>();
     
+    private volatile ZosmfRouter.Decision lastRoutingDecision;
+    
+    private final ZosmfMetadataCache metadataCache;
+    
+    // *** The first retry waits up to this long, doubling for each retry after
+    protected static final long RETRY_BACKOFF_MILLISECONDS = 250;
+    protected static final long RETRY_BACKOFF_MAX_MILLISECONDS = 10_000;
+    
+    // *** The last asynchronous request to be sent in order, the next is sent when it completes
+    private CompletableFuture<IZosmfResponse> lastAsyncRequest = CompletableFuture.completedFuture(null);
+    private final Object asyncLock = new Object();
+    
+    // *** Threads shared by the asynchronous requests of every processor for the same servers, the requests in flight
+    // *** to each server are still limited by its ZosmfConnectionPool. Each set of servers has threads of its own, so
+    // *** requests waiting for a busy server do not hold up requests to the others
+    private static final int ASYNC_THREADS = 16;
+    private static final ConcurrentHashMap<String, ThreadPoolExecutor> asyncExecutors = new ConcurrentHashMap<>();
+    
+    private final ThreadPoolExecutor asyncExecutor;
+    
     private static final Log logger = LogFactory.getLog(ZosmfRestApiProcessor.class);
     
     public ZosmfRestApiProcessor(Map<String, IZosmf> zosmfs) {
+        this(zosmfs, null);
+    }
+    
+    /**
+     * @param zosmfs
+     * @param metadataCache the file listings shared by the processors of the run, or null to send every request
+     */
+    public ZosmfRestApiProcessor(Map<String, IZosmf> zosmfs, ZosmfMetadataCache metadataCache) {
         this.zosmfs.putAll(zosmfs);
         this.currentZosmfImageId = this.zosmfs.entrySet().iterator().next().getKey();
         this.currentZosmf = this.zosmfs.get(this.currentZosmfImageId);
+        this.metadataCache = metadataCache;
+        this.asyncExecutor = asyncExecutorFor(String.join(",", this.zosmfs.keySet()));
+    }
+    
+    /**
+     * @param servers the image ids of the zOSMF servers the requests can be sent to
+     * @return the threads for the asynchronous requests to the servers, created if this is the first processor for them
+     */
+    protected static ThreadPoolExecutor asyncExecutorFor(String servers) {
+        return asyncExecutors.computeIfAbsent(servers, key -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "zosmf-async-" + key + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
     }
     
     
@@ -57,62 +117,190 @@ public class ZosmfRestApiProcessor implements IZosmfRestApiProcessor {
      * @throws ZosBatchException
      */
     public @NotNull IZosmfResponse sendRequest(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert) throws ZosmfException {
-        if (validStatusCodes == null) {
-            validStatusCodes = new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
+        List<Integer> statusCodes = validStatusCodes != null ? validStatusCodes : new ArrayList<>(Arrays.asList(HttpStatus.SC_OK));
+        if (this.metadataCache != null) {
+            if (ZosmfMetadataCache.isMetadataRequest(requestType, path)) {
+                String key = String.join(",", this.zosmfs.keySet()) + " " + path + " " + (headers != null ? new TreeMap<>(headers) : "{}") + " " + statusCodes + " " + convert;
+                return this.metadataCache.get(key, () -> sendRequestToServer(requestType, path, headers, body, statusCodes, convert));
+            }
+            if (ZosmfMetadataCache.isInvalidatingRequest(requestType)) {
+                try {
+                    return sendRequestToServer(requestType, path, headers, body, statusCodes, convert);
+                } finally {
+                    this.metadataCache.invalidate();
+                }
+            }
         }
+        return sendRequestToServer(requestType, path, headers, body, statusCodes, convert);
+    }
+    
+    protected @NotNull IZosmfResponse sendRequestToServer(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert) throws ZosmfException {
+        Map<String, String> requestHeaders = headers != null ? headers : Collections.emptyMap();
         IZosmfResponse response = null;
         for (int i = 0; i <= ((ZosmfImpl) currentZosmf).getRequestRetry(); i++) {
+            if (i > 0) {
+                backoff(i);
+            }
+            String imageId = selectZosmf().getImageId();
+            ZosmfImpl zosmfServer = (ZosmfImpl) this.zosmfs.get(imageId);
+            logger.debug("Using zOSMF on " + zosmfServer);
+            ZosmfRouter.ServerStatistics statistics = ZosmfRouter.getStatistics(imageId);
+            long start = System.nanoTime();
+            boolean answered = false;
+            boolean serverFailed = false;
             try {
-                IZosmf zosmfServer = getCurrentZosmfServer();
-                if (headers != null) {
-                    for (Entry<String, String> entry : headers.entrySet()) {
-                        zosmfServer.setHeader(entry.getKey(), entry.getValue());
-                    }
-                }
+                // *** The headers are sent with this request only, so requests from other threads can use the server at the same time
                 switch (requestType) {
                 case GET:
-                    response = zosmfServer.get(path, validStatusCodes, convert);
+                    response = zosmfServer.get(path, requestHeaders, validStatusCodes, convert);
                     break;
                 case POST_JSON:
-                    response = zosmfServer.postJson(path, (JsonObject) body, validStatusCodes);
+                    response = zosmfServer.postJson(path, requestHeaders, (JsonObject) body, validStatusCodes);
                     break;
                 case PUT_TEXT:
-                    response = zosmfServer.putText(path, (String) body, validStatusCodes);
+                    response = zosmfServer.putText(path, requestHeaders, (String) body, validStatusCodes);
                     break;
                 case PUT_JSON:
-                    response = zosmfServer.putJson(path, (JsonObject) body, validStatusCodes);
+                    response = zosmfServer.putJson(path, requestHeaders, (JsonObject) body, validStatusCodes);
                     break;
                 case PUT_BINARY:
-                    response = zosmfServer.putBinary(path, (byte[]) body, validStatusCodes);
+                    response = zosmfServer.putBinary(path, requestHeaders, (byte[]) body, validStatusCodes);
                     break;
                 case DELETE:
-                    response = zosmfServer.delete(path, validStatusCodes);
+                    response = zosmfServer.delete(path, requestHeaders, validStatusCodes);
                     break;
                 default:
                     throw new ZosmfException("Invalid request type");
                 }
     
                 if (validStatusCodes.contains(response.getStatusCode())) {
+                    answered = true;
                     return response;
                 } else {
                     logger.error("Expected HTTP status codes: " + validStatusCodes);
-                    getNextZosmf();
+                    serverFailed = isServerError(response.getStatusCode());
+                    answered = !serverFailed;
+                    response.close();
                 }
+            } catch (ZosmfStatusCodeException e) {
+                logger.error("Problem with zOSMF request", e);
+                serverFailed = isServerError(e.getStatusCode());
+                answered = !serverFailed;
             } catch (ZosmfManagerException e) {
                 logger.error("Problem with zOSMF request", e);
-                getNextZosmf();
+                serverFailed = isTransportFailure(e);
+            } finally {
+                // *** Only a server that cannot be reached or cannot handle requests counts towards opening its circuit,
+                // *** a response the request did not expect still shows the server is working
+                if (answered) {
+                    statistics.succeeded(System.nanoTime() - start);
+                } else if (serverFailed) {
+                    statistics.failed();
+                } else {
+                    statistics.abandoned();
+                }
             }
         }
         throw new ZosmfException("Unable to get valid response from zOS/MF server");
     }
     
+    @Override
+    public @NotNull CompletableFuture<IZosmfResponse> sendRequestAsync(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return sendRequest(requestType, path, headers, body, validStatusCodes, convert);
+            } catch (ZosmfException e) {
+                throw new CompletionException(e);
+            }
+        }, asyncExecutor);
+    }
+    
+    @Override
+    public @NotNull CompletableFuture<IZosmfResponse> sendRequestAsyncInOrder(ZosmfRequestType requestType, String path, Map<String, String> headers, Object body, List<Integer> validStatusCodes, boolean convert) {
+        synchronized (this.asyncLock) {
+            CompletableFuture<IZosmfResponse> request = this.lastAsyncRequest.handleAsync((previousResponse, previousException) -> {
+                try {
+                    return sendRequest(requestType, path, headers, body, validStatusCodes, convert);
+                } catch (ZosmfException e) {
+                    throw new CompletionException(e);
+                }
+            }, asyncExecutor);
+            this.lastAsyncRequest = request;
+            return request;
+        }
+    }
+    
+    /**
+     * Choose the zOSMF server for the next request, moving round the servers in
+     * turn if the circuits of all of them are open
+     * 
+     * @return the server chosen and why
+     */
+    protected synchronized ZosmfRouter.Decision selectZosmf() {
+        ZosmfRouter.Decision decision = ZosmfRouter.select(this.zosmfs.keySet());
+        if (decision.getImageId() == null) {
+            getNextZosmf();
+            decision = ZosmfRouter.force(this.currentZosmfImageId, "next in turn as " + decision.getReason());
+        } else {
+            this.currentZosmfImageId = decision.getImageId();
+            this.currentZosmf = this.zosmfs.get(this.currentZosmfImageId);
+        }
+        this.lastRoutingDecision = decision;
+        logger.debug(decision);
+        return decision;
+    }
+    
+    /**
+     * @return true if the status code shows the server could not handle the request
+     */
+    protected boolean isServerError(int statusCode) {
+        return statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR;
+    }
+    
+    /**
+     * @return true if the request failed because the server could not be reached or the connection failed
+     */
+    protected boolean isTransportFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientException || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Wait before a retry, for a random time up to a limit that doubles with
+     * each retry so that retries from many threads do not arrive together
+     * 
+     * @param retry - the number of the retry, from 1
+     * @throws ZosmfException if the wait is interrupted
+     */
+    protected void backoff(int retry) throws ZosmfException {
+        long limit = RETRY_BACKOFF_MILLISECONDS << Math.min(retry - 1, 16);
+        long delay = ThreadLocalRandom.current().nextLong(Math.min(limit, RETRY_BACKOFF_MAX_MILLISECONDS) + 1);
+        logger.debug("Waiting " + delay + "ms before retrying zOSMF request");
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZosmfException("Interrupted waiting to retry zOSMF request", e);
+        }
+    }
+    
+    /**
+     * @return which zOSMF server the last request was sent to and why, or null
+     *         if no request has been sent
+     */
+    public ZosmfRouter.Decision getLastRoutingDecision() {
+        return this.lastRoutingDecision;
+    }
+    
     protected IZosmf getCurrentZosmfServer() {
-        logger.debug("Using zOSMF on " + this.currentZosmf);
-        this.currentZosmf.clearHeaders();
         return this.currentZosmf;
     }
 
-    protected void getNextZosmf() {
+    protected synchronized void getNextZosmf() {
         if (this.zosmfs.size() == 1) {
             logger.debug("Only one zOSMF server available");
             return;
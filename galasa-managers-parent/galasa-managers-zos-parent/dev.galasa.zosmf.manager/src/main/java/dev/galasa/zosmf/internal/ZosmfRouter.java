@@ -0,0 +1,272 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chooses which zOSMF server of a cluster a request is sent to, using the
+ * request statistics of each server in the JVM.
+ * <p>
+ * A request goes to the server with the fewest requests in flight, then the
+ * fewest recent failures, then the lowest average response time. A server
+ * that fails {@link #FAILURE_THRESHOLD} requests in a row has its circuit
+ * opened and is not used for {@link #OPEN_MILLISECONDS}, after which a single
+ * probe request is allowed through to decide whether to close the circuit
+ * again.
+ * </p>
+ */
+public class ZosmfRouter {
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // *** Consecutive failures that open the circuit of a server
+    protected static final int FAILURE_THRESHOLD = 3;
+    // *** How long an open circuit stays open before a probe request is allowed
+    protected static final long OPEN_MILLISECONDS = 30_000;
+    // *** Weight of the latest response time in the average
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    private static final ConcurrentHashMap<String, ServerStatistics> statistics = new ConcurrentHashMap<>();
+
+    private ZosmfRouter() {
+    }
+
+    /**
+     * @return the statistics of the server, created if this is the first
+     *         request for it
+     */
+    public static ServerStatistics getStatistics(String imageId) {
+        return statistics.computeIfAbsent(imageId, ServerStatistics::new);
+    }
+
+    /**
+     * @return the statistics of the servers used in the JVM, by image ID
+     */
+    public static Map<String, ServerStatistics> getAllStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Forget the statistics of every server
+     */
+    public static void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * Choose a server for a request and count the request as started on it,
+     * {@link ServerStatistics#succeeded(long)},
+     * {@link ServerStatistics#failed()} or
+     * {@link ServerStatistics#abandoned()} must be called when it is complete
+     *
+     * @param imageIds - the servers to choose from, in order of preference
+     *                 when all else is equal
+     * @return the decision, with a null image ID if the circuits of all the
+     *         servers are open
+     */
+    public static synchronized Decision select(Collection<String> imageIds) {
+        long now = System.currentTimeMillis();
+        ServerStatistics chosen = null;
+        for (String imageId : imageIds) {
+            ServerStatistics candidate = getStatistics(imageId);
+            if (candidate.allowsRequest(now) && (chosen == null || candidate.isBetterThan(chosen))) {
+                chosen = candidate;
+            }
+        }
+
+        if (chosen == null) {
+            return new Decision(null, "the circuits of all " + imageIds.size() + " servers are open");
+        }
+        String reason = chosen.getCircuitState(now) == CircuitState.CLOSED ? "best of " + imageIds.size() + " servers" : "probing half open circuit";
+        chosen.started(now);
+        return new Decision(chosen.getImageId(), reason + ", " + chosen);
+    }
+
+    /**
+     * Count a request as started on a server chosen without
+     * {@link #select(Collection)}
+     */
+    public static Decision force(String imageId, String reason) {
+        ServerStatistics chosen = getStatistics(imageId);
+        chosen.started(System.currentTimeMillis());
+        return new Decision(imageId, reason + ", " + chosen);
+    }
+
+    /**
+     * Why a request was sent to a server
+     */
+    public static class Decision {
+        private final String imageId;
+        private final String reason;
+
+        private Decision(String imageId, String reason) {
+            this.imageId = imageId;
+            this.reason = reason;
+        }
+
+        public String getImageId() {
+            return this.imageId;
+        }
+
+        public String getReason() {
+            return this.reason;
+        }
+
+        @Override
+        public String toString() {
+            return "zOSMF server " + this.imageId + " chosen: " + this.reason;
+        }
+    }
+
+    /**
+     * The requests sent to a zOSMF server and the state of its circuit
+     */
+    public static class ServerStatistics {
+        private final String imageId;
+
+        private int          requestsInFlight;
+        private long         requests;
+        private long         failures;
+        private int          consecutiveFailures;
+        // *** Negative until the first successful response
+        private double       averageNanoseconds = -1;
+        private CircuitState circuitState = CircuitState.CLOSED;
+        private long         openedAt;
+        private boolean      probeInFlight;
+
+        protected ServerStatistics(String imageId) {
+            this.imageId = imageId;
+        }
+
+        public String getImageId() {
+            return this.imageId;
+        }
+
+        protected synchronized boolean allowsRequest(long now) {
+            switch (getCircuitState(now)) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                return !this.probeInFlight;
+            default:
+                return false;
+            }
+        }
+
+        protected synchronized void started(long now) {
+            if (getCircuitState(now) == CircuitState.HALF_OPEN) {
+                this.circuitState = CircuitState.HALF_OPEN;
+                this.probeInFlight = true;
+            }
+            this.requestsInFlight++;
+            this.requests++;
+        }
+
+        /**
+         * @param nanoseconds - how long the request took
+         */
+        public synchronized void succeeded(long nanoseconds) {
+            this.requestsInFlight--;
+            this.consecutiveFailures = 0;
+            this.circuitState = CircuitState.CLOSED;
+            this.probeInFlight = false;
+            if (this.averageNanoseconds < 0) {
+                this.averageNanoseconds = nanoseconds;
+            } else {
+                this.averageNanoseconds += LATENCY_WEIGHT * (nanoseconds - this.averageNanoseconds);
+            }
+        }
+
+        public synchronized void failed() {
+            this.requestsInFlight--;
+            this.failures++;
+            this.consecutiveFailures++;
+            if (this.probeInFlight || this.consecutiveFailures >= FAILURE_THRESHOLD) {
+                if (this.circuitState != CircuitState.OPEN || this.probeInFlight) {
+                    this.openedAt = System.currentTimeMillis();
+                }
+                this.circuitState = CircuitState.OPEN;
+                this.probeInFlight = false;
+            }
+        }
+
+        /**
+         * The request ended without showing whether the server is working,
+         * for example because it was not sent
+         */
+        public synchronized void abandoned() {
+            this.requestsInFlight--;
+            this.probeInFlight = false;
+        }
+
+        private synchronized boolean isBetterThan(ServerStatistics other) {
+            synchronized (other) {
+                if (this.requestsInFlight != other.requestsInFlight) {
+                    return this.requestsInFlight < other.requestsInFlight;
+                }
+                if (this.consecutiveFailures != other.consecutiveFailures) {
+                    return this.consecutiveFailures < other.consecutiveFailures;
+                }
+                // *** A server with no response time yet is tried before the others
+                return Math.max(this.averageNanoseconds, 0) < Math.max(other.averageNanoseconds, 0);
+            }
+        }
+
+        public synchronized CircuitState getCircuitState() {
+            return getCircuitState(System.currentTimeMillis());
+        }
+
+        private synchronized CircuitState getCircuitState(long now) {
+            if (this.circuitState == CircuitState.OPEN && now - this.openedAt >= OPEN_MILLISECONDS) {
+                return CircuitState.HALF_OPEN;
+            }
+            return this.circuitState;
+        }
+
+        public synchronized int getRequestsInFlight() {
+            return this.requestsInFlight;
+        }
+
+        /**
+         * @return the total number of requests sent to the server
+         */
+        public synchronized long getRequests() {
+            return this.requests;
+        }
+
+        public synchronized long getFailures() {
+            return this.failures;
+        }
+
+        public synchronized int getConsecutiveFailures() {
+            return this.consecutiveFailures;
+        }
+
+        /**
+         * @return the weighted average response time in milliseconds, or -1 if
+         *         there has not been a successful response
+         */
+        public synchronized double getAverageMilliseconds() {
+            return this.averageNanoseconds < 0 ? -1 : this.averageNanoseconds / 1_000_000;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return this.imageId + " circuit=" + getCircuitState() + " inflight=" + this.requestsInFlight + " requests="
+                    + this.requests + " failures=" + this.failures + " consecutive=" + this.consecutiveFailures
+                    + " average=" + String.format("%.1fms", getAverageMilliseconds());
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import dev.galasa.zosmf.ZosmfException;
+
+/**
+ * A zOSMF response with an HTTP status code the request did not expect
+ */
+public class ZosmfStatusCodeException extends ZosmfException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public ZosmfStatusCodeException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return this.statusCode;
+    }
+
+}
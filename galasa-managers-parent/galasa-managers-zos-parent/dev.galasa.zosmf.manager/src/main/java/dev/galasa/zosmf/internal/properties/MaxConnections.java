@@ -0,0 +1,54 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+/**
+ * zOSMF Server maximum connections
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.server.[imageid].max.connections
+ * 
+ * @galasa.description The maximum number of keep-alive connections held open to the zOSMF server. The connections are 
+ * shared by all the zOSMF requests to the server from the JVM 
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 10
+ * 
+ * @galasa.valid_values 1 or greater
+ * 
+ * @galasa.examples 
+ * <code>zosmf.server.max.connections=10</code><br>
+ * <code>zosmf.server.SYSA.max.connections=20</code>
+ *
+ */
+public class MaxConnections extends CpsProperties {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+
+    public static int get(String imageId) throws ZosmfManagerException {
+        try {
+            String maxConnectionsString = getStringNulled(ZosmfPropertiesSingleton.cps(), "server", "max.connections", imageId);
+
+            if (maxConnectionsString == null) {
+                return DEFAULT_MAX_CONNECTIONS;
+            }
+            int maxConnections = Integer.parseInt(maxConnectionsString);
+            if (maxConnections < 1) {
+                throw new ZosmfManagerException("Invalid value (" + maxConnectionsString + ") for zOSMF server max connections property for zOS image "  + imageId + ". Must be 1 or greater");
+            }
+            return maxConnections;
+        } catch (ConfigurationPropertyStoreException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF server max connections property for zOS image "  + imageId, e);
+        }
+    }
+
+}
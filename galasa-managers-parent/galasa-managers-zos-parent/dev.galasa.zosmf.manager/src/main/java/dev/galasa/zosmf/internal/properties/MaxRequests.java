@@ -0,0 +1,54 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+/**
+ * zOSMF Server maximum concurrent requests
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.server.[imageid].max.requests
+ * 
+ * @galasa.description The maximum number of requests the JVM sends to the zOSMF server at the same time, further 
+ * requests wait for one to complete 
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 10
+ * 
+ * @galasa.valid_values 1 or greater
+ * 
+ * @galasa.examples 
+ * <code>zosmf.server.max.requests=10</code><br>
+ * <code>zosmf.server.SYSA.max.requests=4</code>
+ *
+ */
+public class MaxRequests extends CpsProperties {
+
+    private static final int DEFAULT_MAX_REQUESTS = 10;
+
+    public static int get(String imageId) throws ZosmfManagerException {
+        try {
+            String maxRequestsString = getStringNulled(ZosmfPropertiesSingleton.cps(), "server", "max.requests", imageId);
+
+            if (maxRequestsString == null) {
+                return DEFAULT_MAX_REQUESTS;
+            }
+            int maxRequests = Integer.parseInt(maxRequestsString);
+            if (maxRequests < 1) {
+                throw new ZosmfManagerException("Invalid value (" + maxRequestsString + ") for zOSMF server max requests property for zOS image "  + imageId + ". Must be 1 or greater");
+            }
+            return maxRequests;
+        } catch (ConfigurationPropertyStoreException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF server max requests property for zOS image "  + imageId, e);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+/**
+ * zOSMF metadata cache time to live
+ * 
+ * @galasa.cps.property
+ * 
+ * @galasa.name zosmf.metadata.cache.ttl
+ * 
+ * @galasa.description The number of seconds the data set, member and UNIX file listings returned by zOSMF are reused 
+ * for, unless a request through the zOSMF Manager that is not a GET could have changed a file. 0 turns off the cache. 
+ * Only set it when the files a test lists are not changed by anything outside the zOSMF Manager, such as a batch job 
+ * submitted some other way or the system under test
+ * 
+ * @galasa.required No
+ * 
+ * @galasa.default 0
+ * 
+ * @galasa.valid_values 0 or greater
+ * 
+ * @galasa.examples 
+ * <code>zosmf.metadata.cache.ttl=10</code>
+ *
+ */
+public class MetadataCacheTtl extends CpsProperties {
+
+    private static final int DEFAULT_METADATA_CACHE_TTL = 0;
+
+    public static int get() throws ZosmfManagerException {
+        try {
+            String ttlString = getStringNulled(ZosmfPropertiesSingleton.cps(), "metadata", "cache.ttl");
+
+            if (ttlString == null) {
+                return DEFAULT_METADATA_CACHE_TTL;
+            }
+            int ttl = Integer.parseInt(ttlString);
+            if (ttl < 0) {
+                throw new ZosmfManagerException("Invalid value (" + ttlString + ") for zOSMF metadata cache ttl property. Must be 0 or greater");
+            }
+            return ttl;
+        } catch (ConfigurationPropertyStoreException e) {
+            throw new ZosmfManagerException("Problem asking the CPS for the zOSMF metadata cache ttl property", e);
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zosmf.ZosmfException;
+
+public class TestZosmfConnectionPool {
+
+    private static final String ZOSMF_URL = "https://hostname:999";
+
+    @After
+    public void shutdown() {
+        ZosmfConnectionPool.shutdownAll();
+    }
+
+    @Test
+    public void testForServer() {
+        ZosmfConnectionPool pool = ZosmfConnectionPool.forServer(ZOSMF_URL, null, 4, 2);
+        Assert.assertSame("forServer() should return the same pool for the server", pool, ZosmfConnectionPool.forServer(ZOSMF_URL, null, 8, 8));
+        Assert.assertNotSame("forServer() should return a new pool for another server", pool, ZosmfConnectionPool.forServer("http://hostname:999", null, 4, 2));
+        Assert.assertSame("getPools() should return the pool", pool, ZosmfConnectionPool.getPools().get(ZOSMF_URL));
+
+        Assert.assertEquals("The first settings should be used", 2, pool.getMaxRequests());
+        Assert.assertEquals("The first settings should be used", 4, pool.getConnectionStats().getMax());
+        Assert.assertEquals("The first settings should be used", 4, pool.getMaxConnections());
+    }
+
+    @Test
+    public void testRequestLimit() throws Exception {
+        ZosmfConnectionPool pool = ZosmfConnectionPool.forServer(ZOSMF_URL, null, 4, 1);
+        pool.startRequest();
+        Assert.assertEquals("The request should be in flight", 1, pool.getRequestsInFlight());
+
+        CountDownLatch started = new CountDownLatch(1);
+        Thread second = new Thread(() -> {
+            try {
+                pool.startRequest();
+                started.countDown();
+                pool.endRequest();
+            } catch (ZosmfException e) {
+                // *** The latch will not be counted down
+            }
+        });
+        second.start();
+
+        Assert.assertFalse("The second request should wait", started.await(100, TimeUnit.MILLISECONDS));
+        Assert.assertEquals("The second request should be waiting", 1, pool.getWaitingRequests());
+
+        pool.endRequest();
+        Assert.assertTrue("The second request should start", started.await(5, TimeUnit.SECONDS));
+        second.join();
+
+        Assert.assertEquals("Both requests should be counted", 2, pool.getRequests());
+        Assert.assertEquals("No requests should be in flight", 0, pool.getRequestsInFlight());
+        Assert.assertEquals("No requests should be waiting", 0, pool.getWaitingRequests());
+    }
+
+    @Test
+    public void testInterrupted() throws Exception {
+        ZosmfConnectionPool pool = ZosmfConnectionPool.forServer(ZOSMF_URL, null, 4, 1);
+        pool.startRequest();
+
+        Thread.currentThread().interrupt();
+        try {
+            pool.startRequest();
+            Assert.fail("startRequest() should have been interrupted");
+        } catch (ZosmfException e) {
+            Assert.assertTrue("The interrupt should be kept", Thread.interrupted());
+            Assert.assertEquals("Unexpected message", "Interrupted waiting to send a request to zOSMF server " + ZOSMF_URL, e.getMessage());
+        }
+        pool.endRequest();
+    }
+}
@@ -7,10 +7,13 @@ package dev.galasa.zosmf.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 
+import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
@@ -25,34 +28,41 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.exceptions.base.MockitoException;
 import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
 import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
 
 import dev.galasa.ICredentials;
 import dev.galasa.ICredentialsToken;
 import dev.galasa.ICredentialsUsernamePassword;
 import dev.galasa.http.HttpClientException;
 import dev.galasa.http.HttpClientResponse;
-import dev.galasa.http.IHttpClient;
+import dev.galasa.http.internal.HttpClientImpl;
+import dev.galasa.http.spi.IHttpClientSpi;
 import dev.galasa.http.spi.IHttpManagerSpi;
 import dev.galasa.zos.IZosImage;
 import dev.galasa.zos.ZosManagerException;
 import dev.galasa.zos.internal.ZosManagerImpl;
+import dev.galasa.zosmf.IZosmf.ZosmfCustomHeaders;
 import dev.galasa.zosmf.IZosmfResponse;
 import dev.galasa.zosmf.IZosmfRestApiProcessor;
 import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
 import dev.galasa.zosmf.internal.properties.Https;
+import dev.galasa.zosmf.internal.properties.MaxConnections;
+import dev.galasa.zosmf.internal.properties.MaxRequests;
 import dev.galasa.zosmf.internal.properties.RequestRetry;
 import dev.galasa.zosmf.internal.properties.ServerHostname;
 import dev.galasa.zosmf.internal.properties.ServerImages;
 import dev.galasa.zosmf.internal.properties.ServerPort;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({ServerImages.class, ServerHostname.class, ServerPort.class, Https.class, RequestRetry.class})
+@PowerMockIgnore({"javax.net.ssl.*"})
+@PrepareForTest({ServerImages.class, ServerHostname.class, ServerPort.class, Https.class, RequestRetry.class, MaxConnections.class, MaxRequests.class})
 public class TestZosmfImpl {
     
     private ZosmfImpl zosmf;
@@ -69,7 +79,7 @@ public class TestZosmfImpl {
     private IHttpManagerSpi httpManagerMock;
     
     @Mock
-    private IHttpClient httpClientMock;
+    private IHttpClientSpi httpClientMock;
     
     @Mock
     private CloseableHttpResponse closeableHttpResponseMock;
@@ -131,6 +141,10 @@ public class TestZosmfImpl {
     private static final String EXCEPTION = "exception";
 
     private static final int REQUEST_RETRY = 5;
+
+    private static final int MAX_CONNECTIONS = 4;
+
+    private static final int MAX_REQUESTS = 2;
     
     @Before
     public void setup() throws Exception {
@@ -149,8 +163,15 @@ public class TestZosmfImpl {
         PowerMockito.mockStatic(Https.class);
         Mockito.when(Https.get(Mockito.any())).thenReturn(true);
         
+        PowerMockito.mockStatic(MaxConnections.class);
+        Mockito.when(MaxConnections.get(Mockito.any())).thenReturn(MAX_CONNECTIONS);
+        
+        PowerMockito.mockStatic(MaxRequests.class);
+        Mockito.when(MaxRequests.get(Mockito.any())).thenReturn(MAX_REQUESTS);
+        
         Whitebox.setInternalState(ZosmfManagerImpl.class, "httpManager", httpManagerMock);
         Mockito.when(httpManagerMock.newHttpClient()).thenReturn(httpClientMock);
+        Mockito.when(httpClientMock.withHeaders(Mockito.any())).thenReturn(httpClientMock);
         
         Whitebox.setInternalState(ZosmfManagerImpl.class, "zosManager", zosManagerMock);
         Mockito.when(zosManagerMock.getImageForTag(Mockito.any())).thenReturn(zosImageMock);
@@ -194,11 +215,86 @@ public class TestZosmfImpl {
         setupGet();
         IZosmfResponse zosmfResponse = zosmfSpy.get(PATH, null, false);
         Assert.assertEquals("get() should return the expected value", HttpStatus.SC_OK, zosmfResponse.getStatusCode());
+        zosmfResponse.close();
 
         zosmfResponse = zosmfSpy.get(PATH, new ArrayList<>(Arrays.asList(HttpStatus.SC_OK)), true);
         Assert.assertEquals("get() should return the expected value", HttpStatus.SC_OK, zosmfResponse.getStatusCode());
     }
     
+    @Test
+    public void testGetUsesConnectionPool() throws ZosmfException {
+        setupGet();
+        ZosmfConnectionPool pool = zosmfSpy.getConnectionPool();
+        Assert.assertSame("The pool should be shared by the server", ZosmfConnectionPool.getPools().get("https://" + HOSTNAME + ":" + PORT), pool);
+        Mockito.verify(httpClientMock, Mockito.atLeastOnce()).setConnectionManager(pool.getConnectionManager());
+        
+        long requests = pool.getRequests();
+        zosmfSpy.get(PATH, null, true);
+        Assert.assertEquals("get() should be counted by the pool", requests + 1, pool.getRequests());
+        Assert.assertEquals("get() should release the pool", 0, pool.getRequestsInFlight());
+    }
+    
+    @Test
+    public void testGetStreamHoldsPoolUntilClosed() throws ZosmfException, IOException {
+        setupGet();
+        ZosmfConnectionPool pool = zosmfSpy.getConnectionPool();
+        IZosmfResponse zosmfResponse = zosmfSpy.get(PATH, null, false);
+        Assert.assertEquals("get() should hold the pool while the content is streamed", 1, pool.getRequestsInFlight());
+        
+        zosmfResponse.getStreamContent().close();
+        Assert.assertEquals("Closing the stream should release the pool", 0, pool.getRequestsInFlight());
+        zosmfResponse.close();
+        Assert.assertEquals("The pool should only be released once", 0, pool.getRequestsInFlight());
+    }
+    
+    @Test
+    public void testGetReleasesConnection() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = CONTENT.getBytes();
+            exchange.sendResponseHeaders(HttpStatus.SC_NOT_FOUND, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            Mockito.when(ServerHostname.get(Mockito.any())).thenReturn(InetAddress.getLoopbackAddress().getHostAddress());
+            Mockito.when(ServerPort.get(Mockito.any())).thenReturn(Integer.toString(server.getAddress().getPort()));
+            Mockito.when(Https.get(Mockito.any())).thenReturn(false);
+            Mockito.when(httpManagerMock.newHttpClient()).thenReturn(new HttpClientImpl(5000, LogFactory.getLog(TestZosmfImpl.class)));
+            ZosmfImpl localZosmf = new ZosmfImpl(zosImageMock);
+            
+            // *** More requests than connections, so a leaked connection leaves the last request waiting for the pool
+            for (int i = 0; i <= MAX_CONNECTIONS; i++) {
+                try {
+                    localZosmf.get(PATH, null, false);
+                    Assert.fail("get() should throw an exception");
+                } catch (ZosmfException e) {
+                    Assert.assertEquals("exception should contain expected message", "Unexpected HTTP status code: " + HttpStatus.SC_NOT_FOUND, e.getMessage());
+                }
+            }
+            Assert.assertEquals("get() should release the connection", 0, localZosmf.getConnectionPool().getConnectionStats().getLeased());
+        } finally {
+            server.stop(0);
+        }
+    }
+    
+    @Test
+    public void testGetRequestHeaders() throws ZosmfException {
+        setupGet();
+        zosmfSpy.setHeader(KEY, VALUE);
+        HashMap<String, String> headers = new HashMap<>();
+        headers.put("request-key", VALUE);
+        zosmfSpy.get(PATH, headers, null, true);
+        
+        HashMap<String, String> expected = new HashMap<>(headers);
+        expected.put(ZosmfCustomHeaders.X_IBM_REQUESTED_METHOD.toString(), "GET");
+        Mockito.verify(httpClientMock).withHeaders(expected);
+        Mockito.verify(httpClientMock, Mockito.never()).addCommonHeader(Mockito.any(), Mockito.any());
+        HashMap<String, String> commonHeaders = Whitebox.getInternalState(zosmfSpy, "commonHeaders");
+        Assert.assertEquals("get() should not change the common headers", 1, commonHeaders.size());
+    }
+    
     @Test
     public void testGetBadHttpResponseException() throws ZosmfException {
         setupGet();
@@ -518,6 +614,24 @@ public class TestZosmfImpl {
         zosmfSpy.initialize();
     }
     
+    @Test
+    public void testInitializeMaxConnectionsException() throws Exception {
+        Mockito.when(MaxConnections.get(Mockito.any())).thenThrow(new ZosmfManagerException(EXCEPTION));
+        exceptionRule.expect(ZosmfException.class);
+        exceptionRule.expectMessage(EXCEPTION);
+        
+        zosmfSpy.initialize();
+    }
+    
+    @Test
+    public void testInitializeMaxRequestsException() throws Exception {
+        Mockito.when(MaxRequests.get(Mockito.any())).thenThrow(new ZosmfManagerException(EXCEPTION));
+        exceptionRule.expect(ZosmfException.class);
+        exceptionRule.expectMessage(EXCEPTION);
+        
+        zosmfSpy.initialize();
+    }
+    
     @Test
     public void testInitializeHttpClientException() throws Exception {
         Mockito.when(zosImageMock.getDefaultCredentials()).thenThrow(new ZosManagerException(EXCEPTION));
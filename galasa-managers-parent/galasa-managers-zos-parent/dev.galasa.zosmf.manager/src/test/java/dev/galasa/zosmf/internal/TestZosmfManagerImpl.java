@@ -30,8 +30,8 @@ import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.IResultArchiveStore;
-import dev.galasa.http.IHttpClient;
 import dev.galasa.http.internal.HttpManagerImpl;
+import dev.galasa.http.spi.IHttpClientSpi;
 import dev.galasa.zos.IZosImage;
 import dev.galasa.zos.ZosManagerException;
 import dev.galasa.zos.internal.ZosManagerImpl;
@@ -39,6 +39,9 @@ import dev.galasa.zosmf.IZosmf;
 import dev.galasa.zosmf.ZosmfException;
 import dev.galasa.zosmf.ZosmfManagerException;
 import dev.galasa.zosmf.internal.properties.Https;
+import dev.galasa.zosmf.internal.properties.MaxConnections;
+import dev.galasa.zosmf.internal.properties.MaxRequests;
+import dev.galasa.zosmf.internal.properties.MetadataCacheTtl;
 import dev.galasa.zosmf.internal.properties.RequestRetry;
 import dev.galasa.zosmf.internal.properties.ServerHostname;
 import dev.galasa.zosmf.internal.properties.ServerImages;
@@ -46,7 +49,7 @@ import dev.galasa.zosmf.internal.properties.ServerPort;
 import dev.galasa.zosmf.internal.properties.ZosmfPropertiesSingleton;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({ServerImages.class, ServerHostname.class, ServerPort.class, Https.class, RequestRetry.class})
+@PrepareForTest({ServerImages.class, ServerHostname.class, ServerPort.class, Https.class, RequestRetry.class, MaxConnections.class, MaxRequests.class, MetadataCacheTtl.class})
 public class TestZosmfManagerImpl {
     
     private ZosmfManagerImpl zosmfManager;
@@ -75,7 +78,7 @@ public class TestZosmfManagerImpl {
     private HttpManagerImpl httpManagerMock;
     
     @Mock
-    private IHttpClient httpClientMock;
+    private IHttpClientSpi httpClientMock;
 
     @Mock
     private IZosImage zosImageMock;
@@ -241,6 +244,7 @@ public class TestZosmfManagerImpl {
         
         Whitebox.setInternalState(zosmfManagerSpy, "zosmfs", zosmfs);
         Assert.assertEquals("newZosmfRestApiProcessor() should return the mocked ZosmfImpl", zosmfMock, ((ZosmfRestApiProcessor) zosmfManagerSpy.newZosmfRestApiProcessor(zosImageMock, true)).getCurrentZosmfServer());
+        Assert.assertSame("newZosmfRestApiProcessor() should share the metadata cache", Whitebox.getInternalState(zosmfManagerSpy.newZosmfRestApiProcessor(zosImageMock, false), "metadataCache"), Whitebox.getInternalState(zosmfManagerSpy.newZosmfRestApiProcessor(zosImageMock, true), "metadataCache"));
         
         zosmfs.clear();
         Whitebox.setInternalState(zosmfManagerSpy, "zosmfs", zosmfs);
@@ -265,6 +269,15 @@ public class TestZosmfManagerImpl {
         PowerMockito.mockStatic(Https.class);
         Mockito.when(Https.get(Mockito.any())).thenReturn(true);
         
+        PowerMockito.mockStatic(MaxConnections.class);
+        Mockito.when(MaxConnections.get(Mockito.any())).thenReturn(10);
+        
+        PowerMockito.mockStatic(MaxRequests.class);
+        Mockito.when(MaxRequests.get(Mockito.any())).thenReturn(10);
+        
+        PowerMockito.mockStatic(MetadataCacheTtl.class);
+        Mockito.when(MetadataCacheTtl.get()).thenReturn(5);
+        
         Whitebox.setInternalState(ZosmfManagerImpl.class, "httpManager", httpManagerMock);
         Mockito.when(httpManagerMock.newHttpClient()).thenReturn(httpClientMock);
        
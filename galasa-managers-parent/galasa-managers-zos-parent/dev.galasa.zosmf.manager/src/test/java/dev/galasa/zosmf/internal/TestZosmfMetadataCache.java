@@ -0,0 +1,126 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import java.io.ByteArrayInputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpStatus;
+import org.junit.Assert;
+import org.junit.Test;
+
+import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
+import dev.galasa.zosmf.IZosmfResponse;
+import dev.galasa.zosmf.ZosmfException;
+
+public class TestZosmfMetadataCache {
+
+    private static final String LIST_PATH = "/zosmf/restfiles/ds?dslevel=DATA.SET.NAME";
+
+    private static final String CONTENT = "{\"returnedRows\": 1}";
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private IZosmfResponse send(int statusCode) throws ZosmfException {
+        requests.incrementAndGet();
+        try {
+            return new ZosmfResponseImpl(new URL("http://domain" + LIST_PATH), new ByteArrayInputStream(CONTENT.getBytes()), statusCode, "status-line");
+        } catch (MalformedURLException e) {
+            throw new ZosmfException(e.getMessage(), e);
+        }
+    }
+
+    @Test
+    public void testIsMetadataRequest() {
+        Assert.assertTrue("A data set list should be cached", ZosmfMetadataCache.isMetadataRequest(ZosmfRequestType.GET, LIST_PATH));
+        Assert.assertTrue("A member list should be cached", ZosmfMetadataCache.isMetadataRequest(ZosmfRequestType.GET, "/zosmf/restfiles/ds/DATA.SET.NAME/member?pattern=MEMBER"));
+        Assert.assertTrue("A UNIX file list should be cached", ZosmfMetadataCache.isMetadataRequest(ZosmfRequestType.GET, "/zosmf/restfiles/fs?path=/u/user"));
+        Assert.assertFalse("Content should not be cached", ZosmfMetadataCache.isMetadataRequest(ZosmfRequestType.GET, "/zosmf/restfiles/ds/DATA.SET.NAME(MEMBER)"));
+        Assert.assertFalse("A change should not be cached", ZosmfMetadataCache.isMetadataRequest(ZosmfRequestType.PUT_TEXT, LIST_PATH));
+
+        Assert.assertTrue("A store should invalidate", ZosmfMetadataCache.isInvalidatingRequest(ZosmfRequestType.PUT_TEXT));
+        Assert.assertTrue("A delete should invalidate", ZosmfMetadataCache.isInvalidatingRequest(ZosmfRequestType.DELETE));
+        Assert.assertTrue("A job should invalidate", ZosmfMetadataCache.isInvalidatingRequest(ZosmfRequestType.PUT_JSON));
+        Assert.assertTrue("A TSO or console command should invalidate", ZosmfMetadataCache.isInvalidatingRequest(ZosmfRequestType.POST_JSON));
+        Assert.assertFalse("A list should not invalidate", ZosmfMetadataCache.isInvalidatingRequest(ZosmfRequestType.GET));
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        ZosmfMetadataCache cache = new ZosmfMetadataCache(60);
+
+        IZosmfResponse response = cache.get("key", () -> send(HttpStatus.SC_OK));
+        Assert.assertEquals("get() should return the content", 1, response.getJsonContent().get("returnedRows").getAsInt());
+        Assert.assertSame("get() should return the kept response", response, cache.get("key", () -> send(HttpStatus.SC_OK)));
+        Assert.assertEquals("The kept content should be readable again", 1, response.getJsonContent().get("returnedRows").getAsInt());
+        Assert.assertEquals("One request should be sent", 1, requests.get());
+        Assert.assertEquals("get() should count the hit", 1, cache.getHits());
+        Assert.assertEquals("get() should count the miss", 1, cache.getMisses());
+
+        cache.invalidate();
+        cache.get("key", () -> send(HttpStatus.SC_OK));
+        Assert.assertEquals("invalidate() should drop the response", 2, requests.get());
+
+        cache.get("other", () -> send(HttpStatus.SC_NOT_FOUND));
+        cache.get("other", () -> send(HttpStatus.SC_NOT_FOUND));
+        Assert.assertEquals("An error response should not be kept", 4, requests.get());
+
+        ZosmfMetadataCache disabled = new ZosmfMetadataCache(0);
+        disabled.get("key", () -> send(HttpStatus.SC_OK));
+        disabled.get("key", () -> send(HttpStatus.SC_OK));
+        Assert.assertEquals("A TTL of 0 should keep nothing", 6, requests.get());
+    }
+
+    @Test
+    public void testCoalesced() throws Exception {
+        ZosmfMetadataCache cache = new ZosmfMetadataCache(60);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AtomicReference<IZosmfResponse> waited = new AtomicReference<>();
+        Thread first = new Thread(() -> {
+            try {
+                cache.get("key", () -> {
+                    sending.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return send(HttpStatus.SC_OK);
+                });
+            } catch (ZosmfException e) {
+                // *** The second request will not get a response
+            }
+        });
+        first.start();
+        Assert.assertTrue("The first request should be sent", sending.await(5, TimeUnit.SECONDS));
+
+        Thread second = new Thread(() -> {
+            try {
+                waited.set(cache.get("key", () -> send(HttpStatus.SC_OK)));
+            } catch (ZosmfException e) {
+                // *** The response will be null
+            }
+        });
+        second.start();
+        while (cache.getCoalesced() == 0) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        Assert.assertNotNull("The second request should get the response of the first", waited.get());
+        Assert.assertEquals("One request should be sent", 1, requests.get());
+        Assert.assertEquals("get() should count the coalesced request", 1, cache.getCoalesced());
+    }
+}
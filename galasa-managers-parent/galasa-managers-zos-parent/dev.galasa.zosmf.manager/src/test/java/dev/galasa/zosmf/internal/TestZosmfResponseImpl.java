@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 
 import org.apache.commons.io.IOUtils;
@@ -145,6 +147,52 @@ public class TestZosmfResponseImpl {
         zosmfResponseSpy.getTextContent();
     }
     
+    @Test
+    public void testGetStreamContent() throws ZosmfException, IOException {
+        Whitebox.setInternalState(zosmfResponseSpy, "content", CONTENT_STRING);
+        Assert.assertEquals("getStreamContent() should return the expected value", CONTENT_STRING, IOUtils.toString(zosmfResponseSpy.getStreamContent(), StandardCharsets.UTF_8));
+        
+        Whitebox.setInternalState(zosmfResponseSpy, "content", CONTENT_STRING.getBytes());
+        Assert.assertEquals("getStreamContent() should return the expected value", CONTENT_STRING, IOUtils.toString(zosmfResponseSpy.getStreamContent(), StandardCharsets.UTF_8));
+        
+        Whitebox.setInternalState(zosmfResponseSpy, "content", JSONOBJECT_CONTENT);
+        Assert.assertEquals("getStreamContent() should return the expected value", JSONOBJECT_CONTENT.toString(), IOUtils.toString(zosmfResponseSpy.getStreamContent(), StandardCharsets.UTF_8));
+        
+        Mockito.when(closeableHttpResponseMock.getEntity()).thenReturn(httpEntity);        
+        Mockito.when(httpEntity.getContent()).thenReturn(new ByteArrayInputStream(CONTENT_STRING.getBytes()));
+        Mockito.when(closeableHttpResponseMock.getStatusLine()).thenReturn(statusLineMock);
+        zosmfResponseSpy.setHttpClientresponse(closeableHttpResponseMock);
+        ReadableByteChannel channel = zosmfResponseSpy.getChannelContent();
+        ByteBuffer buffer = ByteBuffer.allocate(CONTENT_STRING.length());
+        channel.read(buffer);
+        Assert.assertEquals("getChannelContent() should return the expected value", CONTENT_STRING, new String(buffer.array()));
+        Mockito.verify(closeableHttpResponseMock, Mockito.times(0)).close();
+        channel.close();
+        Mockito.verify(closeableHttpResponseMock, Mockito.times(1)).close();
+        
+        Whitebox.setInternalState(zosmfResponseSpy, "content", new Integer(0));
+        exceptionRule.expect(ZosmfException.class);
+        exceptionRule.expectMessage("Content not a stream - " + Integer.class.getName());
+        zosmfResponseSpy.getStreamContent();
+    }
+    
+    @Test
+    public void testClose() throws ZosmfException, IOException {
+        zosmfResponseSpy.close();
+        
+        Mockito.when(closeableHttpResponseMock.getEntity()).thenReturn(httpEntity);        
+        Mockito.when(httpEntity.getContent()).thenReturn(new ByteArrayInputStream(CONTENT_STRING.getBytes()));
+        Mockito.when(closeableHttpResponseMock.getStatusLine()).thenReturn(statusLineMock);
+        zosmfResponseSpy.setHttpClientresponse(closeableHttpResponseMock);
+        zosmfResponseSpy.close();
+        Mockito.verify(closeableHttpResponseMock, Mockito.times(1)).close();
+        
+        Mockito.doThrow(new IOException()).when(closeableHttpResponseMock).close();
+        exceptionRule.expect(ZosmfException.class);
+        exceptionRule.expectMessage("Could not close response");
+        zosmfResponseSpy.close();
+    }
+    
     @Test
     public void testSetHttpClientresponseHttpClientResponse() throws ZosmfException {
         Mockito.when(httpClientResponseStringMock.getContent()).thenReturn(CONTENT_STRING);
@@ -5,10 +5,15 @@
  */
 package dev.galasa.zosmf.internal;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpStatus;
 import org.junit.Assert;
@@ -16,6 +21,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
@@ -23,6 +29,7 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
+import dev.galasa.http.HttpClientException;
 import dev.galasa.zos.IZosImage;
 import dev.galasa.zosmf.IZosmf;
 import dev.galasa.zosmf.IZosmf.ZosmfRequestType;
@@ -65,13 +72,15 @@ public class TestZosmfRestApiProcessor {
         zosmfRestApiProcessor = new ZosmfRestApiProcessor(zosmfs);
         zosmfRestApiProcessorSpy = PowerMockito.spy(zosmfRestApiProcessor);
         Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
-        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
         Mockito.when(zosmfMock1.getRequestRetry()).thenReturn(1);
         HashMap<String, String> headers = new HashMap<>();
         headers.put("key", "value");
         
         IZosmfResponse response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.GET, PATH, headers, null, new ArrayList<>(Arrays.asList(HttpStatus.SC_OK)), false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
+        Mockito.verify(zosmfMock1).get(Mockito.eq(PATH), Mockito.eq(headers), Mockito.any(), Mockito.eq(false));
+        Mockito.verify(zosmfMock1, Mockito.never()).setHeader(Mockito.any(), Mockito.any());
         
         response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.GET, PATH, null, null, null, false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
@@ -85,27 +94,27 @@ public class TestZosmfRestApiProcessor {
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
 
         Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
-        Mockito.when(zosmfMock1.postJson(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.postJson(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
         response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.POST_JSON, PATH, null, null, null, false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
 
         Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
-        Mockito.when(zosmfMock1.putText(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.putText(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
         response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.PUT_TEXT, PATH, null, null, null, false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
 
         Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
-        Mockito.when(zosmfMock1.putJson(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.putJson(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
         response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.PUT_JSON, PATH, null, null, null, false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
 
         Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
-        Mockito.when(zosmfMock1.putBinary(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.putBinary(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
         response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.PUT_BINARY, PATH, null, null, null, false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
 
         Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
-        Mockito.when(zosmfMock1.delete(Mockito.anyString(), Mockito.any())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.delete(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
         response = zosmfRestApiProcessorSpy.sendRequest(ZosmfRequestType.DELETE, PATH, null, null, null, false);
         Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
 
@@ -115,6 +124,152 @@ public class TestZosmfRestApiProcessor {
         zosmfRestApiProcessorSpy.sendRequest(INVALID, PATH, null, null, null, false);
     }
     
+    @Test
+    public void testSendRequestAsync() throws Exception {
+        zosmfs.put("image1", zosmfMock1);
+        zosmfRestApiProcessor = new ZosmfRestApiProcessor(zosmfs);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfMock1.delete(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return zosmfResponseMock;
+        });
+        
+        CompletableFuture<IZosmfResponse> first = zosmfRestApiProcessor.sendRequestAsync(ZosmfRequestType.GET, PATH, null, null, null, false);
+        CompletableFuture<IZosmfResponse> second = zosmfRestApiProcessor.sendRequestAsync(ZosmfRequestType.DELETE, PATH, null, null, null, false);
+        Assert.assertEquals("sendRequestAsync() should return the expected value", HttpStatus.SC_OK, second.get(10, TimeUnit.SECONDS).getStatusCode());
+        Assert.assertFalse("sendRequestAsync() should not wait for an earlier request", first.isDone());
+        release.countDown();
+        Assert.assertEquals("sendRequestAsync() should return the expected value", HttpStatus.SC_OK, first.get(10, TimeUnit.SECONDS).getStatusCode());
+    }
+    
+    @Test
+    public void testSendRequestAsyncBusyServer() throws Exception {
+        zosmfs.put("busy", zosmfMock1);
+        ZosmfRestApiProcessor busyProcessor = new ZosmfRestApiProcessor(zosmfs);
+        HashMap<String, IZosmf> otherZosmfs = new LinkedHashMap<>();
+        otherZosmfs.put("other", zosmfMock2);
+        ZosmfRestApiProcessor otherProcessor = new ZosmfRestApiProcessor(otherZosmfs);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfMock2.get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        
+        // *** Every thread for the busy server waits, as if for a request permit
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return zosmfResponseMock;
+        });
+        ArrayList<CompletableFuture<IZosmfResponse>> busy = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            busy.add(busyProcessor.sendRequestAsync(ZosmfRequestType.GET, PATH, null, null, null, false));
+        }
+        
+        CompletableFuture<IZosmfResponse> other = otherProcessor.sendRequestAsync(ZosmfRequestType.GET, PATH, null, null, null, false);
+        Assert.assertEquals("sendRequestAsync() should not wait for another server", HttpStatus.SC_OK, other.get(5, TimeUnit.SECONDS).getStatusCode());
+        Assert.assertFalse("The busy server should still be waiting", busy.get(0).isDone());
+        
+        release.countDown();
+        for (CompletableFuture<IZosmfResponse> request : busy) {
+            Assert.assertEquals("sendRequestAsync() should return the expected value", HttpStatus.SC_OK, request.get(10, TimeUnit.SECONDS).getStatusCode());
+        }
+    }
+    
+    @Test
+    public void testSendRequestAsyncInOrder() throws Exception {
+        zosmfs.put("image1", zosmfMock1);
+        zosmfRestApiProcessor = new ZosmfRestApiProcessor(zosmfs);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.delete(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        
+        CompletableFuture<IZosmfResponse> first = zosmfRestApiProcessor.sendRequestAsyncInOrder(ZosmfRequestType.GET, PATH, null, null, null, false);
+        CompletableFuture<IZosmfResponse> second = zosmfRestApiProcessor.sendRequestAsyncInOrder(ZosmfRequestType.DELETE, PATH, null, null, null, false);
+        Assert.assertEquals("sendRequestAsyncInOrder() should return the expected value", HttpStatus.SC_OK, second.get(10, TimeUnit.SECONDS).getStatusCode());
+        Assert.assertTrue("sendRequestAsyncInOrder() should complete the requests in order", first.isDone());
+        InOrder inOrder = Mockito.inOrder(zosmfMock1);
+        inOrder.verify(zosmfMock1).get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        inOrder.verify(zosmfMock1).delete(Mockito.anyString(), Mockito.any(), Mockito.any());
+        
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_NOT_FOUND);
+        CompletableFuture<IZosmfResponse> failed = zosmfRestApiProcessor.sendRequestAsyncInOrder(ZosmfRequestType.GET, PATH, null, null, null, false);
+        try {
+            failed.get(10, TimeUnit.SECONDS);
+            Assert.fail("sendRequestAsyncInOrder() should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue("sendRequestAsyncInOrder() should fail with a ZosmfException", e.getCause() instanceof ZosmfException);
+            Assert.assertEquals("exception should contain expected message", "Unable to get valid response from zOS/MF server", e.getCause().getMessage());
+        }
+    }
+    
+    @Test
+    public void testSendRequestCircuitFailures() throws ZosmfException {
+        ZosmfRouter.reset();
+        zosmfs.put("image1", zosmfMock1);
+        zosmfRestApiProcessor = new ZosmfRestApiProcessor(zosmfs);
+        ZosmfRouter.ServerStatistics statistics = ZosmfRouter.getStatistics("image1");
+        
+        Mockito.doThrow(new ZosmfStatusCodeException("Unexpected HTTP status code: " + HttpStatus.SC_NOT_FOUND, HttpStatus.SC_NOT_FOUND)).when(zosmfMock1).get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        sendFailingRequest();
+        Assert.assertEquals("A client error should not count against the server", 0, statistics.getFailures());
+        
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_CONFLICT);
+        Mockito.when(zosmfMock1.delete(Mockito.anyString(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        try {
+            zosmfRestApiProcessor.sendRequest(ZosmfRequestType.DELETE, PATH, null, null, null, false);
+            Assert.fail("sendRequest() should throw an exception");
+        } catch (ZosmfException e) {
+            Assert.assertEquals("An unexpected response should not count against the server", 0, statistics.getFailures());
+        }
+        
+        Mockito.doThrow(new ZosmfStatusCodeException("Unexpected HTTP status code: " + HttpStatus.SC_SERVICE_UNAVAILABLE, HttpStatus.SC_SERVICE_UNAVAILABLE)).when(zosmfMock1).get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        sendFailingRequest();
+        Assert.assertEquals("A server error should count against the server", 1, statistics.getFailures());
+        
+        Mockito.doThrow(new ZosmfException("Problem wth GET to zOSMF server", new HttpClientException("Error executing http request", new IOException()))).when(zosmfMock1).get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        sendFailingRequest();
+        Assert.assertEquals("A connection failure should count against the server", 2, statistics.getFailures());
+        Assert.assertEquals("The requests should be complete", 0, statistics.getRequestsInFlight());
+        ZosmfRouter.reset();
+    }
+    
+    private void sendFailingRequest() {
+        try {
+            zosmfRestApiProcessor.sendRequest(ZosmfRequestType.GET, PATH, null, null, null, false);
+            Assert.fail("sendRequest() should throw an exception");
+        } catch (ZosmfException e) {
+            Assert.assertEquals("exception should contain expected message", "Unable to get valid response from zOS/MF server", e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testSendRequestMetadataCache() throws ZosmfException {
+        zosmfs.put("image1", zosmfMock1);
+        ZosmfMetadataCache metadataCache = new ZosmfMetadataCache(60);
+        zosmfRestApiProcessor = new ZosmfRestApiProcessor(zosmfs, metadataCache);
+        Mockito.when(zosmfResponseMock.getStatusCode()).thenReturn(HttpStatus.SC_OK);
+        Mockito.when(zosmfMock1.get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.putText(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        Mockito.when(zosmfMock1.putJson(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(zosmfResponseMock);
+        String listPath = "/zosmf/restfiles/ds?dslevel=DATA.SET.NAME";
+        
+        zosmfRestApiProcessor.sendRequest(ZosmfRequestType.GET, listPath, null, null, null, true);
+        IZosmfResponse response = zosmfRestApiProcessor.sendRequest(ZosmfRequestType.GET, listPath, null, null, null, true);
+        Assert.assertEquals("sendRequest() should return the expected value", HttpStatus.SC_OK, response.getStatusCode());
+        Mockito.verify(zosmfMock1, Mockito.times(1)).get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        Assert.assertEquals("sendRequest() should use the kept listing", 1, metadataCache.getHits());
+        
+        zosmfRestApiProcessor.sendRequest(ZosmfRequestType.PUT_TEXT, "/zosmf/restfiles/ds/DATA.SET.NAME", null, "content", null, false);
+        Assert.assertEquals("sendRequest() should invalidate the listings", 1, metadataCache.getInvalidations());
+        
+        zosmfRestApiProcessor.sendRequest(ZosmfRequestType.GET, listPath, null, null, null, true);
+        Mockito.verify(zosmfMock1, Mockito.times(2)).get(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.anyBoolean());
+        
+        zosmfRestApiProcessor.sendRequest(ZosmfRequestType.PUT_JSON, "/zosmf/restjobs/jobs", null, null, null, false);
+        Assert.assertEquals("A job should invalidate the listings", 2, metadataCache.getInvalidations());
+    }
+    
     @Test
     public void testGetCurrentZosmfServer() throws ZosmfException {
         zosmfs.put("image1", zosmfMock1);
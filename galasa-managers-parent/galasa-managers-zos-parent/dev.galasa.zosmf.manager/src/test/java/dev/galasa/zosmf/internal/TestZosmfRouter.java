@@ -0,0 +1,85 @@
+/*
+ * Licensed Materials - Property of IBM
+ *
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import dev.galasa.zosmf.internal.ZosmfRouter.CircuitState;
+import dev.galasa.zosmf.internal.ZosmfRouter.Decision;
+import dev.galasa.zosmf.internal.ZosmfRouter.ServerStatistics;
+
+public class TestZosmfRouter {
+
+    private static final List<String> IMAGES = Arrays.asList("image1", "image2");
+
+    @After
+    public void reset() {
+        ZosmfRouter.reset();
+    }
+
+    @Test
+    public void testSelectSpreadsRequests() {
+        Decision first = ZosmfRouter.select(IMAGES);
+        Assert.assertEquals("select() should choose the first server when all are equal", "image1", first.getImageId());
+
+        Decision second = ZosmfRouter.select(IMAGES);
+        Assert.assertEquals("select() should choose the server with fewer requests in flight", "image2", second.getImageId());
+
+        ZosmfRouter.getStatistics("image1").succeeded(5_000_000);
+        ZosmfRouter.getStatistics("image2").succeeded(1_000_000);
+        Assert.assertEquals("select() should choose the faster server", "image2", ZosmfRouter.select(IMAGES).getImageId());
+        Assert.assertEquals("getRequests() should count the requests", 2, ZosmfRouter.getStatistics("image2").getRequests());
+    }
+
+    @Test
+    public void testCircuitOpensAfterFailures() {
+        ServerStatistics statistics = ZosmfRouter.getStatistics("image1");
+        for (int i = 0; i < ZosmfRouter.FAILURE_THRESHOLD; i++) {
+            Assert.assertEquals("select() should choose the server while its circuit is closed", "image1", ZosmfRouter.select(IMAGES.subList(0, 1)).getImageId());
+            statistics.failed();
+        }
+        Assert.assertEquals("The circuit should be open", CircuitState.OPEN, statistics.getCircuitState());
+        Assert.assertEquals("select() should avoid the open circuit", "image2", ZosmfRouter.select(IMAGES).getImageId());
+        Assert.assertNull("select() should choose no server when all circuits are open", ZosmfRouter.select(IMAGES.subList(0, 1)).getImageId());
+    }
+
+    @Test
+    public void testHalfOpenProbe() {
+        ServerStatistics statistics = ZosmfRouter.getStatistics("image1");
+        for (int i = 0; i < ZosmfRouter.FAILURE_THRESHOLD; i++) {
+            ZosmfRouter.select(IMAGES.subList(0, 1));
+            statistics.failed();
+        }
+        Whitebox.setInternalState(statistics, "openedAt", System.currentTimeMillis() - ZosmfRouter.OPEN_MILLISECONDS);
+        Assert.assertEquals("The circuit should be half open", CircuitState.HALF_OPEN, statistics.getCircuitState());
+
+        Decision probe = ZosmfRouter.select(IMAGES.subList(0, 1));
+        Assert.assertEquals("select() should allow a probe request", "image1", probe.getImageId());
+        Assert.assertNull("select() should allow only one probe request", ZosmfRouter.select(IMAGES.subList(0, 1)).getImageId());
+
+        statistics.succeeded(1_000_000);
+        Assert.assertEquals("A successful probe should close the circuit", CircuitState.CLOSED, statistics.getCircuitState());
+        Assert.assertEquals("The failures should be reset", 0, statistics.getConsecutiveFailures());
+    }
+
+    @Test
+    public void testAbandoned() {
+        ServerStatistics statistics = ZosmfRouter.getStatistics("image1");
+        ZosmfRouter.select(IMAGES.subList(0, 1));
+        statistics.failed();
+        ZosmfRouter.select(IMAGES.subList(0, 1));
+        statistics.abandoned();
+        Assert.assertEquals("abandoned() should complete the request", 0, statistics.getRequestsInFlight());
+        Assert.assertEquals("abandoned() should not reset the failures", 1, statistics.getConsecutiveFailures());
+        Assert.assertEquals("abandoned() should not count a failure", 1, statistics.getFailures());
+    }
+}
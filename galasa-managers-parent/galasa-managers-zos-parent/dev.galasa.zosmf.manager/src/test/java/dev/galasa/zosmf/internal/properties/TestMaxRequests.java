@@ -0,0 +1,95 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ZosmfPropertiesSingleton.class, CpsProperties.class})
+public class TestMaxRequests {
+    
+    @Mock
+    private IConfigurationPropertyStoreService configurationPropertyStoreServiceMock;
+    
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
+    
+    private static final String IMAGE_ID = "IMAGE";
+    
+    private static final int DEFAULT_MAX_REQUESTS = 10;
+    
+    @Test
+    public void testConstructor() {
+        MaxRequests maxRequests = new MaxRequests();
+        Assert.assertNotNull("Object was not created", maxRequests);
+    }
+    
+    @Test
+    public void testNull() throws Exception {
+        Assert.assertEquals("Unexpected value returned from MaxRequests.get()", DEFAULT_MAX_REQUESTS, getProperty(null));
+    }
+    
+    @Test
+    public void testValid() throws Exception {
+        Assert.assertEquals("Unexpected value returned from MaxRequests.get()", 1, getProperty("1"));
+        Assert.assertEquals("Unexpected value returned from MaxRequests.get()", Integer.MAX_VALUE, getProperty(String.valueOf(Integer.MAX_VALUE)));
+    }
+    
+    @Test
+    public void testInvalidString() throws Exception {
+        exceptionRule.expect(NumberFormatException.class);
+        exceptionRule.expectMessage("For input string: \"XXX\"");
+
+        getProperty("XXX");
+    }
+    
+    @Test
+    public void testInvalidTooSmall() throws Exception {
+        exceptionRule.expect(ZosmfManagerException.class);
+        exceptionRule.expectMessage("Invalid value (0) for zOSMF server max requests property for zOS image "  + IMAGE_ID + ". Must be 1 or greater");
+        getProperty("0");
+    }
+    
+    @Test
+    public void testException() throws Exception {
+        exceptionRule.expect(ZosmfManagerException.class);
+        exceptionRule.expectMessage("Problem asking the CPS for the zOSMF server max requests property for zOS image " + IMAGE_ID);
+        
+        getProperty("ANY", true);
+    }
+
+    private int getProperty(String value) throws Exception {
+        return getProperty(value, false);
+    }
+    
+    private int getProperty(String value, boolean exception) throws Exception {
+        PowerMockito.spy(ZosmfPropertiesSingleton.class);
+        PowerMockito.doReturn(configurationPropertyStoreServiceMock).when(ZosmfPropertiesSingleton.class, "cps");
+        PowerMockito.spy(CpsProperties.class);
+        
+        if (!exception) {
+            PowerMockito.doReturn(value).when(CpsProperties.class, "getStringNulled", Mockito.any(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());            
+        } else {
+            PowerMockito.doThrow(new ConfigurationPropertyStoreException()).when(CpsProperties.class, "getStringNulled", Mockito.any(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+        }
+        
+        return MaxRequests.get(IMAGE_ID);
+    }
+}
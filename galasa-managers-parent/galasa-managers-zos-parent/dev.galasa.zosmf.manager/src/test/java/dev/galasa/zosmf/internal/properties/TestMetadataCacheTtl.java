@@ -0,0 +1,94 @@
+/*
+ * Licensed Materials - Property of IBM
+ * 
+ * (c) Copyright IBM Corp. 2020.
+ */
+package dev.galasa.zosmf.internal.properties;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+import dev.galasa.framework.spi.cps.CpsProperties;
+import dev.galasa.zosmf.ZosmfManagerException;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ZosmfPropertiesSingleton.class, CpsProperties.class})
+public class TestMetadataCacheTtl {
+    
+    @Mock
+    private IConfigurationPropertyStoreService configurationPropertyStoreServiceMock;
+    
+    @Rule
+    public ExpectedException exceptionRule = ExpectedException.none();
+    
+    private static final int DEFAULT_METADATA_CACHE_TTL = 0;
+    
+    @Test
+    public void testConstructor() {
+        MetadataCacheTtl metadataCacheTtl = new MetadataCacheTtl();
+        Assert.assertNotNull("Object was not created", metadataCacheTtl);
+    }
+    
+    @Test
+    public void testNull() throws Exception {
+        Assert.assertEquals("Unexpected value returned from MetadataCacheTtl.get()", DEFAULT_METADATA_CACHE_TTL, getProperty(null));
+    }
+    
+    @Test
+    public void testValid() throws Exception {
+        Assert.assertEquals("Unexpected value returned from MetadataCacheTtl.get()", 0, getProperty("0"));
+        Assert.assertEquals("Unexpected value returned from MetadataCacheTtl.get()", 5, getProperty("5"));
+        Assert.assertEquals("Unexpected value returned from MetadataCacheTtl.get()", 30, getProperty("30"));
+    }
+    
+    @Test
+    public void testInvalidString() throws Exception {
+        exceptionRule.expect(NumberFormatException.class);
+        exceptionRule.expectMessage("For input string: \"XXX\"");
+
+        getProperty("XXX");
+    }
+    
+    @Test
+    public void testInvalidTooSmall() throws Exception {
+        exceptionRule.expect(ZosmfManagerException.class);
+        exceptionRule.expectMessage("Invalid value (-1) for zOSMF metadata cache ttl property. Must be 0 or greater");
+        getProperty("-1");
+    }
+    
+    @Test
+    public void testException() throws Exception {
+        exceptionRule.expect(ZosmfManagerException.class);
+        exceptionRule.expectMessage("Problem asking the CPS for the zOSMF metadata cache ttl property");
+        
+        getProperty("ANY", true);
+    }
+
+    private int getProperty(String value) throws Exception {
+        return getProperty(value, false);
+    }
+    
+    private int getProperty(String value, boolean exception) throws Exception {
+        PowerMockito.spy(ZosmfPropertiesSingleton.class);
+        PowerMockito.doReturn(configurationPropertyStoreServiceMock).when(ZosmfPropertiesSingleton.class, "cps");
+        PowerMockito.spy(CpsProperties.class);
+        
+        if (!exception) {
+            PowerMockito.doReturn(value).when(CpsProperties.class, "getStringNulled", Mockito.any(), Mockito.anyString(), Mockito.anyString());            
+        } else {
+            PowerMockito.doThrow(new ConfigurationPropertyStoreException()).when(CpsProperties.class, "getStringNulled", Mockito.any(), Mockito.anyString(), Mockito.anyString());
+        }
+        
+        return MetadataCacheTtl.get();
+    }
+}